@@ -0,0 +1,113 @@
+package com.revature.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.revature.dao.ChefDAO;
+import com.revature.model.Chef;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+
+/**
+ * Measures the ChefDAO operations against a generated catalog of `size` recipes, which has a tenth as many chefs.
+ *
+ * getById reads through the chef cache, as the application does; the other reads and the writes go to the database every time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Ddb.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+@State(Scope.Benchmark)
+public class ChefDaoBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    /** The number of generated recipes; there are a tenth as many chefs. */
+    @Param({ "1000", "10000" })
+    public int size;
+
+    /** The seed of the generated data. */
+    @Param("42")
+    public long seed;
+
+    private ChefDAO chefDao;
+    private List<Chef> chefs;
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData.generate(size, seed);
+        chefDao = new ChefDAO(new ConnectionUtil());
+        chefs = chefDao.getAllChefs();
+    }
+
+    /**
+     * A chef created before each invocation of the delete benchmark, so that every invocation deletes a row that exists.
+     */
+    @State(Scope.Thread)
+    public static class Victim {
+
+        private Chef chef;
+
+        @Setup(Level.Invocation)
+        public void create(ChefDaoBenchmark benchmark) {
+            chef = benchmark.newChef();
+            chef.setId(benchmark.chefDao.createChef(chef));
+        }
+    }
+
+    @Benchmark
+    public Chef getById(Picker picker) {
+        return chefDao.getChefById(picker.nextId(chefs.size()));
+    }
+
+    @Benchmark
+    public Page<Chef> pagedList(Picker picker) {
+        return chefDao.getAllChefs(new PageOptions(1 + picker.next(Math.max(1, chefs.size() / PAGE_SIZE)), PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Page<Chef> termSearch(Picker picker) {
+        return chefDao.searchChefsByTerm(String.format("%03d", picker.next(1000)), new PageOptions(1, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public int create() {
+        return chefDao.createChef(newChef());
+    }
+
+    @Benchmark
+    public void update(Picker picker) {
+        Chef chef = chefs.get(picker.next(chefs.size()));
+        chefDao.updateChef(new Chef(chef.getId(), chef.getUsername(), chef.getEmail(), Integer.toHexString(picker.next(1 << 30)), chef.isAdmin()));
+    }
+
+    @Benchmark
+    public void delete(Victim victim) {
+        chefDao.deleteChef(victim.chef);
+    }
+
+    /**
+     * @return a chef with a username and email no other chef has
+     */
+    private Chef newChef() {
+        int n = created.incrementAndGet();
+        return new Chef(String.format("new%07d", n), String.format("new%07d@bench.test", n), "secret", false);
+    }
+}
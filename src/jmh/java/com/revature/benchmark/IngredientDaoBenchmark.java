@@ -0,0 +1,113 @@
+package com.revature.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.revature.dao.IngredientDAO;
+import com.revature.model.Ingredient;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+
+/**
+ * Measures the IngredientDAO operations against a generated catalog of `size` recipes, which has a fifth as many ingredients.
+ *
+ * Reads are answered from the in-memory ingredient dictionary, and every write reloads it, so the writes grow with the number of ingredients.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Ddb.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+@State(Scope.Benchmark)
+public class IngredientDaoBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    /** The number of generated recipes; there are a fifth as many ingredients. */
+    @Param({ "1000", "10000" })
+    public int size;
+
+    /** The seed of the generated data. */
+    @Param("42")
+    public long seed;
+
+    private IngredientDAO ingredientDao;
+    private List<Ingredient> ingredients;
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData.generate(size, seed);
+        ingredientDao = new IngredientDAO(new ConnectionUtil());
+        ingredients = ingredientDao.getAllIngredients();
+    }
+
+    /**
+     * An ingredient created before each invocation of the delete benchmark, so that every invocation deletes a row that exists.
+     */
+    @State(Scope.Thread)
+    public static class Victim {
+
+        private Ingredient ingredient;
+
+        @Setup(Level.Invocation)
+        public void create(IngredientDaoBenchmark benchmark) {
+            ingredient = benchmark.newIngredient();
+            ingredient.setId(benchmark.ingredientDao.createIngredient(ingredient));
+        }
+    }
+
+    @Benchmark
+    public Ingredient getById(Picker picker) {
+        return ingredientDao.getIngredientById(picker.nextId(ingredients.size()));
+    }
+
+    @Benchmark
+    public Page<Ingredient> pagedList(Picker picker) {
+        return ingredientDao.getAllIngredients(new PageOptions(1 + picker.next(ingredients.size() / PAGE_SIZE), PAGE_SIZE, "id", "asc"));
+    }
+
+    @Benchmark
+    public Page<Ingredient> termSearch(Picker picker) {
+        return ingredientDao.searchIngredients(picker.nextWord(), new PageOptions(1, PAGE_SIZE, "id", "asc"));
+    }
+
+    @Benchmark
+    public int create() {
+        return ingredientDao.createIngredient(newIngredient());
+    }
+
+    @Benchmark
+    public void update(Picker picker) {
+        // renames an ingredient to its own name, so names stay unique however often it runs
+        Ingredient ingredient = ingredients.get(picker.next(ingredients.size()));
+        ingredientDao.updateIngredient(new Ingredient(ingredient.getId(), ingredient.getName()));
+    }
+
+    @Benchmark
+    public void delete(Victim victim) {
+        ingredientDao.deleteIngredient(victim.ingredient);
+    }
+
+    /**
+     * @return an ingredient with a name no other ingredient has
+     */
+    private Ingredient newIngredient() {
+        return new Ingredient(String.format("new %07d", created.incrementAndGet()));
+    }
+}
@@ -0,0 +1,229 @@
+package com.revature.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.util.Page;
+
+import io.javalin.json.JavalinJackson;
+
+/**
+ * Measures the cost of turning a page of recipes, each with its author and three ingredients, into the bytes of a `/recipes` response, for pages of 10 to 1000 recipes.
+ *
+ * - javalin: what ctx.json() does today, JavalinJackson's reflective ObjectMapper writing a String that is then encoded.
+ * - objectMapper: the same reflective serializers writing UTF-8 straight to the response stream through an ObjectWriter.
+ * - blackbird and afterburner: the same, with the Jackson modules that replace reflective property access with generated code.
+ * - handWritten: a JsonGenerator writing each field by name, with no property introspection at all.
+ * - cachedBytes: copying bytes serialized earlier, the cost of answering from a cache of rendered pages.
+ *
+ * Every variant writes the same bytes, which is checked before the benchmarks start. Run with the GC profiler (the jmh profile always adds `-prof gc`) to compare allocation per page in gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonSerializationBenchmark {
+
+    /** The number of recipes on the page. */
+    @Param({ "10", "100", "1000" })
+    public int pageSize;
+
+    /** The seed of the generated page. */
+    @Param("42")
+    public long seed;
+
+    private Page<Recipe> page;
+    private JavalinJackson javalin;
+    private ObjectWriter objectMapper;
+    private ObjectWriter blackbird;
+    private ObjectWriter afterburner;
+    private JsonFactory factory;
+    private byte[] cached;
+    /** Stands in for the response stream; reset before each page is written. */
+    private ByteArrayOutputStream sink;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        page = generatePage(pageSize, seed);
+        javalin = new JavalinJackson();
+        objectMapper = JavalinJackson.defaultMapper().writerFor(Page.class);
+        blackbird = JavalinJackson.defaultMapper().registerModule(new BlackbirdModule()).writerFor(Page.class);
+        afterburner = JavalinJackson.defaultMapper().registerModule(new AfterburnerModule()).writerFor(Page.class);
+        factory = JavalinJackson.defaultMapper().getFactory();
+        sink = new ByteArrayOutputStream(pageSize * 400);
+
+        byte[] expected = javalin().toByteArray();
+        cached = expected.clone();
+        verify("objectMapper", expected, objectMapper());
+        verify("blackbird", expected, blackbird());
+        verify("afterburner", expected, afterburner());
+        verify("handWritten", expected, handWritten());
+        verify("cachedBytes", expected, cachedBytes());
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream javalin() throws IOException {
+        sink.reset();
+        sink.write(javalin.toJsonString(page, Page.class).getBytes(StandardCharsets.UTF_8));
+        return sink;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream objectMapper() throws IOException {
+        sink.reset();
+        objectMapper.writeValue(sink, page);
+        return sink;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream blackbird() throws IOException {
+        sink.reset();
+        blackbird.writeValue(sink, page);
+        return sink;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream afterburner() throws IOException {
+        sink.reset();
+        afterburner.writeValue(sink, page);
+        return sink;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream handWritten() throws IOException {
+        sink.reset();
+        try (JsonGenerator generator = factory.createGenerator(sink, JsonEncoding.UTF8)) {
+            writePage(generator, page);
+        }
+        return sink;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream cachedBytes() {
+        sink.reset();
+        sink.write(cached, 0, cached.length);
+        return sink;
+    }
+
+    /**
+     * Writes a page field by field, in the order Jackson writes it.
+     */
+    private static void writePage(JsonGenerator generator, Page<Recipe> page) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("pageNumber", page.getPageNumber());
+        generator.writeNumberField("pageSize", page.getPageSize());
+        generator.writeNumberField("totalPages", page.getTotalPages());
+        generator.writeNumberField("totalElements", page.getTotalElements());
+        generator.writeArrayFieldStart("items");
+        for (Recipe recipe : page.getItems()) {
+            writeRecipe(generator, recipe);
+        }
+        generator.writeEndArray();
+        if (page.getNextCursor() != null) {
+            generator.writeStringField("nextCursor", page.getNextCursor());
+        }
+        if (page.getTotalType() != null) {
+            generator.writeStringField("totalType", page.getTotalType().toJson());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeRecipe(JsonGenerator generator, Recipe recipe) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", recipe.getId());
+        generator.writeStringField("name", recipe.getName());
+        generator.writeStringField("instructions", recipe.getInstructions());
+        Chef author = recipe.getAuthor();
+        if (author != null) {
+            generator.writeObjectFieldStart("author");
+            generator.writeNumberField("id", author.getId());
+            generator.writeStringField("username", author.getUsername());
+            generator.writeStringField("password", author.getPassword());
+            generator.writeStringField("email", author.getEmail());
+            generator.writeBooleanField("admin", author.isAdmin());
+            generator.writeEndObject();
+        } else {
+            generator.writeNullField("author");
+        }
+        if (recipe.getIngredients() != null) {
+            generator.writeArrayFieldStart("ingredients");
+            for (RecipeIngredient ingredient : recipe.getIngredients()) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", ingredient.getId());
+                generator.writeStringField("name", ingredient.getName());
+                generator.writeNumberField("volume", ingredient.getVolume());
+                generator.writeStringField("unit", ingredient.getUnit());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        } else {
+            generator.writeNullField("ingredients");
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * @return a page of recipes shaped like the ones the recipe endpoints return, the same for the same size and seed
+     */
+    private static Page<Recipe> generatePage(int size, long seed) {
+        Random random = new Random(seed);
+        String[] words = SyntheticData.WORDS;
+        List<Recipe> recipes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int chef = 1 + random.nextInt(100);
+            Chef author = new Chef(chef, String.format("chef%07d", chef), String.format("chef%07d@bench.test", chef), Long.toHexString(random.nextLong()), chef % 50 == 0);
+            StringBuilder instructions = new StringBuilder();
+            for (int w = 4 + random.nextInt(6); w > 0; w--) {
+                instructions.append(words[random.nextInt(words.length)]).append(w > 1 ? " " : ".");
+            }
+            Recipe recipe = new Recipe(i + 1, String.format("%s %s %07d", words[random.nextInt(words.length)], words[random.nextInt(words.length)], i),
+                    instructions.toString(), author);
+            List<RecipeIngredient> ingredients = new ArrayList<>(3);
+            for (int k = 0; k < 3; k++) {
+                int ingredient = 1 + random.nextInt(1000);
+                ingredients.add(new RecipeIngredient(ingredient, String.format("%s %07d", words[ingredient % words.length], ingredient), 1 + random.nextInt(8) / 2.0, "cups"));
+            }
+            recipe.setIngredients(ingredients);
+            recipes.add(recipe);
+        }
+        Page<Recipe> page = new Page<>(1, size, 10, size * 10, recipes);
+        page.setTotalType(Page.TotalType.EXACT);
+        return page;
+    }
+
+    private static void verify(String variant, byte[] expected, ByteArrayOutputStream actual) {
+        if (!Arrays.equals(expected, actual.toByteArray())) {
+            throw new IllegalStateException(variant + " wrote different JSON than ctx.json():\n" + actual.toString(StandardCharsets.UTF_8));
+        }
+    }
+}
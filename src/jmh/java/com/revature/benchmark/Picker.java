@@ -0,0 +1,43 @@
+package com.revature.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The Picker class chooses which row each benchmark invocation reads or writes. Every benchmark thread has its own picker, seeded from the order in which the threads started, so the sequence of rows is the same from run to run.
+ */
+@State(Scope.Thread)
+public class Picker {
+
+    /** Numbers the pickers in the order their threads ask for one. */
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    /** The source of the row choices of this thread. */
+    private final SplittableRandom random = new SplittableRandom(0x5EEDL + THREADS.getAndIncrement());
+
+    /**
+     * @param bound the number of choices
+     * @return a number from 0 up to, but not including, the bound
+     */
+    public int next(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * @param maxId the highest id of a table whose ids run from 1 without gaps
+     * @return an id from 1 to maxId
+     */
+    public int nextId(int maxId) {
+        return 1 + random.nextInt(maxId);
+    }
+
+    /**
+     * @return one of the words recipe names and instructions are made of
+     */
+    public String nextWord() {
+        return SyntheticData.WORDS[random.nextInt(SyntheticData.WORDS.length)];
+    }
+}
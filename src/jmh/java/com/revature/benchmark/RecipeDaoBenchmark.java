@@ -0,0 +1,114 @@
+package com.revature.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+
+/**
+ * Measures the RecipeDAO operations behind the recipe endpoints against a generated catalog of `size` recipes.
+ *
+ * Each fork runs against its own in-memory database, so the numbers reflect the DAO and driver rather than the disk. Recipe authors are read through the chef cache, as they are in the application.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Ddb.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+@State(Scope.Benchmark)
+public class RecipeDaoBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    /** The number of generated recipes. */
+    @Param({ "1000", "10000" })
+    public int size;
+
+    /** The seed of the generated data. */
+    @Param("42")
+    public long seed;
+
+    private RecipeDAO recipeDao;
+    private SyntheticData.Dataset dataset;
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = SyntheticData.generate(size, seed);
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        recipeDao = new RecipeDAO(new IngredientDAO(connectionUtil), connectionUtil);
+    }
+
+    /**
+     * A recipe created before each invocation of the delete benchmark, so that every invocation deletes a row that exists.
+     */
+    @State(Scope.Thread)
+    public static class Victim {
+
+        private Recipe recipe;
+
+        @Setup(Level.Invocation)
+        public void create(RecipeDaoBenchmark benchmark, Picker picker) {
+            recipe = benchmark.newRecipe(picker);
+            recipe.setId(benchmark.recipeDao.createRecipe(recipe));
+        }
+    }
+
+    @Benchmark
+    public Recipe getById(Picker picker) {
+        return recipeDao.getRecipeById(picker.nextId(dataset.getRecipes()));
+    }
+
+    @Benchmark
+    public Page<Recipe> pagedList(Picker picker) {
+        return recipeDao.getAllRecipes(new PageOptions(1 + picker.next(dataset.getRecipes() / PAGE_SIZE), PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Page<Recipe> termSearch(Picker picker) {
+        return recipeDao.searchRecipesByTerm(picker.nextWord(), new PageOptions(1, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public int create(Picker picker) {
+        return recipeDao.createRecipe(newRecipe(picker));
+    }
+
+    @Benchmark
+    public void update(Picker picker) {
+        Chef author = new Chef(picker.nextId(dataset.getChefs()), null, null, null, false);
+        recipeDao.updateRecipe(new Recipe(picker.nextId(dataset.getRecipes()), null, picker.nextWord() + " then " + picker.nextWord() + ".", author));
+    }
+
+    @Benchmark
+    public void delete(Victim victim) {
+        recipeDao.deleteRecipe(victim.recipe);
+    }
+
+    /**
+     * @return a recipe with a name no other recipe has, by a chef that exists
+     */
+    private Recipe newRecipe(Picker picker) {
+        Chef author = new Chef(picker.nextId(dataset.getChefs()), null, null, null, false);
+        return new Recipe(0, String.format("new %s %07d", picker.nextWord(), created.incrementAndGet()), picker.nextWord() + " well.", author);
+    }
+}
@@ -0,0 +1,165 @@
+package com.revature.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+
+/**
+ * The SyntheticData class resets the database and fills it with a generated catalog of a given size. The same size and seed always produce the same rows, so runs of a benchmark before and after a change read and write identical data.
+ *
+ * For a size of N it adds N recipes, N / 10 chefs and N / 5 ingredients (at least 10 of each), and links each recipe to three ingredients. Recipe instructions are drawn from a small vocabulary of cooking words, so every word in {@link #WORDS} matches a predictable share of recipes when searched for.
+ */
+public final class SyntheticData {
+
+    /** The words recipe names and instructions are made of; a term search for any one of them matches about a tenth of all recipes. */
+    public static final String[] WORDS = {
+            "boil", "bake", "fry", "grill", "roast", "steam", "simmer", "whisk", "chop", "slice",
+            "garlic", "onion", "butter", "pepper", "basil", "ginger", "lemon", "honey", "cream", "thyme"
+    };
+
+    /** The units recipe ingredients are measured in. */
+    private static final String[] UNITS = { "cups", "Tbs", "tsp", "g", "ml" };
+
+    /** The number of rows inserted per JDBC batch. */
+    private static final int BATCH_SIZE = 1000;
+
+    private SyntheticData() {
+    }
+
+    /**
+     * The highest id of each table once the data has been generated. Ids run from 1 to these values without gaps, including the rows of the SQL script.
+     */
+    public static final class Dataset {
+
+        private final int chefs;
+        private final int ingredients;
+        private final int recipes;
+
+        Dataset(int chefs, int ingredients, int recipes) {
+            this.chefs = chefs;
+            this.ingredients = ingredients;
+            this.recipes = recipes;
+        }
+
+        public int getChefs() {
+            return chefs;
+        }
+
+        public int getIngredients() {
+            return ingredients;
+        }
+
+        public int getRecipes() {
+            return recipes;
+        }
+    }
+
+    /**
+     * Resets the database with the SQL script and adds a generated catalog of the given size.
+     *
+     * @param size the number of recipes to generate
+     * @param seed the seed of the generator; the same seed gives the same rows
+     * @return the highest id of each table
+     */
+    public static Dataset generate(int size, long seed) {
+        DBUtil.RUN_SQL();
+        Random random = new Random(seed);
+        int chefs = Math.max(10, size / 10);
+        int ingredients = Math.max(10, size / 5);
+        try (Connection connection = new ConnectionUtil().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement("INSERT INTO CHEF (username, email, password, is_admin) VALUES (?, ?, ?, ?)")) {
+                for (int i = 0; i < chefs; i++) {
+                    ps.setString(1, String.format("chef%07d", i));
+                    ps.setString(2, String.format("chef%07d@bench.test", i));
+                    ps.setString(3, Long.toHexString(random.nextLong()));
+                    ps.setBoolean(4, i % 50 == 0);
+                    addBatch(ps, i);
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = connection.prepareStatement("INSERT INTO INGREDIENT (name) VALUES (?)")) {
+                for (int i = 0; i < ingredients; i++) {
+                    ps.setString(1, String.format("%s %07d", WORDS[i % WORDS.length], i));
+                    addBatch(ps, i);
+                }
+                ps.executeBatch();
+            }
+            Dataset dataset = new Dataset(maxId(connection, "CHEF"), maxId(connection, "INGREDIENT"), 0);
+            try (PreparedStatement ps = connection.prepareStatement("INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < size; i++) {
+                    ps.setString(1, String.format("%s %s %07d", word(random), word(random), i));
+                    ps.setString(2, instructions(random));
+                    ps.setInt(3, 1 + random.nextInt(dataset.getChefs()));
+                    addBatch(ps, i);
+                }
+                ps.executeBatch();
+            }
+            int recipes = maxId(connection, "RECIPE");
+            try (PreparedStatement ps = connection.prepareStatement("INSERT INTO RECIPE_INGREDIENT (recipe_id, ingredient_id, vol, unit) VALUES (?, ?, ?, ?)")) {
+                int rows = 0;
+                for (int recipe = recipes - size + 1; recipe <= recipes; recipe++) {
+                    // three distinct ingredients per recipe, as the (recipe_id, ingredient_id) pair is unique
+                    int first = random.nextInt(dataset.getIngredients());
+                    for (int k = 0; k < 3; k++) {
+                        ps.setInt(1, recipe);
+                        ps.setInt(2, 1 + (first + k * 7) % dataset.getIngredients());
+                        ps.setDouble(3, 1 + random.nextInt(8) / 2.0);
+                        ps.setString(4, UNITS[random.nextInt(UNITS.length)]);
+                        addBatch(ps, rows++);
+                    }
+                }
+                ps.executeBatch();
+            }
+            connection.commit();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE");
+            }
+            return new Dataset(dataset.getChefs(), dataset.getIngredients(), recipes);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error generating benchmark data", e);
+        }
+    }
+
+    /**
+     * Adds the current row to the batch, and runs the batch once it is full.
+     */
+    private static void addBatch(PreparedStatement ps, int row) throws SQLException {
+        ps.addBatch();
+        if (row % BATCH_SIZE == BATCH_SIZE - 1) {
+            ps.executeBatch();
+        }
+    }
+
+    private static int maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet set = statement.executeQuery("SELECT MAX(id) FROM " + table)) {
+            set.next();
+            return set.getInt(1);
+        }
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    /**
+     * @return between four and nine words of instructions, under the 200 characters the column holds
+     */
+    private static String instructions(Random random) {
+        StringBuilder instructions = new StringBuilder();
+        int words = 4 + random.nextInt(6);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                instructions.append(' ');
+            }
+            instructions.append(word(random));
+        }
+        return instructions.append('.').toString();
+    }
+}
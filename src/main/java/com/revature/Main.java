@@ -3,17 +3,21 @@ package com.revature;
 import com.revature.controller.AuthenticationController;
 import com.revature.controller.IngredientController;
 import com.revature.controller.RecipeController;
+import com.revature.controller.RecipeImportController;
 import com.revature.dao.ChefDAO;
 import com.revature.dao.IngredientDAO;
 import com.revature.dao.RecipeDAO;
+import com.revature.dao.RecipeImportDAO;
 import com.revature.service.AuthenticationService;
 import com.revature.service.ChefService;
 import com.revature.service.IngredientService;
+import com.revature.service.RecipeImportService;
 import com.revature.service.RecipeService;
 import com.revature.util.AdminMiddleware;
 import com.revature.util.ConnectionUtil;
 import com.revature.util.JavalinAppUtil;
 import com.revature.util.DBUtil;
+import com.revature.util.SessionStore;
 
 import io.javalin.Javalin;
 
@@ -59,6 +63,10 @@ public class Main {
     @SuppressWarnings("unused")    
     private static AuthenticationService AUTH_SERVICE;
 
+    /** Store that keeps track of logged in chefs, shared by every AuthenticationService. */
+    @SuppressWarnings("unused")    
+    private static SessionStore SESSION_STORE;
+
     /** Controller for managing authentication-related requests. */
     @SuppressWarnings("unused")    
     private static AuthenticationController AUTH_CONTROLLER;
@@ -79,6 +87,12 @@ public class Main {
     @SuppressWarnings("unused")    
     private static AdminMiddleware ADMIN_MIDDLEWARE;
 
+    @SuppressWarnings("unused")    
+    private static RecipeImportService RECIPE_IMPORT_SERVICE;
+
+    @SuppressWarnings("unused")    
+    private static RecipeImportController RECIPE_IMPORT_CONTROLLER;
+
     /**
      * The main method serves as the entry point for the application.
      * It initializes the application context and starts the server.
@@ -90,12 +104,18 @@ public class Main {
     INGREDIENT_DAO = new IngredientDAO(CONNECTION_UTIL);
 		
 		CHEF_DAO = new ChefDAO(CONNECTION_UTIL);
+		CHEF_DAO.registerMetrics("chef_cache");
 		
-		RECIPE_DAO = new RecipeDAO(CHEF_DAO, INGREDIENT_DAO, CONNECTION_UTIL);
+		RECIPE_DAO = new RecipeDAO(INGREDIENT_DAO, CONNECTION_UTIL);
 		
 		CHEF_SERVICE = new ChefService(CHEF_DAO);
 		
+		SESSION_STORE = AuthenticationService.createSessionStore(CONNECTION_UTIL);
+		SESSION_STORE.registerMetrics("sessions");
+		AuthenticationService.setDefaultSessionStore(SESSION_STORE);
+		
 		AUTH_SERVICE = new AuthenticationService(CHEF_SERVICE);
+		AUTH_SERVICE.registerMetrics("auth");
 		
 		RECIPE_SERVICE = new RecipeService(RECIPE_DAO);
 		
@@ -107,10 +127,17 @@ public class Main {
 		
 		AUTH_CONTROLLER = new AuthenticationController(CHEF_SERVICE, AUTH_SERVICE);
 		
-		JAVALIN_APP_UTIL = new JavalinAppUtil(RECIPE_CONTROLLER, AUTH_CONTROLLER, INGREDIENT_CONTROLLER);
+		RECIPE_IMPORT_SERVICE = new RecipeImportService(new RecipeImportDAO(CONNECTION_UTIL));
+		RECIPE_IMPORT_SERVICE.registerMetrics("recipe_import");
+		
+		RECIPE_IMPORT_CONTROLLER = new RecipeImportController(RECIPE_IMPORT_SERVICE);
+		
+		JAVALIN_APP_UTIL = new JavalinAppUtil(RECIPE_CONTROLLER, AUTH_CONTROLLER, INGREDIENT_CONTROLLER, RECIPE_IMPORT_CONTROLLER);
 		
 		DBUtil.RUN_SQL();
 		
+		INGREDIENT_DAO.loadDictionary();
+		
 		Javalin app = JAVALIN_APP_UTIL.getApp();
 		
 		app.start(8081);
@@ -37,6 +37,13 @@ public class AuthenticationController {
         this.chefService = chefService;
     }
 
+    /**
+     * @return the service used to manage authentication-related operations, which also resolves the chef of each request
+     */
+    public AuthenticationService getAuthService() {
+        return authService;
+    }
+
     /**
      * TODO: Registers a new chef in the system.
      * 
@@ -0,0 +1,142 @@
+package com.revature.controller;
+
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jdk.jfr.Recording;
+
+import com.revature.model.Chef;
+import com.revature.util.AuthenticationMiddleware;
+import com.revature.util.FlightRecordings;
+
+/**
+ * The FlightRecordingController class provides the endpoints for starting a Java Flight Recorder recording of the running server, downloading what it has recorded and stopping it. All of them are reserved for admins.
+ * Handlers in this class are fields assigned to lambdas, which define the behavior for each endpoint.
+ */
+
+public class FlightRecordingController {
+
+    /** The content type of a recording file. */
+    private static final String JFR_CONTENT_TYPE = "application/octet-stream";
+
+    /** The recordings the endpoints start, dump and stop. */
+    private FlightRecordings recordings;
+
+    /**
+     * Constructs a FlightRecordingController with the specified FlightRecordings.
+     *
+     * @param recordings the recordings the endpoints start, dump and stop
+     */
+    public FlightRecordingController(FlightRecordings recordings) {
+        this.recordings = recordings;
+    }
+
+    /**
+     * Handler for starting a recording. The `settings` query parameter names the JVM configuration to record with, such as `default` or `profile`; the one set by `jfr.recording.settings` is used if it is missing.
+     *
+     * Responds with a 201 Created status and a description of the recording.
+     * If a recording is already running, responds with a 409 Conflict status; if there is no configuration with the name, with a 400 Bad Request status.
+     * If the chef is not an admin, responds with a 401 Unauthorized status.
+     */
+    public Handler startRecording = ctx -> {
+        if (!isAdmin(AuthenticationMiddleware.currentChef(ctx))) {
+            ctx.status(401);
+            ctx.result("Access denied");
+            return;
+        }
+
+        try {
+            Recording recording = recordings.start(ctx.queryParam("settings"));
+            ctx.status(201);
+            ctx.json(describe(recording, recordings.getSettings()));
+        } catch (IllegalStateException e) {
+            ctx.status(409);
+            ctx.result(e.getMessage());
+        } catch (IOException | ParseException e) {
+            ctx.status(400);
+            ctx.result("Unknown recording settings: " + ctx.queryParam("settings"));
+        }
+    };
+
+    /**
+     * Handler for downloading what the running recording has recorded so far, leaving it running.
+     *
+     * Responds with a 200 OK status and the recording as a .jfr file, or a 404 Not Found status if no recording is running.
+     * If the chef is not an admin, responds with a 401 Unauthorized status.
+     */
+    public Handler dumpRecording = ctx -> {
+        if (!isAdmin(AuthenticationMiddleware.currentChef(ctx))) {
+            ctx.status(401);
+            ctx.result("Access denied");
+            return;
+        }
+
+        send(ctx, recordings.dump());
+    };
+
+    /**
+     * Handler for stopping the running recording.
+     *
+     * Responds with a 200 OK status and everything it recorded as a .jfr file, or a 404 Not Found status if no recording is running.
+     * If the chef is not an admin, responds with a 401 Unauthorized status.
+     */
+    public Handler stopRecording = ctx -> {
+        if (!isAdmin(AuthenticationMiddleware.currentChef(ctx))) {
+            ctx.status(401);
+            ctx.result("Access denied");
+            return;
+        }
+
+        send(ctx, recordings.stop());
+    };
+
+    /**
+     * Sends a dumped recording, deleting the file once it has been written to the response.
+     */
+    private static void send(Context ctx, Path file) throws IOException {
+        if (file == null) {
+            ctx.status(404);
+            ctx.result("No recording is running");
+            return;
+        }
+        ctx.status(200);
+        ctx.contentType(JFR_CONTENT_TYPE);
+        ctx.header("Content-Disposition", "attachment; filename=\"" + file.getFileName() + "\"");
+        ctx.result(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+    }
+
+    private static Map<String, Object> describe(Recording recording, String settings) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("id", recording.getId());
+        description.put("name", recording.getName());
+        description.put("settings", settings);
+        description.put("startTime", String.valueOf(recording.getStartTime()));
+        description.put("maxAgeSeconds", recording.getMaxAge().toSeconds());
+        description.put("maxSizeBytes", recording.getMaxSize());
+        return description;
+    }
+
+    private boolean isAdmin(Chef chef) {
+        return chef != null && chef.isAdmin();
+    }
+
+    /**
+     * Configure the routes for flight recordings.
+     *
+     * @param app the Javalin application
+     */
+    public void configureRoutes(Javalin app) {
+        app.post("/admin/recording", startRecording);
+        app.get("/admin/recording", dumpRecording);
+        app.delete("/admin/recording", stopRecording);
+    }
+}
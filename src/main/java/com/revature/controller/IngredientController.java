@@ -3,11 +3,18 @@ package com.revature.controller;
 import io.javalin.Javalin;
 import io.javalin.http.Context;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
+import com.revature.model.Chef;
 import com.revature.model.Ingredient;
 import com.revature.service.IngredientService;
+import com.revature.util.AppConfig;
+import com.revature.util.AuthenticationMiddleware;
+import com.revature.util.BulkResult;
 import com.revature.util.Page;
+import com.revature.util.PageOptions;
 
 
 /**
@@ -25,6 +32,12 @@ public class IngredientController {
     @SuppressWarnings("unused")
     private IngredientService ingredientService;
 
+    /**
+     * Whether handlers that support it hand their database work to the service's executor through ctx.future(), as the `server.asyncHandlers` setting chooses.
+     */
+
+    private final boolean asyncHandlers = AppConfig.getBoolean("server.asyncHandlers", false);
+
     /**
      * Constructs an IngredientController with the specified IngredientService.
      *
@@ -41,11 +54,25 @@ public class IngredientController {
      * TODO: Retrieves a single ingredient by its ID.
      * 
      * If the ingredient exists, responds with a 200 OK status and the ingredient data. If not found, responds with a 404 Not Found status.
+     * 
+     * With `server.asyncHandlers` on, the ingredient is answered at once from the service's dictionary, unless the dictionary has to be reloaded first; the reload then runs on the service's executor and the request thread is freed while it waits.
      *
      * @param ctx the Javalin context containing the request path parameter for the ingredient ID
      */
     public void getIngredient(Context ctx) {
         int id = Integer.parseInt(ctx.pathParam("id"));
+
+        if (asyncHandlers) {
+            ctx.future(() -> ingredientService.findIngredientAsync(id).thenAccept(ingredient -> {
+                if (ingredient.isPresent()) {
+                    ctx.status(200).json(ingredient.get());
+                } else {
+                    ctx.status(404).result("Ingredient not found");
+                }
+            }));
+            return;
+        }
+
         Optional<Ingredient> ingredient = ingredientService.findIngredient(id);
 
         if (ingredient.isPresent()) {
@@ -108,10 +135,36 @@ public class IngredientController {
         ctx.status(201).json(ingredient);
     }
 
+    /**
+     * Creates many ingredients from a JSON array in one request, such as a catalog sync. The ingredients are inserted in batches, and each one is created or rejected on its own.
+     * 
+     * Responds with a 201 Created status if every ingredient was created, or a 207 Multi-Status status if some were rejected, along with the id or error of each ingredient in the order given.
+     * If the chef is not an admin, responds with a 401 Unauthorized status.
+     *
+     * @param ctx the Javalin context containing the array of ingredients in the request body
+     */
+    public void createIngredients(Context ctx) {
+        if (!isAdmin(AuthenticationMiddleware.currentChef(ctx))) {
+            ctx.status(401);
+            ctx.result("Access denied");
+            return;
+        }
+
+        List<Ingredient> ingredients = Arrays.asList(ctx.bodyAsClass(Ingredient[].class));
+        BulkResult result = ingredientService.createIngredients(ingredients);
+        ctx.status(result.getFailed() == 0 ? 201 : 207).json(result);
+    }
+
     /**
      * TODO: Retrieves a paginated list of ingredients, or all ingredients if no pagination parameters are provided.
      * 
      * If pagination parameters are included, returns ingredients based on page, page size, sorting, and filter term.
+     * 
+     * If a `cursor` parameter is included, the page is found by seeking past the last ingredient of the previous page rather than by skipping rows. An empty cursor requests the first page, and each page carries the `nextCursor` for the one after it. An invalid cursor or sort key is answered with 400 Bad Request.
+     * 
+     * The `count` parameter chooses how the page's totals are worked out: `exact`, `cached`, `estimate`, or `none`. The page's `totalType` then says whether its totals are exact, estimated, a lower bound (`at_least`, without a number of pages) or omitted.
+     * 
+     * A `prefix` parameter returns the ingredients whose names start with it, in name order, as a plain list.
      *
      * @param ctx the Javalin context containing query parameters for pagination, sorting, and filtering
      */
@@ -122,7 +175,25 @@ public class IngredientController {
         Integer page = getParamAsClassOrElse(ctx, "page", Integer.class, null);
         Integer pageSize = ctx.queryParamAsClass("pageSize", Integer.class).getOrDefault(null);
 
-        if (page == null && pageSize == null && term == null) {
+        String cursor = ctx.queryParam("cursor");
+        String count = ctx.queryParam("count");
+
+        String prefix = ctx.queryParam("prefix");
+
+        if (prefix != null) {
+            // Return the ingredients whose names start with the prefix, found through the sorted name index
+            ctx.status(200).json(ingredientService.searchIngredientsByPrefix(prefix));
+        } else if (cursor != null || count != null) {
+            // Return a cursor-based page, which costs the same at any depth, and/or a page with a chosen count mode
+            try {
+                PageOptions pageOptions = new PageOptions(page != null ? page : 1, pageSize != null ? pageSize : 10, sortBy, sortDirection);
+                pageOptions.setCursor(cursor);
+                pageOptions.setCountMode(PageOptions.CountMode.parse(count));
+                ctx.status(200).json(ingredientService.searchIngredients(term, pageOptions));
+            } catch (IllegalArgumentException e) {
+                ctx.status(400).result(e.getMessage());
+            }
+        } else if (page == null && pageSize == null && term == null) {
             // Return all ingredients as a plain list
             ctx.status(200).json(ingredientService.searchIngredients(term));
         } else if (term != null && page == null && pageSize == null) {
@@ -152,6 +223,11 @@ public class IngredientController {
             return defaultValue;
         }
     }
+
+    private boolean isAdmin(Chef chef) {
+        return chef != null && chef.isAdmin();
+    }
+
     /**
      * Configure the routes for ingredient operations.
      *
@@ -161,6 +237,7 @@ public class IngredientController {
         app.get("/ingredients", this::getIngredients);
         app.get("/ingredients/{id}", this::getIngredient);
         app.post("/ingredients", this::createIngredient);
+        app.post("/ingredients/bulk", this::createIngredients);
         app.put("/ingredients/{id}", this::updateIngredient);
         app.delete("/ingredients/{id}", this::deleteIngredient);
     }
@@ -1,15 +1,28 @@
 package com.revature.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
 import io.javalin.http.Handler;
 import io.javalin.Javalin;
 import io.javalin.http.Context;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import com.revature.model.Chef;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
 import com.revature.service.AuthenticationService;
 import com.revature.service.RecipeService;
+import com.revature.util.AppConfig;
+import com.revature.util.AuthenticationMiddleware;
+import com.revature.util.BulkResult;
 import com.revature.util.Page;
+import com.revature.util.PageOptions;
 
 /**
  * The RecipeController class provides RESTful endpoints for managing recipes.
@@ -19,6 +32,13 @@ import com.revature.util.Page;
 
 public class RecipeController {
 
+    /** The content type of the catalog export: one JSON document per line. */
+    private static final String NDJSON = "application/x-ndjson";
+
+    /** Creates the generators that stream the catalog export. The response stream is neither closed nor flushed by them but left for Javalin to finish, so an export refused before writing anything can still answer with an error status. */
+    private static final JsonFactory JSON = JsonFactory.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamWriteFeature.FLUSH_PASSED_TO_STREAM).build();
+
     /** The service used to interact with the recipe data. */
     @SuppressWarnings("unused")
     private RecipeService recipeService;
@@ -27,6 +47,9 @@ public class RecipeController {
     @SuppressWarnings("unused")
     private AuthenticationService authService;
 
+    /** Whether handlers that support it hand their database work to the service's executor through ctx.future(), as the `server.asyncHandlers` setting chooses. */
+    private final boolean asyncHandlers = AppConfig.getBoolean("server.asyncHandlers", false);
+
     /**
      * TODO: Constructor that initializes the RecipeController with the parameters.
      * 
@@ -41,41 +64,71 @@ public class RecipeController {
     /**
      * TODO: Handler for fetching all recipes. Supports pagination, sorting, and filtering by recipe name or ingredient.
      * 
-     * Responds with a 200 OK status and the list of recipes, or 404 Not Found with a result of "No recipes found".
+     * A request with only a `name` parameter is answered with the full list of recipes matching that name. Any other request, including one without parameters, is answered with a single page of recipes, and only that page is read from the database.
+     * 
+     * Each recipe's ingredients are included only when requested with `?include=ingredients`.
+     * 
+     * A request with a `cursor` parameter is paged by seeking past the last recipe of the previous page, which stays fast at any depth. An empty cursor requests the first page, and each page carries the `nextCursor` for the one after it. Such pages are ordered by id unless `sortBy=name` is given. Every other page request uses the same sort default whether or not it also has a `count` parameter, so choosing a count mode never changes which recipes a page holds.
+     * 
+     * A `q` parameter searches recipe names and instructions for whole words through the full-text index, and returns a page ranked by relevance.
+     * 
+     * The `count` parameter chooses how the page's totals are worked out: `exact`, `cached` (reuses a count from the last few seconds), `estimate`, or `none` to skip counting. The page's `totalType` then says whether its totals are exact, estimated, a lower bound (`at_least`, without a number of pages) or omitted.
+     * 
+     * Responds with a 200 OK status and the list of recipes, 400 Bad Request for an invalid cursor or sort key, or 404 Not Found with a result of "No recipes found".
      */
     public Handler fetchAllRecipes = ctx -> {
-            // Retrieve query parameters for pagination, sorting, and filtering
+            String searchTermRecipe = ctx.queryParam("name");
+
+            // A plain name search without any paging parameters is answered with the unpaged list of matches
+            if (searchTermRecipe != null && !isPagedRequest(ctx)) {
+                List<Recipe> recipes = recipeService.searchRecipes(searchTermRecipe);
+                if (recipes == null || recipes.isEmpty()) {
+                    ctx.status(404);
+                    ctx.result("No recipes found");
+                } else {
+                    loadIngredientsIfRequested(ctx, recipes);
+                    ctx.status(200);
+                    ctx.json(recipes);
+                }
+                return;
+            }
+
+            // Every other request is answered with a single page, so only that page is ever read
             int page = getParamAsClassOrElse(ctx, "page", Integer.class, 1);
             int pageSize = getParamAsClassOrElse(ctx, "pageSize", Integer.class, 10);
             String sortBy = getParamAsClassOrElse(ctx, "sortBy", String.class, "name");
             String sortDirection = getParamAsClassOrElse(ctx, "sortDirection", String.class, "asc");
-            String searchTermRecipe = ctx.queryParam("name");
-            String searchTermPaginated = getParamAsClassOrElse(ctx, "term", String.class, "");
-            String ingredientTerm = ctx.queryParam("ingredient");
-            // Log the parameters
-            System.out.println("Parameters - page: " + page + ", pageSize: " + pageSize + ", sortBy: " + sortBy + ", sortDirection: " + sortDirection + ", searchTerm: " + searchTermRecipe + ", ingredientTerm: " + ingredientTerm);
-        
-            // Use the service to fetch the recipes
-            System.out.println("Calling recipeService.searchRecipes with name: " + searchTermRecipe);            
-            List<Recipe> recipes = recipeService.searchRecipes(searchTermRecipe);
-            Page<Recipe> recipesPage = recipeService.searchRecipes(searchTermPaginated, page, pageSize, sortBy, sortDirection);
-            // Log the results
-            System.out.println("Recipes found: " + recipes);
-            System.out.println("Paginated Recipes found: " + recipesPage);
-           // System.out.println("Recipes paginated found: " + recipesPage);
-        
-            // If no recipes found, respond with 404
-            if (recipes == null || recipes.isEmpty()) {
+            String searchTermPaginated = getParamAsClassOrElse(ctx, "term", String.class, searchTermRecipe != null ? searchTermRecipe : "");
+
+            Page<Recipe> recipesPage;
+            String query = ctx.queryParam("q");
+            String cursor = ctx.queryParam("cursor");
+            String count = ctx.queryParam("count");
+            if (query != null || cursor != null || count != null) {
+                try {
+                    // a cursor is tied to the sort key it was issued for, so only an explicit key is passed on with one
+                    PageOptions pageOptions = new PageOptions(page, pageSize, cursor != null ? ctx.queryParam("sortBy") : sortBy, sortDirection);
+                    pageOptions.setCursor(cursor);
+                    pageOptions.setCountMode(PageOptions.CountMode.parse(count));
+                    recipesPage = query != null
+                            ? recipeService.searchRecipesFullText(query, pageOptions)
+                            : recipeService.searchRecipes(searchTermPaginated, pageOptions);
+                } catch (IllegalArgumentException e) {
+                    ctx.status(400);
+                    ctx.result(e.getMessage());
+                    return;
+                }
+            } else {
+                recipesPage = recipeService.searchRecipes(searchTermPaginated, page, pageSize, sortBy, sortDirection);
+            }
+            // a page whose total was not counted reports -1, so only an empty page with no known matches is a 404
+            if (recipesPage == null || (recipesPage.getTotalElements() <= 0 && recipesPage.getItems().isEmpty())) {
                 ctx.status(404);
                 ctx.result("No recipes found");
-            } else if(recipesPage == null) {
-                // Otherwise, respond with the recipes
-                ctx.status(200);
-                ctx.json(recipes);
             } else {
+                loadIngredientsIfRequested(ctx, recipesPage.getItems());
                 ctx.status(200);
                 ctx.json(recipesPage);
-
             }
     };
 
@@ -85,29 +138,32 @@ public class RecipeController {
      * If successful, responds with a 200 status code and the recipe as the response body.
      * 
      * If unsuccessful, responds with a 404 status code and a result of "Recipe not found".
+     * 
+     * The recipe's ingredients are included only when requested with `?include=ingredients`.
+     * 
+     * With `server.asyncHandlers` on, the recipe is read on the service's executor and the request thread is freed while it waits.
      */
     public Handler fetchRecipeById = ctx -> {
         int id = Integer.parseInt(ctx.pathParam("id"));
-        String token = ctx.header("Authorization");
-        
-        if (token != null ) {
-            if(token.startsWith("Bearer ") && authService.getChefFromSessionToken(token.substring(7)) == null)
-            {
-                Optional<Recipe> recipe = recipeService.findRecipe(id);
 
-                if (recipe.isPresent()) {
-                    ctx.status(200);
-                    ctx.json(recipe.get());
-                } else {
-                    ctx.status(404);
-                    ctx.result("Recipe not found");
-                }
-            }
-        } 
-    
+        if (asyncHandlers) {
+            ctx.future(() -> (isIngredientsRequested(ctx) ? recipeService.findRecipeWithIngredientsAsync(id) : recipeService.findRecipeAsync(id))
+                    .thenAccept(recipe -> {
+                        if (recipe.isPresent()) {
+                            ctx.status(200);
+                            ctx.json(recipe.get());
+                        } else {
+                            ctx.status(404);
+                            ctx.result("Recipe not found");
+                        }
+                    }));
+            return;
+        }
+        
         Optional<Recipe> recipe = recipeService.findRecipe(id);
 
         if (recipe.isPresent()) {
+            loadIngredientsIfRequested(ctx, List.of(recipe.get()));
             ctx.status(200);
             ctx.json(recipe.get());
         } else {
@@ -119,34 +175,74 @@ public class RecipeController {
     /**
      * TODO: Handler for creating a new recipe. Requires authentication via an authorization token taken from the request header.
      * 
+     * The token must use the Bearer scheme. The chef it belongs to is resolved once per request by the AuthenticationMiddleware.
+     * 
      * If successful, responds with a 201 Created status.
      * If unauthorized, responds with a 401 Unauthorized status.
      */
     public Handler createRecipe = ctx -> {
-        String token = ctx.header("Authorization");
-
-        // Check if the token is null or doesn't start with "Bearer "
-        if (token == null || !token.startsWith("Bearer ")) {
-            ctx.status(401);
-            ctx.result("Unauthorized - Invalid token format");
-            return;
-        }
-    
-        // Extract the actual token by removing the "Bearer " prefix
-        token = token.substring(7);
-        if (authService.getChefFromSessionToken(token) == null) {
+        // The chef was already resolved from the token by the AuthenticationMiddleware
+        if (AuthenticationMiddleware.currentChef(ctx) == null) {
             ctx.status(401);
             ctx.result("Unauthorized");
             return;
         }
 
         Recipe recipe = ctx.bodyAsClass(Recipe.class);
-        System.out.println(recipe +"in create handler");
         recipeService.saveRecipe(recipe);
         ctx.status(201);
         ctx.json(recipe);
     };
 
+    /**
+     * Handler for creating many recipes from a JSON array in one request, such as a catalog sync. Requires a logged in chef, like createRecipe.
+     * 
+     * Recipes without an author are credited to the chef making the request. The recipes are inserted in batches, and each one is created or rejected on its own.
+     * 
+     * Responds with a 201 Created status if every recipe was created, or a 207 Multi-Status status if some were rejected, along with the id or error of each recipe in the order given.
+     * If unauthorized, responds with a 401 Unauthorized status.
+     */
+    public Handler createRecipes = ctx -> {
+        Chef chef = AuthenticationMiddleware.currentChef(ctx);
+        if (chef == null) {
+            ctx.status(401);
+            ctx.result("Unauthorized");
+            return;
+        }
+
+        List<Recipe> recipes = Arrays.asList(ctx.bodyAsClass(Recipe[].class));
+        for (Recipe recipe : recipes) {
+            if (recipe != null && recipe.getAuthor() == null) {
+                recipe.setAuthor(chef);
+            }
+        }
+        BulkResult result = recipeService.createRecipes(recipes);
+        ctx.status(result.getFailed() == 0 ? 201 : 207);
+        ctx.json(result);
+    };
+
+    /**
+     * Handler for exporting the whole catalog as newline-delimited JSON, one recipe per line with its author and ingredients inline.
+     * 
+     * Each recipe is written to the response as soon as it is read from the database, so the export needs the same small amount of memory however many recipes there are. Authors are written without their passwords.
+     * 
+     * Responds with a 200 OK status and a body of type application/x-ndjson, or with a 503 status if as many exports as `export.maxConcurrent` allows are already running.
+     */
+    public Handler exportRecipes = ctx -> {
+        ctx.status(200);
+        ctx.contentType(NDJSON);
+        try (JsonGenerator generator = JSON.createGenerator(ctx.res().getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            recipeService.exportRecipes(recipe -> {
+                try {
+                    writeRecipe(generator, recipe);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    };
+
     /**
      * TODO: Handler for deleting a recipe by its id.
      * 
@@ -177,8 +273,7 @@ public class RecipeController {
      * If unsuccessfuly, responds with a 404 status code and a result of "Recipe not found."
      */
     public Handler updateRecipe = ctx -> {
-        String token = ctx.header("Authorization");
-        if (token == null || authService.getChefFromSessionToken(token) == null) {
+        if (AuthenticationMiddleware.currentChef(ctx) == null) {
             ctx.status(401);
             ctx.result("Unauthorized");
             return;
@@ -223,6 +318,78 @@ public class RecipeController {
         return defaultValue;
     }
 
+    /**
+     * A helper method that checks whether a request asks for a page of results rather than the full list.
+     * 
+     * @param ctx The context of the request.
+     * @return true if any of the `page`, `pageSize`, `term`, `sortBy`, `sortDirection`, `cursor`, `count` or `q` parameters are present.
+     */
+    private boolean isPagedRequest(Context ctx) {
+        return ctx.queryParam("page") != null || ctx.queryParam("pageSize") != null || ctx.queryParam("term") != null
+                || ctx.queryParam("sortBy") != null || ctx.queryParam("sortDirection") != null || ctx.queryParam("cursor") != null
+                || ctx.queryParam("count") != null || ctx.queryParam("q") != null;
+    }
+
+    /**
+     * A helper method that loads the ingredients of the given recipes when the request asks for them with `?include=ingredients`. Listings stay lean by default, and when requested, the ingredients of a whole page are fetched together.
+     * 
+     * @param ctx The context of the request.
+     * @param recipes The recipes that will be sent in the response.
+     */
+    private void loadIngredientsIfRequested(Context ctx, List<Recipe> recipes) {
+        if (isIngredientsRequested(ctx)) {
+            recipeService.loadIngredients(recipes);
+        }
+    }
+
+    /**
+     * A helper method that checks whether the request asks for recipe ingredients with `?include=ingredients`.
+     * 
+     * @param ctx The context of the request.
+     * @return true if the `include` parameter lists ingredients.
+     */
+    private boolean isIngredientsRequested(Context ctx) {
+        String include = ctx.queryParam("include");
+        return include != null && Arrays.asList(include.split(",")).contains("ingredients");
+    }
+
+    /**
+     * A helper method that writes a recipe as one line of JSON, with its author and ingredients inline.
+     * 
+     * @param generator The generator writing the response.
+     * @param recipe The recipe to write.
+     * @throws IOException if the response could not be written.
+     */
+    private void writeRecipe(JsonGenerator generator, Recipe recipe) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", recipe.getId());
+        generator.writeStringField("name", recipe.getName());
+        generator.writeStringField("instructions", recipe.getInstructions());
+        Chef author = recipe.getAuthor();
+        if (author != null) {
+            generator.writeObjectFieldStart("author");
+            generator.writeNumberField("id", author.getId());
+            generator.writeStringField("username", author.getUsername());
+            generator.writeStringField("email", author.getEmail());
+            generator.writeBooleanField("admin", author.isAdmin());
+            generator.writeEndObject();
+        } else {
+            generator.writeNullField("author");
+        }
+        generator.writeArrayFieldStart("ingredients");
+        for (RecipeIngredient ingredient : recipe.getIngredients()) {
+            generator.writeStartObject();
+            generator.writeNumberField("id", ingredient.getId());
+            generator.writeStringField("name", ingredient.getName());
+            generator.writeNumberField("volume", ingredient.getVolume());
+            generator.writeStringField("unit", ingredient.getUnit());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
     /**
      * Configure the routes for recipe operations.
      *
@@ -230,8 +397,10 @@ public class RecipeController {
      */
     public void configureRoutes(Javalin app) {
         app.get("/recipes", fetchAllRecipes);
+        app.get("/recipes/export", exportRecipes); // registered before /recipes/{id}, which would otherwise match it
         app.get("/recipes/{id}", fetchRecipeById);
         app.post("/recipes", createRecipe);
+        app.post("/recipes/bulk", createRecipes);
         app.put("/recipes/{id}", updateRecipe);
         app.delete("/recipes/{id}", deleteRecipe);
     }
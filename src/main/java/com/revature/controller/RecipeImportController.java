@@ -0,0 +1,103 @@
+package com.revature.controller;
+
+import io.javalin.Javalin;
+import io.javalin.http.Handler;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+import com.revature.model.Chef;
+import com.revature.service.RecipeImportService;
+import com.revature.util.AuthenticationMiddleware;
+import com.revature.util.ImportProgress;
+import com.revature.util.RecipeRecordReader;
+
+/**
+ * The RecipeImportController class provides the endpoints for importing recipe files, such as the catalogs of partners, and for following their progress. Both are reserved for admins.
+ * Handlers in this class are fields assigned to lambdas, which define the behavior for each endpoint.
+ */
+
+public class RecipeImportController {
+
+    /** The service that runs the imports. */
+    private RecipeImportService importService;
+
+    /**
+     * Constructs a RecipeImportController with the specified RecipeImportService.
+     *
+     * @param importService the service that runs the imports
+     */
+    public RecipeImportController(RecipeImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Handler for importing a file of recipes, sent as the request body with a Content-Type of text/csv or application/x-ndjson. The file is parsed as it arrives, so it may be of any size.
+     *
+     * The `id` query parameter names the import; one is generated if it is missing. If the import fails, sending the same file again with the same id resumes it after the last records written. Sending it again once it has completed changes nothing.
+     *
+     * Responds with a 200 OK status and the progress of the import once it has completed, including the first records rejected and why.
+     * If the import failed, responds with a 500 Internal Server Error status and its progress, which says where it will resume.
+     * If the format is not supported, responds with a 415 Unsupported Media Type status; if an import with the same id is running, with a 409 Conflict status.
+     * If the chef is not an admin, responds with a 401 Unauthorized status.
+     */
+    public Handler importRecipes = ctx -> {
+        if (!isAdmin(AuthenticationMiddleware.currentChef(ctx))) {
+            ctx.status(401);
+            ctx.result("Access denied");
+            return;
+        }
+
+        String importId = ctx.queryParam("id") != null ? ctx.queryParam("id") : UUID.randomUUID().toString();
+        try (InputStream body = ctx.bodyInputStream(); RecipeRecordReader reader = RecipeRecordReader.open(ctx.contentType(), body)) {
+            if (reader == null) {
+                ctx.status(415);
+                ctx.result("Recipes can be imported from " + RecipeRecordReader.CSV + " or " + RecipeRecordReader.NDJSON);
+                return;
+            }
+            ImportProgress progress = importService.importRecipes(importId, reader);
+            ctx.status(progress.getStatus() == ImportProgress.Status.COMPLETED ? 200 : 500);
+            ctx.json(progress);
+        } catch (IllegalStateException e) {
+            ctx.status(409);
+            ctx.result(e.getMessage());
+        }
+    };
+
+    /**
+     * Handler for following an import, running or not.
+     *
+     * Responds with a 200 OK status and the progress of the import, or a 404 Not Found status if there is no import with the id.
+     * If the chef is not an admin, responds with a 401 Unauthorized status.
+     */
+    public Handler fetchImportProgress = ctx -> {
+        if (!isAdmin(AuthenticationMiddleware.currentChef(ctx))) {
+            ctx.status(401);
+            ctx.result("Access denied");
+            return;
+        }
+
+        ImportProgress progress = importService.getProgress(ctx.pathParam("id"));
+        if (progress != null) {
+            ctx.status(200);
+            ctx.json(progress);
+        } else {
+            ctx.status(404);
+            ctx.result("Import not found");
+        }
+    };
+
+    private boolean isAdmin(Chef chef) {
+        return chef != null && chef.isAdmin();
+    }
+
+    /**
+     * Configure the routes for recipe imports.
+     *
+     * @param app the Javalin application
+     */
+    public void configureRoutes(Javalin app) {
+        app.post("/recipes/import", importRecipes);
+        app.get("/recipes/import/{id}", fetchImportProgress);
+    }
+}
@@ -0,0 +1,191 @@
+package com.revature.dao;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.revature.util.BulkResult;
+import com.revature.util.ConnectionUtil;
+
+/**
+ * The BulkInsert class inserts many rows into one table with JDBC batches, and reports the outcome of each row.
+ *
+ * The rows are split into chunks, and each chunk is inserted with a single batch in its own transaction, so a large request neither holds one huge transaction open nor pays a commit per row. When the database rejects rows of a chunk, the chunk is rolled back, the rejected rows are recorded as failed, and the remaining rows of the chunk are inserted again. The generated keys of the inserted rows are reported in the order the rows were given.
+ */
+class BulkInsert {
+
+    /**
+     * Writes whatever else belongs in the same transaction as a chunk's rows, such as their child rows, once the rows have been inserted and before they are committed.
+     */
+    @FunctionalInterface
+    interface AfterInsert {
+
+        /**
+         * @param connection the connection of the chunk's transaction
+         * @param indexes the positions of the inserted rows, in the order they were given
+         * @param keys the generated key of each inserted row, in the same order
+         * @throws SQLException if the writes failed, which rolls back the whole chunk
+         */
+        void inserted(Connection connection, List<Integer> indexes, int[] keys) throws SQLException;
+    }
+
+    /** An AfterInsert that writes nothing else. */
+    private static final AfterInsert NOTHING = (connection, indexes, keys) -> { };
+
+    private BulkInsert() {
+    }
+
+    /**
+     * Inserts the rows in chunks of the given size.
+     *
+     * @param <T> the type of row inserted
+     * @param connectionUtil the source of the connection to insert with
+     * @param sql the INSERT statement for a single row
+     * @param rows the rows to insert; null rows are reported as failed
+     * @param binder binds a row to the statement
+     * @param chunkSize the number of rows inserted per batch and transaction
+     * @return the id or error of each row
+     * @throws SQLException if a connection could not be used at all
+     */
+    static <T> BulkResult insert(ConnectionUtil connectionUtil, String sql, List<T> rows, Jdbc.RowBinder<T> binder, int chunkSize)
+            throws SQLException {
+        BulkResult result = new BulkResult(rows.size());
+        int size = Math.max(1, chunkSize);
+        try (Connection connection = connectionUtil.getConnection()) {
+            for (int start = 0; start < rows.size(); start += size) {
+                List<Integer> pending = new ArrayList<>();
+                for (int index = start; index < Math.min(start + size, rows.size()); index++) {
+                    if (rows.get(index) != null) {
+                        pending.add(index);
+                    } else {
+                        result.failed(index, "Item is missing");
+                    }
+                }
+                insertChunk(connection, sql, rows, binder, pending, result, NOTHING);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Inserts all the rows as one chunk, in a single transaction on the given connection, which is left in auto-commit mode afterwards.
+     *
+     * @param <T> the type of row inserted
+     * @param connection the connection to insert with
+     * @param sql the INSERT statement for a single row
+     * @param rows the rows to insert; null rows are reported as failed
+     * @param binder binds a row to the statement
+     * @param afterInsert writes the rest of the transaction once the rows that were accepted have been inserted
+     * @return the id or error of each row
+     * @throws SQLException if the connection could not be used at all
+     */
+    static <T> BulkResult insertChunk(Connection connection, String sql, List<T> rows, Jdbc.RowBinder<T> binder, AfterInsert afterInsert)
+            throws SQLException {
+        BulkResult result = new BulkResult(rows.size());
+        List<Integer> pending = new ArrayList<>();
+        for (int index = 0; index < rows.size(); index++) {
+            if (rows.get(index) != null) {
+                pending.add(index);
+            } else {
+                result.failed(index, "Item is missing");
+            }
+        }
+        insertChunk(connection, sql, rows, binder, pending, result, afterInsert);
+        return result;
+    }
+
+    /**
+     * Inserts one chunk in a single transaction, retrying without the rows the database rejected until the remaining rows go in.
+     */
+    private static <T> void insertChunk(Connection connection, String sql, List<T> rows, Jdbc.RowBinder<T> binder, List<Integer> pending,
+            BulkResult result, AfterInsert afterInsert) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            while (!pending.isEmpty()) {
+                List<T> batch = new ArrayList<>(pending.size());
+                for (int index : pending) {
+                    batch.add(rows.get(index));
+                }
+                try {
+                    int[] keys = Jdbc.insertBatch(connection, sql, batch, binder);
+                    try {
+                        afterInsert.inserted(connection, pending, keys);
+                    } catch (BatchUpdateException e) {
+                        // a batch failing after the rows went in says nothing about which of the rows to drop
+                        throw new SQLException(e.getMessage(), e.getSQLState(), e);
+                    }
+                    connection.commit();
+                    for (int i = 0; i < keys.length; i++) {
+                        result.created(pending.get(i), keys[i]);
+                    }
+                    return;
+                } catch (BatchUpdateException e) {
+                    connection.rollback();
+                    if (!dropRejected(e, pending, result)) {
+                        failAll(pending, describe(e), result);
+                        return;
+                    }
+                } catch (SQLException e) {
+                    connection.rollback();
+                    failAll(pending, describe(e), result);
+                    return;
+                }
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Records the rows a failed batch reports as rejected, and removes them from the pending rows. A driver that stops at the first rejected row reports the counts of the rows before it only, so the row after the last count is the rejected one.
+     *
+     * @return true if at least one row was identified as rejected
+     */
+    private static boolean dropRejected(BatchUpdateException e, List<Integer> pending, BulkResult result) {
+        int[] counts = e.getUpdateCounts() != null ? e.getUpdateCounts() : new int[0];
+        SQLException cause = e.getNextException() != null ? e.getNextException() : e;
+        boolean dropped = false;
+        Iterator<Integer> iterator = pending.iterator();
+        for (int position = 0; iterator.hasNext(); position++) {
+            int index = iterator.next();
+            boolean rejected = position < counts.length ? counts[position] == Statement.EXECUTE_FAILED : position == counts.length;
+            if (rejected) {
+                result.failed(index, describe(cause));
+                cause = cause.getNextException() != null ? cause.getNextException() : cause;
+                iterator.remove();
+                dropped = true;
+            }
+        }
+        return dropped;
+    }
+
+    private static void failAll(List<Integer> pending, String error, BulkResult result) {
+        for (int index : pending) {
+            result.failed(index, error);
+        }
+    }
+
+    /**
+     * Describes why the database rejected a row, from the SQL state of the error, without exposing the database's own message.
+     */
+    private static String describe(SQLException e) {
+        String state = e.getSQLState() != null ? e.getSQLState() : "";
+        switch (state) {
+            case "23505":
+                return "An item with the same unique value already exists";
+            case "23502":
+                return "A required value is missing";
+            case "22001":
+                return "A value is too long";
+            case "23503":
+            case "23506":
+                return "A referenced item does not exist";
+            default:
+                return "The item could not be created";
+        }
+    }
+}
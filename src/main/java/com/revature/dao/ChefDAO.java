@@ -1,15 +1,16 @@
 package com.revature.dao;
+import com.revature.util.AppConfig;
 import com.revature.util.ConnectionUtil;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.TtlCache;
 import com.revature.model.Chef;
 import java.util.List;
+import java.util.Map;
 import java.util.ArrayList;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 
 /**
@@ -18,10 +19,28 @@ import java.sql.Statement;
  * operations such as creating, retrieving, updating, and deleting Chef records. 
  * 
  * The class primarily uses a ConnectionUtil object to connect to the database and includes methods for searching, paginating, and mapping results from database queries.
+ * 
+ * Chefs looked up by id are kept in a bounded read-through cache, since the same few chefs are read again and again by the services and middleware. Entries expire after a configurable time, and are dropped as soon as the chef is updated or deleted through this DAO.
+ * 
+ * Logins look chefs up by exact username, which the unique index on CHEF.username answers directly. Usernames that matched no chef are remembered for a short time, so repeated attempts with an unknown username do not reach the database at all.
  */
 
 public class ChefDAO {
 
+    /** The keys chefs can be sorted by when paging with a cursor, mapped to their columns. */
+    private static final Map<String, String> SORT_COLUMNS = Map.of("id", "id", "username", "username");
+
+    /** Recently read chefs, indexed by id. Callers always receive a copy, so a cached chef cannot be changed from outside. */
+    private final TtlCache<Integer, Chef> cache = new TtlCache<>(
+            AppConfig.getLong("chef.cache.ttlMs", 60000), AppConfig.getInt("chef.cache.maxSize", 10000));
+
+    /** Usernames recently looked up that matched no chef. Dropped as soon as a chef is created or renamed to that username through this DAO. */
+    private final TtlCache<String, Boolean> unknownUsernames = new TtlCache<>(
+            AppConfig.getLong("chef.unknownUsernames.ttlMs", 30000), AppConfig.getInt("chef.unknownUsernames.maxSize", 10000));
+
+    /** Counts the chefs matching a paged query, as the request's count mode asks. */
+    private final TotalCounter totalCounter = new TotalCounter("CHEF");
+
     /** A utility class for establishing connections to the database. */
     @SuppressWarnings("unused")
     private ConnectionUtil connectionUtil;
@@ -45,20 +64,7 @@ public class ChefDAO {
     public List<Chef> getAllChefs(){
         try (Connection connection = connectionUtil.getConnection()) {
             String sql = "SELECT * FROM CHEF ORDER BY id";
-            Statement statement = connection.createStatement(); // Change to Statement as per test case expectations
-            ResultSet rs = statement.executeQuery(sql);
-
-            List<Chef> chefs = new ArrayList<>();
-            while (rs.next()) {
-                chefs.add(new Chef(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getBoolean("is_admin")
-                ));
-            }
-            return chefs;
+            return Jdbc.queryOnce(connection, sql, this::mapRows); // a plain Statement, as per test case expectations
         } catch (SQLException e) {
             throw new RuntimeException("Error fetching all chefs", e);
         }
@@ -71,34 +77,18 @@ public class ChefDAO {
      * @return a paginated list of Chef objects
      */
     public Page<Chef> getAllChefs(PageOptions pageOptions){
+        if (pageOptions.isKeyset()) {
+            return seekChefs(null, pageOptions);
+        }
         try (Connection connection = connectionUtil.getConnection()) {
             String sql = "SELECT * FROM CHEF ORDER BY id LIMIT ? OFFSET ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setInt(1, pageOptions.getPageSize());
-            ps.setInt(2, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
-            ResultSet rs = ps.executeQuery();
-
-            List<Chef> chefs = new ArrayList<>();
-            while (rs.next()) {
-                chefs.add(new Chef(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getBoolean("is_admin")
-                ));
-            }
-
-            String countSql = "SELECT COUNT(*) FROM CHEF";
-            PreparedStatement countPs = connection.prepareStatement(countSql);
-            ResultSet countRs = countPs.executeQuery();
-            int totalCount = 0;
-            if (countRs.next()) {
-                totalCount = countRs.getInt(1);
-            }
+            List<Chef> chefs = Jdbc.query(connection, sql, ps -> {
+                ps.setInt(1, pageOptions.getPageSize());
+                ps.setInt(2, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
+            }, this::mapRows);
 
-            int totalPages = (int) Math.ceil((double) totalCount / pageOptions.getPageSize());
-            return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(), totalPages, totalCount, chefs);
+            TotalCounter.Total total = totalCounter.count(connection, pageOptions, null, null);
+            return TotalCounter.toPage(pageOptions, total, chefs);
         } catch (SQLException e) {
             throw new RuntimeException("Error fetching paginated chefs", e);
         }
@@ -106,32 +96,57 @@ public class ChefDAO {
 
     /**
      * TODO: Retrieves a Chef record by its unique identifier.
+     * 
+     * The chef is served from the cache when possible, and otherwise read from the database and cached. A chef updated or deleted while it was being read is not cached, so the row read before the change cannot outlive its invalidation.
      *
      * @param id the unique identifier of the Chef to retrieve.
      * @return the Chef object, if found.
      */
     public Chef getChefById(int id){
+        Chef cached = cache.get(id);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+        long generation = cache.generation(id);
         try (Connection connection = connectionUtil.getConnection()) {
             String sql = "SELECT * FROM CHEF WHERE id = ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setInt(1, id);
-            ResultSet rs = ps.executeQuery();
-
-            if (rs.next()) {
-                return new Chef(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getBoolean("is_admin")
-                );
+            Chef chef = Jdbc.query(connection, sql, ps -> ps.setInt(1, id), rs -> rs.next() ? mapSingleRow(rs) : null);
+
+            if (chef != null) {
+                cache.putIfUnchanged(id, copyOf(chef), generation);
             }
-            return null;
+            return chef;
         } catch (SQLException e) {
             throw new RuntimeException("Error fetching chef by ID: " + id, e);
         }
     }
 
+    /**
+     * Retrieves a Chef record by its exact username, using the unique index on the username column.
+     * 
+     * A username that matches no chef is remembered for a short time, and looking it up again in that time returns null without querying the database, unless a chef was created with it while it was being looked up. The chef found is not added to the cache by id, as its id, and so its invalidation generation, is only known once it has been read.
+     *
+     * @param username the username of the Chef to retrieve.
+     * @return the Chef object, or null if no chef has that username.
+     */
+    public Chef getChefByUsername(String username){
+        if (unknownUsernames.get(username) != null) {
+            return null;
+        }
+        long generation = unknownUsernames.generation(username);
+        try (Connection connection = connectionUtil.getConnection()) {
+            String sql = "SELECT * FROM CHEF WHERE username = ?";
+            Chef chef = Jdbc.query(connection, sql, ps -> ps.setString(1, username), rs -> rs.next() ? mapSingleRow(rs) : null);
+
+            if (chef == null) {
+                unknownUsernames.putIfUnchanged(username, Boolean.TRUE, generation);
+            }
+            return chef;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching chef by username: " + username, e);
+        }
+    }
+
     /**
      * TODO: Creates a new Chef record in the database.
      *
@@ -141,20 +156,16 @@ public class ChefDAO {
     public int createChef(Chef chef){
         try (Connection connection = connectionUtil.getConnection()) {
             String sql = "INSERT INTO CHEF (username, email, password, is_admin) VALUES (?, ?, ?, ?)";
-            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            ps.setString(1, chef.getUsername());
-            ps.setString(2, chef.getEmail());
-            ps.setString(3, chef.getPassword());
-            ps.setBoolean(4, chef.isAdmin());
-
-            ps.executeUpdate();
-            ResultSet rs = ps.getGeneratedKeys();
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-            return -1;
+            return Jdbc.insert(connection, sql, ps -> {
+                ps.setString(1, chef.getUsername());
+                ps.setString(2, chef.getEmail());
+                ps.setString(3, chef.getPassword());
+                ps.setBoolean(4, chef.isAdmin());
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error creating chef", e);
+        } finally {
+            unknownUsernames.invalidate(chef.getUsername());
         }
     }
 
@@ -166,15 +177,18 @@ public class ChefDAO {
     public void updateChef(Chef chef){
         try (Connection connection = connectionUtil.getConnection()) {
             String sql = "UPDATE CHEF SET username = ?, email = ?, password = ?, is_admin = ? WHERE id = ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, chef.getUsername());
-            ps.setString(2, chef.getEmail());
-            ps.setString(3, chef.getPassword());
-            ps.setBoolean(4, chef.isAdmin());
-            ps.setInt(5, chef.getId());
-            ps.executeUpdate();
+            Jdbc.update(connection, sql, ps -> {
+                ps.setString(1, chef.getUsername());
+                ps.setString(2, chef.getEmail());
+                ps.setString(3, chef.getPassword());
+                ps.setBoolean(4, chef.isAdmin());
+                ps.setInt(5, chef.getId());
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error updating chef", e);
+        } finally {
+            cache.invalidate(chef.getId());
+            unknownUsernames.invalidate(chef.getUsername());
         }
     }
 
@@ -186,11 +200,11 @@ public class ChefDAO {
     public void deleteChef(Chef chef){
         try (Connection connection = connectionUtil.getConnection()) {
             String sql = "DELETE FROM CHEF WHERE id = ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setInt(1, chef.getId());
-            ps.executeUpdate();
+            Jdbc.update(connection, sql, ps -> ps.setInt(1, chef.getId()));
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting chef", e);
+        } finally {
+            cache.invalidate(chef.getId());
         }
     }
 
@@ -203,22 +217,10 @@ public class ChefDAO {
     public List<Chef> searchChefsByTerm(String term) {
         try (Connection connection = connectionUtil.getConnection()) {
             String sql = "SELECT * FROM CHEF WHERE username LIKE ? OR email LIKE ? ORDER BY id";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, "%" + term + "%");
-            ps.setString(2, "%" + term + "%");
-            ResultSet rs = ps.executeQuery();
-
-            List<Chef> chefs = new ArrayList<>();
-            while (rs.next()) {
-                chefs.add(new Chef(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getBoolean("is_admin")
-                ));
-            }
-            return chefs;
+            return Jdbc.query(connection, sql, ps -> {
+                ps.setString(1, "%" + term + "%");
+                ps.setString(2, "%" + term + "%");
+            }, this::mapRows);
         } catch (SQLException e) {
             throw new RuntimeException("Error searching chefs by term: " + term, e);
         }
@@ -232,46 +234,79 @@ public class ChefDAO {
      * @return a paginated list of Chef objects that match the search term
      */
     public Page<Chef> searchChefsByTerm(String term, PageOptions pageOptions){
+        if (pageOptions.isKeyset()) {
+            return seekChefs(term, pageOptions);
+        }
         try (Connection connection = connectionUtil.getConnection()) {
             String sql = "SELECT * FROM CHEF WHERE username LIKE ? OR email LIKE ? ORDER BY id LIMIT ? OFFSET ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, "%" + term + "%");
-            ps.setString(2, "%" + term + "%");
-            ps.setInt(3, pageOptions.getPageSize());
-            ps.setInt(4, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
-            ResultSet rs = ps.executeQuery();
-
-            List<Chef> chefs = new ArrayList<>();
-            while (rs.next()) {
-                chefs.add(new Chef(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getBoolean("is_admin")
-                ));
-            }
-
-            String countSql = "SELECT COUNT(*) FROM CHEF WHERE username LIKE ? OR email LIKE ?";
-            PreparedStatement countPs = connection.prepareStatement(countSql);
-            countPs.setString(1, "%" + term + "%");
-            countPs.setString(2, "%" + term + "%");
-            ResultSet countRs = countPs.executeQuery();
-            int totalCount = 0;
-            if (countRs.next()) {
-                totalCount = countRs.getInt(1);
-            }
+            List<Chef> chefs = Jdbc.query(connection, sql, ps -> {
+                ps.setString(1, "%" + term + "%");
+                ps.setString(2, "%" + term + "%");
+                ps.setInt(3, pageOptions.getPageSize());
+                ps.setInt(4, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
+            }, this::mapRows);
 
-            int totalPages = (int) Math.ceil((double) totalCount / pageOptions.getPageSize());
-            return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(), totalPages, totalCount, chefs);
+            TotalCounter.Total total = totalCounter.count(connection, pageOptions, "username LIKE ? OR email LIKE ?", "%" + term + "%");
+            return TotalCounter.toPage(pageOptions, total, chefs);
         } catch (SQLException e) {
             throw new RuntimeException("Error searching paginated chefs by term: " + term, e);
         }
     }
 
+    /**
+     * Retrieves a page of chefs by seeking past the cursor in the page options, rather than skipping rows with OFFSET.
+     * 
+     * @param term the search term to filter chefs by username or email, or null to page through all chefs
+     * @param pageOptions options for pagination, including page size, sort order and cursor
+     * @return a page of Chef objects, with a next cursor if more chefs remain
+     * @throws IllegalArgumentException if the sort key or cursor is invalid
+     */
+    private Page<Chef> seekChefs(String term, PageOptions pageOptions) {
+        Keyset keyset = Keyset.from(pageOptions, SORT_COLUMNS, "id");
+        String filter = term != null ? "username LIKE ? OR email LIKE ?" : null;
+        try (Connection connection = connectionUtil.getConnection()) {
+            String sql = "SELECT * FROM CHEF" + keyset.where(filter) + keyset.orderBy() + " LIMIT ?";
+            List<Chef> chefs = Jdbc.query(connection, sql, ps -> {
+                int index = 1;
+                if (term != null) {
+                    ps.setString(index++, "%" + term + "%");
+                    ps.setString(index++, "%" + term + "%");
+                }
+                index = keyset.bindSeek(ps, index);
+                ps.setInt(index, pageOptions.getPageSize() + 1);
+            }, this::mapRows);
+
+            TotalCounter.Total total = totalCounter.count(connection, pageOptions, filter, "%" + term + "%");
+            return keyset.toPage(chefs, pageOptions, total,
+                    chef -> keyset.isSortedById() ? chef.getId() : chef.getUsername(), Chef::getId);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error seeking paginated chefs", e);
+        }
+    }
+
+    /**
+     * Publishes the hit, miss and eviction counts and the size of the chef cache to the Metrics registry, and the same for the cache of unknown usernames under the prefix followed by "_unknown_usernames".
+     *
+     * @param prefix the prefix for each metric name, such as "chef_cache"
+     */
+    public void registerMetrics(String prefix) {
+        cache.registerMetrics(prefix);
+        unknownUsernames.registerMetrics(prefix + "_unknown_usernames");
+    }
+
     
     // below are helper methods that are included for your convenience
 
+    /**
+     * Copies a Chef, so that cached chefs are never shared with callers.
+     *
+     * @param chef the chef to copy.
+     * @return a new Chef with the same fields.
+     */
+    private Chef copyOf(Chef chef) {
+        return new Chef(chef.getId(), chef.getUsername(), chef.getEmail(), chef.getPassword(), chef.isAdmin());
+    }
+
     /**
      * Maps a single row from the ResultSet to a Chef object.
      *
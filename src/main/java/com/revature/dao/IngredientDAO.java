@@ -1,13 +1,16 @@
 
 package com.revature.dao;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
+import com.revature.util.AppConfig;
+import com.revature.util.BulkResult;
 import com.revature.util.ConnectionUtil;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
@@ -17,10 +20,24 @@ import com.revature.model.Ingredient;
  * The IngredientDAO class handles the CRUD operations for Ingredient objects. It provides methods for creating, retrieving, updating, and deleting Ingredient records from the database. 
  * 
  * This class relies on the ConnectionUtil class for database connectivity and also supports searching and paginating through Ingredient records.
+ * 
+ * The INGREDIENT table is small and read-mostly, so all reads are answered from an in-memory IngredientDictionary without touching the database. Every IngredientDAO shares one dictionary, since every ConnectionUtil lends out connections to the same database. The dictionary is loaded at startup, or on first use, and reloaded after every create, update and delete made through any IngredientDAO. Changes made to the table by other means, such as SQL run elsewhere or by another server, are seen once the dictionary is older than `ingredient.dictionary.ttlMs`: the first read to find it expired reloads it, while concurrent reads go on using the old one. Code that rewrites the table wholesale, such as DBUtil, drops the dictionary with invalidateDictionary().
  */
 
 public class IngredientDAO {
 
+    /** The keys ingredients can be sorted by, mapped to their columns. Any other sort key is rejected rather than written into the SQL. */
+    private static final Map<String, String> SORT_COLUMNS = Map.of("id", "id", "name", "name");
+
+    /** Every ingredient, held in memory so that reads never go to the database. Null until first loaded, or after being invalidated. */
+    private static volatile IngredientDictionary dictionary;
+
+    /** Serializes reloads of the dictionary. */
+    private static final ReentrantLock RELOAD_LOCK = new ReentrantLock();
+
+    /** How long the dictionary is read from before a read reloads it. */
+    private final long dictionaryTtlNanos = TimeUnit.MILLISECONDS.toNanos(AppConfig.getLong("ingredient.dictionary.ttlMs", 60000));
+
     /** A utility class used for establishing connections to the database. */
     @SuppressWarnings("unused")
     private ConnectionUtil connectionUtil;
@@ -43,19 +60,7 @@ public class IngredientDAO {
      * @return the Ingredient object with the specified id.
      */
     public Ingredient getIngredientById(int id){
-        try (Connection connection = connectionUtil.getConnection()) {
-            String sql = "SELECT * FROM INGREDIENT WHERE id = ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setInt(1, id);
-            ResultSet rs = ps.executeQuery();
-
-            if (rs.next()) {
-                return new Ingredient(rs.getInt("id"), rs.getString("name"));
-            }
-            return null;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error fetching ingredient by ID: " + id, e);
-        }
+        return dictionary().get(id);
     }
 
     /**
@@ -67,17 +72,31 @@ public class IngredientDAO {
     public int createIngredient(Ingredient ingredient){
         try (Connection connection = connectionUtil.getConnection()) {
             String sql = "INSERT INTO INGREDIENT (name) VALUES (?)";
-            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            ps.setString(1, ingredient.getName());
+            int id = Jdbc.insert(connection, sql, ps -> ps.setString(1, ingredient.getName()));
+            reloadDictionary(connection);
+            return id;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error creating ingredient", e);
+        }
+    }
 
-            ps.executeUpdate();
-            ResultSet rs = ps.getGeneratedKeys();
-            if (rs.next()) {
-                return rs.getInt(1);
+    /**
+     * Creates many ingredients with JDBC batches, `bulk.chunkSize` ingredients per batch and transaction, and then reloads the dictionary once. An ingredient the database rejects, such as one with a name already taken, is reported as failed without affecting the others.
+     *
+     * @param ingredients the Ingredient objects to be created.
+     * @return the new id or the error of each ingredient, in the order given.
+     */
+    public BulkResult createIngredients(List<Ingredient> ingredients) {
+        String sql = "INSERT INTO INGREDIENT (name) VALUES (?)";
+        try {
+            BulkResult result = BulkInsert.insert(connectionUtil, sql, ingredients,
+                    (ps, ingredient) -> ps.setString(1, ingredient.getName()), AppConfig.getInt("bulk.chunkSize", 500));
+            if (result.getCreated() > 0) {
+                loadDictionary();
             }
-            return -1;
+            return result;
         } catch (SQLException e) {
-            throw new RuntimeException("Error creating ingredient", e);
+            throw new RuntimeException("Error creating ingredients", e);
         }
     }
 
@@ -90,9 +109,8 @@ public class IngredientDAO {
     public void deleteIngredient(Ingredient ingredient) {
         try (Connection connection = connectionUtil.getConnection()) {
             String sql = "DELETE FROM INGREDIENT WHERE id = ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setInt(1, ingredient.getId());
-            ps.executeUpdate();
+            Jdbc.update(connection, sql, ps -> ps.setInt(1, ingredient.getId()));
+            reloadDictionary(connection);
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting ingredient", e);
         }
@@ -106,10 +124,11 @@ public class IngredientDAO {
     public void updateIngredient(Ingredient ingredient){
         try (Connection connection = connectionUtil.getConnection()) {
             String sql = "UPDATE INGREDIENT SET name = ? WHERE id = ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, ingredient.getName());
-            ps.setInt(2, ingredient.getId());
-            ps.executeUpdate();
+            Jdbc.update(connection, sql, ps -> {
+                ps.setString(1, ingredient.getName());
+                ps.setInt(2, ingredient.getId());
+            });
+            reloadDictionary(connection);
         } catch (SQLException e) {
             throw new RuntimeException("Error updating ingredient", e);
         }
@@ -121,19 +140,7 @@ public class IngredientDAO {
      * @return a list of all Ingredient objects.
      */
     public List<Ingredient> getAllIngredients(){
-        try (Connection connection = connectionUtil.getConnection()) {
-            String sql = "SELECT * FROM INGREDIENT ORDER BY id";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery();
-
-            List<Ingredient> ingredients = new ArrayList<>();
-            while (rs.next()) {
-                ingredients.add(new Ingredient(rs.getInt("id"), rs.getString("name")));
-            }
-            return ingredients;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error fetching all ingredients", e);
-        }
+        return copies(dictionary().search(null, false, false));
     }
 
     /**
@@ -141,34 +148,10 @@ public class IngredientDAO {
      *
      * @param pageOptions options for pagination and sorting.
      * @return a Page of Ingredient objects containing the retrieved ingredients.
-     * @throws SQLException 
+     * @throws IllegalArgumentException if the sort key or cursor is invalid.
      */
     public Page<Ingredient> getAllIngredients(PageOptions pageOptions){
-        try (Connection connection = connectionUtil.getConnection()) {
-            String sql = "SELECT * FROM INGREDIENT ORDER BY id LIMIT ? OFFSET ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setInt(1, pageOptions.getPageSize());
-            ps.setInt(2, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
-            ResultSet rs = ps.executeQuery();
-
-            List<Ingredient> ingredients = new ArrayList<>();
-            while (rs.next()) {
-                ingredients.add(new Ingredient(rs.getInt("id"), rs.getString("name")));
-            }
-
-            String countSql = "SELECT COUNT(*) FROM INGREDIENT";
-            PreparedStatement countPs = connection.prepareStatement(countSql);
-            ResultSet countRs = countPs.executeQuery();
-            int totalCount = 0;
-            if (countRs.next()) {
-                totalCount = countRs.getInt(1);
-            }
-
-            int totalPages = (int) Math.ceil((double) totalCount / pageOptions.getPageSize());
-            return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(), totalPages, totalCount, ingredients);
-        } catch (SQLException e) {
-            throw new RuntimeException("Error fetching paginated ingredients", e);
-        }
+        return page(null, pageOptions);
     }
 
     /**
@@ -178,20 +161,7 @@ public class IngredientDAO {
      * @return a list of Ingredient objects that match the search term.
      */
     public List<Ingredient> searchIngredients(String term){
-        try (Connection connection = connectionUtil.getConnection()) {
-            String sql = "SELECT * FROM INGREDIENT WHERE name LIKE ? ORDER BY id";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, "%" + term + "%");
-            ResultSet rs = ps.executeQuery();
-
-            List<Ingredient> ingredients = new ArrayList<>();
-            while (rs.next()) {
-                ingredients.add(new Ingredient(rs.getInt("id"), rs.getString("name")));
-            }
-            return ingredients;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error searching ingredients by term: " + term, e);
-        }
+        return copies(dictionary().search(term, false, false));
     }
 
     /**
@@ -200,36 +170,142 @@ public class IngredientDAO {
      * @param term the search term to filter Ingredient names.
      * @param pageOptions options for pagination and sorting.
      * @return a Page of Ingredient objects containing the retrieved ingredients.
-     * @throws SQLException 
+     * @throws IllegalArgumentException if the sort key or cursor is invalid.
      */
     public Page<Ingredient> searchIngredients(String term, PageOptions pageOptions){
-        try (Connection connection = connectionUtil.getConnection()) {
-            String sql = "SELECT * FROM INGREDIENT WHERE name LIKE ? ORDER BY " + pageOptions.getSortBy() + " " + pageOptions.getSortDirection() + " LIMIT ? OFFSET ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, "%" + term + "%");
-            ps.setInt(2, pageOptions.getPageSize());
-            ps.setInt(3, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
-            ResultSet rs = ps.executeQuery();
-
-            List<Ingredient> ingredients = new ArrayList<>();
-            while (rs.next()) {
-                ingredients.add(new Ingredient(rs.getInt("id"), rs.getString("name")));
+        return page(term, pageOptions);
+    }
+
+    /**
+     * Finds the ingredients whose names start with a prefix, using the dictionary's name index.
+     *
+     * @param prefix the start of the names to look for.
+     * @return the matching ingredients, in name order.
+     */
+    public List<Ingredient> searchIngredientsByPrefix(String prefix){
+        return copies(dictionary().withPrefix(prefix));
+    }
+
+    /**
+     * Reads the ingredient dictionary from the database, replacing any dictionary already held. This is called once at startup, and again whenever an IngredientDAO writes to the INGREDIENT table.
+     */
+    public void loadDictionary() {
+        load();
+    }
+
+    /**
+     * Drops the ingredient dictionary shared by every IngredientDAO, so that the next read loads it again. This is for code that changes the INGREDIENT table without going through an IngredientDAO, such as a script that resets the database.
+     */
+    public static void invalidateDictionary() {
+        dictionary = null;
+    }
+
+    /**
+     * Retrieves a page of ingredients from the dictionary, either by skipping to the page number or by seeking past the cursor in the page options.
+     *
+     * @param term the search term to filter Ingredient names, or null to page through all ingredients.
+     * @param pageOptions options for pagination, including page size, sort order and any cursor.
+     * @return a Page of Ingredient objects, with a next cursor if paging by cursor and more ingredients remain.
+     * @throws IllegalArgumentException if the sort key or cursor is invalid.
+     */
+    private Page<Ingredient> page(String term, PageOptions pageOptions) {
+        Keyset keyset = Keyset.from(pageOptions, SORT_COLUMNS, "id");
+        List<Ingredient> matches = dictionary().search(term, !keyset.isSortedById(), keyset.isDescending());
+        TotalCounter.Total total = TotalCounter.known(pageOptions, matches.size());
+        int pageSize = pageOptions.getPageSize();
+
+        if (pageOptions.isKeyset()) {
+            List<Ingredient> rows = new ArrayList<>();
+            for (Ingredient ingredient : matches) {
+                if (rows.size() > pageSize) {
+                    break;
+                }
+                if (keyset.follows(ingredient.getName(), ingredient.getId())) {
+                    rows.add(new Ingredient(ingredient.getId(), ingredient.getName()));
+                }
             }
+            return keyset.toPage(rows, pageOptions, total,
+                    ingredient -> keyset.isSortedById() ? ingredient.getId() : ingredient.getName(), Ingredient::getId);
+        }
+
+        int offset = Math.min(Math.max(pageOptions.getPageNumber() - 1, 0) * pageSize, matches.size());
+        List<Ingredient> items = copies(matches.subList(offset, Math.min(offset + pageSize, matches.size())));
+        return TotalCounter.toPage(pageOptions, total, items);
+    }
+
+    /**
+     * @return true if reads are answered from the dictionary held, without first loading it from the database
+     */
+    public boolean isDictionaryCurrent() {
+        IngredientDictionary current = dictionary;
+        return current != null && !current.isOlderThan(dictionaryTtlNanos);
+    }
 
-            String countSql = "SELECT COUNT(*) FROM INGREDIENT WHERE name LIKE ?";
-            PreparedStatement countPs = connection.prepareStatement(countSql);
-            countPs.setString(1, "%" + term + "%");
-            ResultSet countRs = countPs.executeQuery();
-            int totalCount = 0;
-            if (countRs.next()) {
-                totalCount = countRs.getInt(1);
+    /**
+     * @return the current dictionary, loading it first if it has not been loaded yet
+     */
+    private IngredientDictionary dictionary() {
+        IngredientDictionary current = dictionary;
+        if (current == null) {
+            return load();
+        }
+        if (current.isOlderThan(dictionaryTtlNanos) && RELOAD_LOCK.tryLock()) {
+            // one reader refreshes an expired dictionary while the others go on reading the old one
+            try (Connection connection = connectionUtil.getConnection()) {
+                current = IngredientDictionary.load(connection);
+                dictionary = current;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error loading ingredient dictionary", e);
+            } finally {
+                RELOAD_LOCK.unlock();
             }
+        }
+        return current;
+    }
 
-            int totalPages = (int) Math.ceil((double) totalCount / pageOptions.getPageSize());
-            return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(), totalPages, totalCount, ingredients);
+    /**
+     * @return a dictionary just read from the database, which replaces the one held
+     */
+    private IngredientDictionary load() {
+        try (Connection connection = connectionUtil.getConnection()) {
+            return reloadDictionary(connection);
         } catch (SQLException e) {
-            throw new RuntimeException("Error searching paginated ingredients by term: " + term, e);
+            throw new RuntimeException("Error loading ingredient dictionary", e);
+        }
+    }
+
+    /**
+     * Replaces the dictionary with one read through the given connection. Reloads are serialized, so the last one to run always reads every write that came before it.
+     *
+     * A lock rather than a monitor serializes them, so a virtual thread waiting for another thread's reload does not pin its carrier thread. The IngredientService runs reloads on platform threads in any case.
+     *
+     * @param connection the connection to read with
+     * @return the dictionary read
+     * @throws SQLException if the ingredients could not be read
+     */
+    private static IngredientDictionary reloadDictionary(Connection connection) throws SQLException {
+        RELOAD_LOCK.lock();
+        try {
+            IngredientDictionary loaded = IngredientDictionary.load(connection);
+            dictionary = loaded;
+            return loaded;
+        } finally {
+            RELOAD_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Copies ingredients from the dictionary, so callers are free to change the ones they are given.
+     *
+     * @param ingredients the ingredients to copy
+     * @return a new list of new Ingredient objects
+     */
+    private static List<Ingredient> copies(List<Ingredient> ingredients) {
+        List<Ingredient> copies = new ArrayList<>(ingredients.size());
+        for (Ingredient ingredient : ingredients) {
+            copies.add(new Ingredient(ingredient.getId(), ingredient.getName()));
         }
+        return copies;
     }
 
     // below are helper methods for your convenience
@@ -0,0 +1,151 @@
+package com.revature.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.revature.model.Ingredient;
+
+/**
+ * The IngredientDictionary class is an immutable, in-memory copy of the whole INGREDIENT table.
+ *
+ * The table is small and read far more often than it is written, so the IngredientDAO answers its reads from a dictionary rather than the database. A dictionary holds an id-to-name map for single lookups, the ingredients in id order, and the ingredients in name order with a parallel array of names that prefix searches can binary search. The DAOs load a fresh dictionary after each of their writes, or once the current one has expired, and swap it in whole, so readers never see a half-built one.
+ */
+class IngredientDictionary {
+
+    /** Orders ingredients as ORDER BY name, id does. */
+    static final Comparator<Ingredient> BY_NAME = Comparator.comparing(Ingredient::getName).thenComparingInt(Ingredient::getId);
+
+    /** Orders ingredients as ORDER BY id does. */
+    static final Comparator<Ingredient> BY_ID = Comparator.comparingInt(Ingredient::getId);
+
+    /** The name of each ingredient, keyed by id. */
+    private final Map<Integer, String> names;
+    /** Every ingredient, in id order. */
+    private final List<Ingredient> byId;
+    /** Every ingredient, in name order. */
+    private final List<Ingredient> byName;
+    /** The names of byName, in the same order, for binary searching. */
+    private final String[] sortedNames;
+    /** When the ingredients were read, from System.nanoTime(). */
+    private final long loadedAt = System.nanoTime();
+
+    private IngredientDictionary(List<Ingredient> ingredients) {
+        this.names = new HashMap<>();
+        for (Ingredient ingredient : ingredients) {
+            names.put(ingredient.getId(), ingredient.getName());
+        }
+        List<Ingredient> sortedById = new ArrayList<>(ingredients);
+        sortedById.sort(BY_ID);
+        List<Ingredient> sortedByName = new ArrayList<>(ingredients);
+        sortedByName.sort(BY_NAME);
+        this.byId = Collections.unmodifiableList(sortedById);
+        this.byName = Collections.unmodifiableList(sortedByName);
+        this.sortedNames = sortedByName.stream().map(Ingredient::getName).toArray(String[]::new);
+    }
+
+    /**
+     * Reads every ingredient into a new dictionary.
+     *
+     * @param connection the connection to read with
+     * @return the dictionary
+     * @throws SQLException if the ingredients could not be read
+     */
+    static IngredientDictionary load(Connection connection) throws SQLException {
+        return Jdbc.query(connection, "SELECT id, name FROM INGREDIENT", Jdbc.NO_PARAMETERS, rs -> {
+            List<Ingredient> ingredients = new ArrayList<>();
+            while (rs.next()) {
+                ingredients.add(new Ingredient(rs.getInt("id"), rs.getString("name")));
+            }
+            return new IngredientDictionary(ingredients);
+        });
+    }
+
+    /**
+     * @param id the id of the ingredient
+     * @return a copy of the ingredient, or null if there is none with the id
+     */
+    Ingredient get(int id) {
+        String name = names.get(id);
+        return name != null ? new Ingredient(id, name) : null;
+    }
+
+    /**
+     * @param nanos an age, in nanoseconds
+     * @return true if the ingredients were read at least that long ago
+     */
+    boolean isOlderThan(long nanos) {
+        return System.nanoTime() - loadedAt >= nanos;
+    }
+
+    /**
+     * @return the number of ingredients in the dictionary
+     */
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * Finds the ingredients whose names contain a term, as `name LIKE '%term%'` would, except that the term is matched literally.
+     *
+     * @param term the text to look for, or null to match every ingredient
+     * @param sortedByName whether to return the matches in name order rather than id order
+     * @param descending whether to reverse the order
+     * @return the matching ingredients, which are shared and must be copied before being handed out
+     */
+    List<Ingredient> search(String term, boolean sortedByName, boolean descending) {
+        List<Ingredient> source = sortedByName ? byName : byId;
+        List<Ingredient> matches;
+        if (term == null) {
+            matches = new ArrayList<>(source);
+        } else {
+            matches = new ArrayList<>();
+            for (Ingredient ingredient : source) {
+                if (ingredient.getName().contains(term)) {
+                    matches.add(ingredient);
+                }
+            }
+        }
+        if (descending) {
+            Collections.reverse(matches);
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the ingredients whose names start with a prefix, by binary searching the name index for the first and last candidates.
+     *
+     * @param prefix the start of the names to look for
+     * @return the matching ingredients in name order, which are shared and must be copied before being handed out
+     */
+    List<Ingredient> withPrefix(String prefix) {
+        int from = lowerBound(prefix);
+        int to = from;
+        while (to < sortedNames.length && sortedNames[to].startsWith(prefix)) {
+            to++;
+        }
+        return byName.subList(from, to);
+    }
+
+    /**
+     * @return the index of the first name not less than the key
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = sortedNames.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedNames[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
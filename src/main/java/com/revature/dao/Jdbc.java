@@ -0,0 +1,524 @@
+package com.revature.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import com.revature.util.AppConfig;
+import com.revature.util.FlightEvents;
+import com.revature.util.LatencyHistogram;
+import com.revature.util.Metrics;
+import com.revature.util.RequestTiming;
+import com.revature.util.StatementTracer;
+
+/**
+ * The Jdbc class runs the statements issued by the DAOs, so that each SQL string is prepared once per connection and every statement and result set is closed as soon as it has been used.
+ *
+ * Prepared statements are cached per physical connection, keyed by their SQL. Pooled connections outlive their borrowers, so a statement prepared for one request is reused by the next request that borrows the same connection, and the database does not parse the SQL again. A statement is taken out of the cache while it runs and put back afterwards; a query issued while another query's results are still being read therefore prepares a second statement rather than disturbing the first. Each connection keeps at most `db.statementCache.size` statements, closing the least recently used ones beyond that, and a statement that fails is closed rather than cached. The caches of connections that have since been closed are dropped.
+ *
+ * Result sets are only read inside the call that opened them, and are closed before it returns, whether or not reading them succeeded. The number of result sets open at any moment is published to the Metrics registry, along with the hit, miss and eviction counts and the size of the statement cache, and the time each statement took, from taking its prepared statement to reading its last row, by kind of statement.
+ *
+ * Statements are meant to run on platform threads: H2 holds a monitor while it runs each one, which would pin a virtual thread to its carrier thread meanwhile. The services hand their work to a JdbcExecutor when called on a virtual thread, and the statements that run on one all the same are counted in the Metrics registry.
+ *
+ * Each statement is emitted as a Flight Recorder event while a recording has those enabled (see FlightEvents), whether or not statements are traced. Statements on a connection the StatementTracer wraps are left to the tracer, which emits the same event with the rows each query read as well.
+ *
+ * For a request being timed by RequestTiming, each statement counts as database time, except for reading its rows, which counts as row mapping; a query issued while reading the rows of another counts as database time again.
+ */
+public final class Jdbc {
+
+    /**
+     * Binds the parameters of a prepared statement.
+     */
+    @FunctionalInterface
+    public interface Binder {
+
+        /**
+         * @param ps the statement to bind, with no parameters set
+         * @throws SQLException if a parameter could not be set
+         */
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     * Reads the rows of a result set into a value. The result set is closed as soon as the reader returns.
+     *
+     * @param <T> the type of value read
+     */
+    @FunctionalInterface
+    public interface ResultReader<T> {
+
+        /**
+         * @param rs the result set, positioned before its first row
+         * @return the value read
+         * @throws SQLException if the rows could not be read
+         */
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Binds one row of a batch to a prepared statement.
+     *
+     * @param <T> the type of row bound
+     */
+    @FunctionalInterface
+    public interface RowBinder<T> {
+
+        /**
+         * @param ps the statement to bind
+         * @param row the row whose values are bound
+         * @throws SQLException if a parameter could not be set
+         */
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    /** A Binder for statements without parameters. */
+    public static final Binder NO_PARAMETERS = ps -> { };
+
+    /** The most prepared statements kept open per connection. */
+    private static final int CACHE_SIZE = AppConfig.getInt("db.statementCache.size", 64);
+
+    /** The prefix of the cache keys of statements that return their generated keys. */
+    private static final String GENERATED_KEYS = "\0keys:";
+
+    /** The cached statements of each physical connection. */
+    private static final Map<Connection, StatementCache> CACHES = new ConcurrentHashMap<>();
+
+    private static final LongAdder HITS = Metrics.counter("db_statement_cache_hits_total",
+            "Statements served from the prepared statement cache");
+    private static final LongAdder MISSES = Metrics.counter("db_statement_cache_misses_total",
+            "Statements that had to be prepared because none was cached");
+    private static final LongAdder EVICTIONS = Metrics.counter("db_statement_cache_evictions_total",
+            "Cached statements closed to keep a connection's cache within its size");
+
+    private static final LongAdder VIRTUAL_THREAD_STATEMENTS = Metrics.counter("db_statements_on_virtual_threads_total",
+            "Statements run on a virtual thread, each pinning its carrier thread while the database runs it");
+
+    /** The number of result sets currently open. */
+    private static final AtomicInteger OPEN_CURSORS = new AtomicInteger();
+
+    private static final LatencyHistogram QUERY_LATENCY = statementHistogram("query");
+    private static final LatencyHistogram UPDATE_LATENCY = statementHistogram("update");
+    private static final LatencyHistogram INSERT_LATENCY = statementHistogram("insert");
+    private static final LatencyHistogram BATCH_LATENCY = statementHistogram("batch");
+
+    static {
+        Metrics.gauge("db_statement_cache_size", "Prepared statements currently cached, across all connections", Jdbc::cachedStatements);
+        Metrics.gauge("db_open_cursors", "Result sets currently open", OPEN_CURSORS::get);
+    }
+
+    private Jdbc() {
+    }
+
+    /**
+     * Runs a query through a cached prepared statement.
+     *
+     * @param <T> the type of value read
+     * @param connection the connection to query with
+     * @param sql the query
+     * @param binder binds the query's parameters
+     * @param reader reads the result set, which is closed once it returns
+     * @return the value read
+     * @throws SQLException if the query could not be run or read
+     */
+    public static <T> T query(Connection connection, String sql, Binder binder, ResultReader<T> reader) throws SQLException {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.DB)) {
+            long start = start();
+            FlightEvents.StatementEvent event = beginEvent();
+            PreparedStatement ps = checkOut(connection, sql, false);
+            boolean succeeded = false;
+            try {
+                binder.bind(ps);
+                T result = read(ps.executeQuery(), reader);
+                succeeded = true;
+                return result;
+            } finally {
+                QUERY_LATENCY.recordSince(start);
+                commitEvent(event, connection, sql, ps, 1, -1, succeeded);
+                checkIn(connection, sql, false, ps, succeeded);
+            }
+        }
+    }
+
+    /**
+     * Runs a query without parameters on a plain Statement, which is closed afterwards rather than cached. This suits queries that run rarely, such as listing a whole table.
+     *
+     * @param <T> the type of value read
+     * @param connection the connection to query with
+     * @param sql the query
+     * @param reader reads the result set, which is closed once it returns
+     * @return the value read
+     * @throws SQLException if the query could not be run or read
+     */
+    public static <T> T queryOnce(Connection connection, String sql, ResultReader<T> reader) throws SQLException {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.DB)) {
+            long start = start();
+            FlightEvents.StatementEvent event = beginEvent();
+            boolean succeeded = false;
+            try (Statement statement = connection.createStatement()) {
+                T result = read(statement.executeQuery(sql), reader);
+                succeeded = true;
+                return result;
+            } finally {
+                QUERY_LATENCY.recordSince(start);
+                commitEvent(event, connection, sql, null, 0, -1, succeeded);
+            }
+        }
+    }
+
+    /**
+     * Runs an INSERT, UPDATE or DELETE through a cached prepared statement.
+     *
+     * @param connection the connection to write with
+     * @param sql the statement
+     * @param binder binds the statement's parameters
+     * @return the number of rows affected
+     * @throws SQLException if the statement could not be run
+     */
+    public static int update(Connection connection, String sql, Binder binder) throws SQLException {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.DB)) {
+            long start = start();
+            FlightEvents.StatementEvent event = beginEvent();
+            PreparedStatement ps = checkOut(connection, sql, false);
+            boolean succeeded = false;
+            int rows = -1;
+            try {
+                binder.bind(ps);
+                rows = ps.executeUpdate();
+                succeeded = true;
+                return rows;
+            } finally {
+                UPDATE_LATENCY.recordSince(start);
+                commitEvent(event, connection, sql, ps, 1, rows, succeeded);
+                checkIn(connection, sql, false, ps, succeeded);
+            }
+        }
+    }
+
+    /**
+     * Runs an INSERT of a single row through a cached prepared statement, and reads back the key the database generated for it.
+     *
+     * @param connection the connection to write with
+     * @param sql the INSERT statement
+     * @param binder binds the statement's parameters
+     * @return the generated key of the new row, or -1 if the database returned none
+     * @throws SQLException if the statement could not be run, or inserted no rows
+     */
+    public static int insert(Connection connection, String sql, Binder binder) throws SQLException {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.DB)) {
+            long start = start();
+            FlightEvents.StatementEvent event = beginEvent();
+            PreparedStatement ps = checkOut(connection, sql, true);
+            boolean succeeded = false;
+            try {
+                binder.bind(ps);
+                if (ps.executeUpdate() == 0) {
+                    throw new SQLException("Insert affected no rows: " + sql);
+                }
+                int key = read(ps.getGeneratedKeys(), rs -> rs.next() ? rs.getInt(1) : -1);
+                succeeded = true;
+                return key;
+            } finally {
+                INSERT_LATENCY.recordSince(start);
+                commitEvent(event, connection, sql, ps, 1, succeeded ? 1 : -1, succeeded);
+                checkIn(connection, sql, true, ps, succeeded);
+            }
+        }
+    }
+
+    /**
+     * Inserts several rows with a single JDBC batch through a cached prepared statement, and reads back the keys the database generated for them. The batch runs in the connection's current transaction; committing or rolling it back is up to the caller.
+     *
+     * @param <T> the type of row inserted
+     * @param connection the connection to write with
+     * @param sql the INSERT statement for a single row
+     * @param rows the rows to insert
+     * @param binder binds each row to the statement
+     * @return the generated key of each row, in the order of the rows
+     * @throws java.sql.BatchUpdateException if any row was rejected; its update counts show which
+     * @throws SQLException if the batch could not be run
+     */
+    public static <T> int[] insertBatch(Connection connection, String sql, List<T> rows, RowBinder<T> binder) throws SQLException {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.DB)) {
+            long start = start();
+            FlightEvents.StatementEvent event = beginEvent();
+            PreparedStatement ps = checkOut(connection, sql, true);
+            boolean succeeded = false;
+            try {
+                for (T row : rows) {
+                    binder.bind(ps, row);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                int[] keys = read(ps.getGeneratedKeys(), rs -> {
+                    int[] generated = new int[rows.size()];
+                    int count = 0;
+                    while (count < generated.length && rs.next()) {
+                        generated[count++] = rs.getInt(1);
+                    }
+                    if (count < generated.length) {
+                        throw new SQLException("Expected " + generated.length + " generated keys, but the database returned " + count);
+                    }
+                    return generated;
+                });
+                succeeded = true;
+                return keys;
+            } finally {
+                BATCH_LATENCY.recordSince(start);
+                commitEvent(event, connection, sql, ps, rows.size(), succeeded ? rows.size() : -1, succeeded);
+                checkIn(connection, sql, true, ps, succeeded);
+            }
+        }
+    }
+
+    /**
+     * Runs an INSERT, UPDATE or DELETE once per row with a single JDBC batch through a cached prepared statement. The batch runs in the connection's current transaction; committing or rolling it back is up to the caller.
+     *
+     * @param <T> the type of row written
+     * @param connection the connection to write with
+     * @param sql the statement for a single row
+     * @param rows the rows to write
+     * @param binder binds each row to the statement
+     * @return the number of rows affected by each row's statement
+     * @throws SQLException if the batch could not be run
+     */
+    public static <T> int[] updateBatch(Connection connection, String sql, List<T> rows, RowBinder<T> binder) throws SQLException {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.DB)) {
+            long start = start();
+            FlightEvents.StatementEvent event = beginEvent();
+            PreparedStatement ps = checkOut(connection, sql, false);
+            boolean succeeded = false;
+            int[] counts = null;
+            try {
+                for (T row : rows) {
+                    binder.bind(ps, row);
+                    ps.addBatch();
+                }
+                counts = ps.executeBatch();
+                succeeded = true;
+                return counts;
+            } finally {
+                BATCH_LATENCY.recordSince(start);
+                commitEvent(event, connection, sql, ps, rows.size(), counts != null ? IntStream.of(counts).filter(count -> count > 0).sum() : -1, succeeded);
+                checkIn(connection, sql, false, ps, succeeded);
+            }
+        }
+    }
+
+    /**
+     * @return the number of result sets opened by this class and not yet closed
+     */
+    public static int getOpenCursors() {
+        return OPEN_CURSORS.get();
+    }
+
+    /**
+     * @return the number of statements run on a virtual thread so far
+     */
+    public static long getVirtualThreadStatements() {
+        return VIRTUAL_THREAD_STATEMENTS.sum();
+    }
+
+    // below are helper methods that manage the statement caches
+
+    /**
+     * Marks the start of a statement, counting it if it runs on a virtual thread.
+     *
+     * @return the time the statement started, in nanoseconds
+     */
+    private static long start() {
+        if (Thread.currentThread().isVirtual()) {
+            VIRTUAL_THREAD_STATEMENTS.increment();
+        }
+        return System.nanoTime();
+    }
+
+    private static LatencyHistogram statementHistogram(String operation) {
+        return Metrics.histogram(Metrics.name("db_statement_seconds", "operation", operation),
+                "Time taken by each statement the DAOs run, including reading its rows, by kind of statement");
+    }
+
+    private static FlightEvents.StatementEvent beginEvent() {
+        FlightEvents.StatementEvent event = new FlightEvents.StatementEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits the Flight Recorder event of a statement, if a recording has statement events enabled and the statement ran on a connection the StatementTracer does not wrap.
+     *
+     * @param ps the statement that ran, or null for a plain Statement, which has no parameters
+     * @param rowsBound the number of rows bound to the statement, which is more than one for a batch
+     * @param rows the rows changed, or -1 if unknown
+     */
+    private static void commitEvent(FlightEvents.StatementEvent event, Connection connection, String sql, PreparedStatement ps, int rowsBound,
+            long rows, boolean succeeded) {
+        if (!event.shouldCommit()) {
+            return;
+        }
+        try {
+            if (StatementTracer.isTraced(physical(connection))) {
+                return;
+            }
+            event.binds = ps == null ? 0 : ps.getParameterMetaData().getParameterCount() * rowsBound;
+        } catch (SQLException e) {
+            // the event is dropped rather than hide how the statement itself ended
+            return;
+        }
+        event.shape = StatementTracer.shape(sql);
+        event.rows = rows;
+        event.failed = !succeeded;
+        event.commit();
+    }
+
+    /**
+     * Reads a result set and closes it, keeping count of the result sets open meanwhile.
+     */
+    private static <T> T read(ResultSet rs, ResultReader<T> reader) throws SQLException {
+        OPEN_CURSORS.incrementAndGet();
+        try (rs; RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.MAPPING)) {
+            return reader.read(rs);
+        } finally {
+            OPEN_CURSORS.decrementAndGet();
+        }
+    }
+
+    /**
+     * Takes a statement for the SQL out of the connection's cache, or prepares a new one if none is cached.
+     *
+     * @return a statement with no parameters set, owned by the caller until it is checked back in
+     */
+    private static PreparedStatement checkOut(Connection connection, String sql, boolean generatedKeys) throws SQLException {
+        Connection physical = physical(connection);
+        PreparedStatement ps = cacheOf(physical).take(key(sql, generatedKeys));
+        if (ps != null && !ps.isClosed()) {
+            HITS.increment();
+            ps.clearParameters();
+            return ps;
+        }
+        MISSES.increment();
+        return generatedKeys ? physical.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS) : physical.prepareStatement(sql);
+    }
+
+    /**
+     * Returns a statement to the connection's cache, or closes it if it failed.
+     */
+    private static void checkIn(Connection connection, String sql, boolean generatedKeys, PreparedStatement ps, boolean succeeded)
+            throws SQLException {
+        if (!succeeded) {
+            closeQuietly(ps);
+            return;
+        }
+        cacheOf(physical(connection)).put(key(sql, generatedKeys), ps);
+    }
+
+    /**
+     * Finds the physical connection behind a pooled one, whose statements stay open from one borrower to the next. Connections that do not wrap another are used as they are.
+     */
+    private static Connection physical(Connection connection) throws SQLException {
+        return connection.isWrapperFor(Connection.class) ? connection.unwrap(Connection.class) : connection;
+    }
+
+    /**
+     * @return the statement cache of the physical connection, created if this is the first statement run on it
+     */
+    private static StatementCache cacheOf(Connection physical) {
+        StatementCache cache = CACHES.get(physical);
+        if (cache == null) {
+            // a new connection often replaces one the pool has closed, so this is when closed connections are forgotten
+            CACHES.values().removeIf(StatementCache::isClosed);
+            cache = CACHES.computeIfAbsent(physical, StatementCache::new);
+        }
+        return cache;
+    }
+
+    private static String key(String sql, boolean generatedKeys) {
+        return generatedKeys ? GENERATED_KEYS + sql : sql;
+    }
+
+    /**
+     * @return the number of statements cached across all connections
+     */
+    private static long cachedStatements() {
+        long total = 0;
+        for (StatementCache cache : CACHES.values()) {
+            total += cache.size();
+        }
+        return total;
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // the statement is discarded either way
+        }
+    }
+
+    /**
+     * The statements cached for one physical connection, least recently used first.
+     */
+    private static class StatementCache {
+
+        /** The physical connection the statements belong to. */
+        private final Connection connection;
+        /** The idle statements, keyed by SQL. */
+        private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<>();
+
+        private StatementCache(Connection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * @return the cached statement for the key, removed from the cache, or null if there is none
+         */
+        private synchronized PreparedStatement take(String key) {
+            return statements.remove(key);
+        }
+
+        /**
+         * Caches a statement as the most recently used, closing the least recently used statements beyond the cache size. Statements are closed after the cache is unlocked, since closing one is a call into the driver that may block, and a virtual thread blocked while holding a monitor pins its carrier thread.
+         */
+        private void put(String key, PreparedStatement ps) {
+            List<PreparedStatement> closing = new ArrayList<>();
+            synchronized (this) {
+                PreparedStatement duplicate = statements.put(key, ps);
+                if (duplicate != null) {
+                    closing.add(duplicate);
+                }
+                Iterator<PreparedStatement> eldest = statements.values().iterator();
+                while (statements.size() > CACHE_SIZE && eldest.hasNext()) {
+                    closing.add(eldest.next());
+                    eldest.remove();
+                    EVICTIONS.increment();
+                }
+            }
+            closing.forEach(Jdbc::closeQuietly);
+        }
+
+        private synchronized int size() {
+            return statements.size();
+        }
+
+        /**
+         * @return true if the connection has been closed, so its statements can no longer be used
+         */
+        private boolean isClosed() {
+            try {
+                return connection.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        }
+    }
+}
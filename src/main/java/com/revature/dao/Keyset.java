@@ -0,0 +1,230 @@
+package com.revature.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import com.revature.util.Page;
+import com.revature.util.PageCursor;
+import com.revature.util.PageOptions;
+
+/**
+ * The Keyset class holds the SQL fragments the DAOs share when paging with a cursor.
+ *
+ * Instead of skipping rows with OFFSET, a keyset query orders by the sort column and the id, and seeks past the last row of the previous page with a condition such as `name > ? OR (name = ? AND id > ?)`. The database can answer this from the index on the sort column, so the cost of a page does not grow with its depth.
+ *
+ * Only sort keys listed by the calling DAO are accepted, which also keeps client-supplied sort values out of the SQL text.
+ */
+class Keyset {
+
+    /** The key used when the request does not name one. */
+    private static final String DEFAULT_SORT_KEY = "id";
+
+    /** The normalized sort key, such as "id" or "name". */
+    private final String sortKey;
+    /** The SQL column for the sort key. */
+    private final String sortColumn;
+    /** The SQL column holding the unique id. */
+    private final String idColumn;
+    /** Whether the results are sorted in descending order. */
+    private final boolean descending;
+    /** The position of the previous page, or null for the first page. */
+    private final PageCursor after;
+
+    private Keyset(String sortKey, String sortColumn, String idColumn, boolean descending, PageCursor after) {
+        this.sortKey = sortKey;
+        this.sortColumn = sortColumn;
+        this.idColumn = idColumn;
+        this.descending = descending;
+        this.after = after;
+    }
+
+    /**
+     * Resolves the sort order and cursor of a request.
+     *
+     * @param pageOptions the paging options of the request, including its cursor
+     * @param sortColumns the sort keys the caller allows, mapped to their SQL columns; must include "id"
+     * @param idColumn the SQL column holding the unique id
+     * @return the resolved keyset
+     * @throws IllegalArgumentException if the sort key is not allowed, or the cursor is invalid or was issued for a different sort order
+     */
+    static Keyset from(PageOptions pageOptions, Map<String, String> sortColumns, String idColumn) {
+        String sortKey = sortKey(pageOptions.getSortBy(), sortColumns);
+        boolean descending = isDescending(pageOptions.getSortDirection());
+        PageCursor after = null;
+        if (pageOptions.getCursor() != null && !pageOptions.getCursor().isBlank()) {
+            after = PageCursor.decode(pageOptions.getCursor());
+            if (!after.getSortBy().equals(sortKey) || after.isDescending() != descending) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort order");
+            }
+        }
+        return new Keyset(sortKey, sortColumns.get(sortKey), idColumn, descending, after);
+    }
+
+    /**
+     * Builds an ORDER BY clause from a client-supplied sort key and direction, accepting only the given columns.
+     *
+     * @param sortBy the requested sort key; null selects "id"
+     * @param sortDirection the requested direction; "desc" selects descending order, anything else ascending
+     * @param sortColumns the sort keys the caller allows, mapped to their SQL columns; must include "id"
+     * @return the ORDER BY clause, with a leading space
+     * @throws IllegalArgumentException if the sort key is not allowed
+     */
+    static String orderBy(String sortBy, String sortDirection, Map<String, String> sortColumns) {
+        String column = sortColumns.get(sortKey(sortBy, sortColumns));
+        return " ORDER BY " + column + (isDescending(sortDirection) ? " DESC" : " ASC");
+    }
+
+    /**
+     * @return the seek condition for the WHERE clause, or null for the first page
+     */
+    String seekCondition() {
+        if (after == null) {
+            return null;
+        }
+        String comparison = descending ? "<" : ">";
+        if (isSortedById()) {
+            return idColumn + " " + comparison + " ?";
+        }
+        return "(" + sortColumn + " " + comparison + " ? OR (" + sortColumn + " = ? AND " + idColumn + " " + comparison + " ?))";
+    }
+
+    /**
+     * Binds the parameters of the seek condition, if any.
+     *
+     * @param ps the statement to bind to
+     * @param index the index of the first seek parameter
+     * @return the index of the next parameter after the seek parameters
+     * @throws SQLException if a parameter could not be bound
+     */
+    int bindSeek(PreparedStatement ps, int index) throws SQLException {
+        if (after == null) {
+            return index;
+        }
+        if (isSortedById()) {
+            ps.setInt(index++, after.getLastId());
+        } else {
+            ps.setString(index++, after.getLastValue());
+            ps.setString(index++, after.getLastValue());
+            ps.setInt(index++, after.getLastId());
+        }
+        return index;
+    }
+
+    /**
+     * @return the ORDER BY clause for the keyset, with a leading space
+     */
+    String orderBy() {
+        String direction = descending ? " DESC" : " ASC";
+        if (isSortedById()) {
+            return " ORDER BY " + idColumn + direction;
+        }
+        return " ORDER BY " + sortColumn + direction + ", " + idColumn + direction;
+    }
+
+    /**
+     * Combines an optional filter with the seek condition into a WHERE clause.
+     *
+     * @param filter the filter condition of the query, or null if it has none
+     * @return the WHERE clause with a leading space, or an empty string if there are no conditions
+     */
+    String where(String filter) {
+        String seek = seekCondition();
+        if (filter == null && seek == null) {
+            return "";
+        }
+        if (filter == null) {
+            return " WHERE " + seek;
+        }
+        return seek == null ? " WHERE " + filter : " WHERE (" + filter + ") AND " + seek;
+    }
+
+    /**
+     * Checks whether a row comes after the cursor in the keyset's order. This is the seek condition for callers that page through rows held in memory rather than in the database.
+     *
+     * @param sortValue the row's value of the sort column; ignored when sorting by id
+     * @param id the row's id
+     * @return true if the row belongs on a later page than the cursor, or if there is no cursor
+     */
+    boolean follows(String sortValue, int id) {
+        if (after == null) {
+            return true;
+        }
+        int comparison = isSortedById() ? 0 : sortValue.compareTo(after.getLastValue());
+        if (comparison == 0) {
+            comparison = Integer.compare(id, after.getLastId());
+        }
+        return descending ? comparison < 0 : comparison > 0;
+    }
+
+    /**
+     * @return true if the results are sorted in descending order
+     */
+    boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * @return true if the keyset orders by the id alone
+     */
+    boolean isSortedById() {
+        return sortKey.equals(DEFAULT_SORT_KEY);
+    }
+
+    /**
+     * @return the normalized sort key, such as "id" or "name"
+     */
+    String getSortKey() {
+        return sortKey;
+    }
+
+    /**
+     * Builds the page from rows fetched with a limit of one more than the page size. The extra row, if present, is dropped and signals that a next cursor should be issued.
+     *
+     * @param <E> the type of elements in the page
+     * @param rows the rows fetched, at most the page size plus one
+     * @param pageOptions the paging options of the request
+     * @param total the total number of matching elements
+     * @param sortValue extracts the sort value of an element
+     * @param id extracts the id of an element
+     * @return the page, with its next cursor set if more rows remain
+     */
+    <E> Page<E> toPage(List<E> rows, PageOptions pageOptions, TotalCounter.Total total, Function<E, Object> sortValue, ToIntFunction<E> id) {
+        int pageSize = pageOptions.getPageSize();
+        boolean hasMore = rows.size() > pageSize;
+        List<E> items = hasMore ? rows.subList(0, pageSize) : rows;
+        Page<E> page = TotalCounter.toPage(pageOptions, total, items);
+        if (hasMore) {
+            E last = items.get(items.size() - 1);
+            page.setNextCursor(new PageCursor(sortKey, descending, String.valueOf(sortValue.apply(last)), id.applyAsInt(last)).encode());
+        }
+        return page;
+    }
+
+    // below are helper methods for resolving the requested sort order
+
+    /**
+     * @param sortBy the requested sort key; null or blank selects "id"
+     * @param sortColumns the allowed sort keys
+     * @return the normalized sort key
+     * @throws IllegalArgumentException if the sort key is not allowed
+     */
+    private static String sortKey(String sortBy, Map<String, String> sortColumns) {
+        String key = sortBy == null || sortBy.isBlank() ? DEFAULT_SORT_KEY : sortBy.toLowerCase();
+        if (!sortColumns.containsKey(key)) {
+            throw new IllegalArgumentException("Cannot sort by " + sortBy);
+        }
+        return key;
+    }
+
+    /**
+     * @param sortDirection the requested direction
+     * @return true if the direction is "desc", ignoring case
+     */
+    private static boolean isDescending(String sortDirection) {
+        return "desc".equalsIgnoreCase(sortDirection);
+    }
+}
@@ -1,18 +1,25 @@
 package com.revature.dao;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
+import com.revature.util.AppConfig;
+import com.revature.util.BulkResult;
 import com.revature.util.ConnectionUtil;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 import com.revature.model.Chef;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
 
 
 
@@ -26,10 +33,39 @@ import com.revature.model.Recipe;
 public class RecipeDAO {
 
     /**
-	 * DAO for managing Chef entities, used for retrieving chef details associated with recipes.
+	 * The columns selected for every recipe read. Each recipe is joined to its author in the same statement, so loading a page of recipes never issues a separate chef query per row.
 	 */
-	private ChefDAO chefDAO;
-	
+	private static final String RECIPE_COLUMNS = "SELECT r.id, r.name, r.instructions, r.chef_id, "
+			+ "c.username AS chef_username, c.email AS chef_email, c.password AS chef_password, c.is_admin AS chef_is_admin ";
+
+	private static final String SELECT_RECIPE_WITH_CHEF = RECIPE_COLUMNS + "FROM RECIPE r LEFT JOIN CHEF c ON r.chef_id = c.id";
+
+	/**
+	 * The table function listing the recipes found by the full-text index for a query. The index is H2's native full-text search, created in sqlScript.sql and kept up to date by triggers on the RECIPE table.
+	 */
+	private static final String FULL_TEXT_MATCHES = "FT_SEARCH_DATA(?, 0, 0) ft";
+
+	/**
+	 * The recipes found by the full-text index, joined to their authors. Starting from the index matches and joining each to its row by primary key reads only the matching recipes.
+	 */
+	private static final String SELECT_FULL_TEXT_MATCH_WITH_CHEF = RECIPE_COLUMNS + "FROM " + FULL_TEXT_MATCHES
+			+ " JOIN RECIPE r ON r.id = CAST(ft.\"KEYS\"[1] AS INT) LEFT JOIN CHEF c ON r.chef_id = c.id WHERE ft.\"TABLE\" = 'RECIPE'";
+
+	/**
+	 * The keys recipes can be sorted by when paging with a cursor, mapped to their columns.
+	 */
+	private static final Map<String, String> SORT_COLUMNS = Map.of("id", "r.id", "name", "r.name");
+
+	/**
+	 * Limits how many exports run at once. Each export holds a pooled connection until its client has downloaded the whole catalog, so the limit, `export.maxConcurrent`, must stay below `db.pool.maxSize` for slow downloads to leave connections for everything else.
+	 */
+	private static final Semaphore EXPORTS = new Semaphore(Math.max(1, AppConfig.getInt("export.maxConcurrent", 2)));
+
+	/** Counts the recipes matching a paged query, as the request's count mode asks. */
+	private final TotalCounter totalCounter = new TotalCounter("RECIPE");
+
+	/** Counts the recipes matching a full-text query, straight from the index. */
+	private final TotalCounter fullTextCounter = new TotalCounter(FULL_TEXT_MATCHES);
 
 	/**
 	 * DAO for managing Ingredient entities, used for retrieving ingredient details for recipes.
@@ -44,16 +80,14 @@ public class RecipeDAO {
 	
 
     /**
-	 * Constructs a RecipeDAO instance with specified ChefDAO and IngredientDAO.
+	 * Constructs a RecipeDAO instance with specified IngredientDAO. The author of each recipe is read in the same query as the recipe, so no ChefDAO is needed.
 	 *
 	 * TODO: Finish the implementation so that this class's instance variables are initialized accordingly.
 	 * 
-	 * @param chefDAO - the ChefDAO used for retrieving chef details.
 	 * @param ingredientDAO - the IngredientDAO used for retrieving ingredient details.
      * @param connectionUtil - the utility used to connect to the database
 	 */
-	public RecipeDAO(ChefDAO chefDAO, IngredientDAO ingredientDAO, ConnectionUtil connectionUtil) {
-        this.chefDAO = chefDAO;
+	public RecipeDAO(IngredientDAO ingredientDAO, ConnectionUtil connectionUtil) {
 		this.ingredientDAO = ingredientDAO;
         this.connectionUtil = connectionUtil;
     }
@@ -67,13 +101,8 @@ public class RecipeDAO {
 
     public List<Recipe> getAllRecipes(){
 		try (Connection connection = connectionUtil.getConnection()) {
-            String sql = "SELECT * FROM RECIPE ORDER BY id";
-            Statement statement = connection.createStatement();
-            ResultSet rs = statement.executeQuery(sql);
-
-            List<Recipe> recipes = new ArrayList<>();
-            recipes = mapRows(rs);
-            return recipes;
+            String sql = SELECT_RECIPE_WITH_CHEF + " ORDER BY r.id";
+            return Jdbc.queryOnce(connection, sql, this::mapRows);
         } catch (SQLException e) {
             throw new RuntimeException("Error fetching all recipes", e);
         }
@@ -86,34 +115,18 @@ public class RecipeDAO {
      * @return a paginated list of Recipe objects
      */
     public Page<Recipe> getAllRecipes(PageOptions pageOptions){
+        if (pageOptions.isKeyset()) {
+            return seekRecipes(null, pageOptions);
+        }
         try (Connection connection = connectionUtil.getConnection()) {
-            String sql = "SELECT * FROM RECIPE ORDER BY id LIMIT ? OFFSET ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setInt(1, pageOptions.getPageSize());
-            ps.setInt(2, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
-            ResultSet rs = ps.executeQuery();
-
-            List<Recipe> recipes = new ArrayList<>();
-            while (rs.next()) {
-                Chef chef = chefDAO.getChefById(rs.getInt("chef_id"));
-                recipes.add(new Recipe(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("instructions"),
-                        chef
-                ));
-            }
-
-            String countSql = "SELECT COUNT(*) FROM RECIPE";
-            PreparedStatement countPs = connection.prepareStatement(countSql);
-            ResultSet countRs = countPs.executeQuery();
-            int totalCount = 0;
-            if (countRs.next()) {
-                totalCount = countRs.getInt(1);
-            }
-
-            int totalPages = (int) Math.ceil((double) totalCount / pageOptions.getPageSize());
-            return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(), totalPages, totalCount, recipes);
+            String sql = SELECT_RECIPE_WITH_CHEF + " ORDER BY r.id LIMIT ? OFFSET ?";
+            List<Recipe> recipes = Jdbc.query(connection, sql, ps -> {
+                ps.setInt(1, pageOptions.getPageSize());
+                ps.setInt(2, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
+            }, this::mapRows);
+
+            TotalCounter.Total total = totalCounter.count(connection, pageOptions, null, null);
+            return TotalCounter.toPage(pageOptions, total, recipes);
         } catch (SQLException e) {
             throw new RuntimeException("Error fetching paginated recipes", e);
         }  
@@ -128,23 +141,11 @@ public class RecipeDAO {
 
     public List<Recipe> searchRecipesByTerm(String term){
         try (Connection connection = connectionUtil.getConnection()) {
-            String sql = "SELECT * FROM RECIPE WHERE name LIKE ? OR instructions LIKE ? ORDER BY id";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, "%" + term + "%");
-            ps.setString(2, "%" + term + "%");
-            ResultSet rs = ps.executeQuery();
-
-            List<Recipe> recipes = new ArrayList<>();
-            while (rs.next()) {
-                Chef chef = chefDAO.getChefById(rs.getInt("chef_id"));
-                recipes.add(new Recipe(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("instructions"),
-                        chef
-                ));
-            }
-            return recipes;
+            String sql = SELECT_RECIPE_WITH_CHEF + " WHERE r.name LIKE ? OR r.instructions LIKE ? ORDER BY r.id";
+            return Jdbc.query(connection, sql, ps -> {
+                ps.setString(1, "%" + term + "%");
+                ps.setString(2, "%" + term + "%");
+            }, this::mapRows);
         } catch (SQLException e) {
             throw new RuntimeException("Error searching recipes by term: " + term, e);
         }
@@ -159,38 +160,110 @@ public class RecipeDAO {
      */
 
     public Page<Recipe> searchRecipesByTerm(String term, PageOptions pageOptions){
+        if (pageOptions.isKeyset()) {
+            return seekRecipes(term, pageOptions);
+        }
         try (Connection connection = connectionUtil.getConnection()) {
             // Construct the SQL query with default sorting by id
-            String sql = "SELECT * FROM RECIPE WHERE name LIKE ? ORDER BY id LIMIT ? OFFSET ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, "%" + term + "%");
-            ps.setInt(2, pageOptions.getPageSize());
-            ps.setInt(3, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
-    
-            ResultSet rs = ps.executeQuery();
-            List<Recipe> recipes = new ArrayList<>();
-            while (rs.next()) {
-                recipes.add(new Recipe(rs.getInt("id"), rs.getString("name"), rs.getString("instructions"), chefDAO.getChefById(rs.getInt("chef_id"))));
-            }
+            String sql = SELECT_RECIPE_WITH_CHEF + " WHERE r.name LIKE ? ORDER BY r.id LIMIT ? OFFSET ?";
+            List<Recipe> recipes = Jdbc.query(connection, sql, ps -> {
+                ps.setString(1, "%" + term + "%");
+                ps.setInt(2, pageOptions.getPageSize());
+                ps.setInt(3, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
+            }, this::mapRows);
     
-            // Count the total matching elements
-            String countSql = "SELECT COUNT(*) FROM RECIPE WHERE name LIKE ?";
-            PreparedStatement countPs = connection.prepareStatement(countSql);
-            countPs.setString(1, "%" + term + "%");
-            ResultSet countRs = countPs.executeQuery();
-            int totalCount = 0;
-            if (countRs.next()) {
-                totalCount = countRs.getInt(1);
-            }
-    
-            // Calculate total pages
-            int totalPages = (int) Math.ceil((double) totalCount / pageOptions.getPageSize());
-            return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(), totalPages, totalCount, recipes);
+            // Count the total matching elements, unless the request opted out
+            TotalCounter.Total total = totalCounter.count(connection, pageOptions, "name LIKE ?", "%" + term + "%");
+            return TotalCounter.toPage(pageOptions, total, recipes);
         } catch (SQLException e) {
             throw new RuntimeException("Error searching paginated recipes by term: " + term, e);
         }
     }
 
+    /**
+     * Searches recipe names and instructions through the full-text index, and returns the matches as a page ranked by relevance.
+     * 
+     * Unlike searchRecipesByTerm, which scans every recipe with a leading-wildcard LIKE, this looks the query's words up in the index. A recipe matches when it contains every word of the query as a whole word, in either its name or its instructions. Matches are ranked by how many of the words appear as whole words in the name, which counts double, and in the instructions, so that "pea" does not rank "peanut" as a match; ties are ordered by id.
+     * 
+     * @param query the words to search for
+     * @param pageOptions options for pagination, including page size, page number and count mode; cursors are not supported
+     * @return a page of matching Recipe objects, most relevant first
+     * @throws IllegalArgumentException if the page options carry a cursor
+     */
+    public Page<Recipe> searchRecipesFullText(String query, PageOptions pageOptions) {
+        if (pageOptions.isKeyset()) {
+            throw new IllegalArgumentException("Cursor paging is not supported for full-text search");
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : query.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        if (words.isEmpty()) {
+            return TotalCounter.toPage(pageOptions, new TotalCounter.Total(0, Page.TotalType.EXACT), new ArrayList<>());
+        }
+        String indexQuery = String.join(" ", words);
+
+        StringBuilder relevance = new StringBuilder();
+        for (int i = 0; i < words.size(); i++) {
+            relevance.append(i == 0 ? "" : " + ")
+                    .append("CASE WHEN REGEXP_LIKE(r.name, ?, 'i') THEN 2 ELSE 0 END + CASE WHEN REGEXP_LIKE(r.instructions, ?, 'i') THEN 1 ELSE 0 END");
+        }
+
+        try (Connection connection = connectionUtil.getConnection()) {
+            String sql = SELECT_FULL_TEXT_MATCH_WITH_CHEF + " ORDER BY " + relevance + " DESC, r.id LIMIT ? OFFSET ?";
+            List<Recipe> recipes = Jdbc.query(connection, sql, ps -> {
+                int index = 1;
+                ps.setString(index++, indexQuery);
+                for (String word : words) {
+                    // the words hold only letters and digits, so they need no escaping
+                    String wholeWord = "(?<![\\p{L}\\p{N}])" + word + "(?![\\p{L}\\p{N}])";
+                    ps.setString(index++, wholeWord);
+                    ps.setString(index++, wholeWord);
+                }
+                ps.setInt(index++, pageOptions.getPageSize());
+                ps.setInt(index, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
+            }, this::mapRows);
+
+            TotalCounter.Total total = fullTextCounter.count(connection, pageOptions, "ft.\"TABLE\" = 'RECIPE'", indexQuery);
+            return TotalCounter.toPage(pageOptions, total, recipes);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error searching recipes by full-text query: " + query, e);
+        }
+    }
+
+    /**
+     * Retrieves a page of recipes by seeking past the cursor in the page options, rather than skipping rows with OFFSET.
+     * 
+     * One row more than the page size is fetched to find out whether a next cursor should be issued.
+     * 
+     * @param term the search term to filter recipe names by, or null to page through all recipes
+     * @param pageOptions options for pagination, including page size, sort order and cursor
+     * @return a page of Recipe objects, with a next cursor if more recipes remain
+     * @throws IllegalArgumentException if the sort key or cursor is invalid
+     */
+    private Page<Recipe> seekRecipes(String term, PageOptions pageOptions) {
+        Keyset keyset = Keyset.from(pageOptions, SORT_COLUMNS, "r.id");
+        try (Connection connection = connectionUtil.getConnection()) {
+            String sql = SELECT_RECIPE_WITH_CHEF + keyset.where(term != null ? "r.name LIKE ?" : null) + keyset.orderBy() + " LIMIT ?";
+            List<Recipe> recipes = Jdbc.query(connection, sql, ps -> {
+                int index = 1;
+                if (term != null) {
+                    ps.setString(index++, "%" + term + "%");
+                }
+                index = keyset.bindSeek(ps, index);
+                ps.setInt(index, pageOptions.getPageSize() + 1);
+            }, this::mapRows);
+
+            TotalCounter.Total total = totalCounter.count(connection, pageOptions, term != null ? "name LIKE ?" : null, "%" + term + "%");
+            return keyset.toPage(recipes, pageOptions, total,
+                    recipe -> keyset.isSortedById() ? recipe.getId() : recipe.getName(), Recipe::getId);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error seeking paginated recipes", e);
+        }
+    }
+
     /**
      * TODO: Retrieves a specific recipe by its ID.
      * 
@@ -200,25 +273,126 @@ public class RecipeDAO {
      */
 
     public Recipe getRecipeById(int id){
-        Recipe recipe;
 		try (Connection connection = connectionUtil.getConnection()) {
-            String sql = "SELECT * FROM RECIPE WHERE id = ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setInt(1, id);
-            ResultSet rs = ps.executeQuery();
-
-            if (rs.next()) {
-                recipe = mapSingleRow(rs);
-                System.err.println(recipe + "recipe in dao getRecipeById");
-                return recipe;
-            }
-            return null;
+            String sql = SELECT_RECIPE_WITH_CHEF + " WHERE r.id = ?";
+            return Jdbc.query(connection, sql, ps -> ps.setInt(1, id), rs -> rs.next() ? mapSingleRow(rs) : null);
         } catch (SQLException e) {
             throw new RuntimeException("Error fetching recipe by ID: " + id, e);
         }
     }
         
 
+    /**
+     * Fills in the ingredients of each given recipe from the RECIPE_INGREDIENT table.
+     * 
+     * All of the recipes are loaded with a single join, regardless of how many recipes are passed in. Recipes without any ingredients receive an empty list.
+     * 
+     * @param recipes the recipes whose ingredients should be loaded
+     */
+    public void loadIngredients(List<Recipe> recipes) {
+        if (recipes == null || recipes.isEmpty()) {
+            return;
+        }
+        try (Connection connection = connectionUtil.getConnection()) {
+            loadIngredients(connection, recipes);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading recipe ingredients", e);
+        }
+    }
+
+    /**
+     * Fills in the ingredients of each given recipe with a single join, on a connection the caller already holds.
+     * 
+     * @param connection the connection to query on
+     * @param recipes the recipes whose ingredients should be loaded
+     * @throws SQLException if the ingredients could not be read
+     */
+    public void loadIngredients(Connection connection, List<Recipe> recipes) throws SQLException {
+        if (recipes == null || recipes.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<RecipeIngredient>> ingredientsByRecipe = new HashMap<>();
+        StringBuilder placeholders = new StringBuilder();
+        for (Recipe recipe : recipes) {
+            if (ingredientsByRecipe.putIfAbsent(recipe.getId(), new ArrayList<>()) == null) {
+                placeholders.append(placeholders.length() == 0 ? "?" : ", ?");
+            }
+        }
+
+        String sql = "SELECT ri.recipe_id, i.id, i.name, ri.vol, ri.unit FROM RECIPE_INGREDIENT ri "
+                + "JOIN INGREDIENT i ON ri.ingredient_id = i.id WHERE ri.recipe_id IN (" + placeholders + ") ORDER BY ri.recipe_id, ri.id";
+        Jdbc.query(connection, sql, ps -> {
+            int index = 1;
+            for (Integer recipeId : ingredientsByRecipe.keySet()) {
+                ps.setInt(index++, recipeId);
+            }
+        }, rs -> {
+            while (rs.next()) {
+                ingredientsByRecipe.get(rs.getInt("recipe_id")).add(new RecipeIngredient(
+                        rs.getInt("id"),
+                        rs.getString("name"),
+                        rs.getDouble("vol"),
+                        rs.getString("unit")
+                ));
+            }
+            return null;
+        });
+
+        for (Recipe recipe : recipes) {
+            recipe.setIngredients(ingredientsByRecipe.get(recipe.getId()));
+        }
+    }
+
+    /**
+     * Passes every recipe, with its author and ingredients, to the consumer in id order, without holding the whole catalog in memory.
+     * 
+     * The recipes are read from a forward-only result set that H2 produces lazily, `export.fetchSize` rows at a time. Each time that many recipes have been read, their ingredients are loaded with a single query and the recipes are handed to the consumer and forgotten, so memory use depends on the fetch size rather than on the size of the catalog.
+     * 
+     * The export uses a single pooled connection, for the recipes and their ingredients alike, and keeps it until the consumer has taken the last recipe. At most `export.maxConcurrent` exports run at once; any more are refused rather than queued, so slow downloads cannot take the whole pool.
+     * 
+     * @param consumer receives each recipe; any exception it throws stops the export
+     * @throws RejectedExecutionException if `export.maxConcurrent` exports are already running
+     */
+    public void exportRecipes(Consumer<Recipe> consumer) {
+        if (!EXPORTS.tryAcquire()) {
+            throw new RejectedExecutionException("Too many exports are running");
+        }
+        try {
+            export(consumer);
+        } finally {
+            EXPORTS.release();
+        }
+    }
+
+    /**
+     * Runs an export once it has been admitted.
+     * 
+     * @param consumer receives each recipe
+     */
+    private void export(Consumer<Recipe> consumer) {
+        int fetchSize = Math.max(1, AppConfig.getInt("export.fetchSize", 500));
+        try (Connection connection = connectionUtil.getConnection()) {
+            setLazyQueryExecution(connection, true);
+            try {
+                Jdbc.query(connection, SELECT_RECIPE_WITH_CHEF + " ORDER BY r.id", ps -> ps.setFetchSize(fetchSize), rs -> {
+                    List<Recipe> batch = new ArrayList<>(fetchSize);
+                    while (rs.next()) {
+                        batch.add(mapSingleRow(rs));
+                        if (batch.size() == fetchSize) {
+                            emit(connection, batch, consumer);
+                        }
+                    }
+                    emit(connection, batch, consumer);
+                    return null;
+                });
+            } finally {
+                setLazyQueryExecution(connection, false);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error exporting recipes", e);
+        }
+    }
+
     /**
      * TODO: Creates a new recipe in the database.
      * 
@@ -229,28 +403,43 @@ public class RecipeDAO {
     public int createRecipe(Recipe recipe){
 		try (Connection connection = connectionUtil.getConnection()) {
             String sql = "INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)";
-            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            ps.setString(1, recipe.getName());
-            ps.setString(2, recipe.getInstructions());
-            ps.setInt(3, recipe.getAuthor() != null ? recipe.getAuthor().getId() : null);
-
-            int affectedRows = ps.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Creating recipe failed, no rows affected.");
-            }
-
-            ResultSet rs = ps.getGeneratedKeys();
-            if (rs.next()) {
-                int newId = rs.getInt(1);
+            int newId = Jdbc.insert(connection, sql, ps -> {
+                ps.setString(1, recipe.getName());
+                ps.setString(2, recipe.getInstructions());
+                ps.setInt(3, recipe.getAuthor() != null ? recipe.getAuthor().getId() : null);
+            });
+            if (newId != -1) {
                 connection.commit();
-                return newId;
-            } 
-        return -1;
+            }
+            return newId;
         } catch (SQLException e) {
             throw new RuntimeException("Error creating recipe", e);
         }
     }
 
+    /**
+     * Creates many recipes with JDBC batches, `bulk.chunkSize` recipes per batch and transaction. A recipe the database rejects, such as one with a name already taken, is reported as failed without affecting the others.
+     * 
+     * @param recipes the recipes to create; a recipe without an author is created without a chef
+     * @return the new id or the error of each recipe, in the order given
+     */
+    public BulkResult createRecipes(List<Recipe> recipes) {
+        String sql = "INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)";
+        try {
+            return BulkInsert.insert(connectionUtil, sql, recipes, (ps, recipe) -> {
+                ps.setString(1, recipe.getName());
+                ps.setString(2, recipe.getInstructions());
+                if (recipe.getAuthor() != null) {
+                    ps.setInt(3, recipe.getAuthor().getId());
+                } else {
+                    ps.setNull(3, Types.INTEGER);
+                }
+            }, AppConfig.getInt("bulk.chunkSize", 500));
+        } catch (SQLException e) {
+            throw new RuntimeException("Error creating recipes", e);
+        }
+    }
+
     /**
      * TODO: Updates an existing recipe's instructions and chef_id in the database.
      * 
@@ -260,11 +449,11 @@ public class RecipeDAO {
     public void updateRecipe(Recipe recipe){
         try (Connection connection = connectionUtil.getConnection()) {
             String sql = "UPDATE RECIPE SET instructions = ?, chef_id = ? WHERE id = ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, recipe.getInstructions());
-            ps.setInt(2, recipe.getAuthor().getId());
-            ps.setInt(3, recipe.getId());
-            ps.executeUpdate();
+            Jdbc.update(connection, sql, ps -> {
+                ps.setString(1, recipe.getInstructions());
+                ps.setInt(2, recipe.getAuthor().getId());
+                ps.setInt(3, recipe.getId());
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error updating recipe", e);
         }
@@ -282,15 +471,11 @@ public class RecipeDAO {
 
             // Delete dependencies in RECIPE_INGREDIENT first
             String deleteDependencies = "DELETE FROM RECIPE_INGREDIENT WHERE recipe_id = ?";
-            PreparedStatement ps1 = connection.prepareStatement(deleteDependencies);
-            ps1.setInt(1, recipe.getId());
-            ps1.executeUpdate();
+            Jdbc.update(connection, deleteDependencies, ps -> ps.setInt(1, recipe.getId()));
 
             // Delete the recipe itself
             String deleteRecipe = "DELETE FROM RECIPE WHERE id = ?";
-            PreparedStatement ps2 = connection.prepareStatement(deleteRecipe);
-            ps2.setInt(1, recipe.getId());
-            ps2.executeUpdate();
+            Jdbc.update(connection, deleteRecipe, ps -> ps.setInt(1, recipe.getId()));
 
             connection.commit();
         } catch (SQLException e) {
@@ -300,11 +485,37 @@ public class RecipeDAO {
 
 
     // below are helper methods for your convenience
+
+	/**
+	 * Loads the ingredients of a batch of exported recipes, hands the recipes to the consumer, and empties the batch.
+	 *
+	 * @param connection the export's connection, whose recipe result set is still open
+	 * @param batch the recipes read since the last batch was emitted
+	 * @param consumer the consumer of the export
+	 * @throws SQLException if the ingredients could not be read
+	 */
+	private void emit(Connection connection, List<Recipe> batch, Consumer<Recipe> consumer) throws SQLException {
+		loadIngredients(connection, batch);
+		batch.forEach(consumer);
+		batch.clear();
+	}
+
+	/**
+	 * Switches H2's lazy query execution on or off for a connection. With it on, a query's rows are produced as the result set is read rather than all at once when it is executed. The setting belongs to the database session, so a pooled connection must have it switched off again before it is returned.
+	 *
+	 * @param connection the connection to configure
+	 * @param lazy whether queries should run lazily
+	 * @throws SQLException if the setting could not be changed
+	 */
+	private static void setLazyQueryExecution(Connection connection, boolean lazy) throws SQLException {
+		Jdbc.update(connection, "SET LAZY_QUERY_EXECUTION " + lazy, Jdbc.NO_PARAMETERS);
+	}
 	
 	/**
 	 * Maps a single row from the ResultSet to a Recipe object.
 	 * This method extracts the recipe details such as ID, name, instructions,
 	 * and associated chef from the ResultSet and constructs a Recipe instance.
+	 * The chef columns are expected to come from the join in SELECT_RECIPE_WITH_CHEF.
 	 *
 	 * @param set the ResultSet containing the recipe data
 	 * @return a Recipe object representing the mapped row
@@ -314,10 +525,26 @@ public class RecipeDAO {
 		int id = set.getInt("id");
 		String name = set.getString("name");
 		String instructions = set.getString("instructions");
-		Chef author = chefDAO.getChefById(set.getInt("chef_id"));
+		Chef author = mapAuthor(set);
 		return new Recipe(id, name, instructions, author);
 	}
 
+	/**
+	 * Maps the joined chef columns of a recipe row to a Chef object.
+	 *
+	 * @param set the ResultSet containing the recipe and chef data
+	 * @return the recipe's author, or null if the recipe has no matching chef
+	 * @throws SQLException if there is an error accessing the ResultSet
+	 */
+	private Chef mapAuthor(ResultSet set) throws SQLException {
+		String username = set.getString("chef_username");
+		if (username == null) {
+			return null;
+		}
+		return new Chef(set.getInt("chef_id"), username, set.getString("chef_email"),
+				set.getString("chef_password"), set.getBoolean("chef_is_admin"));
+	}
+
 	/**
 	 * Maps multiple rows from a ResultSet to a list of Recipe objects.
 	 * This method iterates through the ResultSet and calls mapSingleRow
@@ -0,0 +1,212 @@
+package com.revature.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.util.BulkResult;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.ImportProgress;
+
+/**
+ * The RecipeImportDAO class writes imported recipes, and keeps the checkpoint each import resumes from.
+ *
+ * The checkpoint of an import is its row in the RECIPE_IMPORT table, holding the number of records handled so far. Each batch of recipes is written in one transaction together with their ingredients and the new checkpoint, so after a failure the checkpoint names exactly the records already written, and resuming from it neither skips nor repeats any.
+ */
+public class RecipeImportDAO {
+
+    private static final String INSERT_RECIPE = "INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)";
+
+    private static final String INSERT_RECIPE_INGREDIENT = "INSERT INTO RECIPE_INGREDIENT (recipe_id, ingredient_id, vol, unit) VALUES (?, ?, ?, ?)";
+
+    private static final String ADVANCE_CHECKPOINT = "UPDATE RECIPE_IMPORT SET position = ?, imported = imported + ?, rejected = rejected + ?, "
+            + "updated_at = ? WHERE import_id = ?";
+
+    /** A utility class for establishing connections to the database. */
+    private final ConnectionUtil connectionUtil;
+
+    /**
+     * Constructs a RecipeImportDAO with the specified ConnectionUtil for database connectivity.
+     *
+     * @param connectionUtil the utility used to connect to the database
+     */
+    public RecipeImportDAO(ConnectionUtil connectionUtil) {
+        this.connectionUtil = connectionUtil;
+    }
+
+    /**
+     * Finds the checkpoint of an import.
+     *
+     * @param importId the id of the import
+     * @param maxRejections the most rejections the returned progress reports
+     * @return the progress of the import as of its checkpoint, or null if there is no import with the id
+     */
+    public ImportProgress findImport(String importId, int maxRejections) {
+        try (Connection connection = connectionUtil.getConnection()) {
+            return findImport(connection, importId, maxRejections);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding import " + importId, e);
+        }
+    }
+
+    /**
+     * Starts an import from its checkpoint, creating the checkpoint if this is the import's first run. An import that has already completed is left as it is.
+     *
+     * @param importId the id of the import
+     * @param maxRejections the most rejections the returned progress reports
+     * @return the progress of the import as of its checkpoint
+     */
+    public ImportProgress startImport(String importId, int maxRejections) {
+        try (Connection connection = connectionUtil.getConnection()) {
+            ImportProgress progress = findImport(connection, importId, maxRejections);
+            if (progress == null) {
+                Jdbc.update(connection, "INSERT INTO RECIPE_IMPORT (import_id, status, position, imported, rejected, updated_at) "
+                        + "VALUES (?, ?, 0, 0, 0, ?)", ps -> {
+                    ps.setString(1, importId);
+                    ps.setString(2, ImportProgress.Status.RUNNING.name());
+                    ps.setLong(3, System.currentTimeMillis());
+                });
+                return new ImportProgress(importId, ImportProgress.Status.RUNNING, 0, 0, 0, maxRejections);
+            }
+            if (progress.getStatus() != ImportProgress.Status.COMPLETED) {
+                setStatus(connection, importId, ImportProgress.Status.RUNNING);
+                return new ImportProgress(importId, ImportProgress.Status.RUNNING, progress.getPosition(), progress.getImported(),
+                        progress.getRejected(), maxRejections);
+            }
+            return progress;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error starting import " + importId, e);
+        }
+    }
+
+    /**
+     * Records how an import's run ended.
+     *
+     * @param importId the id of the import
+     * @param status COMPLETED, or FAILED if the import is to be resumed
+     */
+    public void finishImport(String importId, ImportProgress.Status status) {
+        try (Connection connection = connectionUtil.getConnection()) {
+            setStatus(connection, importId, status);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finishing import " + importId, e);
+        }
+    }
+
+    /**
+     * Reads the id of every chef, for resolving the authors of imported recipes.
+     *
+     * @return the id of each chef, keyed by username
+     */
+    public Map<String, Integer> getChefIds() {
+        try (Connection connection = connectionUtil.getConnection()) {
+            return Jdbc.queryOnce(connection, "SELECT id, username FROM CHEF", rs -> {
+                Map<String, Integer> ids = new HashMap<>();
+                while (rs.next()) {
+                    ids.put(rs.getString("username"), rs.getInt("id"));
+                }
+                return ids;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching chef ids", e);
+        }
+    }
+
+    /**
+     * Reads the id of every ingredient, for resolving the ingredients of imported recipes.
+     *
+     * @return the id of each ingredient, keyed by name
+     */
+    public Map<String, Integer> getIngredientIds() {
+        try (Connection connection = connectionUtil.getConnection()) {
+            return Jdbc.queryOnce(connection, "SELECT id, name FROM INGREDIENT", rs -> {
+                Map<String, Integer> ids = new HashMap<>();
+                while (rs.next()) {
+                    ids.put(rs.getString("name"), rs.getInt("id"));
+                }
+                return ids;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching ingredient ids", e);
+        }
+    }
+
+    /**
+     * Writes a batch of imported recipes with JDBC batches, in one transaction with their ingredients and the import's new checkpoint. Recipes the database rejects are left out, and the rest of the batch is written without them.
+     *
+     * @param importId the id of the import
+     * @param recipes the recipes to write, with the ids of their authors and ingredients resolved
+     * @param rejected the number of records of the batch already rejected before writing, which the checkpoint counts too
+     * @param position the number of records handled once the batch has been written
+     * @return the id or error of each recipe
+     */
+    public BulkResult writeBatch(String importId, List<Recipe> recipes, int rejected, long position) {
+        try (Connection connection = connectionUtil.getConnection()) {
+            BulkResult result = BulkInsert.insertChunk(connection, INSERT_RECIPE, recipes, (ps, recipe) -> {
+                ps.setString(1, recipe.getName());
+                ps.setString(2, recipe.getInstructions());
+                if (recipe.getAuthor() != null) {
+                    ps.setInt(3, recipe.getAuthor().getId());
+                } else {
+                    ps.setNull(3, Types.INTEGER);
+                }
+            }, (conn, indexes, keys) -> {
+                List<Map.Entry<Integer, RecipeIngredient>> rows = new ArrayList<>();
+                for (int i = 0; i < keys.length; i++) {
+                    for (RecipeIngredient ingredient : recipes.get(indexes.get(i)).getIngredients()) {
+                        rows.add(Map.entry(keys[i], ingredient));
+                    }
+                }
+                if (!rows.isEmpty()) {
+                    Jdbc.updateBatch(conn, INSERT_RECIPE_INGREDIENT, rows, (ps, row) -> {
+                        ps.setInt(1, row.getKey());
+                        ps.setInt(2, row.getValue().getId());
+                        ps.setDouble(3, row.getValue().getVolume());
+                        ps.setString(4, row.getValue().getUnit());
+                    });
+                }
+                advance(conn, importId, position, keys.length, rejected + recipes.size() - keys.length);
+            });
+            if (result.getCreated() == 0) {
+                // nothing was committed, so neither was the checkpoint
+                advance(connection, importId, position, 0, rejected + recipes.size());
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error writing imported recipes", e);
+        }
+    }
+
+    // below are helper methods that read and write the checkpoint
+
+    private ImportProgress findImport(Connection connection, String importId, int maxRejections) throws SQLException {
+        return Jdbc.query(connection, "SELECT status, position, imported, rejected FROM RECIPE_IMPORT WHERE import_id = ?",
+                ps -> ps.setString(1, importId),
+                rs -> rs.next() ? new ImportProgress(importId, ImportProgress.Status.valueOf(rs.getString("status")), rs.getLong("position"),
+                        rs.getLong("imported"), rs.getLong("rejected"), maxRejections) : null);
+    }
+
+    private void setStatus(Connection connection, String importId, ImportProgress.Status status) throws SQLException {
+        Jdbc.update(connection, "UPDATE RECIPE_IMPORT SET status = ?, updated_at = ? WHERE import_id = ?", ps -> {
+            ps.setString(1, status.name());
+            ps.setLong(2, System.currentTimeMillis());
+            ps.setString(3, importId);
+        });
+    }
+
+    private void advance(Connection connection, String importId, long position, long imported, long rejected) throws SQLException {
+        Jdbc.update(connection, ADVANCE_CHECKPOINT, ps -> {
+            ps.setLong(1, position);
+            ps.setLong(2, imported);
+            ps.setLong(3, rejected);
+            ps.setLong(4, System.currentTimeMillis());
+            ps.setString(5, importId);
+        });
+    }
+}
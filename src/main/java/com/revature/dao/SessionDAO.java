@@ -0,0 +1,185 @@
+package com.revature.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.revature.model.Chef;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.Metrics;
+import com.revature.util.SessionStore;
+
+/**
+ * The SessionDAO class keeps sessions in the CHEF_SESSION table, so that several servers sharing the database also share their sessions.
+ *
+ * Times are stored as epoch milliseconds, so every server must keep its clock in sync. Writing the last-used time on every request would turn each read into a write, so it is only written once it is more than a tenth of the idle TTL old; a session may therefore end up to that much earlier than the idle TTL alone would suggest.
+ */
+public class SessionDAO implements SessionStore {
+
+    /** A utility class used for establishing connections to the database. */
+    private final ConnectionUtil connectionUtil;
+
+    private final long idleTtlMs;
+    private final long absoluteTtlMs;
+    private final int maxSessionsPerChef;
+    /** How stale the stored last-used time may get before a read writes it again. */
+    private final long touchIntervalMs;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    /** Runs the periodic sweep, or null if sweeping was turned off. */
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * @param connectionUtil the utility used to connect to the database
+     * @param idleTtlMs how long a session lasts without being used
+     * @param absoluteTtlMs how long a session lasts at most, however often it is used
+     * @param maxSessionsPerChef how many sessions one chef may hold at once
+     * @param sweepIntervalMs how often expired sessions are swept out; 0 or less turns the sweeper off
+     */
+    public SessionDAO(ConnectionUtil connectionUtil, long idleTtlMs, long absoluteTtlMs, int maxSessionsPerChef, long sweepIntervalMs) {
+        if (maxSessionsPerChef < 1) {
+            throw new IllegalArgumentException("Invalid session limit: " + maxSessionsPerChef);
+        }
+        this.connectionUtil = connectionUtil;
+        this.idleTtlMs = idleTtlMs;
+        this.absoluteTtlMs = absoluteTtlMs;
+        this.maxSessionsPerChef = maxSessionsPerChef;
+        this.touchIntervalMs = idleTtlMs / 10;
+        if (sweepIntervalMs > 0) {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(this::sweepQuietly, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.sweeper = null;
+        }
+    }
+
+    /**
+     * Inserts the session and, in the same transaction, deletes the chef's sessions beyond the newest maxSessionsPerChef.
+     */
+    @Override
+    public void create(String token, Chef chef) {
+        long now = System.currentTimeMillis();
+        try (Connection connection = connectionUtil.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                Jdbc.update(connection, "INSERT INTO CHEF_SESSION (token, chef_id, created_at, last_seen) VALUES (?, ?, ?, ?)", ps -> {
+                    ps.setString(1, token);
+                    ps.setInt(2, chef.getId());
+                    ps.setLong(3, now);
+                    ps.setLong(4, now);
+                });
+
+                evicted.add(Jdbc.update(connection, "DELETE FROM CHEF_SESSION WHERE chef_id = ? AND token NOT IN "
+                        + "(SELECT token FROM CHEF_SESSION WHERE chef_id = ? ORDER BY created_at DESC, token LIMIT ?)", ps -> {
+                    ps.setInt(1, chef.getId());
+                    ps.setInt(2, chef.getId());
+                    ps.setInt(3, maxSessionsPerChef);
+                }));
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            created.increment();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error creating session", e);
+        }
+    }
+
+    @Override
+    public Chef get(String token) {
+        long now = System.currentTimeMillis();
+        try (Connection connection = connectionUtil.getConnection()) {
+            return Jdbc.query(connection, "SELECT c.*, s.last_seen FROM CHEF_SESSION s JOIN CHEF c ON c.id = s.chef_id "
+                    + "WHERE s.token = ? AND s.created_at > ? AND s.last_seen > ?", ps -> {
+                ps.setString(1, token);
+                ps.setLong(2, now - absoluteTtlMs);
+                ps.setLong(3, now - idleTtlMs);
+            }, rs -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                if (now - rs.getLong("last_seen") > touchIntervalMs) {
+                    Jdbc.update(connection, "UPDATE CHEF_SESSION SET last_seen = ? WHERE token = ?", ps -> {
+                        ps.setLong(1, now);
+                        ps.setString(2, token);
+                    });
+                }
+                return new Chef(rs.getInt("id"), rs.getString("username"), rs.getString("email"), rs.getString("password"), rs.getBoolean("is_admin"));
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching session", e);
+        }
+    }
+
+    @Override
+    public void remove(String token) {
+        try (Connection connection = connectionUtil.getConnection()) {
+            Jdbc.update(connection, "DELETE FROM CHEF_SESSION WHERE token = ?", ps -> ps.setString(1, token));
+        } catch (SQLException e) {
+            throw new RuntimeException("Error deleting session", e);
+        }
+    }
+
+    @Override
+    public int sweep() {
+        long now = System.currentTimeMillis();
+        try (Connection connection = connectionUtil.getConnection()) {
+            int removed = Jdbc.update(connection, "DELETE FROM CHEF_SESSION WHERE created_at <= ? OR last_seen <= ?", ps -> {
+                ps.setLong(1, now - absoluteTtlMs);
+                ps.setLong(2, now - idleTtlMs);
+            });
+            expired.add(removed);
+            return removed;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error sweeping expired sessions", e);
+        }
+    }
+
+    @Override
+    public int size() {
+        try (Connection connection = connectionUtil.getConnection()) {
+            return Jdbc.query(connection, "SELECT COUNT(*) FROM CHEF_SESSION", Jdbc.NO_PARAMETERS, rs -> rs.next() ? rs.getInt(1) : 0);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error counting sessions", e);
+        }
+    }
+
+    @Override
+    public void registerMetrics(String prefix) {
+        Metrics.gauge(prefix + "_active", "Sessions currently held, including expired ones not yet swept", this::size);
+        Metrics.register(prefix + "_created_total", "Sessions started by a login on this server", Metrics.Type.COUNTER, created);
+        Metrics.register(prefix + "_expired_total", "Expired sessions swept out by this server", Metrics.Type.COUNTER, expired);
+        Metrics.register(prefix + "_evicted_total", "Sessions ended because their chef logged in too many times", Metrics.Type.COUNTER, evicted);
+    }
+
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Sweeps from the background thread, where a failure must not cancel the schedule. The next run tries again.
+     */
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            // the database may be briefly unavailable; expired sessions are already rejected by get
+        }
+    }
+}
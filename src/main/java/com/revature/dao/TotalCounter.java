@@ -0,0 +1,193 @@
+package com.revature.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import com.revature.util.AppConfig;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+import com.revature.util.PageOptions.CountMode;
+import com.revature.util.TtlCache;
+
+/**
+ * The TotalCounter class works out the total number of rows matching a paged query, in whichever way the request's count mode asks for.
+ *
+ * A full COUNT(*) with a LIKE filter scans as many rows as the page query itself, so callers can instead skip the count, accept an estimate, or reuse a count taken a few seconds earlier. Each DAO holds one counter per table, and the counter keeps its own short-lived cache of counts keyed by search term.
+ */
+class TotalCounter {
+
+    /**
+     * A total number of rows, along with how it was worked out.
+     */
+    static class Total {
+
+        private final int elements;
+        private final Page.TotalType type;
+
+        Total(int elements, Page.TotalType type) {
+            this.elements = elements;
+            this.type = type;
+        }
+
+        int getElements() {
+            return elements;
+        }
+
+        Page.TotalType getType() {
+            return type;
+        }
+    }
+
+    /** The cache key used for counts without a filter. */
+    private static final String ALL = "\0all";
+
+    /** The table, or table expression, whose rows are counted. */
+    private final String table;
+    /** Recent exact counts, keyed by search parameter. */
+    private final TtlCache<String, Integer> cache;
+    /** The number of matches at which an estimated count stops counting. */
+    private final int estimateLimit;
+    /** The number of rows sampled to extrapolate an estimated count that reached the limit. */
+    private final int estimateSample;
+
+    /**
+     * @param table the table whose rows are counted, or a table expression such as a table function; any placeholders in it are bound like those of the filter
+     */
+    TotalCounter(String table) {
+        this.table = table;
+        this.cache = new TtlCache<>(AppConfig.getLong("page.count.cacheTtlMs", 5000), AppConfig.getInt("page.count.cacheMaxSize", 1000));
+        this.estimateLimit = AppConfig.getInt("page.count.estimateLimit", 1000);
+        this.estimateSample = AppConfig.getInt("page.count.estimateSample", 10000);
+    }
+
+    /**
+     * Counts the rows matching a filter, using the count mode of the page options.
+     *
+     * @param connection the connection to count with
+     * @param pageOptions the paging options of the request
+     * @param filter the WHERE condition of the paged query, or null if it has none
+     * @param parameter the value bound to every placeholder in the table expression and filter
+     * @return the total, along with how it was worked out
+     * @throws SQLException if the count could not be read
+     */
+    Total count(Connection connection, PageOptions pageOptions, String filter, String parameter) throws SQLException {
+        CountMode mode = pageOptions.getCountMode() != null ? pageOptions.getCountMode() : CountMode.EXACT;
+        switch (mode) {
+            case NONE:
+                return new Total(-1, Page.TotalType.OMITTED);
+            case CACHED:
+                String key = filter == null ? ALL : parameter;
+                Integer cached = cache.get(key);
+                if (cached != null) {
+                    return new Total(cached, Page.TotalType.ESTIMATED);
+                }
+                int counted = countExact(connection, filter, parameter);
+                cache.put(key, counted);
+                return new Total(counted, Page.TotalType.EXACT);
+            case ESTIMATE:
+                return estimate(connection, filter, parameter);
+            default:
+                return new Total(countExact(connection, filter, parameter), Page.TotalType.EXACT);
+        }
+    }
+
+    /**
+     * Reports a total that is already known exactly, such as the size of a list held in memory, unless the request asked for no count at all.
+     *
+     * @param pageOptions the paging options of the request
+     * @param elements the number of matching elements
+     * @return the total, along with how it was worked out
+     */
+    static Total known(PageOptions pageOptions, int elements) {
+        if (pageOptions.getCountMode() == CountMode.NONE) {
+            return new Total(-1, Page.TotalType.OMITTED);
+        }
+        return new Total(elements, Page.TotalType.EXACT);
+    }
+
+    /**
+     * Builds a page from its items and total. The total type is only shown when the request asked for a specific count mode, so responses to plain requests are unchanged.
+     *
+     * @param <E> the type of elements in the page
+     * @param pageOptions the paging options of the request
+     * @param total the total number of matching elements
+     * @param items the items of the page
+     * @return the page
+     */
+    static <E> Page<E> toPage(PageOptions pageOptions, Total total, List<E> items) {
+        boolean pagesKnown = total.getElements() >= 0 && total.getType() != Page.TotalType.AT_LEAST;
+        int totalPages = pagesKnown ? (int) Math.ceil((double) total.getElements() / pageOptions.getPageSize()) : -1;
+        Page<E> page = new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(), totalPages, total.getElements(), items);
+        if (pageOptions.getCountMode() != null) {
+            page.setTotalType(total.getType());
+        }
+        return page;
+    }
+
+    /**
+     * @return the number of rows matching the filter
+     */
+    private int countExact(Connection connection, String filter, String parameter) throws SQLException {
+        return Jdbc.query(connection, "SELECT COUNT(*) FROM " + table + (filter != null ? " WHERE " + filter : ""),
+                ps -> bind(ps, table + (filter != null ? " " + filter : ""), parameter),
+                rs -> rs.next() ? rs.getInt(1) : 0);
+    }
+
+    /**
+     * Estimates the rows matching the filter. Without a filter, the row count kept in the table statistics is used. With a filter, matches are counted only up to estimateLimit, and fewer matches than that are an exact count.
+     *
+     * When the limit is reached, the table's row count is scaled by the share of matches among its first estimateSample rows, and the result is reported as an estimate. A table expression has no statistics to scale, so its count is reported as a lower bound instead, without a number of pages.
+     *
+     * @return the estimated total
+     */
+    private Total estimate(Connection connection, String filter, String parameter) throws SQLException {
+        Long rows = rowCountEstimate(connection);
+        if (filter == null) {
+            if (rows != null) {
+                return new Total((int) Math.min(rows, Integer.MAX_VALUE), Page.TotalType.ESTIMATED);
+            }
+            return new Total(countExact(connection, null, null), Page.TotalType.EXACT);
+        }
+        int counted = Jdbc.query(connection, "SELECT COUNT(*) FROM (SELECT 1 FROM " + table + " WHERE " + filter + " LIMIT ?)",
+                ps -> ps.setInt(bind(ps, table + " " + filter, parameter), estimateLimit),
+                rs -> rs.next() ? rs.getInt(1) : 0);
+        if (counted < estimateLimit) {
+            return new Total(counted, Page.TotalType.EXACT);
+        }
+        if (rows == null) {
+            return new Total(counted, Page.TotalType.AT_LEAST);
+        }
+        long[] sample = Jdbc.query(connection, "SELECT COUNT(*), COUNT(CASE WHEN " + filter + " THEN 1 END) FROM (SELECT * FROM " + table + " LIMIT ?)",
+                ps -> ps.setInt(bind(ps, filter, parameter), estimateSample),
+                rs -> rs.next() ? new long[] { rs.getLong(1), rs.getLong(2) } : new long[2]);
+        long extrapolated = sample[0] == 0 ? counted : Math.round((double) rows * sample[1] / sample[0]);
+        return new Total((int) Math.min(Math.max(extrapolated, counted), Integer.MAX_VALUE), Page.TotalType.ESTIMATED);
+    }
+
+    /**
+     * @return the row count kept in the statistics of the table, or null if it is a table expression without statistics
+     */
+    private Long rowCountEstimate(Connection connection) throws SQLException {
+        return Jdbc.query(connection,
+                "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ?",
+                ps -> ps.setString(1, table),
+                rs -> rs.next() ? rs.getLong(1) : null);
+    }
+
+    /**
+     * Binds the parameter to every placeholder in the given SQL fragment.
+     *
+     * @return the index of the next parameter after the fragment's placeholders
+     */
+    private static int bind(PreparedStatement ps, String fragment, String parameter) throws SQLException {
+        int index = 1;
+        for (int i = 0; i < fragment.length(); i++) {
+            if (fragment.charAt(i) == '?') {
+                ps.setString(index++, parameter);
+            }
+        }
+        return index;
+    }
+}
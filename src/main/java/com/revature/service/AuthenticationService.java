@@ -1,10 +1,18 @@
 package com.revature.service;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import com.revature.dao.SessionDAO;
 import com.revature.model.Chef;
+import com.revature.util.AppConfig;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.FlightEvents;
+import com.revature.util.InMemorySessionStore;
+import com.revature.util.JdbcExecutor;
+import com.revature.util.LatencyHistogram;
+import com.revature.util.Metrics;
+import com.revature.util.SessionStore;
 
 
 /**
@@ -12,7 +20,12 @@ import com.revature.model.Chef;
  * for Chef objects. It manages the login, logout, and registration
  * processes, as well as session management for chefs. This service 
  * utilizes a ChefService to perform operations related to chefs and 
- * maintains a session map to track active sessions.
+ * a SessionStore to track active sessions.
+ * 
+ * Services created without a store of their own share a default store, so
+ * every part of the application sees the same sessions. A store kept in the
+ * database is used through the default JdbcExecutor, so that its statements
+ * run on platform threads.
  */
 
 public class AuthenticationService {
@@ -24,47 +37,122 @@ public class AuthenticationService {
     @SuppressWarnings("unused")
     private ChefService chefService;
 
-    /** A map that keeps track of currently logged in users, indexed by session token. */
-    public static Map<String, Chef> loggedInUsers = new HashMap<>();
+    /** The store shared by services created without one, or null until first needed. */
+    private static SessionStore defaultSessionStore;
+
+    /** The store that keeps track of currently logged in users, indexed by session token. */
+    private final SessionStore sessions;
+
+    /** How long each login attempt takes, successful or not. */
+    private final LatencyHistogram loginLatency = new LatencyHistogram();
+    private final LongAdder loginSuccesses = new LongAdder();
+    private final LongAdder loginFailures = new LongAdder();
 
     /**
-     * Constructs an AuthenticationService with the specified ChefService and a newly created HashMap for the LoggedInUsers.
+     * Constructs an AuthenticationService with the specified ChefService and the default session store.
      *
      * @param chefService the ChefService to be used by this authentication service
      */
     public AuthenticationService(ChefService chefService) {
+        this(chefService, getDefaultSessionStore());
+    }
+
+    /**
+     * Constructs an AuthenticationService with the specified ChefService and SessionStore.
+     *
+     * @param chefService the ChefService to be used by this authentication service
+     * @param sessions the store that keeps track of logged in users
+     */
+    public AuthenticationService(ChefService chefService, SessionStore sessions) {
         this.chefService = chefService;
-        loggedInUsers = new HashMap<>();
+        this.sessions = sessions;
+    }
+
+    /**
+     * Returns the session store shared by services created without one, creating an in-memory store from the application settings if none has been set.
+     *
+     * @return the default session store
+     */
+    public static synchronized SessionStore getDefaultSessionStore() {
+        if (defaultSessionStore == null) {
+            defaultSessionStore = createSessionStore(null);
+        }
+        return defaultSessionStore;
     }
 
     /**
-     * TODO: Authenticates a chef by verifying the provided credentials. If successful, a session token is generated and stored in the logged in users map.
+     * Replaces the session store shared by services created without one. Services already created keep the store they were given.
+     *
+     * @param sessions the new default session store
+     */
+    public static synchronized void setDefaultSessionStore(SessionStore sessions) {
+        defaultSessionStore = sessions;
+    }
+
+    /**
+     * Creates the session store named by the `session.store` setting: `jdbc` for a store in the database, or `memory` otherwise.
+     *
+     * @param connectionUtil the utility used to connect to the database, if the store is kept there
+     * @return the new session store, with its sweeper running
+     */
+    public static SessionStore createSessionStore(ConnectionUtil connectionUtil) {
+        long idleTtlMs = AppConfig.getLong("session.idleTtlMs", 1800000);
+        long absoluteTtlMs = AppConfig.getLong("session.absoluteTtlMs", 43200000);
+        int maxPerChef = AppConfig.getInt("session.maxPerChef", 10);
+        long sweepIntervalMs = AppConfig.getLong("session.sweepIntervalMs", 60000);
+        if ("jdbc".equalsIgnoreCase(AppConfig.get("session.store", "memory"))) {
+            return new SessionDAO(connectionUtil != null ? connectionUtil : new ConnectionUtil(), idleTtlMs, absoluteTtlMs, maxPerChef, sweepIntervalMs);
+        }
+        return new InMemorySessionStore(idleTtlMs, absoluteTtlMs, maxPerChef, sweepIntervalMs);
+    }
+
+    /**
+     * Publishes the login latency histogram and the counts of successful and failed logins to the Metrics registry.
+     *
+     * @param prefix the prefix for each metric name, such as "auth"
+     */
+    public void registerMetrics(String prefix) {
+        Metrics.register(prefix + "_login_seconds", "Time taken by each login attempt", Metrics.Type.HISTOGRAM, loginLatency);
+        Metrics.register(prefix + "_login_success_total", "Logins with valid credentials", Metrics.Type.COUNTER, loginSuccesses);
+        Metrics.register(prefix + "_login_failure_total", "Logins with an unknown username or a wrong password", Metrics.Type.COUNTER, loginFailures);
+    }
+
+    /**
+     * TODO: Authenticates a chef by verifying the provided credentials. If successful, a session token is generated and stored in the session store.
+     * 
+     * The chef is looked up by exact username, so a login costs one indexed read, or none for a username recently found not to exist.
      * 
      * @param chef the Chef object containing login credentials
      * @return a session token if the login is successful; null otherwise
      */
     public String login(Chef chef) {
-        List<Chef> chefs = chefService.searchChefs(chef.getUsername());
-        Optional<Chef> existingChef = chefs.stream()
-            .filter(c -> c.getUsername().equals(chef.getUsername()) && c.getPassword().equals(chef.getPassword()))
-            .findFirst();
-
-        if (existingChef.isPresent()) {
-            String token = UUID.randomUUID().toString();
-            loggedInUsers.put(token, existingChef.get());
-            return token;
+        long start = System.nanoTime();
+        try {
+            Optional<Chef> existingChef = chef.getUsername() == null ? Optional.empty()
+                : chefService.findChefByUsername(chef.getUsername())
+                    .filter(c -> c.getPassword().equals(chef.getPassword()));
+
+            if (existingChef.isPresent()) {
+                String token = UUID.randomUUID().toString();
+                onStore(() -> sessions.create(token, existingChef.get()));
+                loginSuccesses.increment();
+                return token;
+            }
+            loginFailures.increment();
+            return null;
+        } finally {
+            loginLatency.recordSince(start);
         }
-        return null;
     }
 
     /**
-     * TODO: Logs out a chef by removing their session token from the LoggedInUsers map.
+     * TODO: Logs out a chef by removing their session token from the session store.
      *
      * @param token the session token of the chef to be logged out
      */
 
     public void logout(String token) {
-        loggedInUsers.remove(token);
+        onStore(() -> sessions.remove(token));
     }
 
     /**
@@ -81,14 +169,37 @@ public class AuthenticationService {
     /**
      * TODO: Retrieves a Chef object from the session token.
      *
+     * Each lookup is emitted as a Flight Recorder event while a recording has those enabled; the token itself is never recorded.
+     *
      * @param token the session token used to retrieve the chef
-     * @return the Chef object associated with the session token; null if not found
+     * @return the Chef object associated with the session token; null if not found or expired
      */
     public Chef getChefFromSessionToken(String token) {
-        if (token == null || !loggedInUsers.containsKey(token)) {
+        if (token == null) {
             return null;
         }
-        System.out.println(loggedInUsers.get(token));
-        return loggedInUsers.get(token);
+        FlightEvents.SessionLookupEvent event = new FlightEvents.SessionLookupEvent();
+        event.begin();
+        Chef chef = onStore(() -> sessions.get(token));
+        if (event.shouldCommit()) {
+            event.store = sessions.getClass().getSimpleName();
+            event.found = chef != null;
+            event.commit();
+        }
+        return chef;
+    }
+
+    /**
+     * Runs an operation on the session store, through the default JdbcExecutor if the store is kept in the database.
+     */
+    private <T> T onStore(Supplier<T> operation) {
+        return sessions instanceof SessionDAO ? JdbcExecutor.getDefault().call(operation) : operation.get();
+    }
+
+    private void onStore(Runnable operation) {
+        onStore(() -> {
+            operation.run();
+            return null;
+        });
     }
 }
@@ -3,11 +3,14 @@ package com.revature.service;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import com.revature.model.Chef;
 import com.revature.dao.ChefDAO;
+import com.revature.util.JdbcExecutor;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.RequestTiming;
 
 /**
  * The ChefService class provides services related to Chef objects,
@@ -15,6 +18,9 @@ import com.revature.util.PageOptions;
  * bridge between the data access layer (ChefDao) and the application 
  * logic, ensuring that all operations on Chef objects are managed 
  * consistently and efficiently.
+ *
+ * findChefAsync and the other Async methods queue the same calls on the
+ * JdbcExecutor the service was given.
  */
 public class ChefService {
 
@@ -22,6 +28,9 @@ public class ChefService {
     @SuppressWarnings("unused")
     private ChefDAO chefDAO;
 
+    /** The executor that runs the database work of the Async methods, and of the others when they are called on a virtual thread. */
+    private final JdbcExecutor executor;
+
     /**
      * Constructs a ChefService with the specified ChefDAO.
      *
@@ -30,7 +39,18 @@ public class ChefService {
      * @param chefDao the ChefDao to be used by this service for data access
      */
     public ChefService(ChefDAO chefDAO) {
+        this(chefDAO, JdbcExecutor.getDefault());
+    }
+
+    /**
+     * Constructs a ChefService with the specified ChefDAO and the executor for its Async methods.
+     *
+     * @param chefDao the ChefDao to be used by this service for data access
+     * @param executor the executor that runs the database work of the Async methods
+     */
+    public ChefService(ChefDAO chefDAO, JdbcExecutor executor) {
         this.chefDAO = chefDAO;
+        this.executor = executor;
     }
 
     /**
@@ -41,7 +61,22 @@ public class ChefService {
      *         an empty Optional if not found
      */
     public Optional<Chef> findChef(int id) {
-        return Optional.ofNullable(chefDAO.getChefById(id)); 
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            return executor.call(() -> Optional.ofNullable(chefDAO.getChefById(id)));
+        }
+    }
+
+    /**
+     * Finds a Chef by their exact username.
+     *
+     * @param username the username of the chef to be found
+     * @return an Optional containing the found Chef if present; 
+     *         an empty Optional if not found
+     */
+    public Optional<Chef> findChefByUsername(String username) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            return executor.call(() -> Optional.ofNullable(chefDAO.getChefByUsername(username)));
+        }
     }
 
     /**
@@ -53,11 +88,15 @@ public class ChefService {
      * @throws SQLException 
      */
     public void saveChef(Chef chef) {
-        if (chef.getId() == 0) {
-            int newId = chefDAO.createChef(chef);
-            chef.setId(newId);
-        } else {
-            chefDAO.updateChef(chef);
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            executor.call(() -> {
+                if (chef.getId() == 0) {
+                    int newId = chefDAO.createChef(chef);
+                    chef.setId(newId);
+                } else {
+                    chefDAO.updateChef(chef);
+                }
+            });
         }
     }
 
@@ -71,10 +110,12 @@ public class ChefService {
 	 * @throws SQLException 
      */
     public List<Chef> searchChefs(String term) {
-        if (term == null || term.isBlank()) {
-            return chefDAO.getAllChefs();
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            if (term == null || term.isBlank()) {
+                return executor.call(() -> chefDAO.getAllChefs());
+            }
+            return executor.call(() -> chefDAO.searchChefsByTerm(term));
         }
-        return chefDAO.searchChefsByTerm(term);
     }
 
     /**
@@ -84,7 +125,9 @@ public class ChefService {
      * @throws SQLException 
      */
     public void deleteChef(int id){
-        chefDAO.deleteChef(chefDAO.getChefById(id));
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            executor.call(() -> chefDAO.deleteChef(chefDAO.getChefById(id)));
+        }
     }
 
     /**
@@ -99,11 +142,83 @@ public class ChefService {
      */
 	
     public Page<Chef> searchChefs(String term, int page, int pageSize, String sortBy, String sortDirection) {
-        PageOptions pageOptions = new PageOptions(page, pageSize);
-        if (term == null || term.isBlank()) {
-            return chefDAO.getAllChefs(pageOptions);
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            PageOptions pageOptions = new PageOptions(page, pageSize);
+            if (term == null || term.isBlank()) {
+                return executor.call(() -> chefDAO.getAllChefs(pageOptions));
+            }
+            return executor.call(() -> chefDAO.searchChefsByTerm(term, pageOptions));
         }
-        return chefDAO.searchChefsByTerm(term, pageOptions);
+    }
+
+    /**
+     * Searches for chefs one page at a time, using the given page options as they are. This is how cursor-based pages are requested.
+     *
+     * @param term the search term used to find chefs
+     * @param pageOptions the paging options, including any cursor returned with the previous page
+     * @return a Page containing the results of the search
+     */
+    public Page<Chef> searchChefs(String term, PageOptions pageOptions) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            if (term == null || term.isBlank()) {
+                return executor.call(() -> chefDAO.getAllChefs(pageOptions));
+            }
+            return executor.call(() -> chefDAO.searchChefsByTerm(term, pageOptions));
+        }
+    }
+
+    /**
+     * Finds a Chef by their unique identifier on the executor, as findChef does.
+     *
+     * @param id the unique identifier of the chef to be found
+     * @return a future completed with the found Chef, or an empty Optional if not found
+     */
+    public CompletableFuture<Optional<Chef>> findChefAsync(int id) {
+        return executor.supply(() -> findChef(id));
+    }
+
+    /**
+     * Finds a Chef by their exact username on the executor, as findChefByUsername does.
+     *
+     * @param username the username of the chef to be found
+     * @return a future completed with the found Chef, or an empty Optional if not found
+     */
+    public CompletableFuture<Optional<Chef>> findChefByUsernameAsync(String username) {
+        return executor.supply(() -> findChefByUsername(username));
+    }
+
+    /**
+     * Searches for chefs one page at a time on the executor, as searchChefs does.
+     *
+     * @param term the search term used to find chefs
+     * @param pageOptions the paging options, including any cursor returned with the previous page
+     * @return a future completed with a Page containing the results of the search
+     */
+    public CompletableFuture<Page<Chef>> searchChefsAsync(String term, PageOptions pageOptions) {
+        return executor.supply(() -> searchChefs(term, pageOptions));
+    }
+
+    /**
+     * Saves a Chef entity on the executor, as saveChef does.
+     *
+     * @param chef the Chef entity to be saved or updated
+     * @return a future completed with the saved chef, whose id is set if it was created
+     */
+    public CompletableFuture<Chef> saveChefAsync(Chef chef) {
+        return executor.supply(() -> {
+            saveChef(chef);
+            return chef;
+        });
+    }
+
+    /**
+     * Deletes a Chef by their unique identifier on the executor, as deleteChef does.
+     *
+     * @param id the unique identifier of the Chef to be deleted
+     * @return a future completed once the chef is deleted
+     */
+    public CompletableFuture<Void> deleteChefAsync(int id) {
+        return executor.run(() -> deleteChef(id));
     }
 }
 
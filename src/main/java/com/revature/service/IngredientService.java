@@ -2,11 +2,16 @@ package com.revature.service;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import com.revature.dao.IngredientDAO;
 import com.revature.model.Ingredient;
+import com.revature.util.BulkResult;
+import com.revature.util.JdbcExecutor;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.RequestTiming;
 
 
 /**
@@ -15,6 +20,11 @@ import com.revature.util.PageOptions;
  * as a mediator between the data access layer (IngredientDao) and the 
  * application logic, ensuring that all operations on Ingredient objects 
  * are performed consistently and efficiently.
+ *
+ * Reads are answered from the IngredientDAO's in-memory dictionary, so
+ * findIngredientAsync and searchIngredientsAsync complete on the calling
+ * thread unless the dictionary has to be reloaded first. Only writes, and
+ * those reloads, wait for the JdbcExecutor.
  */
 
 public class IngredientService {
@@ -23,6 +33,9 @@ public class IngredientService {
     @SuppressWarnings("unused")
     private IngredientDAO ingredientDAO;
 
+    /** The executor that runs the database work of the Async methods, and of the others when they are called on a virtual thread. */
+    private final JdbcExecutor executor;
+
     /**
      * Constructs an IngredientService with the specified IngredientDao.
      *
@@ -32,7 +45,18 @@ public class IngredientService {
      */
 
     public IngredientService(IngredientDAO ingredientDAO) {
+       this(ingredientDAO, JdbcExecutor.getDefault());
+    }
+
+    /**
+     * Constructs an IngredientService with the specified IngredientDao and the executor for its Async methods.
+     *
+     * @param ingredientDao the IngredientDao to be used by this service for data access
+     * @param executor the executor that runs the database work of the Async methods
+     */
+    public IngredientService(IngredientDAO ingredientDAO, JdbcExecutor executor) {
        this.ingredientDAO = ingredientDAO;
+       this.executor = executor;
     }
 
     /**
@@ -42,7 +66,9 @@ public class IngredientService {
      * @return an Optional containing the Ingredient if found, or an empty Optional if not found
      */
     public Optional<Ingredient> findIngredient(int id) {
-        return Optional.ofNullable(ingredientDAO.getIngredientById(id));
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            return read(() -> Optional.ofNullable(ingredientDAO.getIngredientById(id)));
+        }
     }
 
     /**
@@ -56,12 +82,30 @@ public class IngredientService {
      * @return a Page object containing the list of Ingredients matching the criteria
      */
     public Page<Ingredient> searchIngredients(String term, int page, int pageSize, String sortBy, String sortDirection) {
-        PageOptions pageOptions = new PageOptions(page, pageSize, sortBy, sortDirection);
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            PageOptions pageOptions = new PageOptions(page, pageSize, sortBy, sortDirection);
 
-        if (term == null || term.isBlank()) {
-            return ingredientDAO.getAllIngredients(pageOptions);
+            if (term == null || term.isBlank()) {
+                return read(() -> ingredientDAO.getAllIngredients(pageOptions));
+            }
+            return read(() -> ingredientDAO.searchIngredients(term, pageOptions));
+        }
+    }
+
+    /**
+     * Searches for Ingredients one page at a time, using the given page options as they are. This is how cursor-based pages are requested.
+     *
+     * @param term the search term for filtering Ingredients by attributes
+     * @param pageOptions the paging options, including any cursor returned with the previous page
+     * @return a Page object containing the list of Ingredients matching the criteria
+     */
+    public Page<Ingredient> searchIngredients(String term, PageOptions pageOptions) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            if (term == null || term.isBlank()) {
+                return read(() -> ingredientDAO.getAllIngredients(pageOptions));
+            }
+            return read(() -> ingredientDAO.searchIngredients(term, pageOptions));
         }
-        return ingredientDAO.searchIngredients(term, pageOptions);
     }
 
     /**
@@ -73,10 +117,24 @@ public class IngredientService {
      * @throws SQLException 
      */
     public List<Ingredient> searchIngredients(String term) {
-        if (term == null || term.isBlank()) {
-            return ingredientDAO.getAllIngredients();
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            if (term == null || term.isBlank()) {
+                return read(() -> ingredientDAO.getAllIngredients());
+            }
+            return read(() -> ingredientDAO.searchIngredients(term));
+        }
+    }
+
+    /**
+     * Finds the Ingredients whose names start with a prefix, such as for suggesting names as a user types.
+     *
+     * @param prefix the start of the names to look for
+     * @return a list of the matching Ingredients, in name order
+     */
+    public List<Ingredient> searchIngredientsByPrefix(String prefix) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            return read(() -> ingredientDAO.searchIngredientsByPrefix(prefix));
         }
-        return ingredientDAO.searchIngredients(term);
     }
 
     /**
@@ -86,7 +144,9 @@ public class IngredientService {
      */
 
     public void deleteIngredient(int id){
-        ingredientDAO.deleteIngredient(ingredientDAO.getIngredientById(id));
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            executor.call(() -> ingredientDAO.deleteIngredient(ingredientDAO.getIngredientById(id)));
+        }
     }
 
     /**
@@ -98,11 +158,98 @@ public class IngredientService {
      * @throws SQLException 
      */
     public void saveIngredient(Ingredient ingredient){
-        if (ingredient.getId() == 0) {
-            int newId = ingredientDAO.createIngredient(ingredient);
-            ingredient.setId(newId);
-        } else {
-            ingredientDAO.updateIngredient(ingredient);
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            executor.call(() -> {
+                if (ingredient.getId() == 0) {
+                    int newId = ingredientDAO.createIngredient(ingredient);
+                    ingredient.setId(newId);
+                } else {
+                    ingredientDAO.updateIngredient(ingredient);
+                }
+            });
+        }
+    }
+
+    /**
+     * Creates many new Ingredients at once, and sets the id of each ingredient that was created. Ingredients that could not be created keep an id of 0.
+     *
+     * @param ingredients the Ingredient entities to be created
+     * @return the new id or the error of each ingredient, in the order given
+     */
+    public BulkResult createIngredients(List<Ingredient> ingredients) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            BulkResult result = executor.call(() -> ingredientDAO.createIngredients(ingredients));
+            for (BulkResult.Item item : result.getItems()) {
+                if (item.getId() != null) {
+                    ingredients.get(item.getIndex()).setId(item.getId());
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Finds an Ingredient by its unique identifier, as findIngredient does: at once from a current dictionary, or on the executor if the dictionary has to be reloaded first.
+     *
+     * @param id the unique identifier of the Ingredient
+     * @return a future completed with the Ingredient if found, or an empty Optional if not found
+     */
+    public CompletableFuture<Optional<Ingredient>> findIngredientAsync(int id) {
+        return readAsync(() -> findIngredient(id));
+    }
+
+    /**
+     * Searches for Ingredients one page at a time, as searchIngredients does: at once from a current dictionary, or on the executor if the dictionary has to be reloaded first.
+     *
+     * @param term the search term for filtering Ingredients by attributes
+     * @param pageOptions the paging options, including any cursor returned with the previous page
+     * @return a future completed with a Page object containing the list of Ingredients matching the criteria
+     */
+    public CompletableFuture<Page<Ingredient>> searchIngredientsAsync(String term, PageOptions pageOptions) {
+        return readAsync(() -> searchIngredients(term, pageOptions));
+    }
+
+    /**
+     * Saves an Ingredient entity on the executor, as saveIngredient does.
+     *
+     * @param ingredient the Ingredient entity to be saved or updated
+     * @return a future completed with the saved ingredient, whose id is set if it was created
+     */
+    public CompletableFuture<Ingredient> saveIngredientAsync(Ingredient ingredient) {
+        return executor.supply(() -> {
+            saveIngredient(ingredient);
+            return ingredient;
+        });
+    }
+
+    /**
+     * Deletes an Ingredient by its unique identifier on the executor, as deleteIngredient does.
+     *
+     * @param id the unique identifier of the ingredient to be deleted
+     * @return a future completed once the ingredient is deleted
+     */
+    public CompletableFuture<Void> deleteIngredientAsync(int id) {
+        return executor.run(() -> deleteIngredient(id));
+    }
+
+    /**
+     * Runs a read in place while the ingredient dictionary is current, and otherwise through the executor, since the read first reloads the dictionary from the database.
+     */
+    private <T> T read(Supplier<T> read) {
+        return ingredientDAO.isDictionaryCurrent() ? read.get() : executor.call(read);
+    }
+
+    /**
+     * Runs a read on the calling thread while the ingredient dictionary is current, and otherwise on the executor.
+     */
+    private <T> CompletableFuture<T> readAsync(Supplier<T> read) {
+        if (!ingredientDAO.isDictionaryCurrent()) {
+            return executor.supply(read);
+        }
+        try {
+            return CompletableFuture.completedFuture(read.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,309 @@
+package com.revature.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revature.dao.RecipeImportDAO;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.util.AppConfig;
+import com.revature.util.BulkResult;
+import com.revature.util.ImportProgress;
+import com.revature.util.JdbcExecutor;
+import com.revature.util.LatencyHistogram;
+import com.revature.util.Metrics;
+import com.revature.util.RecipeRecordReader;
+
+/**
+ * The RecipeImportService class imports recipe files of any size, such as the catalogs of partners, as a pipeline of two threads.
+ *
+ * The calling thread parses the file one record at a time and hands the records over in batches of `import.batchSize` through a queue holding at most `import.queueCapacity` batches. A writer thread takes the batches off the queue, resolves the author and ingredient names of each recipe to ids through lookup tables read once per run, and writes each batch in one transaction. When the database falls behind the queue fills up and parsing waits, so memory use stays the same however large the file is.
+ *
+ * Each batch moves the import's checkpoint forward in the same transaction that writes it. An import that fails, for example because the upload was cut off, is resumed by sending the same file again with the same import id: the records before the checkpoint are parsed but not written again. Records that are malformed or name an unknown chef or ingredient are rejected one by one without stopping the import.
+ */
+public class RecipeImportService {
+
+    /** Reports why an import's records could not be written, with the stack trace the import's progress leaves out. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecipeImportService.class);
+
+    /** Marks the end of the records on the queue. */
+    private static final List<RecipeRecordReader.Record> END = new ArrayList<>();
+
+    /** The DAO used to write imported recipes and checkpoints. */
+    private final RecipeImportDAO importDAO;
+
+    /** The executor that runs the statements issued from the calling thread when it is a virtual thread. The writer thread runs its own. */
+    private final JdbcExecutor executor;
+
+    /** The progress of the imports currently running, keyed by import id. */
+    private final Map<String, ImportProgress> running = new ConcurrentHashMap<>();
+    /** The queues of the imports currently running. */
+    private final Set<BlockingQueue<List<RecipeRecordReader.Record>>> queues = ConcurrentHashMap.newKeySet();
+
+    /** How long each batch takes to resolve and write. */
+    private final LatencyHistogram batchLatency = new LatencyHistogram();
+    private final LongAdder recordsImported = new LongAdder();
+    private final LongAdder recordsRejected = new LongAdder();
+
+    /**
+     * Constructs a RecipeImportService with the specified RecipeImportDAO.
+     *
+     * @param importDAO the DAO used to write imported recipes and checkpoints
+     */
+    public RecipeImportService(RecipeImportDAO importDAO) {
+        this(importDAO, JdbcExecutor.getDefault());
+    }
+
+    /**
+     * Constructs a RecipeImportService with the specified RecipeImportDAO and the executor for the statements of its calling threads.
+     *
+     * @param importDAO the DAO used to write imported recipes and checkpoints
+     * @param executor the executor that runs the statements issued from a virtual calling thread
+     */
+    public RecipeImportService(RecipeImportDAO importDAO, JdbcExecutor executor) {
+        this.importDAO = importDAO;
+        this.executor = executor;
+    }
+
+    /**
+     * Publishes the batch write latency, the counts of imported and rejected records, and the number of running imports and of batches waiting to be written to the Metrics registry. The import throughput is the rate of the record counts.
+     *
+     * @param prefix the prefix for each metric name, such as "recipe_import"
+     */
+    public void registerMetrics(String prefix) {
+        Metrics.register(prefix + "_batch_seconds", "Time taken to resolve and write each batch of imported records", Metrics.Type.HISTOGRAM, batchLatency);
+        Metrics.register(prefix + "_imported_total", "Imported records written as recipes", Metrics.Type.COUNTER, recordsImported);
+        Metrics.register(prefix + "_rejected_total", "Imported records rejected as malformed, unresolvable or conflicting", Metrics.Type.COUNTER, recordsRejected);
+        Metrics.gauge(prefix + "_running", "Imports currently running", running::size);
+        Metrics.gauge(prefix + "_queued_batches", "Parsed batches waiting to be written, across all running imports", this::queuedBatches);
+    }
+
+    /**
+     * Imports the records of a file, resuming from the import's checkpoint if it has run before. Returns once every record has been handled, or the import has failed.
+     *
+     * @param importId the id of the import, by which a failed import is resumed
+     * @param reader the reader of the file, which is read but not closed
+     * @return the progress of the import when the run ended: COMPLETED, or FAILED with the reason
+     * @throws IllegalStateException if an import with the same id is already running
+     */
+    public ImportProgress importRecipes(String importId, RecipeRecordReader reader) {
+        int maxRejections = AppConfig.getInt("import.maxReportedRejections", 100);
+        ImportProgress placeholder = new ImportProgress(importId, ImportProgress.Status.RUNNING, 0, 0, 0, maxRejections);
+        if (running.putIfAbsent(importId, placeholder) != null) {
+            throw new IllegalStateException("Import " + importId + " is already running");
+        }
+        try {
+            ImportProgress progress = executor.call(() -> importDAO.startImport(importId, maxRejections));
+            if (progress.getStatus() == ImportProgress.Status.COMPLETED) {
+                return progress;
+            }
+            running.put(importId, progress);
+            String error = run(progress, reader);
+            ImportProgress.Status status = error == null ? ImportProgress.Status.COMPLETED : ImportProgress.Status.FAILED;
+            executor.call(() -> importDAO.finishImport(importId, status));
+            progress.finish(status, error);
+            return progress;
+        } finally {
+            running.remove(importId);
+        }
+    }
+
+    /**
+     * Finds the progress of an import, live if it is running or as of its checkpoint otherwise.
+     *
+     * @param importId the id of the import
+     * @return the progress, or null if there is no import with the id
+     */
+    public ImportProgress getProgress(String importId) {
+        ImportProgress progress = running.get(importId);
+        return progress != null ? progress : executor.call(() -> importDAO.findImport(importId, 0));
+    }
+
+    // below are helper methods that run the two halves of the pipeline
+
+    /**
+     * Parses the file on the calling thread while a writer thread writes what was parsed.
+     *
+     * @return why the import failed, or null if every record was handled
+     */
+    private String run(ImportProgress progress, RecipeRecordReader reader) {
+        int batchSize = Math.max(1, AppConfig.getInt("import.batchSize", 500));
+        BlockingQueue<List<RecipeRecordReader.Record>> queue = new ArrayBlockingQueue<>(Math.max(1, AppConfig.getInt("import.queueCapacity", 4)));
+        AtomicReference<String> writeError = new AtomicReference<>();
+        Map<String, Integer> chefIds = executor.call(() -> importDAO.getChefIds());
+        Map<String, Integer> ingredientIds = executor.call(() -> importDAO.getIngredientIds());
+
+        Thread writer = new Thread(() -> {
+            try {
+                List<RecipeRecordReader.Record> batch;
+                while ((batch = queue.take()) != END) {
+                    write(progress, batch, chefIds, ingredientIds);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Import {} could not write its records", progress.getImportId(), e);
+                writeError.set("The records could not be written: " + rootCause(e).getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "recipe-import-" + progress.getImportId());
+        queues.add(queue);
+        writer.start();
+
+        String readError = null;
+        try {
+            long resumeFrom = progress.getPosition();
+            List<RecipeRecordReader.Record> batch = new ArrayList<>(batchSize);
+            RecipeRecordReader.Record record;
+            while (writeError.get() == null && (record = reader.next()) != null) {
+                if (record.getPosition() < resumeFrom) {
+                    continue;
+                }
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    hand(queue, batch, writer);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                hand(queue, batch, writer);
+            }
+        } catch (IOException e) {
+            readError = "The file could not be read: " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            readError = "The import was interrupted";
+        } finally {
+            try {
+                hand(queue, END, writer);
+                writer.join();
+            } catch (InterruptedException e) {
+                writer.interrupt();
+                Thread.currentThread().interrupt();
+                readError = "The import was interrupted";
+            }
+            queues.remove(queue);
+        }
+        return writeError.get() != null ? writeError.get() : readError;
+    }
+
+    /**
+     * @return the innermost cause of the exception, such as the SQLException a DAO wrapped
+     */
+    private static Throwable rootCause(Throwable e) {
+        while (e.getCause() != null && e.getCause() != e) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * Hands a batch to the writer, waiting while the queue is full unless the writer has stopped.
+     */
+    private static void hand(BlockingQueue<List<RecipeRecordReader.Record>> queue, List<RecipeRecordReader.Record> batch, Thread writer)
+            throws InterruptedException {
+        while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            if (!writer.isAlive()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Resolves the recipes of a batch, rejects those that cannot be resolved, and writes the rest.
+     */
+    private void write(ImportProgress progress, List<RecipeRecordReader.Record> batch, Map<String, Integer> chefIds,
+            Map<String, Integer> ingredientIds) {
+        long start = System.nanoTime();
+        String[] errors = new String[batch.size()];
+        List<Recipe> recipes = new ArrayList<>(batch.size());
+        List<Integer> indexes = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            RecipeRecordReader.Record record = batch.get(i);
+            errors[i] = record.getError() != null ? record.getError() : resolve(record.getRecipe(), chefIds, ingredientIds);
+            if (errors[i] == null) {
+                recipes.add(record.getRecipe());
+                indexes.add(i);
+            }
+        }
+        long position = batch.get(batch.size() - 1).getPosition() + 1;
+        BulkResult result = importDAO.writeBatch(progress.getImportId(), recipes, batch.size() - recipes.size(), position);
+        for (BulkResult.Item item : result.getItems()) {
+            if (item.getError() != null) {
+                errors[indexes.get(item.getIndex())] = item.getError();
+            }
+        }
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) {
+                progress.reject(batch.get(i).getPosition(), errors[i]);
+            }
+        }
+        progress.advance(position, result.getCreated(), batch.size() - result.getCreated());
+        recordsImported.add(result.getCreated());
+        recordsRejected.add(batch.size() - result.getCreated());
+        batchLatency.recordSince(start);
+    }
+
+    /**
+     * Replaces the names of a recipe's author and ingredients with their ids.
+     *
+     * @return why the recipe cannot be imported, or null if it was resolved
+     */
+    private static String resolve(Recipe recipe, Map<String, Integer> chefIds, Map<String, Integer> ingredientIds) {
+        if (recipe.getName() == null || recipe.getName().isBlank()) {
+            return "A recipe name is missing";
+        }
+        Chef author = recipe.getAuthor();
+        if (author != null) {
+            Integer id = chefIds.get(author.getUsername());
+            if (id == null) {
+                return "Unknown chef: " + author.getUsername();
+            }
+            recipe.setAuthor(new Chef(id, author.getUsername(), null, null, false));
+        }
+        List<RecipeIngredient> resolved = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        for (RecipeIngredient ingredient : recipe.getIngredients()) {
+            if (ingredient.getName() == null) {
+                return "An ingredient name is missing";
+            }
+            Integer id = ingredientIds.get(ingredient.getName());
+            if (id == null) {
+                return "Unknown ingredient: " + ingredient.getName();
+            }
+            if (ingredient.getUnit() == null) {
+                return "The unit of " + ingredient.getName() + " is missing";
+            }
+            if (!seen.add(id)) {
+                return "Ingredient " + ingredient.getName() + " is listed more than once";
+            }
+            resolved.add(new RecipeIngredient(id, ingredient.getName(), ingredient.getVolume(), ingredient.getUnit()));
+        }
+        recipe.setIngredients(resolved);
+        return null;
+    }
+
+    /**
+     * @return the number of parsed batches waiting to be written, across all running imports
+     */
+    private long queuedBatches() {
+        long total = 0;
+        for (BlockingQueue<List<RecipeRecordReader.Record>> queue : queues) {
+            total += queue.size();
+        }
+        return total;
+    }
+}
@@ -3,11 +3,16 @@ package com.revature.service;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import com.revature.dao.RecipeDAO;
 import com.revature.model.Recipe;
+import com.revature.util.BulkResult;
+import com.revature.util.JdbcExecutor;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.RequestTiming;
 
 /**
  * The RecipeService class provides services related to Recipe objects,
@@ -15,12 +20,20 @@ import com.revature.util.PageOptions;
  * intermediary between the data access layer and the
  * application logic, ensuring that all operations on Recipe objects
  * are handled consistently and efficiently.
+ *
+ * Each lookup, search and write also has an Async variant returning a
+ * future, for handlers that pass it to ctx.future() instead of waiting;
+ * findRecipeWithIngredientsAsync loads a recipe and its ingredients in a
+ * single hand-off to the JdbcExecutor.
  */
 public class RecipeService {
 
     /** The data access object used for performing operations on Recipe entities. */
     private RecipeDAO recipeDAO;
 
+    /** The executor that runs the database work of the Async methods, and of the others when they are called on a virtual thread. */
+    private final JdbcExecutor executor;
+
     /**
      * Constructs a RecipeService with the specified RecipeDao.
      *
@@ -29,7 +42,18 @@ public class RecipeService {
      * @param recipeDao the RecipeDao to be used by this service for data access
      */
     public RecipeService(RecipeDAO recipeDAO) {
+        this(recipeDAO, JdbcExecutor.getDefault());
+    }
+
+    /**
+     * Constructs a RecipeService with the specified RecipeDao and the executor for its Async methods.
+     *
+     * @param recipeDao the RecipeDao to be used by this service for data access
+     * @param executor the executor that runs the database work of the Async methods
+     */
+    public RecipeService(RecipeDAO recipeDAO, JdbcExecutor executor) {
         this.recipeDAO = recipeDAO;
+        this.executor = executor;
     }
 
     /**
@@ -40,7 +64,9 @@ public class RecipeService {
      *         an empty Optional if not found
      */
     public Optional<Recipe> findRecipe(int id) {
-        return Optional.ofNullable(recipeDAO.getRecipeById(id));
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            return executor.call(() -> Optional.ofNullable(recipeDAO.getRecipeById(id)));
+        }
     }
 
     /**
@@ -52,13 +78,44 @@ public class RecipeService {
      * @throws SQLException 
      */
     public void saveRecipe(Recipe recipe){
-        if(recipe.getId() == 0 || recipeDAO.getRecipeById(recipe.getId()) == null)
-        {
-            int newRecipeid = recipeDAO.createRecipe(recipe);
-            recipe.setId(newRecipeid);
-        } else {
-            recipeDAO.updateRecipe(recipe);
-        } 
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            executor.call(() -> {
+                if(recipe.getId() == 0 || recipeDAO.getRecipeById(recipe.getId()) == null)
+                {
+                    int newRecipeid = recipeDAO.createRecipe(recipe);
+                    recipe.setId(newRecipeid);
+                } else {
+                    recipeDAO.updateRecipe(recipe);
+                }
+            });
+        }
+    }
+
+    /**
+     * Passes every recipe, with its author and ingredients, to the consumer one at a time, without loading the whole catalog into memory.
+     *
+     * @param consumer receives each recipe in id order
+     */
+    public void exportRecipes(Consumer<Recipe> consumer) {
+        executor.call(() -> recipeDAO.exportRecipes(consumer));
+    }
+
+    /**
+     * Creates many new recipes at once, and sets the id of each recipe that was created. Recipes that could not be created keep an id of 0.
+     *
+     * @param recipes the Recipe objects to be created
+     * @return the new id or the error of each recipe, in the order given
+     */
+    public BulkResult createRecipes(List<Recipe> recipes) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            BulkResult result = executor.call(() -> recipeDAO.createRecipes(recipes));
+            for (BulkResult.Item item : result.getItems()) {
+                if (item.getId() != null) {
+                    recipes.get(item.getIndex()).setId(item.getId());
+                }
+            }
+            return result;
+        }
     }
 
     /**
@@ -72,11 +129,42 @@ public class RecipeService {
      * @return a Page containing the results of the search
      */
     public Page<Recipe> searchRecipes(String term, int page, int pageSize, String sortBy, String sortDirection) {
-        PageOptions pageOptions = new PageOptions(page, pageSize);
-        if (term == null || term.isBlank()) {
-            return recipeDAO.getAllRecipes(pageOptions);
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            PageOptions pageOptions = new PageOptions(page, pageSize);
+            if (term == null || term.isBlank()) {
+                return executor.call(() -> recipeDAO.getAllRecipes(pageOptions));
+            }
+            return executor.call(() -> recipeDAO.searchRecipesByTerm(term, pageOptions));
+        }
+    }
+
+    /**
+     * Searches for recipes one page at a time, using the given page options as they are. This is how cursor-based pages are requested.
+     *
+     * @param term        the search term used to find recipes
+     * @param pageOptions the paging options, including any cursor returned with the previous page
+     * @return a Page containing the results of the search
+     */
+    public Page<Recipe> searchRecipes(String term, PageOptions pageOptions) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            if (term == null || term.isBlank()) {
+                return executor.call(() -> recipeDAO.getAllRecipes(pageOptions));
+            }
+            return executor.call(() -> recipeDAO.searchRecipesByTerm(term, pageOptions));
+        }
+    }
+
+    /**
+     * Searches recipe names and instructions through the full-text index, most relevant recipes first.
+     *
+     * @param query       the words to search for
+     * @param pageOptions the paging options; cursors are not supported
+     * @return a Page containing the results of the search
+     */
+    public Page<Recipe> searchRecipesFullText(String query, PageOptions pageOptions) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            return executor.call(() -> recipeDAO.searchRecipesFullText(query, pageOptions));
         }
-        return recipeDAO.searchRecipesByTerm(term, pageOptions);
     }
 
     /**
@@ -87,10 +175,23 @@ public class RecipeService {
      * @throws SQLException 
      */
     public List<Recipe> searchRecipes(String term)  {
-        if (term == null || term.isBlank()) {
-            return recipeDAO.getAllRecipes();
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            if (term == null || term.isBlank()) {
+                return executor.call(() -> recipeDAO.getAllRecipes());
+            }
+            return executor.call(() -> recipeDAO.searchRecipesByTerm(term));
+        }
+    }
+
+    /**
+     * Populates the ingredients of the given recipes. The ingredients of every recipe are loaded together, so callers should pass a whole page of recipes at once rather than one recipe at a time.
+     *
+     * @param recipes the recipes whose ingredients should be loaded
+     */
+    public void loadIngredients(List<Recipe> recipes) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            executor.call(() -> recipeDAO.loadIngredients(recipes));
         }
-        return recipeDAO.searchRecipesByTerm(term);
     }
 
     /**
@@ -100,9 +201,82 @@ public class RecipeService {
      * @throws SQLException 
      */
     public void deleteRecipe(int id) {
-        Recipe recipe = recipeDAO.getRecipeById(id);
-        if (recipe != null) {
-            recipeDAO.deleteRecipe(recipe);
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.SERVICE)) {
+            executor.call(() -> {
+                Recipe recipe = recipeDAO.getRecipeById(id);
+                if (recipe != null) {
+                    recipeDAO.deleteRecipe(recipe);
+                }
+            });
         }
     }
+
+    /**
+     * Finds a Recipe by its unique identifier on the executor, as findRecipe does.
+     *
+     * @param id the unique identifier of the recipe to be found
+     * @return a future completed with the found Recipe, or an empty Optional if not found
+     */
+    public CompletableFuture<Optional<Recipe>> findRecipeAsync(int id) {
+        return executor.supply(() -> findRecipe(id));
+    }
+
+    /**
+     * Finds a Recipe by its unique identifier and loads its ingredients on the executor, in a single hand-off.
+     *
+     * @param id the unique identifier of the recipe to be found
+     * @return a future completed with the found Recipe and its ingredients, or an empty Optional if not found
+     */
+    public CompletableFuture<Optional<Recipe>> findRecipeWithIngredientsAsync(int id) {
+        return executor.supply(() -> {
+            Optional<Recipe> recipe = findRecipe(id);
+            recipe.ifPresent(found -> loadIngredients(List.of(found)));
+            return recipe;
+        });
+    }
+
+    /**
+     * Searches for recipes one page at a time on the executor, as searchRecipes does.
+     *
+     * @param term        the search term used to find recipes
+     * @param pageOptions the paging options, including any cursor returned with the previous page
+     * @return a future completed with a Page containing the results of the search
+     */
+    public CompletableFuture<Page<Recipe>> searchRecipesAsync(String term, PageOptions pageOptions) {
+        return executor.supply(() -> searchRecipes(term, pageOptions));
+    }
+
+    /**
+     * Searches recipe names and instructions through the full-text index on the executor, as searchRecipesFullText does.
+     *
+     * @param query       the words to search for
+     * @param pageOptions the paging options; cursors are not supported
+     * @return a future completed with a Page containing the results of the search
+     */
+    public CompletableFuture<Page<Recipe>> searchRecipesFullTextAsync(String query, PageOptions pageOptions) {
+        return executor.supply(() -> searchRecipesFullText(query, pageOptions));
+    }
+
+    /**
+     * Saves a Recipe object on the executor, as saveRecipe does.
+     *
+     * @param recipe the Recipe object to be saved
+     * @return a future completed with the saved recipe, whose id is set if it was created
+     */
+    public CompletableFuture<Recipe> saveRecipeAsync(Recipe recipe) {
+        return executor.supply(() -> {
+            saveRecipe(recipe);
+            return recipe;
+        });
+    }
+
+    /**
+     * Deletes a Recipe by its unique identifier on the executor, as deleteRecipe does.
+     *
+     * @param id the unique identifier of the recipe to be deleted
+     * @return a future completed once the recipe is deleted
+     */
+    public CompletableFuture<Void> deleteRecipeAsync(int id) {
+        return executor.run(() -> deleteRecipe(id));
+    }
 }
@@ -1,10 +1,5 @@
 package com.revature.util;
-import java.util.stream.Collectors;
-
-import com.revature.dao.ChefDAO;
 import com.revature.model.Chef;
-import com.revature.service.AuthenticationService;
-import com.revature.service.ChefService;
 
 import io.javalin.http.Context;
 import io.javalin.http.Handler;
@@ -14,9 +9,11 @@ import io.javalin.http.UnauthorizedResponse;
  * within the application by protecting specific routes from non-admin users. 
  * 
  * This class utilizes a list of protected methods to determine which HTTP 
- * methods require admin access and leverages the ChefService to validate 
- * user permissions. The middleware intercepts requests and ensures that 
- * only users with admin privileges can access protected resources.
+ * methods require admin access, and checks the chef that the 
+ * AuthenticationMiddleware resolved for the request, so it must be 
+ * registered after that middleware. The middleware intercepts requests 
+ * and ensures that only users with admin privileges can access protected 
+ * resources.
  */
 
 public class AdminMiddleware implements Handler {
@@ -28,37 +25,25 @@ public class AdminMiddleware implements Handler {
     private String[] protectedMethods;
 
     /**
-     * The AuthenticationService instance used for handling authentication-related operations and validation.
-     */
-    @SuppressWarnings("unused")
-    private AuthenticationService authService;
-    
-
-    /**
-     * Constructs an AdminMiddleware instance with the specified AuthenticationService and an array of protected methods.
+     * Constructs an AdminMiddleware instance with an array of protected methods.
      *
-     * @param AuthenticationService - the AuthenticationService instance for handling authentication operations
      * @param protectedMethods - the array of protected HTTP methods
      */
 
     public AdminMiddleware(String... protectedMethods) {
         this.protectedMethods = protectedMethods;
-        this.authService = new AuthenticationService(new ChefService(new ChefDAO(new ConnectionUtil())));
     }
 
     /**
-     * Handles the HTTP request, checking for admin access based on the HTTP method being used and the current logged in user's authentication token.
+     * Handles the HTTP request, checking for admin access based on the HTTP method being used and the chef making the request.
      *
      * @param ctx the Javalin context representing the HTTP request and response
      */
     @Override
     public void handle(Context ctx) {
         if (isProtectedMethod(ctx.method().name())) {
-            // Get the token of the current logged in user
-            String token = AuthenticationService.loggedInUsers.keySet().stream().collect(Collectors.joining());
-
-            // Check the corresponding chef and check if they are admin
-            boolean isAdmin = isAdmin(authService.getChefFromSessionToken(token));
+            // Check if the chef resolved for this request is an admin
+            boolean isAdmin = isAdmin(AuthenticationMiddleware.currentChef(ctx));
             
             // If they are not admin, throw an exception
             if (!isAdmin) {
@@ -83,9 +68,9 @@ public class AdminMiddleware implements Handler {
     }
 
     /**
-     * Determines if the chef with the specified ID has admin privileges.
+     * Determines if the chef making the request has admin privileges.
      *
-     * @param chefId the unique identifier of the chef.
+     * @param chef the chef resolved for the request, or null if it carried no valid session.
      * @return true if the chef is an admin; false otherwise.
      */
     private boolean isAdmin(Chef chef) {
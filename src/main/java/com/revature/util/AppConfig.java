@@ -0,0 +1,85 @@
+package com.revature.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.slf4j.LoggerFactory;
+
+/**
+ * The AppConfig class resolves runtime settings for the application, such as database credentials and connection pool sizing.
+ *
+ * Each key is looked up, in order, from JVM system properties (for example `-Ddb.pool.maxSize=20`), from environment variables (the key upper-cased with dots replaced by underscores, for example `DB_POOL_MAXSIZE`), and finally from the `application.properties` file on the classpath. This allows a deployment to be tuned without code changes.
+ */
+public class AppConfig {
+
+    /** The defaults read from the `application.properties` file. */
+    private static Properties defaults = new Properties();
+
+    /**
+     * static initialization block to load the `application.properties` file, if present.
+     */
+    static {
+        try (InputStream inputStream = AppConfig.class.getResourceAsStream("/application.properties")) {
+            if (inputStream != null) {
+                defaults.load(inputStream);
+            }
+        } catch (IOException e) {
+            LoggerFactory.getLogger(AppConfig.class).error("Could not read application.properties; using built-in defaults", e);
+        }
+    }
+
+    /**
+     * Retrieves the value of a setting.
+     *
+     * @param key the name of the setting
+     * @param defaultValue the value to return if the setting is not defined anywhere
+     * @return the resolved value of the setting
+     */
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = System.getenv(key.toUpperCase().replace('.', '_'));
+        }
+        if (value == null) {
+            value = defaults.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    /**
+     * Retrieves the value of a setting as an int.
+     *
+     * @param key the name of the setting
+     * @param defaultValue the value to return if the setting is not defined anywhere
+     * @return the resolved value of the setting
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        return value != null && !value.isEmpty() ? Integer.parseInt(value) : defaultValue;
+    }
+
+    /**
+     * Retrieves the value of a setting as a long.
+     *
+     * @param key the name of the setting
+     * @param defaultValue the value to return if the setting is not defined anywhere
+     * @return the resolved value of the setting
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        return value != null && !value.isEmpty() ? Long.parseLong(value) : defaultValue;
+    }
+
+    /**
+     * Retrieves the value of a setting as a boolean.
+     *
+     * @param key the name of the setting
+     * @param defaultValue the value to return if the setting is not defined anywhere
+     * @return the resolved value of the setting
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        return value != null && !value.isEmpty() ? Boolean.parseBoolean(value) : defaultValue;
+    }
+}
@@ -0,0 +1,76 @@
+package com.revature.util;
+
+import com.revature.model.Chef;
+import com.revature.service.AuthenticationService;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+
+/**
+ * The AuthenticationMiddleware class resolves the chef making a request, once, before any other handler runs.
+ *
+ * It reads the session token from the Authorization header, with or without its Bearer prefix, looks it up in the session store, and stores the chef on the Context. Handlers and other middleware then call currentChef(ctx) instead of parsing the header and looking up the session again. Requests without a valid token simply have no chef; it is up to each handler to decide whether that is allowed.
+ */
+public class AuthenticationMiddleware implements Handler {
+
+    /** The name of the Context attribute holding the chef of the request. */
+    public static final String CHEF_ATTRIBUTE = "chef";
+
+    /** The prefix of a bearer token in the Authorization header. */
+    private static final String BEARER = "Bearer";
+
+    /**
+     * The AuthenticationService used to look up sessions.
+     */
+    private AuthenticationService authService;
+
+    /**
+     * Constructs an AuthenticationMiddleware that looks up sessions through the given AuthenticationService.
+     *
+     * @param authService the service that knows the logged in chefs
+     */
+    public AuthenticationMiddleware(AuthenticationService authService) {
+        this.authService = authService;
+    }
+
+    /**
+     * Resolves the chef of the request from its Authorization header, and stores it on the Context if the session is valid.
+     *
+     * @param ctx the Javalin context representing the HTTP request and response
+     */
+    @Override
+    public void handle(Context ctx) {
+        String token = parseToken(ctx.header("Authorization"));
+        if (token != null) {
+            Chef chef = authService.getChefFromSessionToken(token);
+            if (chef != null) {
+                ctx.attribute(CHEF_ATTRIBUTE, chef);
+            }
+        }
+    }
+
+    /**
+     * Returns the chef resolved for the request by this middleware.
+     *
+     * @param ctx the Javalin context of the request
+     * @return the logged in chef making the request, or null if the request carries no valid session token
+     */
+    public static Chef currentChef(Context ctx) {
+        return ctx.attribute(CHEF_ATTRIBUTE);
+    }
+
+    /**
+     * Extracts the session token from an Authorization header. The Bearer prefix is optional, and is accepted with or without the space after it.
+     *
+     * @param header the value of the Authorization header, or null if it is absent
+     * @return the token, or null if there is none
+     */
+    private static String parseToken(String header) {
+        if (header == null) {
+            return null;
+        }
+        String token = header.startsWith(BEARER) ? header.substring(BEARER.length()) : header;
+        token = token.trim();
+        return token.isEmpty() ? null : token;
+    }
+}
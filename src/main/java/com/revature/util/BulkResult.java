@@ -0,0 +1,105 @@
+package com.revature.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The BulkResult class reports the outcome of creating many items in one request. It holds one entry per submitted item, in the order the items were submitted, giving either the id the item was created with or the reason it was rejected.
+ *
+ * Items are rejected one by one, so a single bad item never prevents the others from being created.
+ */
+public class BulkResult {
+
+    /**
+     * The outcome of a single submitted item.
+     */
+    public static class Item {
+
+        /** The position of the item in the request, counting from 0. */
+        private final int index;
+        /** The id the item was created with, or null if it was rejected. */
+        private final Integer id;
+        /** Why the item was rejected, or null if it was created. */
+        private final String error;
+
+        private Item(int index, Integer id, String error) {
+            this.index = index;
+            this.id = id;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    /** The outcome of each item, indexed by its position in the request. */
+    private final Item[] items;
+
+    /**
+     * Constructs a BulkResult for the given number of items, none of which has an outcome yet.
+     *
+     * @param size the number of items submitted
+     */
+    public BulkResult(int size) {
+        this.items = new Item[size];
+    }
+
+    /**
+     * Records that the item at the given position was created.
+     *
+     * @param index the position of the item in the request
+     * @param id the id the item was created with
+     */
+    public void created(int index, int id) {
+        items[index] = new Item(index, id, null);
+    }
+
+    /**
+     * Records that the item at the given position was rejected.
+     *
+     * @param index the position of the item in the request
+     * @param error why the item was rejected
+     */
+    public void failed(int index, String error) {
+        items[index] = new Item(index, null, error);
+    }
+
+    /**
+     * @return the number of items created
+     */
+    public int getCreated() {
+        int created = 0;
+        for (Item item : items) {
+            if (item != null && item.getId() != null) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    /**
+     * @return the number of items rejected
+     */
+    public int getFailed() {
+        return items.length - getCreated();
+    }
+
+    /**
+     * @return the outcome of each item, in the order the items were submitted
+     */
+    public List<Item> getItems() {
+        List<Item> list = new ArrayList<>(items.length);
+        Collections.addAll(list, items);
+        return list;
+    }
+}
@@ -0,0 +1,434 @@
+package com.revature.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The ConnectionPool class keeps a bounded set of physical database connections open and lends them out to callers, so that each DAO call does not have to open and tear down its own database session.
+ *
+ * Callers use the returned Connection exactly like a regular one; calling close() hands it back to the pool instead of closing the physical session. When a connection is returned, any statements it opened are closed and any uncommitted transaction is rolled back, so the next borrower always receives a clean, auto-committing connection.
+ *
+ * The pool never holds more than `maxSize` connections. Borrowers wait up to `acquireTimeoutMs` for a free connection before an SQLTimeoutException is thrown. A background task closes connections that have been idle for longer than `idleTimeoutMs`, while keeping at least `minSize` connections open. Idle connections can optionally be validated before they are lent out.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /** Reports failures of the background tasks and of closing connections, which have no caller to throw to. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPool.class);
+
+    /** The source of new physical connections. */
+    private final DataSource dataSource;
+    /** The number of connections the pool keeps open even when idle. */
+    private final int minSize;
+    /** The maximum number of connections, idle or in use, the pool will hold. */
+    private final int maxSize;
+    /** How long a borrower waits for a free connection before giving up, in milliseconds. */
+    private final long acquireTimeoutMs;
+    /** How long a connection may sit idle before it is closed, in milliseconds. */
+    private final long idleTimeoutMs;
+    /** Whether idle connections are checked with Connection.isValid() before being lent out. */
+    private final boolean validateOnBorrow;
+    /** The timeout passed to Connection.isValid(), in seconds. */
+    private final int validationTimeoutSeconds;
+
+    /** One permit per connection that may be lent out. */
+    private final Semaphore permits;
+    /** The idle connections, most recently used first. */
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    /** The number of physical connections currently open. */
+    private final AtomicInteger total = new AtomicInteger();
+    /** The number of connections currently lent out. */
+    private final AtomicInteger active = new AtomicInteger();
+    /** The number of callers currently waiting for a connection. */
+    private final AtomicInteger waiters = new AtomicInteger();
+    /** The time callers spend waiting for a connection. */
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    /** The number of borrow attempts that timed out. */
+    private final LongAdder timeouts = new LongAdder();
+    /** The background task that evicts idle connections and refills the pool to its minimum size. */
+    private final ScheduledExecutorService evictor;
+    /** Whether the pool has been shut down. */
+    private volatile boolean closed;
+
+    /**
+     * Constructs a ConnectionPool and opens its minimum number of connections.
+     *
+     * @param dataSource the source of new physical connections
+     * @param minSize the number of connections to keep open even when idle
+     * @param maxSize the maximum number of connections to hold
+     * @param acquireTimeoutMs how long a borrower waits for a free connection, in milliseconds
+     * @param idleTimeoutMs how long a connection may sit idle before it is closed, in milliseconds
+     * @param evictionIntervalMs how often idle connections are checked for eviction, in milliseconds
+     * @param validateOnBorrow whether idle connections are validated before being lent out
+     * @param validationTimeoutSeconds the timeout used when validating a connection, in seconds
+     */
+    public ConnectionPool(DataSource dataSource, int minSize, int maxSize, long acquireTimeoutMs, long idleTimeoutMs,
+            long evictionIntervalMs, boolean validateOnBorrow, int validationTimeoutSeconds) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.dataSource = dataSource;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.validateOnBorrow = validateOnBorrow;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fillToMinimum();
+        evictor.scheduleWithFixedDelay(this::evictIdle, evictionIntervalMs, evictionIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none are idle and the pool is not full.
+     *
+     * @return a connection that returns itself to the pool when closed
+     * @throws SQLTimeoutException if no connection became available within the acquire timeout
+     * @throws SQLException if a new connection could not be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been closed");
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        waiters.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+        if (!acquired) {
+            timeouts.increment();
+            throw new SQLTimeoutException("Timed out after " + acquireTimeoutMs + "ms waiting for a connection (active="
+                    + active.get() + ", idle=" + idle.size() + ", waiters=" + waiters.get() + ")");
+        }
+
+        try {
+            PooledConnection connection = pollIdle();
+            if (connection == null) {
+                connection = open();
+            }
+            active.incrementAndGet();
+            acquireLatency.recordSince(start);
+            return connection.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Publishes the pool's gauges, counters and acquire-latency histogram in the Metrics registry.
+     *
+     * @param prefix the prefix for each metric name, such as "db_pool"
+     */
+    public void registerMetrics(String prefix) {
+        Metrics.gauge(prefix + "_active_connections", "Connections currently lent out by the pool", active::get);
+        Metrics.gauge(prefix + "_idle_connections", "Open connections waiting in the pool", idle::size);
+        Metrics.gauge(prefix + "_total_connections", "Physical connections currently open", total::get);
+        Metrics.gauge(prefix + "_waiters", "Callers currently waiting for a connection", waiters::get);
+        Metrics.gauge(prefix + "_max_connections", "Maximum number of connections the pool will hold", () -> maxSize);
+        Metrics.register(prefix + "_acquire_timeouts_total", "Borrow attempts that timed out", Metrics.Type.COUNTER, timeouts);
+        Metrics.register(prefix + "_acquire_seconds", "Time spent waiting to borrow a connection", Metrics.Type.HISTOGRAM, acquireLatency);
+    }
+
+    /**
+     * @return the number of connections currently lent out
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * @return the number of open connections waiting in the pool
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * @return the number of physical connections currently open
+     */
+    public int getTotalCount() {
+        return total.get();
+    }
+
+    /**
+     * @return the number of callers currently waiting for a connection
+     */
+    public int getWaiterCount() {
+        return waiters.get();
+    }
+
+    /**
+     * @return the number of borrow attempts that timed out
+     */
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * @return the histogram of time spent waiting to borrow a connection
+     */
+    public LatencyHistogram getAcquireLatency() {
+        return acquireLatency;
+    }
+
+    /**
+     * Shuts the pool down and closes every idle connection. Connections that are lent out are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            destroy(connection);
+        }
+    }
+
+    // below are helper methods that manage the lifecycle of the physical connections
+
+    /**
+     * Takes the most recently used idle connection, discarding any that fail validation.
+     *
+     * @return an idle connection, or null if there are none
+     */
+    private PooledConnection pollIdle() {
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (!validateOnBorrow || connection.isValid(validationTimeoutSeconds)) {
+                return connection;
+            }
+            destroy(connection);
+        }
+        return null;
+    }
+
+    /**
+     * Opens a new physical connection.
+     *
+     * @return the new connection
+     * @throws SQLException if the connection could not be opened
+     */
+    private PooledConnection open() throws SQLException {
+        Connection raw = dataSource.getConnection();
+        total.incrementAndGet();
+        return new PooledConnection(raw);
+    }
+
+    /**
+     * Closes a physical connection and removes it from the pool's accounting.
+     *
+     * @param connection the connection to close
+     */
+    private void destroy(PooledConnection connection) {
+        total.decrementAndGet();
+        try {
+            connection.raw.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Could not close a pooled connection", e);
+        }
+    }
+
+    /**
+     * Takes back a connection that a borrower has closed.
+     *
+     * @param connection the returned connection
+     */
+    private void release(PooledConnection connection) {
+        active.decrementAndGet();
+        try {
+            if (!closed && connection.reset()) {
+                connection.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(connection);
+            } else {
+                destroy(connection);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes connections that have been idle for too long, then tops the pool back up to its minimum size.
+     */
+    private void evictIdle() {
+        try {
+            long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+            Iterator<PooledConnection> iterator = idle.descendingIterator();
+            while (iterator.hasNext() && total.get() > minSize) {
+                PooledConnection connection = iterator.next();
+                if (connection.lastUsed < cutoff && idle.removeFirstOccurrence(connection)) {
+                    destroy(connection);
+                }
+            }
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not evict idle connections", e);
+        }
+    }
+
+    /**
+     * Opens connections until the pool holds at least its minimum number.
+     */
+    private void fillToMinimum() {
+        while (!closed && total.get() < minSize && permits.tryAcquire()) {
+            try {
+                PooledConnection connection = open();
+                connection.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(connection);
+            } catch (SQLException e) {
+                LOGGER.warn("Could not open a connection to keep the pool at its minimum size of {}", minSize, e);
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool, along with the statements opened during its current lease.
+     */
+    private class PooledConnection {
+
+        /** The underlying database connection. */
+        private final Connection raw;
+        /** The statements opened by the current borrower, closed when the connection is returned. */
+        private final List<Statement> statements = new ArrayList<>();
+        /** When the connection was last returned to the pool, in epoch milliseconds. */
+        private volatile long lastUsed;
+
+        private PooledConnection(Connection raw) {
+            this.raw = raw;
+        }
+
+        /**
+         * @return a proxy for the connection that returns it to the pool when closed
+         */
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new LeaseHandler(this));
+        }
+
+        /**
+         * @param timeoutSeconds the time to wait for the database to respond
+         * @return true if the connection is still usable
+         */
+        private boolean isValid(int timeoutSeconds) {
+            try {
+                return raw.isValid(timeoutSeconds);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Closes any statements left open by the last borrower and rolls back any uncommitted work.
+         *
+         * @return true if the connection can be lent out again
+         */
+        private boolean reset() {
+            for (Statement statement : statements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // the statement is discarded either way
+                }
+            }
+            statements.clear();
+            try {
+                if (raw.isClosed()) {
+                    return false;
+                }
+                if (!raw.getAutoCommit()) {
+                    raw.rollback();
+                    raw.setAutoCommit(true);
+                }
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Forwards calls on a lent-out connection to the physical connection, intercepting close() so the connection goes back to the pool.
+     */
+    private class LeaseHandler implements InvocationHandler {
+
+        /** The physical connection being lent out. */
+        private final PooledConnection connection;
+        /** Whether the borrower has already closed this lease. */
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        private LeaseHandler(PooledConnection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(connection);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || connection.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + connection.raw;
+                default:
+                    break;
+            }
+            if (returned.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                Object result = method.invoke(connection.raw, args);
+                if (result instanceof Statement) {
+                    connection.statements.add((Statement) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
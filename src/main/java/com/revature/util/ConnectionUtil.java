@@ -5,38 +5,67 @@ import java.sql.SQLException;
 import org.h2.jdbcx.JdbcDataSource;
 
 /**
-This class provides autility methods and configuration for managing database connections for an H2 database. It uses a JdbcDataSource connection pool to manage connections efficiently.
+This class provides autility methods and configuration for managing database connections for an H2 database. Connections are lent out by a bounded ConnectionPool that is shared by every ConnectionUtil instance, so closing a connection returns it to the pool rather than ending the database session.
 
-You do not need to edit this class.
+The database credentials and pool settings are read through AppConfig, so they can be changed with system properties, environment variables or the `application.properties` file.
+
+Unless `db.trace.enabled` is false, the connections the pool opens are wrapped by the default StatementTracer, which times every statement and logs the slow ones.
+
+Every checkout is emitted as a Flight Recorder event while a recording has those enabled (see FlightEvents).
 
  */
 public class ConnectionUtil {
 
     // fields
-	private static String url = "jdbc:h2:./h2/db;";
-	private static String username = "sa";
-	private static String password = "";
-	private static JdbcDataSource pool = new JdbcDataSource();
+	private static String url = AppConfig.get("db.url", "jdbc:h2:./h2/db;");
+	private static String username = AppConfig.get("db.username", "sa");
+	private static String password = AppConfig.get("db.password", "");
+	private static JdbcDataSource dataSource = new JdbcDataSource();
+	private static ConnectionPool pool;
 
 	/**
-	 * static initialization block to establish credentials for DataSoure Pool
+	 * static initialization block to establish credentials for the DataSource and create the connection pool
 	 */
 	static {
-		pool.setURL(url);
-		pool.setUser(username);
-		pool.setPassword(password);
+		dataSource.setURL(url);
+		dataSource.setUser(username);
+		dataSource.setPassword(password);
+		pool = new ConnectionPool(AppConfig.getBoolean("db.trace.enabled", true) ? StatementTracer.getDefault().wrap(dataSource) : dataSource,
+				AppConfig.getInt("db.pool.minSize", 2),
+				AppConfig.getInt("db.pool.maxSize", 10),
+				AppConfig.getLong("db.pool.acquireTimeoutMs", 5000),
+				AppConfig.getLong("db.pool.idleTimeoutMs", 600000),
+				AppConfig.getLong("db.pool.evictionIntervalMs", 30000),
+				AppConfig.getBoolean("db.pool.validateOnBorrow", true),
+				AppConfig.getInt("db.pool.validationTimeoutSeconds", 2));
+		pool.registerMetrics("db_pool");
 	}
 
 	/**
-	 * @return an active connection to the database
+	 * @return an active connection to the database, which is returned to the pool when closed
 	 */
 	public Connection getConnection() {
+		FlightEvents.ConnectionEvent event = new FlightEvents.ConnectionEvent();
+		event.begin();
 		try {
-			return pool.getConnection();
+			Connection connection = pool.getConnection();
+			event.acquired = true;
+			return connection;
 		} catch (SQLException e) {
-			e.printStackTrace();
+			throw new RuntimeException("Unable to acquire a database connection", e);
+		} finally {
+			if (event.shouldCommit()) {
+				event.active = pool.getActiveCount();
+				event.waiters = pool.getWaiterCount();
+				event.commit();
+			}
 		}
+	}
 
-		return null;
+	/**
+	 * @return the pool shared by every ConnectionUtil instance, for inspecting its metrics
+	 */
+	public static ConnectionPool getPool() {
+		return pool;
 	}
 }
@@ -5,6 +5,8 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Scanner;
 
+import com.revature.dao.IngredientDAO;
+
 /**
 The DBUtil class is a utility designed to handle database setup and reset operations by reading SQL commands from a file and executing them. This can be useful in scenarios where you need to reinitialize the database with a specific schema and data set.
 
@@ -39,6 +41,7 @@ public class DBUtil {
 		try(Connection conn = new ConnectionUtil().getConnection()) {
 			conn.prepareStatement("DROP ALL OBJECTS").executeUpdate();
 			conn.prepareStatement(sqlScript.toString()).executeUpdate();
+			IngredientDAO.invalidateDictionary();
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -0,0 +1,164 @@
+package com.revature.util;
+
+import io.javalin.http.Context;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The FlightEvents class holds the Java Flight Recorder events the application emits, so that a recording shows what each request, statement, connection checkout and session lookup was doing alongside the JVM's own events.
+ *
+ * An event costs next to nothing while no recording has it enabled: it is created, found to be disabled and dropped, and its fields are only filled in when it is about to be committed. The events are registered when this class is loaded, so recordings can enable them by name before any has been emitted.
+ *
+ * Handler events are emitted by a before and an after handler, statement events by the Jdbc class, or by the StatementTracer for the connections it traces while `db.trace.enabled` is true, connection events by ConnectionUtil and session lookup events by the AuthenticationService.
+ */
+public final class FlightEvents {
+
+    /** The category all the application's events are listed under. */
+    private static final String CATEGORY = "Recipe App";
+
+    /** The context attribute holding the handler event of a request being recorded. */
+    private static final String HANDLER_ATTRIBUTE = "flightHandlerEvent";
+
+    /** The events, for enabling them in a recording. */
+    private static final Class<?>[] TYPES = { HandlerEvent.class, StatementEvent.class, ConnectionEvent.class, SessionLookupEvent.class };
+
+    static {
+        for (Class<?> type : TYPES) {
+            FlightRecorder.register(type.asSubclass(Event.class));
+        }
+    }
+
+    private FlightEvents() {
+    }
+
+    /**
+     * @return the classes of the application's events
+     */
+    public static Class<?>[] types() {
+        return TYPES.clone();
+    }
+
+    /**
+     * Starts the handler event of a request, as a before handler, if a recording has it enabled.
+     *
+     * @param ctx the request
+     */
+    public static void beginHandler(Context ctx) {
+        HandlerEvent event = new HandlerEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            ctx.attribute(HANDLER_ATTRIBUTE, event);
+        }
+    }
+
+    /**
+     * Commits the handler event of a request, as an after handler, if it was started and lasted long enough to be recorded.
+     *
+     * @param ctx the request
+     */
+    public static void endHandler(Context ctx) {
+        HandlerEvent event = ctx.attribute(HANDLER_ATTRIBUTE);
+        if (event != null && event.shouldCommit()) {
+            event.method = ctx.method().name();
+            event.route = RequestMetrics.routeOf(ctx);
+            event.path = ctx.path();
+            event.status = ctx.statusCode();
+            event.commit();
+        }
+    }
+
+    /**
+     * The handling of one HTTP request, from its first before handler to its last after handler.
+     */
+    @Name("com.revature.HttpHandler")
+    @Label("HTTP Handler")
+    @Description("Handling of an HTTP request, from the first before handler to the last after handler")
+    @Category({ CATEGORY, "HTTP" })
+    @StackTrace(false)
+    public static class HandlerEvent extends Event {
+
+        @Label("Method")
+        public String method;
+
+        @Label("Route")
+        @Description("The path the route was registered with, or unmatched")
+        public String route;
+
+        @Label("Path")
+        public String path;
+
+        @Label("Status")
+        public int status;
+    }
+
+    /**
+     * One statement run on a traced connection, from its execution until its results were closed.
+     */
+    @Name("com.revature.Statement")
+    @Label("SQL Statement")
+    @Description("A statement run against the database, including the reading of its rows")
+    @Category({ CATEGORY, "Database" })
+    public static class StatementEvent extends Event {
+
+        @Label("SQL Shape")
+        @Description("The SQL with its literals and IN lists reduced to placeholders")
+        public String shape;
+
+        @Label("Binds")
+        public int binds;
+
+        @Label("Rows")
+        @Description("The rows read or changed, or -1 if unknown; queries report the rows they read only while statements are traced")
+        public long rows;
+
+        @Label("Failed")
+        public boolean failed;
+    }
+
+    /**
+     * The checkout of a connection from the pool.
+     */
+    @Name("com.revature.ConnectionAcquire")
+    @Label("Connection Acquisition")
+    @Description("Borrowing a connection from the pool, including any wait for one to be returned")
+    @Category({ CATEGORY, "Database" })
+    @StackTrace(false)
+    public static class ConnectionEvent extends Event {
+
+        @Label("Acquired")
+        @Description("Whether a connection was lent out, rather than the wait timing out")
+        public boolean acquired;
+
+        @Label("Active Connections")
+        @Description("Connections lent out once this one was")
+        public int active;
+
+        @Label("Waiters")
+        @Description("Borrowers still waiting for a connection")
+        public int waiters;
+    }
+
+    /**
+     * The lookup of a session token in the session store.
+     */
+    @Name("com.revature.SessionLookup")
+    @Label("Session Lookup")
+    @Description("Resolving a session token to its chef")
+    @Category({ CATEGORY, "Authentication" })
+    @StackTrace(false)
+    public static class SessionLookupEvent extends Event {
+
+        @Label("Store")
+        @Description("The kind of session store looked in")
+        public String store;
+
+        @Label("Found")
+        @Description("Whether the token belonged to a live session")
+        public boolean found;
+    }
+}
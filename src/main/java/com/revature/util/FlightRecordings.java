@@ -0,0 +1,139 @@
+package com.revature.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+
+/**
+ * The FlightRecordings class runs the Java Flight Recorder recording that admins start and download on demand, with the application's own events (see FlightEvents) enabled alongside those of the JVM.
+ *
+ * At most one such recording runs at a time. It is kept on disk and trimmed to the last `jfr.recording.maxAgeSeconds` seconds and `jfr.recording.maxSizeMb` megabytes, so one left running does not fill the disk. Recordings started some other way, such as with jcmd or at startup, are left alone.
+ */
+public class FlightRecordings {
+
+    /** The recordings of the admin endpoints, or null until first needed. */
+    private static FlightRecordings defaultRecordings;
+
+    /** The JVM configuration used when none is asked for, such as "default" or "profile". */
+    private final String defaultSettings;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+
+    /** The recording running, or null if none is. */
+    private Recording recording;
+    /** The configuration the running recording was started with. */
+    private String settings;
+
+    /**
+     * Constructs a FlightRecordings.
+     *
+     * @param defaultSettings the name of the JVM configuration used when none is asked for
+     * @param maxAge how much of the past a recording keeps
+     * @param maxSizeBytes the most a recording keeps on disk
+     */
+    public FlightRecordings(String defaultSettings, Duration maxAge, long maxSizeBytes) {
+        this.defaultSettings = defaultSettings;
+        this.maxAge = maxAge;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Returns the recordings shared by the admin endpoints, creating them from the `jfr.recording.*` settings if none have been set.
+     *
+     * @return the default recordings
+     */
+    public static synchronized FlightRecordings getDefault() {
+        if (defaultRecordings == null) {
+            defaultRecordings = new FlightRecordings(AppConfig.get("jfr.recording.settings", "profile"),
+                    Duration.ofSeconds(AppConfig.getLong("jfr.recording.maxAgeSeconds", 600)),
+                    AppConfig.getLong("jfr.recording.maxSizeMb", 100) * 1024 * 1024);
+        }
+        return defaultRecordings;
+    }
+
+    /**
+     * Starts a recording.
+     *
+     * @param settings the name of the JVM configuration to record with, such as "default" or "profile", or null for the default one
+     * @return the recording, once started
+     * @throws IllegalStateException if a recording is already running
+     * @throws IOException if there is no configuration with that name
+     * @throws ParseException if the configuration could not be read
+     */
+    public synchronized Recording start(String settings) throws IOException, ParseException {
+        if (recording != null) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        String name = settings != null && !settings.isBlank() ? settings : defaultSettings;
+        Recording started = new Recording(Configuration.getConfiguration(name));
+        started.setName("recipe-app");
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSizeBytes);
+        for (Class<?> type : FlightEvents.types()) {
+            started.enable(type.asSubclass(Event.class));
+        }
+        started.start();
+        this.recording = started;
+        this.settings = name;
+        return started;
+    }
+
+    /**
+     * Writes what the running recording holds so far to a new temporary file, leaving it running.
+     *
+     * @return the file, which is up to the caller to delete, or null if no recording is running
+     * @throws IOException if the recording could not be written
+     */
+    public synchronized Path dump() throws IOException {
+        if (recording == null) {
+            return null;
+        }
+        Path file = Files.createTempFile("recipe-app-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * Stops the running recording, writing what it holds to a new temporary file first.
+     *
+     * @return the file, which is up to the caller to delete, or null if no recording was running
+     * @throws IOException if the recording could not be written; it is stopped either way
+     */
+    public synchronized Path stop() throws IOException {
+        try {
+            return dump();
+        } finally {
+            if (recording != null) {
+                recording.close();
+                recording = null;
+                settings = null;
+            }
+        }
+    }
+
+    /**
+     * @return the recording running, or null if none is
+     */
+    public synchronized Recording getRecording() {
+        return recording;
+    }
+
+    /**
+     * @return the configuration the running recording was started with, or null if none is running
+     */
+    public synchronized String getSettings() {
+        return settings;
+    }
+}
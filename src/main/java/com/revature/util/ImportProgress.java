@@ -0,0 +1,170 @@
+package com.revature.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ImportProgress class reports how far a recipe import has got. It counts the records handled so far, which is also the checkpoint a failed import resumes from, along with how many of them were imported or rejected, and how fast the current run is going.
+ *
+ * Only the first few rejections of a run are kept, so an import of millions of bad records still reports in constant memory. The writer of an import updates its progress while any number of readers look at it.
+ */
+public class ImportProgress {
+
+    /** The states of an import. */
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    /**
+     * A record that was not imported, and why.
+     */
+    public static class Rejection {
+
+        /** The position of the record in the file, counting from 0. */
+        private final long record;
+        /** Why the record was rejected. */
+        private final String error;
+
+        public Rejection(long record, String error) {
+            this.record = record;
+            this.error = error;
+        }
+
+        public long getRecord() {
+            return record;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    /** The id the import is resumed by. */
+    private final String importId;
+    /** The most rejections reported. */
+    private final int maxRejections;
+    /** The first rejections of the current run. */
+    private final List<Rejection> rejections = new ArrayList<>();
+    /** The number of records handled before the current run started. */
+    private final long resumedFrom;
+    /** When the current run started, from System.nanoTime(). */
+    private final long startNanos = System.nanoTime();
+
+    private Status status;
+    private long position;
+    private long imported;
+    private long rejected;
+    private String error;
+    private long elapsedNanos = -1;
+
+    /**
+     * Constructs the progress of an import run, starting from its last checkpoint.
+     *
+     * @param importId the id of the import
+     * @param status the state of the import
+     * @param position the number of records handled so far
+     * @param imported the number of records imported so far
+     * @param rejected the number of records rejected so far
+     * @param maxRejections the most rejections to report
+     */
+    public ImportProgress(String importId, Status status, long position, long imported, long rejected, int maxRejections) {
+        this.importId = importId;
+        this.status = status;
+        this.position = position;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.resumedFrom = position;
+        this.maxRejections = maxRejections;
+    }
+
+    /**
+     * Records that a batch of records has been written.
+     *
+     * @param position the number of records handled, including the batch
+     * @param imported the number of records of the batch imported
+     * @param rejected the number of records of the batch rejected
+     */
+    public synchronized void advance(long position, long imported, long rejected) {
+        this.position = position;
+        this.imported += imported;
+        this.rejected += rejected;
+    }
+
+    /**
+     * Reports a rejected record, if fewer than the most rejections reported have been so far. The record is counted by advance().
+     *
+     * @param record the position of the record in the file
+     * @param error why it was rejected
+     */
+    public synchronized void reject(long record, String error) {
+        if (rejections.size() < maxRejections) {
+            rejections.add(new Rejection(record, error));
+        }
+    }
+
+    /**
+     * Marks the run as over.
+     *
+     * @param status COMPLETED, or FAILED if the import has to be resumed
+     * @param error why the import failed, or null
+     */
+    public synchronized void finish(Status status, String error) {
+        this.status = status;
+        this.error = error;
+        this.elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the number of records handled so far, which a resumed import skips
+     */
+    public synchronized long getPosition() {
+        return position;
+    }
+
+    public synchronized long getImported() {
+        return imported;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return why the import failed, or null
+     */
+    public synchronized String getError() {
+        return error;
+    }
+
+    /**
+     * @return the first rejections of the current run
+     */
+    public synchronized List<Rejection> getRejections() {
+        return new ArrayList<>(rejections);
+    }
+
+    /**
+     * @return how long the current run has taken so far, in milliseconds
+     */
+    public synchronized long getElapsedMs() {
+        return elapsedNanos() / 1_000_000;
+    }
+
+    /**
+     * @return the number of records the current run has handled per second
+     */
+    public synchronized long getRecordsPerSecond() {
+        long nanos = elapsedNanos();
+        return nanos > 0 ? (position - resumedFrom) * 1_000_000_000L / nanos : 0;
+    }
+
+    private long elapsedNanos() {
+        return elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - startNanos;
+    }
+}
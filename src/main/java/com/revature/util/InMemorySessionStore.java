@@ -0,0 +1,182 @@
+package com.revature.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.revature.model.Chef;
+
+/**
+ * The InMemorySessionStore class keeps sessions in a ConcurrentHashMap, for deployments with a single server.
+ *
+ * Alongside the sessions, the store keeps each chef's tokens in the order they were created. The per-chef list is only changed inside ConcurrentHashMap.compute for that chef, so two logins by the same chef cannot both slip under the limit. A daemon thread sweeps out expired sessions, so tokens that are never used again do not stay in memory.
+ */
+public class InMemorySessionStore implements SessionStore {
+
+    /**
+     * A session, with the times it was created and last used.
+     */
+    private static class Session {
+        final Chef chef;
+        final long createdAtNanos;
+        volatile long lastSeenNanos;
+
+        Session(Chef chef, long now) {
+            this.chef = chef;
+            this.createdAtNanos = now;
+            this.lastSeenNanos = now;
+        }
+    }
+
+    /** The sessions, keyed by token. */
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    /** Each chef's tokens, oldest first, keyed by chef id. */
+    private final Map<Integer, Deque<String>> tokensByChef = new ConcurrentHashMap<>();
+
+    private final long idleTtlNanos;
+    private final long absoluteTtlNanos;
+    private final int maxSessionsPerChef;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    /** Runs the periodic sweep, or null if sweeping was turned off. */
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * @param idleTtlMs how long a session lasts without being used
+     * @param absoluteTtlMs how long a session lasts at most, however often it is used
+     * @param maxSessionsPerChef how many sessions one chef may hold at once
+     * @param sweepIntervalMs how often expired sessions are swept out; 0 or less turns the sweeper off
+     */
+    public InMemorySessionStore(long idleTtlMs, long absoluteTtlMs, int maxSessionsPerChef, long sweepIntervalMs) {
+        if (maxSessionsPerChef < 1) {
+            throw new IllegalArgumentException("Invalid session limit: " + maxSessionsPerChef);
+        }
+        this.idleTtlNanos = TimeUnit.MILLISECONDS.toNanos(idleTtlMs);
+        this.absoluteTtlNanos = TimeUnit.MILLISECONDS.toNanos(absoluteTtlMs);
+        this.maxSessionsPerChef = maxSessionsPerChef;
+        if (sweepIntervalMs > 0) {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.sweeper = null;
+        }
+    }
+
+    @Override
+    public void create(String token, Chef chef) {
+        sessions.put(token, new Session(chef, System.nanoTime()));
+        created.increment();
+        tokensByChef.compute(chef.getId(), (id, tokens) -> {
+            if (tokens == null) {
+                tokens = new ArrayDeque<>();
+            }
+            tokens.addLast(token);
+            while (tokens.size() > maxSessionsPerChef) {
+                if (sessions.remove(tokens.pollFirst()) != null) {
+                    evicted.increment();
+                }
+            }
+            return tokens;
+        });
+    }
+
+    @Override
+    public Chef get(String token) {
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (isExpired(session, now)) {
+            expire(token, session);
+            return null;
+        }
+        session.lastSeenNanos = now;
+        return session.chef;
+    }
+
+    @Override
+    public void remove(String token) {
+        Session session = sessions.remove(token);
+        if (session != null) {
+            forget(token, session.chef.getId());
+        }
+    }
+
+    @Override
+    public int sweep() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            if (isExpired(entry.getValue(), now) && expire(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return sessions.size();
+    }
+
+    @Override
+    public void registerMetrics(String prefix) {
+        Metrics.gauge(prefix + "_active", "Sessions currently held, including expired ones not yet swept", sessions::size);
+        Metrics.register(prefix + "_created_total", "Sessions started by a login", Metrics.Type.COUNTER, created);
+        Metrics.register(prefix + "_expired_total", "Sessions ended by the idle or absolute TTL", Metrics.Type.COUNTER, expired);
+        Metrics.register(prefix + "_evicted_total", "Sessions ended because their chef logged in too many times", Metrics.Type.COUNTER, evicted);
+    }
+
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    // below are helper methods for ending sessions
+
+    /**
+     * @return true if the session has gone unused for the idle TTL, or has reached the absolute TTL
+     */
+    private boolean isExpired(Session session, long now) {
+        return now - session.lastSeenNanos >= idleTtlNanos || now - session.createdAtNanos >= absoluteTtlNanos;
+    }
+
+    /**
+     * Removes an expired session, unless another thread already has.
+     *
+     * @return true if this call removed the session
+     */
+    private boolean expire(String token, Session session) {
+        if (sessions.remove(token, session)) {
+            expired.increment();
+            forget(token, session.chef.getId());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Drops a token from its chef's list, and the list itself once it is empty.
+     */
+    private void forget(String token, int chefId) {
+        tokensByChef.computeIfPresent(chefId, (id, tokens) -> {
+            tokens.remove(token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+    }
+}
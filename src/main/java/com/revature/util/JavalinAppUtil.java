@@ -2,9 +2,19 @@ package com.revature.util;
 import com.revature.controller.RecipeController;
 
 import io.javalin.Javalin;
+import io.javalin.json.JavalinJackson;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
 
 import com.revature.controller.AuthenticationController;
+import com.revature.controller.FlightRecordingController;
 import com.revature.controller.IngredientController;
+import com.revature.controller.RecipeImportController;
 
 
 /**
@@ -37,6 +47,12 @@ public class JavalinAppUtil {
 
     private IngredientController ingredientController;
 
+    /**
+     * The RecipeImportController for handling recipe import routes, or null if imports are not offered.
+     */
+
+    private RecipeImportController recipeImportController;
+
     /**
      * Constructs a JavalinAppUtil with the specified controllers.
      *
@@ -46,20 +62,53 @@ public class JavalinAppUtil {
      */
 
     public JavalinAppUtil(RecipeController recipeController, AuthenticationController authController, IngredientController ingredientController) {
+        this(recipeController, authController, ingredientController, null);
+    }
+
+    /**
+     * Constructs a JavalinAppUtil with the specified controllers, including the one for recipe imports.
+     *
+     * @param recipeController the controller for handling recipe operations
+     * @param authController the controller for handling authentication operations
+     * @param ingredientController the controller for handling ingredient operations
+     * @param recipeImportController the controller for handling recipe imports
+     */
+
+    public JavalinAppUtil(RecipeController recipeController, AuthenticationController authController, IngredientController ingredientController,
+            RecipeImportController recipeImportController) {
         this.recipeController = recipeController;
         this.authenticationController = authController;
         this.ingredientController = ingredientController;
+        this.recipeImportController = recipeImportController;
     }
 
     /**
      * Creates a Javalin instance, configures the routes for all controllers, 
      * and applies any necessary middleware, including admin middleware.
+     * Unless `metrics.enabled` is false, every request is timed per route
+     * and the Metrics registry is served on /metrics in the Prometheus text format.
+     * Unless `server.timing.enabled` is false, requests sending an X-Server-Timing
+     * header get a Server-Timing header splitting their time between the controller,
+     * the services, JDBC, row mapping and JSON serialization.
+     * Each request is emitted as a Flight Recorder event while a recording has those
+     * enabled, and unless `jfr.endpoint.enabled` is false, admins can start, download
+     * and stop a recording through /admin/recording.
      *
      * @return the configured Javalin instance
      */
 	
     public Javalin getApp() {
+        boolean metricsEnabled = AppConfig.getBoolean("metrics.enabled", true);
+        boolean timingEnabled = AppConfig.getBoolean("server.timing.enabled", true);
         Javalin app = Javalin.create(config -> {
+            config.jetty.server(() -> new Server(createThreadPool()));
+            if (metricsEnabled) {
+                // Javalin times every request, including those answered through a future, and hands the time to the request logger
+                config.requestLogger.http(new RequestMetrics("http_server"));
+            }
+            if (timingEnabled) {
+                config.jsonMapper(new TimedJsonMapper(new JavalinJackson()));
+            }
             config.plugins.enableCors(cors -> {
                 cors.add(it -> {
                     it.anyHost();
@@ -70,16 +119,69 @@ public class JavalinAppUtil {
             
         });
 
+        // Javalin only falls back to its default port for a server it created itself
+        app.jettyServer().setServerPort(8080);
+
         // Configure routes for each controller
         recipeController.configureRoutes(app);
         authenticationController.configureRoutes(app);
         ingredientController.configureRoutes(app);
-
+        if (recipeImportController != null) {
+            recipeImportController.configureRoutes(app);
+        }
+        if (AppConfig.getBoolean("jfr.endpoint.enabled", true)) {
+            new FlightRecordingController(FlightRecordings.getDefault()).configureRoutes(app);
+        }
+        if (metricsEnabled) {
+            JvmMetrics.registerMetrics("jvm");
+            app.get("/metrics", ctx -> ctx.contentType(Metrics.PROMETHEUS_CONTENT_TYPE).result(Metrics.toPrometheusText()));
+        }
+
+        // Record the handling of each request while a flight recording asks for it
+        app.before(FlightEvents::beginHandler);
+        app.after(FlightEvents::endHandler);
+
+        // Time the requests that ask for it from their first handler to their last
+        if (timingEnabled) {
+            app.before(RequestTiming::begin);
+            app.after(RequestTiming::report);
+        }
+
+        // Count the statements of requests that ask for it, before any other handler touches the database
+        if (AppConfig.getBoolean("db.trace.enabled", true)) {
+            boolean always = AppConfig.getBoolean("db.trace.responseHeaders", false);
+            app.before(ctx -> RequestStatements.begin(ctx, always));
+            app.after(RequestStatements::report);
+        }
+
+        // Resolve the chef of each request once; the admin middleware and handlers read it from the context
+        app.before(new AuthenticationMiddleware(authenticationController.getAuthService()));
         app.before("/recipes/*", new AdminMiddleware("DELETE"));
         app.before("/ingredients/*", new AdminMiddleware("UPDATE", "CREATE", "DELETE"));
 
+        // Database work turned away by a full JdbcExecutor queue is answered at once, so clients can back off and retry
+        app.exception(RejectedExecutionException.class, (e, ctx) -> ctx.status(503).result("Server busy, try again later"));
+
         return app;
     }
 
+    /**
+     * Creates the threads the server runs on, as the `server.threads` setting chooses.
+     *
+     * Jetty always accepts connections and reads requests on a pool of between `server.minThreads` and `server.maxThreads` platform threads. With `server.threads=platform`, the default, the handlers run on that pool too, so at most `server.maxThreads` requests are handled at once. With `server.threads=virtual` every request is handed to a virtual thread of its own.
+     *
+     * H2 runs every statement inside `synchronized (session)`, which would pin a virtual thread to its carrier thread until the statement returns. The services therefore never run their database work on a virtual thread: they hand it to the JdbcExecutor, whose threads are platform threads, and the virtual thread parks until it is done, leaving its carrier free for other requests. Requests that find the executor's threads busy and its queue full are answered with 503, as the Async handlers are. The `db_statements_on_virtual_threads_total` metric counts any statement that runs on a virtual thread all the same.
+     *
+     * @return the thread pool for the Jetty server
+     */
+    public static ThreadPool createThreadPool() {
+        QueuedThreadPool threadPool = new QueuedThreadPool(AppConfig.getInt("server.maxThreads", 250), AppConfig.getInt("server.minThreads", 8));
+        threadPool.setName("JettyServerThreadPool");
+        if ("virtual".equalsIgnoreCase(AppConfig.get("server.threads", "platform"))) {
+            threadPool.setVirtualThreadsExecutor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("request-", 0).factory()));
+        }
+        return threadPool;
+    }
+
 
 }
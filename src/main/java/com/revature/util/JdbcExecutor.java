@@ -0,0 +1,215 @@
+package com.revature.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The JdbcExecutor class runs blocking database work on a fixed number of threads of its own, so that a request thread can hand the work off and be freed while it waits for the database.
+ *
+ * Work waits in a bounded queue when every thread is busy. Once the queue is full, new work is rejected straight away: the returned future fails with a RejectedExecutionException rather than piling up behind a database that cannot keep up. The threads are best sized to the connection pool, since each task holds a connection while it runs.
+ *
+ * Services created without an executor of their own share a default executor, sized by the `db.executor.threads` and `db.executor.queueCapacity` settings.
+ *
+ * The statements a task runs are counted towards the request that submitted it, if that request is counting its statements (see RequestStatements).
+ *
+ * The services run their synchronous methods through call, which waits for the task. On a platform thread the task simply runs in place; a virtual thread hands it to the executor and parks meanwhile. H2 runs each statement while holding a monitor, which would pin a virtual thread to its carrier thread for as long as the statement takes, so this way virtual request threads never run a statement themselves.
+ */
+public class JdbcExecutor implements AutoCloseable {
+
+    /** The executor shared by services created without one, or null until first needed. */
+    private static JdbcExecutor defaultExecutor;
+
+    /** The number of threads running database work. */
+    private final int threads;
+    /** The number of tasks that may wait for a thread. */
+    private final int queueCapacity;
+    /** The threads and the queue of waiting tasks. */
+    private final ThreadPoolExecutor executor;
+    /** The time tasks spend in the queue before a thread picks them up. */
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    /** The number of tasks that have finished, successfully or not. */
+    private final LongAdder completed = new LongAdder();
+    /** The number of tasks turned away because the queue was full. */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructs a JdbcExecutor. Its threads are started as work arrives.
+     *
+     * @param name the name given to each thread, followed by its number
+     * @param threads the number of threads running database work
+     * @param queueCapacity the number of tasks that may wait for a thread
+     */
+    public JdbcExecutor(String name, int threads, int queueCapacity) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Invalid executor size: threads=" + threads + ", queueCapacity=" + queueCapacity);
+        }
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the executor shared by services created without one, creating it from the application settings if none has been set.
+     *
+     * @return the default executor
+     */
+    public static synchronized JdbcExecutor getDefault() {
+        if (defaultExecutor == null) {
+            defaultExecutor = new JdbcExecutor("jdbc-executor",
+                    AppConfig.getInt("db.executor.threads", AppConfig.getInt("db.pool.maxSize", 10)),
+                    AppConfig.getInt("db.executor.queueCapacity", 1000));
+            defaultExecutor.registerMetrics("db_executor");
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Runs a task on one of the executor's threads.
+     *
+     * @param <T> the type of the task's result
+     * @param task the database work to run
+     * @return a future completed with the task's result or exception, or failed with a RejectedExecutionException if the queue was full
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        long submitted = System.nanoTime();
+        RequestStatements statements = RequestStatements.current();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWait.recordSince(submitted);
+                RequestStatements previous = RequestStatements.attach(statements);
+                try {
+                    return task.get();
+                } finally {
+                    RequestStatements.attach(previous);
+                    completed.increment();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Runs a task and waits for its result: in place on a platform thread, or on one of the executor's threads if the caller is a virtual thread. A task handed off is charged to the request timing of the caller, which waits for it, as well as to its statement count.
+     *
+     * @param <T> the type of the task's result
+     * @param task the database work to run
+     * @return the task's result
+     * @throws RejectedExecutionException if the task had to be handed off and the queue was full
+     */
+    public <T> T call(Supplier<T> task) {
+        if (!Thread.currentThread().isVirtual()) {
+            return task.get();
+        }
+        RequestTiming timing = RequestTiming.current();
+        try {
+            return supply(() -> {
+                RequestTiming.attach(timing);
+                try {
+                    return task.get();
+                } finally {
+                    RequestTiming.attach(null);
+                }
+            }).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a task without a result and waits for it, as call does for a task with one.
+     *
+     * @param task the database work to run
+     * @throws RejectedExecutionException if the task had to be handed off and the queue was full
+     */
+    public void call(Runnable task) {
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a task without a result on one of the executor's threads.
+     *
+     * @param task the database work to run
+     * @return a future completed when the task has run, or failed as described for supply
+     */
+    public CompletableFuture<Void> run(Runnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Publishes the executor's queue depth, saturation and rejections in the Metrics registry.
+     *
+     * @param prefix the prefix for each metric name, such as "db_executor"
+     */
+    public void registerMetrics(String prefix) {
+        Metrics.gauge(prefix + "_queue_depth", "Tasks waiting for a thread", this::getQueueDepth);
+        Metrics.gauge(prefix + "_queue_capacity", "Tasks that may wait for a thread before new ones are rejected", () -> queueCapacity);
+        Metrics.gauge(prefix + "_active_threads", "Threads currently running a task", this::getActiveCount);
+        Metrics.gauge(prefix + "_max_threads", "Threads running database work", () -> threads);
+        Metrics.gauge(prefix + "_saturation_percent", "Busy threads and queued tasks, as a percentage of threads plus queue capacity", this::getSaturationPercent);
+        Metrics.register(prefix + "_completed_total", "Tasks that have finished, successfully or not", Metrics.Type.COUNTER, completed);
+        Metrics.register(prefix + "_rejected_total", "Tasks turned away because the queue was full", Metrics.Type.COUNTER, rejected);
+        Metrics.register(prefix + "_queue_wait_seconds", "Time tasks spend waiting for a thread", Metrics.Type.HISTOGRAM, queueWait);
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return the number of threads currently running a task
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return the busy threads and queued tasks, as a percentage of the threads plus the queue capacity; 100 means new tasks are being rejected
+     */
+    public long getSaturationPercent() {
+        return 100L * (getActiveCount() + getQueueDepth()) / (threads + queueCapacity);
+    }
+
+    /**
+     * @return the number of tasks turned away because the queue was full
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Stops accepting work. Tasks already queued still run.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,48 @@
+package com.revature.util;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.function.LongSupplier;
+
+/**
+ * The JvmMetrics class publishes the heap, garbage collection and thread figures of the running JVM in the Metrics registry.
+ *
+ * Every value is a gauge or counter read from the JVM's management beans when the metrics are scraped, so nothing is recorded on the request path.
+ */
+public final class JvmMetrics {
+
+    private JvmMetrics() {
+    }
+
+    /**
+     * Registers the JVM metrics, replacing any registered earlier.
+     *
+     * @param prefix the prefix for each metric name, such as "jvm"
+     */
+    public static void registerMetrics(String prefix) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        Metrics.gauge(Metrics.name(prefix + "_memory_used_bytes", "area", "heap"), "Memory in use", () -> memory.getHeapMemoryUsage().getUsed());
+        Metrics.gauge(Metrics.name(prefix + "_memory_used_bytes", "area", "nonheap"), "Memory in use", () -> memory.getNonHeapMemoryUsage().getUsed());
+        Metrics.gauge(Metrics.name(prefix + "_memory_committed_bytes", "area", "heap"), "Memory the JVM has reserved from the operating system",
+                () -> memory.getHeapMemoryUsage().getCommitted());
+        Metrics.gauge(Metrics.name(prefix + "_memory_committed_bytes", "area", "nonheap"), "Memory the JVM has reserved from the operating system",
+                () -> memory.getNonHeapMemoryUsage().getCommitted());
+        Metrics.gauge(Metrics.name(prefix + "_memory_max_bytes", "area", "heap"), "The most memory the JVM may use, or -1 if unbounded",
+                () -> memory.getHeapMemoryUsage().getMax());
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            Metrics.register(Metrics.name(prefix + "_gc_collections_total", "gc", gc.getName()), "Garbage collections run by each collector",
+                    Metrics.Type.COUNTER, (LongSupplier) gc::getCollectionCount);
+            Metrics.register(Metrics.name(prefix + "_gc_collection_milliseconds_total", "gc", gc.getName()), "Time spent in garbage collection by each collector",
+                    Metrics.Type.COUNTER, (LongSupplier) gc::getCollectionTime);
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Metrics.gauge(prefix + "_threads_live", "Platform threads currently alive", threads::getThreadCount);
+        Metrics.gauge(prefix + "_threads_daemon", "Daemon platform threads currently alive", threads::getDaemonThreadCount);
+        Metrics.gauge(prefix + "_threads_peak", "The most platform threads alive at once since the JVM started", threads::getPeakThreadCount);
+        Metrics.gauge(prefix + "_uptime_seconds", "Time since the JVM started", () -> ManagementFactory.getRuntimeMXBean().getUptime() / 1000);
+    }
+}
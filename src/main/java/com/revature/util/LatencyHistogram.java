@@ -0,0 +1,117 @@
+package com.revature.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram class records durations into a fixed set of buckets without taking any locks, so it can be updated from many request threads at once.
+ *
+ * The bucket boundaries range from 50 microseconds to 10 seconds, with a final overflow bucket. Percentiles are reported as the upper boundary of the bucket the percentile falls into.
+ */
+public class LatencyHistogram {
+
+    /** The inclusive upper boundaries of each bucket, in nanoseconds. */
+    private static final long[] BOUNDS = {
+            TimeUnit.MICROSECONDS.toNanos(50), TimeUnit.MICROSECONDS.toNanos(100),
+            TimeUnit.MICROSECONDS.toNanos(250), TimeUnit.MICROSECONDS.toNanos(500),
+            TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MICROSECONDS.toNanos(2500),
+            TimeUnit.MILLISECONDS.toNanos(5), TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(25), TimeUnit.MILLISECONDS.toNanos(50),
+            TimeUnit.MILLISECONDS.toNanos(100), TimeUnit.MILLISECONDS.toNanos(250),
+            TimeUnit.MILLISECONDS.toNanos(500), TimeUnit.SECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(2500), TimeUnit.SECONDS.toNanos(5),
+            TimeUnit.SECONDS.toNanos(10)
+    };
+
+    /** The number of recorded values per bucket; the last slot counts values above the largest boundary. */
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS.length + 1);
+
+    /** The sum of all recorded values, in nanoseconds. */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Records a single duration.
+     *
+     * @param durationNanos the duration to record, in nanoseconds
+     */
+    public void record(long durationNanos) {
+        int index = 0;
+        while (index < BOUNDS.length && durationNanos > BOUNDS[index]) {
+            index++;
+        }
+        buckets.incrementAndGet(index);
+        sum.add(durationNanos);
+    }
+
+    /**
+     * Records the time elapsed since the given start time.
+     *
+     * @param startNanos a value previously obtained from System.nanoTime()
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return the number of values recorded so far
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return the sum of all values recorded so far, in nanoseconds
+     */
+    public long getSumNanos() {
+        return sum.sum();
+    }
+
+    /**
+     * @return a copy of the bucket boundaries, in nanoseconds
+     */
+    public long[] getBoundsNanos() {
+        return BOUNDS.clone();
+    }
+
+    /**
+     * @return a snapshot of the per-bucket counts; the last element counts values above the largest boundary
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Estimates a percentile of the recorded values.
+     *
+     * @param percentile the percentile to estimate, between 0 and 100
+     * @return the upper boundary of the bucket containing the percentile, in nanoseconds; Long.MAX_VALUE if it falls into the overflow bucket, or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target && counts[i] > 0) {
+                return i < BOUNDS.length ? BOUNDS[i] : Long.MAX_VALUE;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,230 @@
+package com.revature.util;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The Metrics class is a process-wide registry of named counters, gauges and latency histograms.
+ *
+ * Components register their metrics once, typically in a constructor or static initializer, and then update them directly on the hot path. Registering a name that already exists returns the existing counter or histogram, so several instances of a class can safely share the same metric.
+ *
+ * A name may carry Prometheus labels, as built by {@link #name(String, String...)}, such as `http_server_request_seconds{method="GET",route="/recipes"}`. Each labelled name is a metric of its own; they are grouped under their base name when the registry is rendered in the Prometheus text format by {@link #toPrometheusText()}.
+ */
+public class Metrics {
+
+    /** The kinds of metric the registry can hold. */
+    public enum Type { COUNTER, GAUGE, HISTOGRAM }
+
+    /** The content type of the Prometheus text exposition format. */
+    public static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * A registered metric, along with its description and current value holder.
+     */
+    public static class Entry {
+
+        /** The unique name of the metric. */
+        private final String name;
+        /** A short human readable description of the metric. */
+        private final String help;
+        /** The kind of metric. */
+        private final Type type;
+        /** The LongAdder or LongSupplier of a counter, the LongSupplier of a gauge, or the LatencyHistogram of a histogram. */
+        private final Object value;
+
+        public Entry(String name, String help, Type type, Object value) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.value = value;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getHelp() {
+            return help;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+    }
+
+    /** All registered metrics, indexed by name. */
+    private static Map<String, Entry> registry = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a counter, or returns the existing counter with the same name.
+     *
+     * @param name the unique name of the metric
+     * @param help a short description of the metric
+     * @return the counter to increment
+     */
+    public static LongAdder counter(String name, String help) {
+        return (LongAdder) registry.computeIfAbsent(name, n -> new Entry(n, help, Type.COUNTER, new LongAdder())).getValue();
+    }
+
+    /**
+     * Registers a gauge whose value is read on demand. A gauge registered under an existing name replaces the previous one.
+     *
+     * @param name the unique name of the metric
+     * @param help a short description of the metric
+     * @param supplier the function that reads the current value
+     */
+    public static void gauge(String name, String help, LongSupplier supplier) {
+        register(name, help, Type.GAUGE, supplier);
+    }
+
+    /**
+     * Registers a latency histogram, or returns the existing histogram with the same name.
+     *
+     * @param name the unique name of the metric
+     * @param help a short description of the metric
+     * @return the histogram to record into
+     */
+    public static LatencyHistogram histogram(String name, String help) {
+        return (LatencyHistogram) registry.computeIfAbsent(name, n -> new Entry(n, help, Type.HISTOGRAM, new LatencyHistogram())).getValue();
+    }
+
+    /**
+     * Registers an existing counter (LongAdder, or a LongSupplier reading a count kept elsewhere), gauge (LongSupplier) or histogram (LatencyHistogram), replacing any metric with the same name.
+     *
+     * @param name the unique name of the metric
+     * @param help a short description of the metric
+     * @param type the kind of metric
+     * @param value the object holding the metric's value
+     */
+    public static void register(String name, String help, Type type, Object value) {
+        registry.put(name, new Entry(name, help, type, value));
+    }
+
+    /**
+     * Retrieves a registered metric by name.
+     *
+     * @param name the name of the metric
+     * @return the registered metric, or null if no metric has that name
+     */
+    public static Entry get(String name) {
+        return registry.get(name);
+    }
+
+    /**
+     * @return a snapshot of every registered metric
+     */
+    public static List<Entry> getAll() {
+        return new ArrayList<>(registry.values());
+    }
+
+    /**
+     * Builds the name of a labelled metric.
+     *
+     * @param base the name shared by every label combination, such as "http_server_request_seconds"
+     * @param labels alternating label names and values, such as "method", "GET"
+     * @return the base name followed by the labels in Prometheus syntax, or the base name alone if there are no labels
+     */
+    public static String name(String base, String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must come in name and value pairs: " + String.join(", ", labels));
+        }
+        if (labels.length == 0) {
+            return base;
+        }
+        StringBuilder name = new StringBuilder(base).append('{');
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                name.append(',');
+            }
+            name.append(labels[i]).append("=\"");
+            for (char c : labels[i + 1].toCharArray()) {
+                switch (c) {
+                    case '\\' -> name.append("\\\\");
+                    case '"' -> name.append("\\\"");
+                    case '\n' -> name.append("\\n");
+                    default -> name.append(c);
+                }
+            }
+            name.append('"');
+        }
+        return name.append('}').toString();
+    }
+
+    /**
+     * Renders every registered metric in the Prometheus text exposition format. Metrics are grouped by base name, with one HELP and TYPE line per group. Histograms are written in seconds, with cumulative buckets bounded by the LatencyHistogram boundaries.
+     *
+     * @return the metrics, one sample per line
+     */
+    public static String toPrometheusText() {
+        Map<String, List<Entry>> families = new TreeMap<>();
+        for (Entry entry : registry.values()) {
+            families.computeIfAbsent(baseName(entry.getName()), n -> new ArrayList<>()).add(entry);
+        }
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, List<Entry>> family : families.entrySet()) {
+            List<Entry> entries = family.getValue();
+            entries.sort((a, b) -> a.getName().compareTo(b.getName()));
+            Entry first = entries.get(0);
+            out.append("# HELP ").append(family.getKey()).append(' ').append(first.getHelp().replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            out.append("# TYPE ").append(family.getKey()).append(' ').append(first.getType().name().toLowerCase()).append('\n');
+            for (Entry entry : entries) {
+                if (entry.getValue() instanceof LatencyHistogram histogram) {
+                    writeHistogram(out, family.getKey(), labelsOf(entry.getName()), histogram);
+                } else {
+                    out.append(entry.getName()).append(' ').append(longValue(entry.getValue())).append('\n');
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static void writeHistogram(StringBuilder out, String base, String labels, LatencyHistogram histogram) {
+        long[] bounds = histogram.getBoundsNanos();
+        long[] counts = histogram.getBucketCounts();
+        String prefix = labels.isEmpty() ? "{" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += counts[i];
+            out.append(base).append("_bucket").append(prefix).append("le=\"").append(seconds(bounds[i])).append("\"} ").append(cumulative).append('\n');
+        }
+        cumulative += counts[bounds.length];
+        out.append(base).append("_bucket").append(prefix).append("le=\"+Inf\"} ").append(cumulative).append('\n');
+        String suffix = labels.isEmpty() ? "" : labels + "}";
+        out.append(base).append("_sum").append(suffix).append(' ').append(seconds(histogram.getSumNanos())).append('\n');
+        out.append(base).append("_count").append(suffix).append(' ').append(cumulative).append('\n');
+    }
+
+    /**
+     * @return the name without its labels
+     */
+    private static String baseName(String name) {
+        int brace = name.indexOf('{');
+        return brace < 0 ? name : name.substring(0, brace);
+    }
+
+    /**
+     * @return the opening brace and labels of the name, without the closing brace, or an empty string if it has none
+     */
+    private static String labelsOf(String name) {
+        int brace = name.indexOf('{');
+        return brace < 0 ? "" : name.substring(brace, name.length() - 1);
+    }
+
+    private static long longValue(Object value) {
+        return value instanceof LongAdder adder ? adder.sum() : ((LongSupplier) value).getAsLong();
+    }
+
+    private static String seconds(long nanos) {
+        return BigDecimal.valueOf(nanos, 9).stripTrailingZeros().toPlainString();
+    }
+}
@@ -3,6 +3,9 @@ package com.revature.util;
 import java.util.List;
 import java.util.Objects;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonValue;
+
 /**
  * The Page class represents a paginated collection of items, along with 
  * metadata that facilitates a fluid paging experience for users. This 
@@ -13,13 +16,34 @@ import java.util.Objects;
  * hashCode methods, which are essential for comparing Page objects 
  * and storing them in collections.
  *
- * You do not need to edit this class.
+ * A page read with a cursor also carries the cursor for the next page, and 
+ * its total is marked as exact or estimated according to the count mode 
+ * that was requested.
  * 
  * @param <E> the type of elements in the page
  */
 
 public class Page<E> {
 
+    /**
+     * How trustworthy the totalElements and totalPages of a page are.
+     */
+    public enum TotalType {
+        /** The totals were counted for this request. */
+        EXACT,
+        /** The totals are approximate, or were counted a few seconds earlier. */
+        ESTIMATED,
+        /** At least as many elements match as the total says, and the number of pages is not known, so it is -1. */
+        AT_LEAST,
+        /** The totals were not counted, and are -1. */
+        OMITTED;
+
+        @JsonValue
+        public String toJson() {
+            return name().toLowerCase();
+        }
+    }
+
     // fields
 
     /** The current page number. */
@@ -32,6 +56,12 @@ public class Page<E> {
     private int totalElements;
     /** The total number of elements across all pages. */
     private List<E> items;
+    /** The opaque token to pass as the cursor to fetch the next page; only set for cursor-based pages that have more results. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    /** How the totals were worked out; only set when the request asked for a specific count mode. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TotalType totalType;
 
     // constructors
     public Page() {
@@ -87,6 +117,22 @@ public class Page<E> {
         this.items = items;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public TotalType getTotalType() {
+        return totalType;
+    }
+
+    public void setTotalType(TotalType totalType) {
+        this.totalType = totalType;
+    }
+
     /**
      * Returns a hash code value for the Page object.
      *
@@ -94,7 +140,7 @@ public class Page<E> {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(pageNumber, pageSize, totalPages, totalElements, items);
+        return Objects.hash(pageNumber, pageSize, totalPages, totalElements, items, nextCursor, totalType);
     }
 
     /**
@@ -117,6 +163,8 @@ public class Page<E> {
                pageSize == page.pageSize &&
                totalPages == page.totalPages &&
                totalElements == page.totalElements &&
-               Objects.equals(items, page.items);
+               Objects.equals(items, page.items) &&
+               Objects.equals(nextCursor, page.nextCursor) &&
+               totalType == page.totalType;
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.revature.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The PageCursor class represents the position reached by a cursor-based page: the sort order that was used, and the sort value and id of the last item returned.
+ *
+ * Clients receive a cursor as an opaque, URL-safe token in Page.nextCursor and send it back unchanged to fetch the following page. The DAOs decode the token to seek directly past the last item seen, which keeps every page equally cheap no matter how deep the client has paged.
+ */
+public class PageCursor {
+
+    /** The sort key the cursor was created for, such as "id" or "name". */
+    private final String sortBy;
+    /** Whether the results were sorted in descending order. */
+    private final boolean descending;
+    /** The sort value of the last item returned. */
+    private final String lastValue;
+    /** The id of the last item returned, used to break ties between equal sort values. */
+    private final int lastId;
+
+    public PageCursor(String sortBy, boolean descending, String lastValue, int lastId) {
+        this.sortBy = sortBy;
+        this.descending = descending;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public String getLastValue() {
+        return lastValue;
+    }
+
+    public int getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Encodes this cursor as an opaque token.
+     *
+     * @return a URL-safe token that can be passed back as the cursor of the next request
+     */
+    public String encode() {
+        String payload = sortBy + "|" + (descending ? "desc" : "asc") + "|" + lastId + "|" + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously produced by encode().
+     *
+     * @param token the token sent by the client
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = payload.split("\\|", 4);
+            if (parts.length != 4 || !(parts[1].equals("asc") || parts[1].equals("desc"))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PageCursor(parts[0], parts[1].equals("desc"), parts[3], Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -3,11 +3,41 @@ package com.revature.util;
 /**
  * The PageOptions class is a Plain Old Java Object (POJO) that encapsulates the information necessary for creating paginated results. This class packages various options for pagination, such as the page number, page size, sorting criteria, and sorting direction. By encapsulating these options, the class allows for cleaner and more maintainable code by avoiding the need to pass multiple individual parameters to methods that support paging.
  * 
- * You do not need to edit this class.
+ * Besides the page number, the options can carry a cursor for seeking past the previous page instead of skipping rows, and the count mode that decides how the total number of elements is worked out.
  * 
  */
 public class PageOptions {
 
+    /**
+     * The ways the total number of matching elements can be worked out for a page.
+     */
+    public enum CountMode {
+        /** Count every matching row. */
+        EXACT,
+        /** Reuse a count taken within the last few seconds, counting exactly only when none is cached. */
+        CACHED,
+        /** Use the table statistics when there is no filter, and otherwise count matches only up to a fixed limit. */
+        ESTIMATE,
+        /** Skip counting altogether. */
+        NONE;
+
+        /**
+         * @param value the name of a count mode, ignoring case, such as "exact" or "none"
+         * @return the matching count mode, or null if value is null
+         * @throws IllegalArgumentException if value does not name a count mode
+         */
+        public static CountMode parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown count mode: " + value, e);
+            }
+        }
+    }
+
     // fields
 
     /** The current page number. */
@@ -18,6 +48,10 @@ public class PageOptions {
     private String sortBy;
     /** The direction of sorting (e.g., ascending or descending). */
     private String sortDirection;
+    /** The continuation token returned with the previous page, or an empty string for the first page. When set, the results are paged by seeking past the last item seen instead of skipping rows with an offset. */
+    private String cursor;
+    /** How the total number of elements should be worked out, or null to count exactly without labelling the total. */
+    private CountMode countMode;
 
     // constructors
     public PageOptions() {
@@ -67,4 +101,27 @@ public class PageOptions {
     public void setSortDirection(String sortDirection) {
         this.sortDirection = sortDirection;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public CountMode getCountMode() {
+        return countMode;
+    }
+
+    public void setCountMode(CountMode countMode) {
+        this.countMode = countMode;
+    }
+
+    /**
+     * @return true if the results should be paged with a cursor rather than a page number
+     */
+    public boolean isKeyset() {
+        return cursor != null;
+    }
 }
@@ -0,0 +1,352 @@
+package com.revature.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+
+/**
+ * The RecipeRecordReader class reads the recipes of an import file one record at a time, so a file of any size is parsed in constant memory.
+ *
+ * Two formats are read:
+ * - NDJSON: one recipe per line, shaped as GET /recipes/export writes them, so an export can be imported elsewhere. The author may be given as a username or as an object with a username, and each ingredient as an object with a name, volume and unit.
+ * - CSV: a header row naming the columns name, instructions, author, ingredient, volume and unit, in any order, followed by one row per ingredient of a recipe. Consecutive rows with the same name belong to the same recipe; its instructions and author are taken from its first row. A recipe without ingredients has one row with an empty ingredient column.
+ *
+ * Recipes are returned with their author and ingredients named rather than identified, for the importer to resolve. A record that cannot be understood is returned with an error instead of a recipe, and reading continues with the next record.
+ *
+ * No record is held in memory beyond `import.maxRecordChars` characters, so a missing line break or an unclosed quote cannot make the reader buffer the rest of the file. An NDJSON line longer than that is skipped and rejected. A longer CSV row fails the import with an IOException, as the end of the row cannot be trusted once a quote may be open.
+ */
+public abstract class RecipeRecordReader implements Closeable {
+
+    /**
+     * One record of an import file: a recipe, or the reason it could not be read.
+     */
+    public static class Record {
+
+        /** The position of the record in the file, counting from 0. */
+        private final long position;
+        /** The recipe, or null if the record could not be read. */
+        private final Recipe recipe;
+        /** Why the record could not be read, or null. */
+        private final String error;
+
+        private Record(long position, Recipe recipe, String error) {
+            this.position = position;
+            this.recipe = recipe;
+            this.error = error;
+        }
+
+        public long getPosition() {
+            return position;
+        }
+
+        public Recipe getRecipe() {
+            return recipe;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    /** The media type of NDJSON files. */
+    public static final String NDJSON = "application/x-ndjson";
+    /** The media type of CSV files. */
+    public static final String CSV = "text/csv";
+
+    /** The file being read. */
+    protected final BufferedReader in;
+    /** The most characters a record may have. */
+    protected final int maxRecordChars;
+    /** The position of the next record. */
+    private long position;
+
+    private RecipeRecordReader(InputStream in) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.maxRecordChars = Math.max(1, AppConfig.getInt("import.maxRecordChars", 1 << 20));
+    }
+
+    /**
+     * Opens a reader for the format of the given media type.
+     *
+     * @param mediaType the media type of the file, optionally followed by parameters such as its charset
+     * @param in the file, which must be UTF-8
+     * @return the reader, or null if the format is not supported
+     */
+    public static RecipeRecordReader open(String mediaType, InputStream in) {
+        String type = mediaType == null ? "" : mediaType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        switch (type) {
+            case NDJSON:
+                return new NdjsonReader(in);
+            case CSV:
+                return new CsvReader(in);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the record, or null at the end of the file
+     * @throws IOException if the file could not be read, or is too malformed to find the next record in
+     */
+    public abstract Record next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    protected Record recipe(Recipe recipe) {
+        return new Record(position++, recipe, null);
+    }
+
+    protected Record error(String error) {
+        return new Record(position++, null, error);
+    }
+
+    /**
+     * Reads NDJSON files, one recipe per line.
+     */
+    private static class NdjsonReader extends RecipeRecordReader {
+
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+
+        /** The line being read. */
+        private final StringBuilder line = new StringBuilder();
+        /** Whether the last line read was longer than maxRecordChars, and cut short. */
+        private boolean tooLong;
+
+        private NdjsonReader(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public Record next() throws IOException {
+            do {
+                if (!readLine()) {
+                    return null;
+                }
+            } while (!tooLong && line.toString().isBlank());
+            if (tooLong) {
+                return error("The record is longer than " + maxRecordChars + " characters");
+            }
+            JsonNode node;
+            try {
+                node = MAPPER.readTree(line.toString());
+            } catch (JsonProcessingException e) {
+                return error("The record is not valid JSON");
+            }
+            if (!node.isObject()) {
+                return error("The record is not a JSON object");
+            }
+            Recipe recipe = new Recipe(0, text(node.get("name")), text(node.get("instructions")), author(node.get("author")));
+            List<RecipeIngredient> ingredients = new ArrayList<>();
+            JsonNode array = node.path("ingredients");
+            for (JsonNode ingredient : array) {
+                JsonNode volume = ingredient.get("volume");
+                if (volume != null && !volume.isNull() && !volume.isNumber()) {
+                    return error("An ingredient volume is not a number");
+                }
+                ingredients.add(new RecipeIngredient(0, text(ingredient.get("name")), volume != null ? volume.asDouble() : 0,
+                        text(ingredient.get("unit"))));
+            }
+            recipe.setIngredients(ingredients);
+            return recipe(recipe);
+        }
+
+        /**
+         * Reads the next line into the line buffer, keeping at most maxRecordChars of its characters and skipping the rest.
+         *
+         * @return whether there was a line, or false at the end of the file
+         */
+        private boolean readLine() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            int c = in.read();
+            if (c == -1) {
+                return false;
+            }
+            for (; c != -1 && c != '\n'; c = in.read()) {
+                if (line.length() < maxRecordChars) {
+                    line.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+            }
+            if (!tooLong && line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+                line.setLength(line.length() - 1);
+            }
+            return true;
+        }
+
+        private static Chef author(JsonNode node) {
+            String username = text(node != null && node.isObject() ? node.get("username") : node);
+            return username != null ? new Chef(0, username, null, null, false) : null;
+        }
+
+        private static String text(JsonNode node) {
+            return node != null && !node.isNull() && !node.isContainerNode() ? node.asText() : null;
+        }
+    }
+
+    /**
+     * Reads CSV files as RFC 4180 describes them, one row per ingredient. Quoted fields may contain commas, quotes written twice, and line breaks.
+     */
+    private static class CsvReader extends RecipeRecordReader {
+
+        private static final String[] COLUMNS = { "name", "instructions", "author", "ingredient", "volume", "unit" };
+
+        /** The position of each column in a row, keyed by lower-case name; columns the file does not have are absent. */
+        private Map<String, Integer> columns;
+        /** The first row of the next recipe, already read while finding the end of the previous one. */
+        private List<String> pending;
+
+        private CsvReader(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public Record next() throws IOException {
+            if (columns == null) {
+                readHeader();
+            }
+            List<String> row = pending != null ? pending : readRow();
+            pending = null;
+            if (row == null) {
+                return null;
+            }
+            String name = column(row, "name");
+            Recipe recipe = new Recipe(0, name, column(row, "instructions"), null);
+            String author = column(row, "author");
+            if (author != null) {
+                recipe.setAuthor(new Chef(0, author, null, null, false));
+            }
+            List<RecipeIngredient> ingredients = new ArrayList<>();
+            String error = null;
+            while (row != null) {
+                if (row.size() != columns.size()) {
+                    error = "A row has " + row.size() + " columns rather than " + columns.size();
+                } else if (column(row, "ingredient") != null) {
+                    try {
+                        String volume = column(row, "volume");
+                        ingredients.add(new RecipeIngredient(0, column(row, "ingredient"), volume != null ? Double.parseDouble(volume) : 0,
+                                column(row, "unit")));
+                    } catch (NumberFormatException e) {
+                        error = "An ingredient volume is not a number";
+                    }
+                }
+                row = readRow();
+                if (row != null && (name == null || !name.equals(column(row, "name")))) {
+                    pending = row;
+                    row = null;
+                }
+            }
+            if (error != null) {
+                return error(error);
+            }
+            recipe.setIngredients(ingredients);
+            return recipe(recipe);
+        }
+
+        private void readHeader() throws IOException {
+            List<String> header = readRow();
+            columns = new HashMap<>();
+            for (int i = 0; header != null && i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("name")) {
+                throw new IOException("The CSV header must name the columns " + String.join(", ", COLUMNS));
+            }
+        }
+
+        /**
+         * @return the value of the named column, or null if the row does not have it or it is empty
+         */
+        private String column(List<String> row, String name) {
+            Integer index = columns.get(name);
+            if (index == null || index >= row.size() || row.get(index).isEmpty()) {
+                return null;
+            }
+            return row.get(index);
+        }
+
+        /**
+         * Reads the fields of the next row, skipping blank lines.
+         *
+         * @return the fields, or null at the end of the file
+         * @throws IOException if the file could not be read, a quoted field is not closed, or the row is longer than maxRecordChars
+         */
+        private List<String> readRow() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean started = false;
+            int length = 0;
+            int c;
+            while ((c = in.read()) != -1) {
+                started = true;
+                if (++length > maxRecordChars) {
+                    throw new IOException("A CSV row is longer than " + maxRecordChars + " characters" + (quoted ? "; a quoted field may not be closed" : ""));
+                }
+                if (quoted) {
+                    if (c != '"') {
+                        field.append((char) c);
+                    } else {
+                        in.mark(1);
+                        if (in.read() == '"') {
+                            field.append('"');
+                        } else {
+                            in.reset();
+                            quoted = false;
+                        }
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n') {
+                    if (c == '\r') {
+                        in.mark(1);
+                        if (in.read() != '\n') {
+                            in.reset();
+                        }
+                    }
+                    if (fields.isEmpty() && field.length() == 0) {
+                        started = false;
+                        length = 0;
+                        continue;
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+            }
+            if (quoted) {
+                throw new IOException("A quoted CSV field is not closed");
+            }
+            if (!started) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
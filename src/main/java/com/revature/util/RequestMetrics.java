@@ -0,0 +1,107 @@
+package com.revature.util;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.RequestLogger;
+
+/**
+ * The RequestMetrics class records the latency and response status of every request the server answers, per route, in the Metrics registry.
+ *
+ * It is installed as Javalin's request logger, which Javalin calls once for each request after the response has been written, with the time it took, including requests answered through a future. Routes are labelled by the path they were registered with, such as `/recipes/{id}`, rather than the path requested, so the number of metrics stays bounded. Requests that matched no route are labelled `unmatched`, and requests turned away by a before handler, such as the admin middleware, carry that handler's path.
+ *
+ * Each request costs two map lookups, a histogram update and a counter increment, none of which take a lock; the metrics of a route are only created, and registered, the first time the route is answered.
+ */
+public class RequestMetrics implements RequestLogger {
+
+    /** The route label of requests that matched no route. */
+    public static final String UNMATCHED = "unmatched";
+
+    /** The highest status code counted under its own label; others are counted as 0. */
+    private static final int MAX_STATUS = 599;
+
+    /** The prefix of each metric name. */
+    private final String prefix;
+    /** The metrics of each route, by method and then by route path. */
+    private final Map<HandlerType, Map<String, Route>> routes = new EnumMap<>(HandlerType.class);
+
+    /**
+     * Constructs a RequestMetrics.
+     *
+     * @param prefix the prefix for each metric name, such as "http_server"
+     */
+    public RequestMetrics(String prefix) {
+        this.prefix = prefix;
+        for (HandlerType method : HandlerType.values()) {
+            routes.put(method, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Records one answered request.
+     *
+     * @param ctx the context of the request, after its response has been written
+     * @param executionTimeMs the time Javalin took to answer it, in milliseconds
+     */
+    @Override
+    public void handle(Context ctx, Float executionTimeMs) {
+        Map<String, Route> byPath = routes.get(ctx.method());
+        String path = routeOf(ctx);
+        Route route = byPath.get(path);
+        if (route == null) {
+            route = byPath.computeIfAbsent(path, p -> new Route(ctx.method().name(), p));
+        }
+        route.latency.record((long) (executionTimeMs * 1_000_000L));
+        route.status(ctx.statusCode()).increment();
+    }
+
+    /**
+     * @param ctx the request, once it has been handled
+     * @return the path the request's handler was registered with, or UNMATCHED
+     */
+    static String routeOf(Context ctx) {
+        if (ctx.handlerType() == HandlerType.BEFORE) {
+            // the endpoint was never reached, and Javalin refuses to name it
+            return ctx.matchedPath();
+        }
+        String path = ctx.endpointHandlerPath();
+        // when no route matched, Javalin puts a message in place of the path
+        return path != null && (path.startsWith("/") || path.startsWith("*")) ? path : UNMATCHED;
+    }
+
+    /**
+     * The latency histogram and status counters of one method and route.
+     */
+    private final class Route {
+
+        private final String method;
+        private final String path;
+        private final LatencyHistogram latency;
+        /** The counter of each status code, created when the code is first seen. */
+        private final AtomicReferenceArray<LongAdder> statuses = new AtomicReferenceArray<>(MAX_STATUS + 1);
+
+        Route(String method, String path) {
+            this.method = method;
+            this.path = path;
+            this.latency = Metrics.histogram(Metrics.name(prefix + "_request_seconds", "method", method, "route", path),
+                    "Time taken to answer each request, by route");
+        }
+
+        LongAdder status(int code) {
+            int index = code >= 0 && code <= MAX_STATUS ? code : 0;
+            LongAdder counter = statuses.get(index);
+            if (counter == null) {
+                statuses.compareAndSet(index, null, Metrics.counter(
+                        Metrics.name(prefix + "_requests_total", "method", method, "route", path, "status", String.valueOf(index)),
+                        "Requests answered, by route and response status"));
+                counter = statuses.get(index);
+            }
+            return counter;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.revature.util;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.javalin.http.Context;
+
+/**
+ * The RequestStatements class adds up the statements run on behalf of one request, so that their count, time and rows can be reported with its response.
+ *
+ * The statements of a request are attributed to it through the thread running them: a request that wants its statements counted attaches a RequestStatements to its thread, and the StatementTracer adds every statement run on that thread to it. Work handed off to a JdbcExecutor carries the attachment over to the executor's thread. Nothing is attached, or counted, for requests that did not ask.
+ *
+ * A request asks by sending the `X-Trace-Statements` header, or every request does when `db.trace.responseHeaders` is true. Its response then carries the `X-Statement-Count`, `X-Statement-Time-Ms` and `X-Statement-Rows` headers.
+ */
+public class RequestStatements {
+
+    /** The request header asking for the statements of the request to be counted. */
+    public static final String REQUEST_HEADER = "X-Trace-Statements";
+    /** The response header with the number of statements run. */
+    public static final String COUNT_HEADER = "X-Statement-Count";
+    /** The response header with the time taken by the statements, in milliseconds. */
+    public static final String TIME_HEADER = "X-Statement-Time-Ms";
+    /** The response header with the rows read or changed by the statements. */
+    public static final String ROWS_HEADER = "X-Statement-Rows";
+
+    /** The context attribute holding the statements of a request being counted. */
+    private static final String ATTRIBUTE = "requestStatements";
+
+    /** The statements of the request running on each thread, if it asked for them to be counted. */
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+
+    /**
+     * Attaches statements to the current thread, replacing whatever was attached before.
+     *
+     * @param statements the statements to add to, or null to stop counting
+     * @return the statements attached before, or null if there were none
+     */
+    public static RequestStatements attach(RequestStatements statements) {
+        RequestStatements previous = CURRENT.get();
+        if (statements == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(statements);
+        }
+        return previous;
+    }
+
+    /**
+     * Starts counting the statements of a request if it asked for them, as a before handler. Whatever an earlier request left attached to the thread is detached either way.
+     *
+     * @param ctx the request
+     * @param always whether to count the statements of every request, whether or not it asked
+     */
+    public static void begin(Context ctx, boolean always) {
+        RequestStatements statements = always || ctx.header(REQUEST_HEADER) != null ? new RequestStatements() : null;
+        if (statements != null) {
+            ctx.attribute(ATTRIBUTE, statements);
+        }
+        attach(statements);
+    }
+
+    /**
+     * Reports the statements of a request in its response headers, as an after handler, if they were counted.
+     *
+     * @param ctx the request
+     */
+    public static void report(Context ctx) {
+        RequestStatements statements = ctx.attribute(ATTRIBUTE);
+        if (statements != null) {
+            ctx.header(COUNT_HEADER, String.valueOf(statements.getCount()));
+            ctx.header(TIME_HEADER, String.format(Locale.ROOT, "%.3f", statements.getNanos() / 1e6));
+            ctx.header(ROWS_HEADER, String.valueOf(statements.getRows()));
+        }
+        attach(null);
+    }
+
+    /**
+     * @return the statements attached to the current thread, or null if none are being counted
+     */
+    public static RequestStatements current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Adds one statement.
+     *
+     * @param trace the statement that ran
+     */
+    public void add(StatementTrace trace) {
+        count.incrementAndGet();
+        nanos.addAndGet(trace.getNanos());
+        if (trace.getRows() > 0) {
+            rows.addAndGet(trace.getRows());
+        }
+    }
+
+    /**
+     * @return the number of statements run
+     */
+    public int getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return the time taken by the statements, in nanoseconds
+     */
+    public long getNanos() {
+        return nanos.get();
+    }
+
+    /**
+     * @return the rows read or changed by the statements
+     */
+    public long getRows() {
+        return rows.get();
+    }
+}
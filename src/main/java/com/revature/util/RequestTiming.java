@@ -0,0 +1,215 @@
+package com.revature.util;
+
+import java.util.Locale;
+
+import io.javalin.http.Context;
+
+/**
+ * The RequestTiming class splits the time taken to answer one request between the phases it went through, so that the split can be reported in the response's `Server-Timing` header.
+ *
+ * Code marks the phase it runs in by opening a span, in a try-with-resources block: the controller handler is the phase every request starts in, and the services, the Jdbc class, the readers of its result sets and the JSON mapper each open a span of their own. Time is charged to the innermost open span only, so the phases add up to the total: a query run by a service counts as database time, not service time, and the rows read by a query count as row mapping rather than database time.
+ *
+ * Timing is off unless a request asks for it by sending the `X-Server-Timing` header, which is honoured while `server.timing.enabled` is true. A request being timed is attributed to the thread it starts on; when it is not timed, or on other threads, opening a span returns a shared span that does nothing, so untimed requests allocate nothing and pay for one thread-local read per span. Work handed off to a JdbcExecutor is not followed, and shows up as the controller waiting for it, except for the work of JdbcExecutor.call, whose caller waits for it without doing anything else.
+ */
+public class RequestTiming {
+
+    /**
+     * The phases the time of a request is split between.
+     */
+    public enum Phase {
+        CONTROLLER("controller", "Controller"),
+        SERVICE("service", "Service"),
+        DB("db", "JDBC"),
+        MAPPING("mapping", "Row mapping"),
+        JSON("json", "JSON serialization");
+
+        private final String metric;
+        private final String description;
+
+        Phase(String metric, String description) {
+            this.metric = metric;
+            this.description = description;
+        }
+    }
+
+    /**
+     * A phase being timed, which ends when the span is closed.
+     */
+    public interface Span extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /** The request header asking for the request to be timed. */
+    public static final String REQUEST_HEADER = "X-Server-Timing";
+    /** The response header carrying the time of each phase. */
+    public static final String RESPONSE_HEADER = "Server-Timing";
+
+    /** The context attribute holding the timing of a request being timed. */
+    private static final String ATTRIBUTE = "requestTiming";
+
+    /** The most spans kept open at once; spans nested any deeper are charged to the phase enclosing them. */
+    private static final int MAX_DEPTH = 16;
+
+    private static final Phase[] PHASES = Phase.values();
+
+    /** The span returned when nothing is being timed. */
+    private static final Span NONE = () -> { };
+
+    /** The timing of the request running on each thread, if it asked to be timed. */
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    /** The span returned for each phase of this request, which ends the innermost open one. */
+    private final Span span = this::exit;
+    /** The time charged to each phase so far, in nanoseconds, by phase ordinal. */
+    private final long[] nanos = new long[PHASES.length];
+    /** The phases of the open spans, outermost first. */
+    private final Phase[] open = new Phase[MAX_DEPTH];
+    /** The number of open spans, including the controller phase, which is always open. */
+    private int depth = 1;
+    /** The number of spans opened beyond MAX_DEPTH and not yet closed. */
+    private int overflow;
+    private final long start;
+    /** When the innermost open span last started being charged. */
+    private long since;
+    /** The time taken by the whole request, once it has finished. */
+    private long total = -1;
+
+    /**
+     * Constructs a RequestTiming for a request starting now, in its controller phase.
+     */
+    public RequestTiming() {
+        open[0] = Phase.CONTROLLER;
+        start = System.nanoTime();
+        since = start;
+    }
+
+    /**
+     * Starts timing a request if it asked for it, as a before handler. Whatever an earlier request left attached to the thread is detached either way.
+     *
+     * @param ctx the request
+     */
+    public static void begin(Context ctx) {
+        RequestTiming timing = null;
+        if (ctx.header(REQUEST_HEADER) != null) {
+            timing = new RequestTiming();
+            ctx.attribute(ATTRIBUTE, timing);
+        }
+        attach(timing);
+    }
+
+    /**
+     * Reports the time of each phase of a request in its response headers, as an after handler, if it was timed.
+     *
+     * @param ctx the request
+     */
+    public static void report(Context ctx) {
+        RequestTiming timing = ctx.attribute(ATTRIBUTE);
+        if (timing != null) {
+            timing.finish();
+            ctx.header(RESPONSE_HEADER, timing.toHeader());
+        }
+        attach(null);
+    }
+
+    /**
+     * Attaches a timing to the current thread, replacing whatever was attached before.
+     *
+     * @param timing the timing to charge spans to, or null to stop timing
+     */
+    public static void attach(RequestTiming timing) {
+        if (timing == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(timing);
+        }
+    }
+
+    /**
+     * @return the timing attached to the current thread, or null if nothing is being timed on it
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Opens a span for a phase of the request running on the current thread.
+     *
+     * @param phase the phase starting
+     * @return the span, to be closed when the phase ends; it does nothing if the request is not being timed
+     */
+    public static Span enter(Phase phase) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return NONE;
+        }
+        timing.push(phase);
+        return timing.span;
+    }
+
+    /**
+     * Ends the innermost open span.
+     */
+    private void exit() {
+        if (overflow > 0) {
+            overflow--;
+            return;
+        }
+        if (depth > 1) {
+            charge(System.nanoTime());
+            open[--depth] = null;
+        }
+    }
+
+    /**
+     * Stops the clock, charging the time since the last span opened or closed to the innermost one still open.
+     */
+    public void finish() {
+        if (total < 0) {
+            long now = System.nanoTime();
+            charge(now);
+            total = now - start;
+        }
+    }
+
+    /**
+     * @param phase a phase
+     * @return the time charged to the phase so far, in nanoseconds
+     */
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    /**
+     * @return the value of the Server-Timing header for a finished request, listing each phase and then the total, in milliseconds
+     */
+    public String toHeader() {
+        StringBuilder header = new StringBuilder(192);
+        for (Phase phase : PHASES) {
+            appendMetric(header, phase.metric, phase.description, nanos[phase.ordinal()]);
+            header.append(", ");
+        }
+        appendMetric(header, "total", "Total", total);
+        return header.toString();
+    }
+
+    private void push(Phase phase) {
+        if (depth == MAX_DEPTH) {
+            overflow++;
+            return;
+        }
+        charge(System.nanoTime());
+        open[depth++] = phase;
+    }
+
+    private void charge(long now) {
+        nanos[open[depth - 1].ordinal()] += now - since;
+        since = now;
+    }
+
+    private static void appendMetric(StringBuilder header, String metric, String description, long nanos) {
+        header.append(metric).append(";desc=\"").append(description).append("\";dur=")
+                .append(String.format(Locale.ROOT, "%.3f", nanos / 1e6));
+    }
+}
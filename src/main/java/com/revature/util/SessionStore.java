@@ -0,0 +1,60 @@
+package com.revature.util;
+
+import com.revature.model.Chef;
+
+/**
+ * The SessionStore interface keeps track of logged in chefs, indexed by session token.
+ *
+ * Implementations must be safe to use from many request threads at once. A session ends when it is removed, when it has not been used for the idle TTL, or when it reaches the absolute TTL, whichever comes first. Each chef may hold only a limited number of sessions; logging in once more ends that chef's oldest session.
+ *
+ * The InMemorySessionStore suits a single server. The SessionDAO keeps sessions in the database, so that several servers sharing it also share their sessions.
+ */
+public interface SessionStore {
+
+    /**
+     * Starts a session, ending the chef's oldest sessions if the chef would otherwise hold more than the allowed number.
+     *
+     * @param token the new session token
+     * @param chef the chef who logged in
+     */
+    void create(String token, Chef chef);
+
+    /**
+     * Looks up the chef of a session that has not ended, and marks the session as used.
+     *
+     * @param token the session token
+     * @return the chef of the session, or null if the token is unknown or the session has expired
+     */
+    Chef get(String token);
+
+    /**
+     * Ends a session, if it exists.
+     *
+     * @param token the session token
+     */
+    void remove(String token);
+
+    /**
+     * Removes every expired session. Stores call this periodically from a background thread.
+     *
+     * @return the number of sessions removed
+     */
+    int sweep();
+
+    /**
+     * @return the number of sessions currently held, including expired ones not yet swept
+     */
+    int size();
+
+    /**
+     * Exposes the store's metrics under the given prefix: the number of sessions held, and how many sessions were created, expired and evicted by the per-chef limit.
+     *
+     * @param prefix the prefix of each metric name
+     */
+    void registerMetrics(String prefix);
+
+    /**
+     * Stops the background sweeper.
+     */
+    void close();
+}
@@ -0,0 +1,46 @@
+package com.revature.util;
+
+import java.util.Locale;
+
+/**
+ * The StatementTrace class describes one statement run against the database: the shape of its SQL, how many parameters were bound, how long it took and how many rows it returned or changed.
+ */
+public class StatementTrace {
+
+    /** The SQL with its literals and IN lists reduced to placeholders, so that statements differing only in their values share a shape. */
+    private final String shape;
+    /** The number of parameters bound, across every row of a batch. */
+    private final int binds;
+    /** The time from executing the statement until its results were closed, or until it returned for statements without results. */
+    private final long nanos;
+    /** The rows read from the results of a query, or the rows changed by an update, or -1 if unknown. */
+    private final long rows;
+
+    public StatementTrace(String shape, int binds, long nanos, long rows) {
+        this.shape = shape;
+        this.binds = binds;
+        this.nanos = nanos;
+        this.rows = rows;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public int getBinds() {
+        return binds;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%.3f ms, %d rows, %d binds: %s", nanos / 1e6, rows, binds, shape);
+    }
+}
@@ -0,0 +1,393 @@
+package com.revature.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.slf4j.LoggerFactory;
+
+/**
+ * The StatementTracer class wraps database connections so that every statement run on them is traced: the shape of its SQL, the number of parameters bound, the time it took and the rows it returned or changed.
+ *
+ * Each trace is added to the statements of the current request, if it asked for them to be counted (see RequestStatements), emitted as a Flight Recorder event while a recording has those enabled (see FlightEvents), and statements slower than a threshold are written to a slow-query log. The log is rate limited: beyond a set number of entries per second, slow statements are only counted, and the count is reported with the next entry that is written, so a database that slows down across the board does not flood the log.
+ *
+ * The connections the pool opens are wrapped, rather than the ones it lends out, so the prepared statements Jdbc caches per physical connection are traced too. A wrapped connection unwraps to itself for that reason. The time of a query runs from its execution until its result set is closed, so it includes reading the rows.
+ *
+ * The connection pool shares a default tracer, configured by the `db.trace.*` settings.
+ */
+public class StatementTracer {
+
+    /** The tracer of the shared connection pool, or null until first needed. */
+    private static StatementTracer defaultTracer;
+
+    /** Quoted string literals and numbers that are not part of a name. */
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    /** IN lists of placeholders, whose length varies with the number of values looked up. */
+    private static final Pattern IN_LISTS = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /** Statements taking at least this long are slow. */
+    private final long slowNanos;
+    /** The most slow statements logged per second. */
+    private final int slowLogsPerSecond;
+    /** Where slow statements are written. */
+    private final Consumer<String> slowLog;
+    /** When the current second of the slow-query log began, from System.nanoTime(). */
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    /** The slow statements seen in the current second. */
+    private final AtomicInteger inWindow = new AtomicInteger();
+    /** The slow statements not logged since the last one that was. */
+    private final AtomicLong unlogged = new AtomicLong();
+
+    private final LongAdder traced = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+    private final LongAdder slowUnlogged = new LongAdder();
+
+    /**
+     * Constructs a StatementTracer.
+     *
+     * @param slowThresholdMillis statements taking at least this long are logged as slow
+     * @param slowLogsPerSecond the most slow statements logged per second
+     * @param slowLog where slow statements are written
+     */
+    public StatementTracer(long slowThresholdMillis, int slowLogsPerSecond, Consumer<String> slowLog) {
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.slowLogsPerSecond = slowLogsPerSecond;
+        this.slowLog = slowLog;
+    }
+
+    /**
+     * Returns the tracer shared by the connection pool, creating it from the application settings if none has been set. Slow statements are logged as warnings by the logger of this class.
+     *
+     * @return the default tracer
+     */
+    public static synchronized StatementTracer getDefault() {
+        if (defaultTracer == null) {
+            defaultTracer = new StatementTracer(AppConfig.getLong("db.trace.slowQueryMs", 200),
+                    AppConfig.getInt("db.trace.slowQueryLogsPerSecond", 5),
+                    LoggerFactory.getLogger(StatementTracer.class)::warn);
+            defaultTracer.registerMetrics("db_trace");
+        }
+        return defaultTracer;
+    }
+
+    /**
+     * Wraps a connection so that the statements run on it are traced.
+     *
+     * @param connection the connection to wrap
+     * @return a connection that forwards every call to the given one
+     */
+    public Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                new ConnectionHandler(connection));
+    }
+
+    /**
+     * Wraps a data source so that the connections it opens are traced.
+     *
+     * @param dataSource the source of physical connections
+     * @return a data source that forwards every call to the given one
+     */
+    public DataSource wrap(DataSource dataSource) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] { DataSource.class },
+                (proxy, method, args) -> {
+                    Object result = forward(dataSource, method, args);
+                    return result instanceof Connection connection ? wrap(connection) : result;
+                });
+    }
+
+    /**
+     * Reduces SQL to its shape: whitespace is collapsed, string and number literals become placeholders, and IN lists of placeholders become a single one, so that statements differing only in their values share a shape.
+     *
+     * @param sql the SQL of a statement
+     * @return its shape
+     */
+    /**
+     * @param connection a connection, as the pool opened it or as a pooled connection unwraps to
+     * @return true if the connection is wrapped by a StatementTracer, which emits the Flight Recorder events of its statements
+     */
+    public static boolean isTraced(Connection connection) {
+        return Proxy.isProxyClass(connection.getClass()) && Proxy.getInvocationHandler(connection) instanceof ConnectionHandler;
+    }
+
+    public static String shape(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = LITERALS.matcher(shape).replaceAll("?");
+        return IN_LISTS.matcher(shape).replaceAll("IN (?...)");
+    }
+
+    /**
+     * Publishes the number of statements traced and of slow statements in the Metrics registry.
+     *
+     * @param prefix the prefix for each metric name, such as "db_trace"
+     */
+    public void registerMetrics(String prefix) {
+        Metrics.register(prefix + "_statements_total", "Statements run on traced connections", Metrics.Type.COUNTER, traced);
+        Metrics.register(prefix + "_slow_statements_total", "Statements that took longer than the slow-query threshold", Metrics.Type.COUNTER, slow);
+        Metrics.register(prefix + "_slow_statements_unlogged_total", "Slow statements left out of the slow-query log by its rate limit",
+                Metrics.Type.COUNTER, slowUnlogged);
+    }
+
+    /**
+     * Adds a finished statement to its request, to a recording and, if it was slow, to the slow-query log.
+     *
+     * @param trace the statement that ran
+     * @param request the statements of the request it ran for, or null if they are not being counted
+     * @param event the Flight Recorder event begun when the statement was executed
+     */
+    private void record(StatementTrace trace, RequestStatements request, FlightEvents.StatementEvent event) {
+        traced.increment();
+        if (request != null) {
+            request.add(trace);
+        }
+        if (event.shouldCommit()) {
+            event.shape = trace.getShape();
+            event.binds = trace.getBinds();
+            event.rows = trace.getRows();
+            event.commit();
+        }
+        if (trace.getNanos() >= slowNanos) {
+            slow.increment();
+            if (permitSlowLog()) {
+                long skipped = unlogged.getAndSet(0);
+                slowLog.accept("Slow statement: " + trace + (skipped > 0 ? " (" + skipped + " slow statements not logged since the last one)" : ""));
+            } else {
+                unlogged.incrementAndGet();
+                slowUnlogged.increment();
+            }
+        }
+    }
+
+    /**
+     * @return true if the slow-query log has room for another entry this second
+     */
+    private boolean permitSlowLog() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= TimeUnit.SECONDS.toNanos(1) && windowStart.compareAndSet(start, now)) {
+            inWindow.set(0);
+        }
+        return inWindow.incrementAndGet() <= slowLogsPerSecond;
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Forwards calls on a traced connection, wrapping the statements it creates.
+     */
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        private ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "isWrapperFor":
+                    return args[0] == Connection.class || connection.isWrapperFor((Class<?>) args[0]);
+                case "unwrap":
+                    // Jdbc caches statements by the connection it unwraps to, and those should stay traced
+                    return args[0] == Connection.class ? proxy : connection.unwrap((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Traced" + connection;
+                default:
+                    break;
+            }
+            Object result = forward(connection, method, args);
+            if (result instanceof PreparedStatement) {
+                Class<?> type = method.getName().equals("prepareCall") ? CallableStatement.class : PreparedStatement.class;
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { type },
+                        new StatementHandler((Statement) result, shape((String) args[0])));
+            }
+            if (result instanceof Statement) {
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Statement.class },
+                        new StatementHandler((Statement) result, null));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Forwards calls on a traced statement, counting the parameters bound and timing each execution.
+     */
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        /** The shape of a prepared statement's SQL, or null for a plain Statement, whose SQL comes with each execution. */
+        private final String shape;
+        /** The parameters bound since the last execution. */
+        private int binds;
+        /** The query whose result set is still open, if any. */
+        private ResultSetHandler open;
+
+        private StatementHandler(Statement statement, String shape) {
+            this.statement = statement;
+            this.shape = shape;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "clearParameters":
+                    binds = 0;
+                    return forward(statement, method, args);
+                case "close":
+                    finishOpenQuery();
+                    return forward(statement, method, args);
+                default:
+                    break;
+            }
+            if (!name.startsWith("execute")) {
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    binds++;
+                }
+                return forward(statement, method, args);
+            }
+
+            finishOpenQuery();
+            String sqlShape = shape != null ? shape : args != null && args[0] instanceof String sql ? shape(sql) : "(batch)";
+            int bound = binds;
+            binds = 0;
+            RequestStatements request = RequestStatements.current();
+            FlightEvents.StatementEvent event = new FlightEvents.StatementEvent();
+            event.begin();
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = forward(statement, method, args);
+            } catch (Throwable e) {
+                event.failed = true;
+                record(new StatementTrace(sqlShape, bound, System.nanoTime() - start, -1), request, event);
+                throw e;
+            }
+            if (result instanceof ResultSet) {
+                open = new ResultSetHandler((ResultSet) result, sqlShape, bound, start, request, event);
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { ResultSet.class }, open);
+            }
+            record(new StatementTrace(sqlShape, bound, System.nanoTime() - start, rowsOf(result)), request, event);
+            return result;
+        }
+
+        /**
+         * Records the query whose result set is still open, as the statement is about to close it.
+         */
+        private void finishOpenQuery() {
+            if (open != null) {
+                open.finish();
+                open = null;
+            }
+        }
+    }
+
+    /**
+     * @return the rows changed according to an execute method's result, or -1 if it does not say
+     */
+    private static long rowsOf(Object result) {
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        }
+        if (result instanceof int[] counts) {
+            long rows = 0;
+            for (int count : counts) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        if (result instanceof long[] counts) {
+            long rows = 0;
+            for (long count : counts) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        return -1;
+    }
+
+    /**
+     * Forwards calls on the result set of a traced query, counting its rows, and records the query when it is closed.
+     */
+    private class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet resultSet;
+        private final String shape;
+        private final int binds;
+        private final long start;
+        private final RequestStatements request;
+        private final FlightEvents.StatementEvent event;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private long rows;
+
+        private ResultSetHandler(ResultSet resultSet, String shape, int binds, long start, RequestStatements request,
+                FlightEvents.StatementEvent event) {
+            this.resultSet = resultSet;
+            this.shape = shape;
+            this.binds = binds;
+            this.start = start;
+            this.request = request;
+            this.event = event;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    Object hasRow = forward(resultSet, method, args);
+                    if ((Boolean) hasRow) {
+                        rows++;
+                    }
+                    return hasRow;
+                case "close":
+                    try {
+                        return forward(resultSet, method, args);
+                    } finally {
+                        finish();
+                    }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return forward(resultSet, method, args);
+            }
+        }
+
+        private void finish() {
+            if (finished.compareAndSet(false, true)) {
+                record(new StatementTrace(shape, binds, System.nanoTime() - start, rows), request, event);
+            }
+        }
+    }
+}
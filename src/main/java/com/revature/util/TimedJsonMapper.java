@@ -0,0 +1,60 @@
+package com.revature.util;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.stream.Stream;
+
+import io.javalin.json.JsonMapper;
+
+/**
+ * The TimedJsonMapper class charges the time Javalin spends turning objects into JSON, and request bodies back into objects, to the JSON phase of a request being timed by RequestTiming. The work itself is left to the mapper it wraps.
+ */
+public class TimedJsonMapper implements JsonMapper {
+
+    private final JsonMapper mapper;
+
+    /**
+     * Constructs a TimedJsonMapper.
+     *
+     * @param mapper the mapper doing the work, such as Javalin's default JavalinJackson
+     */
+    public TimedJsonMapper(JsonMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public String toJsonString(Object obj, Type type) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.JSON)) {
+            return mapper.toJsonString(obj, type);
+        }
+    }
+
+    @Override
+    public InputStream toJsonStream(Object obj, Type type) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.JSON)) {
+            return mapper.toJsonStream(obj, type);
+        }
+    }
+
+    @Override
+    public void writeToOutputStream(Stream<?> stream, OutputStream outputStream) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.JSON)) {
+            mapper.writeToOutputStream(stream, outputStream);
+        }
+    }
+
+    @Override
+    public <T> T fromJsonString(String json, Type targetType) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.JSON)) {
+            return mapper.fromJsonString(json, targetType);
+        }
+    }
+
+    @Override
+    public <T> T fromJsonStream(InputStream json, Type targetType) {
+        try (RequestTiming.Span span = RequestTiming.enter(RequestTiming.Phase.JSON)) {
+            return mapper.fromJsonStream(json, targetType);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.revature.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The TtlCache class is a small, thread-safe cache whose entries expire a fixed time after they were stored.
+ *
+ * It is meant for values that are expensive to compute but may be served slightly stale, such as row counts or rarely changing entities. Expired entries are dropped when they are next read.
+ *
+ * A value read from the database can be stored with putIfUnchanged, passing the key's generation taken before the read. Every invalidation of a key advances its generation, so a value read before a write was invalidated is not stored after it and served until it expires.
+ * When the cache is full, expired entries are swept, and if that does not free enough room, the oldest tenth of the entries is evicted, so the cost of making room is spread over many insertions.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ */
+public class TtlCache<K, V> {
+
+    /**
+     * A cached value, along with the time at which it stops being valid.
+     */
+    private static class Entry<V> {
+
+        private final V value;
+        private final long expiresAtNanos;
+
+        Entry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    /** The number of stripes the keys' invalidation generations are spread over. Keys sharing a stripe only cost each other an occasional skipped store. */
+    private static final int GENERATION_STRIPES = 64;
+
+    /** The cached entries, indexed by key. */
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    /** How long an entry stays valid after it is stored. */
+    private final long ttlNanos;
+    /** The number of entries above which the cache is swept. */
+    private final int maxSize;
+    /** The number of reads answered from the cache. */
+    private final LongAdder hits = new LongAdder();
+    /** The number of reads that found no valid entry. */
+    private final LongAdder misses = new LongAdder();
+    /** The number of entries dropped because they expired or the cache was full. */
+    private final LongAdder evictions = new LongAdder();
+    /** The number of invalidations of the keys in each stripe. */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * @param ttlMillis how long an entry stays valid after it is stored, in milliseconds
+     * @param maxSize the maximum number of entries to hold
+     */
+    public TtlCache(long ttlMillis, int maxSize) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param key the key to look up
+     * @return the cached value, or null if there is none or it has expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtNanos - System.nanoTime() <= 0) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Stores a value, replacing any previous value for the key.
+     *
+     * @param key the key to store the value under
+     * @param value the value to store; must not be null
+     */
+    public void put(K key, V value) {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            sweep();
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Returns the invalidation generation of a key, to be taken before reading the value that will be passed to putIfUnchanged.
+     *
+     * @param key the key about to be read
+     * @return the key's current generation
+     */
+    public long generation(K key) {
+        return generations.get(stripe(key));
+    }
+
+    /**
+     * Stores a value unless the key has been invalidated since the given generation was taken. The check and the store are atomic with respect to invalidate.
+     *
+     * @param key the key to store the value under
+     * @param value the value to store; must not be null
+     * @param generation the key's generation, taken before the value was read
+     * @return whether the value was stored
+     */
+    public boolean putIfUnchanged(K key, V value, long generation) {
+        if (ttlNanos <= 0) {
+            return false;
+        }
+        if (entries.size() >= maxSize) {
+            sweep();
+        }
+        boolean[] stored = new boolean[1];
+        entries.compute(key, (k, current) -> {
+            if (generations.get(stripe(k)) != generation) {
+                return current;
+            }
+            stored[0] = true;
+            return new Entry<>(value, System.nanoTime() + ttlNanos);
+        });
+        return stored[0];
+    }
+
+    /**
+     * Drops the value of a key, and advances the key's generation so that values read before now are no longer stored by putIfUnchanged.
+     *
+     * @param key the key whose value should be dropped
+     */
+    public void invalidate(K key) {
+        entries.compute(key, (k, current) -> {
+            generations.incrementAndGet(stripe(k));
+            return null;
+        });
+    }
+
+    /**
+     * Drops every cached value, and advances every generation.
+     */
+    public void clear() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        entries.clear();
+    }
+
+    /**
+     * @return the number of entries currently held, including any that have expired but not yet been dropped
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Publishes the hit, miss and eviction counts and the size of this cache to the Metrics registry under the given prefix.
+     *
+     * @param prefix the prefix for each metric name, such as "recipe_count_cache"
+     */
+    public void registerMetrics(String prefix) {
+        Metrics.register(prefix + "_hits_total", "Reads answered from the cache", Metrics.Type.COUNTER, hits);
+        Metrics.register(prefix + "_misses_total", "Reads that found no valid cache entry", Metrics.Type.COUNTER, misses);
+        Metrics.register(prefix + "_evictions_total", "Entries dropped because they expired or the cache was full", Metrics.Type.COUNTER, evictions);
+        Metrics.gauge(prefix + "_entries", "Entries currently held by the cache", entries::size);
+    }
+
+    /**
+     * @return the stripe holding the invalidation generation of the key
+     */
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    /**
+     * Drops expired entries, and if the cache is still full afterwards, evicts the oldest tenth of the entries.
+     */
+    private void sweep() {
+        long now = System.nanoTime();
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAtNanos - now <= 0) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        if (excess <= 0) {
+            return;
+        }
+        // every entry lives for the same time, so the entries expiring first are the oldest
+        List<Map.Entry<K, Entry<V>>> oldest = new ArrayList<>(entries.entrySet());
+        oldest.sort((a, b) -> Long.compare(a.getValue().expiresAtNanos - now, b.getValue().expiresAtNanos - now));
+        for (int i = 0; i < excess && i < oldest.size(); i++) {
+            if (entries.remove(oldest.get(i).getKey(), oldest.get(i).getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+}
@@ -65,6 +65,50 @@ CREATE TABLE RECIPE_INGREDIENT (
     CONSTRAINT UC_Recipe_Ingredient UNIQUE (recipe_id, ingredient_id)
 );
 
+-- Chef_Session Table
+-- This table holds login sessions when the database-backed session store is used, so every server sharing the database sees them.
+-- Fields:
+-- 1. token: the session token handed to the chef at login.
+-- 2. chef_id: a non-nullable foreign key that references the 'id' field from the Chef table. Deleting a chef ends their sessions.
+-- 3. created_at: when the session started, in epoch milliseconds.
+-- 4. last_seen: when the session was last used, in epoch milliseconds.
+CREATE TABLE CHEF_SESSION (
+	token VARCHAR(36) PRIMARY KEY,
+    chef_id INT NOT NULL,
+    created_at BIGINT NOT NULL,
+    last_seen BIGINT NOT NULL,
+    FOREIGN KEY (chef_id) REFERENCES CHEF(id) ON DELETE CASCADE
+);
+CREATE INDEX IDX_CHEF_SESSION_CHEF ON CHEF_SESSION(chef_id);
+
+-- Recipe_Import Table
+-- This table holds the checkpoint of each recipe import, which is moved forward in the same transaction that writes each batch of recipes.
+-- Fields:
+-- 1. import_id: the id the import is started and resumed by.
+-- 2. status: RUNNING, COMPLETED, or FAILED for an import waiting to be resumed.
+-- 3. position: the number of records of the file handled so far, which a resumed import skips.
+-- 4. imported: the number of records imported as recipes.
+-- 5. rejected: the number of records rejected.
+-- 6. updated_at: when the checkpoint last changed, in epoch milliseconds.
+CREATE TABLE RECIPE_IMPORT (
+	import_id VARCHAR(64) PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    position BIGINT NOT NULL,
+    imported BIGINT NOT NULL,
+    rejected BIGINT NOT NULL,
+    updated_at BIGINT NOT NULL
+);
+
+-- Full-text index over recipe names and instructions.
+-- H2's native full-text search keeps an inverted word index in the FT schema. FT_CREATE_INDEX adds triggers to
+-- the RECIPE table, so every insert, update and delete of a recipe updates the index in the same transaction.
+-- H2 caches the indexed words in memory, so FT_DROP_ALL clears any cache left over from a previous run of this script.
+CREATE ALIAS IF NOT EXISTS FT_INIT FOR "org.h2.fulltext.FullText.init";
+CALL FT_INIT();
+CALL FT_DROP_ALL();
+CALL FT_INIT();
+CALL FT_CREATE_INDEX('PUBLIC', 'RECIPE', 'NAME,INSTRUCTIONS');
+
 -- DO NOT EDIT ANY CODE BELOW THIS LINE!
 -- The below code inserts values into the tables you define.
 
@@ -0,0 +1,174 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.service.ChefService;
+import com.revature.service.IngredientService;
+import com.revature.service.RecipeService;
+import com.revature.test.utils.TestApp;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.JdbcExecutor;
+import com.revature.util.Metrics;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+
+class AsyncServiceTest {
+
+	private JdbcExecutor executor;
+	private ChefDAO chefDao;
+	private IngredientDAO ingredientDao;
+	private RecipeDAO recipeDao;
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		chefDao = new ChefDAO(connectionUtil);
+		ingredientDao = new IngredientDAO(connectionUtil);
+		recipeDao = new RecipeDAO(ingredientDao, connectionUtil);
+		executor = new JdbcExecutor("test-jdbc", 2, 1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.close();
+		System.clearProperty("server.asyncHandlers");
+	}
+
+	@Test
+	void asyncMethodsRunOnTheExecutor() throws Exception {
+		RecipeService recipeService = new RecipeService(recipeDao, executor);
+		ChefService chefService = new ChefService(chefDao, executor);
+		IngredientService ingredientService = new IngredientService(ingredientDao, executor);
+
+		RecipeService namingService = new RecipeService(recipeDao, executor) {
+			@Override
+			public Optional<Recipe> findRecipe(int id) {
+				return Optional.of(new Recipe(Thread.currentThread().getName()));
+			}
+		};
+		assertTrue(namingService.findRecipeAsync(1).get().get().getName().startsWith("test-jdbc-"));
+
+		Optional<Recipe> recipe = recipeService.findRecipeWithIngredientsAsync(1).get();
+		assertTrue(recipe.isPresent());
+		assertFalse(recipe.get().getIngredients().isEmpty());
+
+		Page<Recipe> page = recipeService.searchRecipesAsync("", new PageOptions(1, 2, "id", "asc")).get();
+		assertEquals(2, page.getItems().size());
+
+		Optional<Chef> chef = chefService.findChefAsync(1).get();
+		assertTrue(chef.isPresent());
+		assertEquals(chef, chefService.findChefByUsernameAsync(chef.get().getUsername()).get());
+
+		assertEquals("carrot", ingredientService.findIngredientAsync(1).get().get().getName());
+		ingredientService.deleteIngredientAsync(1).get();
+		assertFalse(ingredientService.findIngredientAsync(1).get().isPresent());
+	}
+
+	@Test
+	void ingredientReadsDoNotWaitForTheExecutor() throws Exception {
+		IngredientService ingredientService = new IngredientService(ingredientDao, executor);
+		ingredientService.findIngredient(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<CompletableFuture<?>> busy = List.of(executor.run(await(release)), executor.run(await(release)), executor.run(await(release)));
+		try {
+			CompletableFuture<Optional<Ingredient>> ingredient = ingredientService.findIngredientAsync(1);
+			assertTrue(ingredient.isDone());
+			assertEquals("carrot", ingredient.get().get().getName());
+			assertTrue(ingredientService.searchIngredientsAsync("carrot", new PageOptions(1, 10)).isDone());
+
+			ExecutionException e = assertThrows(ExecutionException.class, () -> ingredientService.saveIngredientAsync(new Ingredient(0, "fennel")).get());
+			assertInstanceOf(RejectedExecutionException.class, e.getCause());
+		} finally {
+			release.countDown();
+			CompletableFuture.allOf(busy.toArray(new CompletableFuture<?>[0])).get();
+		}
+	}
+
+	@Test
+	void workBeyondTheQueueIsRejected() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		executor.registerMetrics("test_jdbc_executor");
+		CompletableFuture<?> first = executor.run(await(release));
+		CompletableFuture<?> second = executor.run(await(release));
+		CompletableFuture<?> queued = executor.run(await(release));
+		while (executor.getActiveCount() < 2) {
+			Thread.onSpinWait();
+		}
+		assertEquals(1, executor.getQueueDepth());
+		assertEquals(100, executor.getSaturationPercent());
+
+		CompletableFuture<?> rejected = executor.run(() -> { });
+		ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+		assertInstanceOf(RejectedExecutionException.class, e.getCause());
+		assertEquals(1, executor.getRejectedCount());
+		assertEquals(100, ((LongSupplier) Metrics.get("test_jdbc_executor_saturation_percent").getValue()).getAsLong());
+
+		release.countDown();
+		CompletableFuture.allOf(first, second, queued).get();
+		assertEquals(0, executor.getQueueDepth());
+	}
+
+	@Test
+	void handlersAnswerThroughFuturesWhenAsyncHandlersAreOn() {
+		System.setProperty("server.asyncHandlers", "true");
+		Javalin app = TestApp.create(executor);
+		JavalinTest.test(app, (server, client) -> {
+			assertEquals(200, client.get("/recipes/1").code());
+			assertEquals(404, client.get("/recipes/100").code());
+			assertEquals("{\"id\":1,\"name\":\"carrot\"}", client.get("/ingredients/1").body().string());
+			assertEquals(404, client.get("/ingredients/100").code());
+		});
+	}
+
+	@Test
+	void rejectedWorkIsAnsweredWithServiceUnavailable() throws Exception {
+		System.setProperty("server.asyncHandlers", "true");
+		CountDownLatch release = new CountDownLatch(1);
+		executor.run(await(release));
+		executor.run(await(release));
+		executor.run(await(release));
+		Javalin app = TestApp.create(executor);
+		try {
+			JavalinTest.test(app, (server, client) -> assertEquals(503, client.get("/recipes/1").code()));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	private Runnable await(CountDownLatch latch) {
+		return () -> {
+			try {
+				latch.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+	}
+}
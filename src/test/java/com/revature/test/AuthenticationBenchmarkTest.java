@@ -0,0 +1,82 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.revature.model.Chef;
+import com.revature.service.AuthenticationService;
+import com.revature.util.AuthenticationMiddleware;
+import com.revature.util.InMemorySessionStore;
+
+import io.javalin.http.Context;
+
+/**
+ * Measures the cost of resolving the chef of a request as the number of active sessions grows. Each lookup is a single hash lookup, so the cost should stay flat from a thousand sessions to a hundred thousand.
+ *
+ * Run with `mvn test -Pbenchmark`.
+ */
+@Tag("benchmark")
+class AuthenticationBenchmarkTest {
+
+	private static final int[] SESSION_COUNTS = { 1_000, 10_000, 100_000 };
+	private static final int REQUESTS = 200_000;
+	private static final int ITERATIONS = 9;
+
+	@Test
+	void lookupCostStaysFlatAsSessionsGrow() {
+		for (int sessions : SESSION_COUNTS) {
+			InMemorySessionStore store = new InMemorySessionStore(3_600_000, 3_600_000, 1, 0);
+			AuthenticationMiddleware middleware = new AuthenticationMiddleware(new AuthenticationService(null, store));
+			List<Context> requests = new ArrayList<>();
+			for (int i = 0; i < sessions; i++) {
+				String token = UUID.randomUUID().toString();
+				store.create(token, new Chef(i, "chef" + i, "chef" + i + "@null.com", "secret", false));
+				if (i % Math.max(1, sessions / 1000) == 0) {
+					requests.add(request("Bearer " + token));
+				}
+			}
+			assertEquals(sessions, store.size());
+
+			long nanos = time(() -> {
+				for (int i = 0; i < REQUESTS; i++) {
+					middleware.handle(requests.get(i % requests.size()));
+				}
+			});
+			System.out.printf("resolve chef with %,d sessions: %.1f ns/request%n", sessions, (double) nanos / REQUESTS);
+			store.close();
+		}
+	}
+
+	/**
+	 * Builds a bare Context that only answers its Authorization header. A mock would record every call and skew the timing.
+	 */
+	private static Context request(String authorization) {
+		return (Context) Proxy.newProxyInstance(Context.class.getClassLoader(), new Class<?>[] { Context.class },
+				(proxy, method, args) -> method.getName().equals("header") ? authorization : null);
+	}
+
+	/**
+	 * @return the median time of ITERATIONS runs, after a few warm-up runs
+	 */
+	private static long time(Runnable task) {
+		for (int i = 0; i < 3; i++) {
+			task.run();
+		}
+		long[] samples = new long[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			long start = System.nanoTime();
+			task.run();
+			samples[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(samples);
+		return samples[ITERATIONS / 2];
+	}
+}
@@ -0,0 +1,77 @@
+package com.revature.test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.model.Chef;
+import com.revature.service.AuthenticationService;
+import com.revature.util.AuthenticationMiddleware;
+
+import io.javalin.http.Context;
+
+class AuthenticationMiddlewareTest {
+
+	private final Chef chef = new Chef(4, "ChefTrevin", "trevin@revature.com", "trevature", true);
+	private AuthenticationService authService;
+	private AuthenticationMiddleware middleware;
+
+	@BeforeEach
+	void setUp() {
+		authService = mock(AuthenticationService.class);
+		when(authService.getChefFromSessionToken("abc")).thenReturn(chef);
+		middleware = new AuthenticationMiddleware(authService);
+	}
+
+	@Test
+	void bearerTokenResolvesChefOnce() {
+		Context ctx = request("Bearer abc");
+
+		middleware.handle(ctx);
+
+		verify(ctx).attribute(AuthenticationMiddleware.CHEF_ATTRIBUTE, chef);
+		verify(authService).getChefFromSessionToken("abc");
+	}
+
+	@Test
+	void tokenWithoutSchemeOrSpaceIsAccepted() {
+		Context bare = request("abc");
+		Context unspaced = request("Bearerabc");
+
+		middleware.handle(bare);
+		middleware.handle(unspaced);
+
+		verify(bare).attribute(AuthenticationMiddleware.CHEF_ATTRIBUTE, chef);
+		verify(unspaced).attribute(AuthenticationMiddleware.CHEF_ATTRIBUTE, chef);
+	}
+
+	@Test
+	void unknownTokenLeavesNoChef() {
+		Context ctx = request("Bearer nope");
+
+		middleware.handle(ctx);
+
+		verify(ctx, never()).attribute(anyString(), any());
+	}
+
+	@Test
+	void missingHeaderSkipsLookup() {
+		Context ctx = request(null);
+
+		middleware.handle(ctx);
+
+		verify(authService, never()).getChefFromSessionToken(any());
+	}
+
+	private static Context request(String authorization) {
+		Context ctx = mock(Context.class);
+		when(ctx.header("Authorization")).thenReturn(authorization);
+		return ctx;
+	}
+}
@@ -0,0 +1,146 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.revature.controller.IngredientController;
+import com.revature.controller.RecipeController;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.service.IngredientService;
+import com.revature.service.RecipeService;
+import com.revature.util.AuthenticationMiddleware;
+import com.revature.util.BulkResult;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+
+/**
+ * Checks that recipes and ingredients created in bulk get their keys in order, and that rejected items are reported one by one.
+ */
+class BulkCreateTest {
+
+	private final Chef joe = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
+
+	private RecipeDAO recipeDao;
+	private RecipeService recipeService;
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		recipeDao = new RecipeDAO(new IngredientDAO(connectionUtil), connectionUtil);
+		recipeService = new RecipeService(recipeDao);
+		System.setProperty("bulk.chunkSize", "2");
+	}
+
+	@AfterEach
+	void tearDown() {
+		System.clearProperty("bulk.chunkSize");
+	}
+
+	@Test
+	void recipesAreCreatedInOrderAcrossChunks() {
+		List<Recipe> recipes = Arrays.asList(recipe("bulk one"), recipe("bulk two"), recipe("bulk three"), recipe("bulk four"), recipe("bulk five"));
+
+		BulkResult result = recipeService.createRecipes(recipes);
+
+		assertEquals(5, result.getCreated());
+		assertEquals(0, result.getFailed());
+		for (int i = 0; i < recipes.size(); i++) {
+			int id = result.getItems().get(i).getId();
+			assertEquals(id, recipes.get(i).getId());
+			assertEquals(recipes.get(i).getName(), recipeDao.getRecipeById(id).getName());
+			if (i > 0) {
+				assertEquals(recipes.get(i - 1).getId() + 1, id);
+			}
+		}
+	}
+
+	@Test
+	void rejectedRecipesDoNotStopTheRestOfTheirChunk() {
+		List<Recipe> recipes = Arrays.asList(recipe("bulk one"), recipe("carrot soup"), recipe(null), null, recipe("bulk two"), recipe("bulk one"));
+
+		BulkResult result = recipeService.createRecipes(recipes);
+
+		assertEquals(2, result.getCreated());
+		assertEquals(4, result.getFailed());
+		assertEquals("An item with the same unique value already exists", result.getItems().get(1).getError());
+		assertEquals("A required value is missing", result.getItems().get(2).getError());
+		assertEquals("Item is missing", result.getItems().get(3).getError());
+		assertEquals("An item with the same unique value already exists", result.getItems().get(5).getError());
+		assertNull(result.getItems().get(4).getError());
+		assertEquals("bulk two", recipeDao.getRecipeById(recipes.get(4).getId()).getName());
+		assertEquals(0, recipes.get(5).getId());
+	}
+
+	@Test
+	void ingredientsEndpointReportsEachItem() {
+		Javalin app = Javalin.create();
+		app.before(ctx -> ctx.attribute(AuthenticationMiddleware.CHEF_ATTRIBUTE, new Chef(4, "ChefTrevin", "trevin@revature.com", "trevature", true)));
+		new IngredientController(new IngredientService(new IngredientDAO(new ConnectionUtil()))).configureRoutes(app);
+
+		JavalinTest.test(app, (server, client) -> {
+			var response = client.post("/ingredients/bulk", "[{\"name\": \"parsnips\"}, {\"name\": \"carrot\"}, "
+					+ "{\"name\": \"a name far too long for the column\"}, {\"name\": \"fennel\"}]");
+
+			assertEquals(207, response.code());
+			JsonNode body = new ObjectMapper().readTree(response.body().string());
+			JsonNode items = body.get("items");
+			assertEquals(2, body.get("created").asInt());
+			assertEquals(2, body.get("failed").asInt());
+			assertEquals("An item with the same unique value already exists", items.get(1).get("error").asText());
+			assertEquals("A value is too long", items.get(2).get("error").asText());
+			assertTrue(items.get(2).get("id").isNull());
+			int fennel = items.get(3).get("id").asInt();
+			assertTrue(fennel > items.get(0).get("id").asInt());
+			assertEquals("{\"id\":" + fennel + ",\"name\":\"fennel\"}", client.get("/ingredients/" + fennel).body().string());
+		});
+	}
+
+	@Test
+	void ingredientsEndpointRequiresAnAdmin() {
+		Javalin app = Javalin.create();
+		app.before(ctx -> {
+			if (ctx.header("Authorization") != null) {
+				ctx.attribute(AuthenticationMiddleware.CHEF_ATTRIBUTE, joe);
+			}
+		});
+		new IngredientController(new IngredientService(new IngredientDAO(new ConnectionUtil()))).configureRoutes(app);
+
+		JavalinTest.test(app, (server, client) -> {
+			assertEquals(401, client.post("/ingredients/bulk", "[{\"name\": \"parsnips\"}]").code());
+			assertEquals(401, client.post("/ingredients/bulk", "[{\"name\": \"parsnips\"}]", request -> request.header("Authorization", "joe")).code());
+		});
+		assertTrue(new IngredientDAO(new ConnectionUtil()).searchIngredientsByPrefix("parsnips").isEmpty());
+	}
+
+	@Test
+	void recipesEndpointRequiresALoggedInChef() {
+		Javalin app = Javalin.create();
+		new RecipeController(recipeService, null).configureRoutes(app);
+
+		JavalinTest.test(app, (server, client) -> {
+			assertEquals(401, client.post("/recipes/bulk", "[{\"name\": \"bulk one\", \"instructions\": \"stir\"}]").code());
+		});
+	}
+
+	private Recipe recipe(String name) {
+		return new Recipe(0, name, "mix and serve", joe);
+	}
+}
@@ -0,0 +1,69 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.util.BulkResult;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+
+/**
+ * Compares the throughput of creating recipes one at a time, as POST /recipes does, with creating them in JDBC batches, as POST /recipes/bulk does.
+ *
+ * Run with `mvn test -Pbenchmark`.
+ */
+@Tag("benchmark")
+class BulkInsertBenchmarkTest {
+
+	private static final int RECIPES = 5_000;
+	private static final int ROUNDS = 3;
+
+	private final Chef joe = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
+
+	@Test
+	void compareSingleAndBatchedInserts() {
+		for (int round = 0; round < ROUNDS; round++) {
+			RecipeDAO recipeDao = freshDao();
+			List<Recipe> recipes = recipes("single" + round);
+			long start = System.nanoTime();
+			for (Recipe recipe : recipes) {
+				recipeDao.createRecipe(recipe);
+			}
+			report("single inserts", System.nanoTime() - start);
+
+			recipeDao = freshDao();
+			recipes = recipes("bulk" + round);
+			start = System.nanoTime();
+			BulkResult result = recipeDao.createRecipes(recipes);
+			report("bulk inserts  ", System.nanoTime() - start);
+			assertEquals(RECIPES, result.getCreated());
+		}
+	}
+
+	private static RecipeDAO freshDao() {
+		DBUtil.RUN_SQL();
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		return new RecipeDAO(new IngredientDAO(connectionUtil), connectionUtil);
+	}
+
+	private List<Recipe> recipes(String prefix) {
+		List<Recipe> recipes = new ArrayList<>(RECIPES);
+		for (int i = 0; i < RECIPES; i++) {
+			recipes.add(new Recipe(0, prefix + " recipe " + i, "Combine everything and simmer for " + i + " minutes.", joe));
+		}
+		return recipes;
+	}
+
+	private static void report(String path, long nanos) {
+		System.out.printf("%s: %,d recipes in %,d ms, %,.0f recipes/s%n", path, RECIPES, nanos / 1_000_000, RECIPES * 1e9 / nanos);
+	}
+}
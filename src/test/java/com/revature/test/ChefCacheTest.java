@@ -0,0 +1,136 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.model.Chef;
+import com.revature.test.utils.StatementCountingConnectionUtil;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.Metrics;
+
+/**
+ * Checks that ChefDAO.getChefById reads through its cache, and that updates and deletes made through the DAO are never hidden by it, even when they race with a read.
+ */
+class ChefCacheTest {
+
+	private StatementCountingConnectionUtil connectionUtil;
+	private ChefDAO chefDao;
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+		connectionUtil = new StatementCountingConnectionUtil();
+		chefDao = new ChefDAO(connectionUtil);
+	}
+
+	@Test
+	void repeatedReadsHitTheDatabaseOnce() {
+		Chef first = chefDao.getChefById(1);
+		Chef second = chefDao.getChefById(1);
+
+		assertEquals(first, second);
+		assertNotSame(first, second, "Callers should never share the cached instance");
+		assertEquals(1, connectionUtil.getStatementCount());
+	}
+
+	@Test
+	void cachedChefCannotBeChangedByCallers() {
+		chefDao.getChefById(1).setUsername("changed");
+
+		assertEquals("JoeCool", chefDao.getChefById(1).getUsername());
+	}
+
+	@Test
+	void updateInvalidatesCachedChef() {
+		Chef chef = chefDao.getChefById(2);
+		chef.setEmail("charlie@peanuts.com");
+
+		chefDao.updateChef(chef);
+
+		assertEquals("charlie@peanuts.com", chefDao.getChefById(2).getEmail());
+	}
+
+	@Test
+	void deleteInvalidatesCachedChef() {
+		Chef chef = chefDao.getChefById(3);
+
+		chefDao.deleteChef(chef);
+
+		assertNull(chefDao.getChefById(3));
+	}
+
+	@Test
+	void chefReadBeforeAnUpdateIsNotCachedAfterIt() {
+		ChefDAO[] racingDao = new ChefDAO[1];
+		Runnable[] afterQuery = { () -> racingDao[0].updateChef(new Chef(4, "ChefTrevin", "trevin@revature.com", "trevature", false)) };
+		racingDao[0] = new ChefDAO(new ConnectionUtil() {
+			@Override
+			public Connection getConnection() {
+				Connection connection = super.getConnection();
+				return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+						(proxy, method, args) -> {
+							if (method.getName().equals("isWrapperFor")) {
+								return false;
+							}
+							Object result = invoke(method, connection, args);
+							if (method.getName().equals("prepareStatement")) {
+								return runAfterQuery((PreparedStatement) result, afterQuery);
+							}
+							return result;
+						});
+			}
+		});
+
+		assertTrue(racingDao[0].getChefById(4).isAdmin(), "The read saw the row as it was before the update");
+		assertFalse(racingDao[0].getChefById(4).isAdmin(), "The row read before the update must not have been cached");
+	}
+
+	@Test
+	void metricsAreExported() {
+		chefDao.registerMetrics("chef_cache_test");
+		chefDao.getChefById(1);
+		chefDao.getChefById(1);
+
+		assertEquals(1L, ((LongAdder) Metrics.get("chef_cache_test_hits_total").getValue()).sum());
+		assertEquals(1L, ((LongAdder) Metrics.get("chef_cache_test_misses_total").getValue()).sum());
+	}
+
+	/**
+	 * @return the statement, which runs the task the first time one of its queries has been executed, before its rows are read
+	 */
+	private static PreparedStatement runAfterQuery(PreparedStatement statement, Runnable[] task) {
+		return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class },
+				(proxy, method, args) -> {
+					Object result = invoke(method, statement, args);
+					if (method.getName().equals("executeQuery") && task[0] != null) {
+						Runnable racing = task[0];
+						task[0] = null;
+						racing.run();
+					}
+					return result;
+				});
+	}
+
+	private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.model.Chef;
+import com.revature.service.AuthenticationService;
+import com.revature.service.ChefService;
+import com.revature.test.utils.StatementCountingConnectionUtil;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.InMemorySessionStore;
+import com.revature.util.LatencyHistogram;
+import com.revature.util.Metrics;
+
+/**
+ * Checks that logins look chefs up by exact username through the unique index, and that unknown usernames are remembered.
+ */
+class ChefUsernameLookupTest {
+
+	private StatementCountingConnectionUtil connectionUtil;
+	private ChefDAO chefDao;
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+		connectionUtil = new StatementCountingConnectionUtil();
+		chefDao = new ChefDAO(connectionUtil);
+	}
+
+	@Test
+	void lookupMatchesWholeUsernameOnly() {
+		assertEquals("snoopy@null.com", chefDao.getChefByUsername("JoeCool").getEmail());
+		assertNull(chefDao.getChefByUsername("Joe"));
+		assertNull(chefDao.getChefByUsername("joecool"));
+	}
+
+	@Test
+	void lookupUsesTheUsernameIndex() throws SQLException {
+		try (Connection connection = new ConnectionUtil().getConnection()) {
+			ResultSet rs = connection.createStatement().executeQuery("EXPLAIN SELECT * FROM CHEF WHERE username = 'JoeCool'");
+			rs.next();
+			assertFalse(rs.getString(1).contains("tableScan"), rs.getString(1));
+		}
+	}
+
+	@Test
+	void unknownUsernameIsOnlyQueriedOnce() {
+		assertNull(chefDao.getChefByUsername("Lucy"));
+		assertNull(chefDao.getChefByUsername("Lucy"));
+
+		assertEquals(1, connectionUtil.getStatementCount());
+	}
+
+	@Test
+	void creatingChefForgetsUnknownUsername() {
+		assertNull(chefDao.getChefByUsername("Lucy"));
+
+		chefDao.createChef(new Chef(0, "Lucy", "lucy@peanuts.com", "fivecents", false));
+
+		assertNotNull(chefDao.getChefByUsername("Lucy"));
+	}
+
+	@Test
+	void loginChecksPasswordAndCountsOutcomes() {
+		AuthenticationService authService = new AuthenticationService(new ChefService(chefDao),
+				new InMemorySessionStore(60000, 60000, 5, 0));
+		authService.registerMetrics("login_lookup_test");
+
+		assertNotNull(authService.login(new Chef(0, "JoeCool", null, "redbarron", false)));
+		assertNull(authService.login(new Chef(0, "JoeCool", null, "woodstock", false)));
+		assertNull(authService.login(new Chef(0, "Lucy", null, "fivecents", false)));
+		assertNull(authService.login(new Chef(0, null, null, "redbarron", false)));
+
+		assertEquals(1L, counter("login_lookup_test_login_success_total"));
+		assertEquals(3L, counter("login_lookup_test_login_failure_total"));
+		assertEquals(4L, ((LatencyHistogram) Metrics.get("login_lookup_test_login_seconds").getValue()).getCount());
+	}
+
+	private static long counter(String name) {
+		return ((LongAdder) Metrics.get(name).getValue()).sum();
+	}
+}
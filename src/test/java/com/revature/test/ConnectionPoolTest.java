@@ -0,0 +1,95 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.ConnectionPool;
+
+class ConnectionPoolTest {
+
+	private ConnectionPool pool;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1");
+		dataSource.setUser("sa");
+		pool = new ConnectionPool(dataSource, 1, 2, 200, 60000, 60000, true, 1);
+		try (Connection connection = pool.getConnection()) {
+			connection.createStatement().execute("CREATE TABLE IF NOT EXISTS POOL_TEST (id INT)");
+			connection.createStatement().execute("DELETE FROM POOL_TEST");
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.close();
+	}
+
+	@Test
+	void closedConnectionsAreReused() throws SQLException {
+		Connection first = pool.getConnection();
+		String physical = first.toString();
+		first.close();
+		try (Connection second = pool.getConnection()) {
+			assertEquals(physical, second.toString(), "The idle connection should be lent out again");
+		}
+		assertEquals(1, pool.getTotalCount());
+		assertEquals(0, pool.getActiveCount());
+		assertEquals(1, pool.getIdleCount());
+	}
+
+	@Test
+	void borrowingBeyondMaxSizeTimesOut() throws SQLException {
+		try (Connection first = pool.getConnection(); Connection second = pool.getConnection()) {
+			assertEquals(2, pool.getActiveCount());
+			assertThrows(SQLTimeoutException.class, () -> pool.getConnection());
+			assertEquals(1, pool.getTimeoutCount());
+		}
+		assertEquals(2, pool.getIdleCount());
+	}
+
+	@Test
+	void returnedConnectionsAreRolledBackAndReset() throws SQLException {
+		try (Connection connection = pool.getConnection()) {
+			connection.setAutoCommit(false);
+			connection.createStatement().executeUpdate("INSERT INTO POOL_TEST (id) VALUES (1)");
+		}
+		try (Connection connection = pool.getConnection()) {
+			assertTrue(connection.getAutoCommit(), "Borrowed connections should auto-commit");
+			ResultSet rs = connection.createStatement().executeQuery("SELECT COUNT(*) FROM POOL_TEST");
+			rs.next();
+			assertEquals(0, rs.getInt(1), "Uncommitted work should be rolled back on return");
+		}
+	}
+
+	@Test
+	void statementsAreClosedWhenConnectionIsReturned() throws SQLException {
+		Statement statement;
+		try (Connection connection = pool.getConnection()) {
+			statement = connection.createStatement();
+		}
+		assertTrue(statement.isClosed(), "Statements left open should be closed on return");
+	}
+
+	@Test
+	void acquireLatencyIsRecorded() throws SQLException {
+		long before = pool.getAcquireLatency().getCount();
+		try (Connection connection = pool.getConnection()) {
+			assertTrue(connection.isValid(1));
+		}
+		assertEquals(before + 1, pool.getAcquireLatency().getCount());
+	}
+}
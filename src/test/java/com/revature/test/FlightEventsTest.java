@@ -0,0 +1,135 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.Jdbc;
+import com.revature.test.utils.TestApp;
+import com.revature.util.AppConfig;
+import com.revature.util.DBUtil;
+import com.revature.util.FlightEvents;
+import com.revature.util.StatementTracer;
+
+import io.javalin.testtools.HttpClient;
+import io.javalin.testtools.JavalinTest;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import okhttp3.Response;
+
+/**
+ * Checks that requests, statements, connection checkouts and session lookups are emitted as Flight Recorder events while a recording has them enabled, and that admins, and only admins, can start, download and stop a recording over HTTP.
+ */
+class FlightEventsTest {
+
+	/** The magic number every recording file starts with. */
+	private static final byte[] JFR_MAGIC = { 'F', 'L', 'R', 0 };
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+	}
+
+	@Test
+	void handlersStatementsConnectionsAndSessionsAreRecorded() throws IOException {
+		Path file = Files.createTempFile("flight-events-", ".jfr");
+		try (Recording recording = new Recording()) {
+			for (Class<?> type : FlightEvents.types()) {
+				recording.enable(type.asSubclass(Event.class));
+			}
+			recording.start();
+			JavalinTest.test(TestApp.create(), (server, client) -> {
+				String token = login(client, "JoeCool", "redbarron");
+				assertEquals(200, client.get("/recipes/1", request -> request.header("Authorization", token)).code());
+			});
+			recording.stop();
+			recording.dump(file);
+
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.revature.HttpHandler")
+					&& "/recipes/{id}".equals(e.getString("route")) && "/recipes/1".equals(e.getString("path")) && e.getInt("status") == 200));
+			assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.revature.Statement")
+					&& e.getString("shape").contains("FROM RECIPE") && e.getLong("rows") == 1 && e.getInt("binds") >= 1));
+			assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.revature.ConnectionAcquire")
+					&& e.getBoolean("acquired")));
+			assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.revature.SessionLookup")
+					&& e.getBoolean("found")));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	void statementsAreRecordedOnceWhetherOrNotTheyAreTraced() throws IOException, SQLException {
+		String untraced = "SELECT name FROM RECIPE WHERE id = ?";
+		String traced = "SELECT instructions FROM RECIPE WHERE id = ?";
+		String update = "UPDATE RECIPE SET name = name WHERE id < ?";
+		Path file = Files.createTempFile("flight-statements-", ".jfr");
+		try (Recording recording = new Recording();
+				Connection plain = openConnection();
+				Connection wrapped = new StatementTracer(60_000, 1, message -> { }).wrap(openConnection())) {
+			recording.enable(FlightEvents.StatementEvent.class);
+			recording.start();
+			Jdbc.query(plain, untraced, ps -> ps.setInt(1, 1), rs -> rs.next());
+			Jdbc.update(plain, update, ps -> ps.setInt(1, 3));
+			Jdbc.query(wrapped, traced, ps -> ps.setInt(1, 1), rs -> rs.next());
+			recording.stop();
+			recording.dump(file);
+
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			assertEquals(1, events.stream().filter(e -> untraced.equals(e.getString("shape")) && e.getInt("binds") == 1 && !e.getBoolean("failed")).count());
+			assertEquals(1, events.stream().filter(e -> update.equals(e.getString("shape")) && e.getLong("rows") == 2).count());
+			assertEquals(1, events.stream().filter(e -> traced.equals(e.getString("shape")) && e.getLong("rows") == 1).count());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	void adminsCanStartDumpAndStopARecording() {
+		JavalinTest.test(TestApp.create(), (server, client) -> {
+			String token = login(client, "ChefTrevin", "trevature");
+			String chefToken = login(client, "JoeCool", "redbarron");
+
+			assertEquals(401, client.post("/admin/recording", "", request -> request.header("Authorization", chefToken)).code());
+			assertEquals(400, client.post("/admin/recording?settings=nonsense", "", request -> request.header("Authorization", token)).code());
+			assertEquals(201, client.post("/admin/recording?settings=default", "", request -> request.header("Authorization", token)).code());
+			try {
+				assertEquals(409, client.post("/admin/recording", "", request -> request.header("Authorization", token)).code());
+
+				Response dump = client.get("/admin/recording", request -> request.header("Authorization", token));
+				assertEquals(200, dump.code());
+				assertArrayEquals(JFR_MAGIC, Arrays.copyOf(dump.body().bytes(), JFR_MAGIC.length));
+			} finally {
+				Response stopped = client.request("/admin/recording", request -> request.delete().header("Authorization", token));
+				assertEquals(200, stopped.code());
+				assertArrayEquals(JFR_MAGIC, Arrays.copyOf(stopped.body().bytes(), JFR_MAGIC.length));
+			}
+			assertEquals(404, client.get("/admin/recording", request -> request.header("Authorization", token)).code());
+		});
+	}
+
+	private static Connection openConnection() throws SQLException {
+		return DriverManager.getConnection(AppConfig.get("db.url", "jdbc:h2:./h2/db;"), AppConfig.get("db.username", "sa"), AppConfig.get("db.password", ""));
+	}
+
+	private static String login(HttpClient client, String username, String password) throws IOException {
+		Response response = client.post("/login", "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}");
+		assertEquals(200, response.code());
+		return response.body().string();
+	}
+}
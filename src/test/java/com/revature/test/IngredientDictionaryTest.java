@@ -0,0 +1,124 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.IngredientDAO;
+import com.revature.model.Ingredient;
+import com.revature.test.utils.StatementCountingConnectionUtil;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+
+/**
+ * Checks that IngredientDAO answers reads from its in-memory dictionary, that writes through any IngredientDAO are reflected straight away, and that other changes are picked up once the dictionary expires.
+ */
+class IngredientDictionaryTest {
+
+	private StatementCountingConnectionUtil connectionUtil;
+	private IngredientDAO ingredientDao;
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+		connectionUtil = new StatementCountingConnectionUtil();
+		ingredientDao = new IngredientDAO(connectionUtil);
+		ingredientDao.loadDictionary();
+		connectionUtil.reset();
+	}
+
+	@AfterEach
+	void tearDown() {
+		System.clearProperty("ingredient.dictionary.ttlMs");
+	}
+
+	@Test
+	void readsDoNotTouchTheDatabase() {
+		ingredientDao.getIngredientById(1);
+		ingredientDao.getAllIngredients();
+		ingredientDao.getAllIngredients(new PageOptions(2, 2, "name", "desc"));
+		ingredientDao.searchIngredients("to");
+		ingredientDao.searchIngredients("to", new PageOptions(1, 2, "id", "asc"));
+		ingredientDao.searchIngredientsByPrefix("po");
+
+		assertEquals(0, connectionUtil.getConnectionCount());
+	}
+
+	@Test
+	void prefixSearchReturnsMatchesInNameOrder() {
+		ingredientDao.createIngredient(new Ingredient("tomatillo"));
+
+		assertEquals(List.of("tomatillo", "tomato"), names(ingredientDao.searchIngredientsByPrefix("tom")));
+		assertEquals(List.of(), ingredientDao.searchIngredientsByPrefix("zucchini"));
+	}
+
+	@Test
+	void writesRefreshTheDictionary() {
+		int id = ingredientDao.createIngredient(new Ingredient("parsnip"));
+		assertEquals("parsnip", ingredientDao.getIngredientById(id).getName());
+
+		ingredientDao.updateIngredient(new Ingredient(1, "beet"));
+		assertEquals("beet", ingredientDao.getIngredientById(1).getName());
+		assertEquals(List.of("beet"), names(ingredientDao.searchIngredientsByPrefix("be")));
+
+		ingredientDao.deleteIngredient(new Ingredient(2, "potato"));
+		assertNull(ingredientDao.getIngredientById(2));
+	}
+
+	@Test
+	void writesThroughAnotherDaoAreSeen() {
+		IngredientDAO other = new IngredientDAO(new ConnectionUtil());
+		int id = other.createIngredient(new Ingredient("fennel"));
+
+		assertEquals("fennel", ingredientDao.getIngredientById(id).getName());
+	}
+
+	@Test
+	void changesMadeOutsideTheDaoAreSeenOnceTheDictionaryExpires() throws SQLException {
+		try (Connection connection = new ConnectionUtil().getConnection()) {
+			connection.createStatement().executeUpdate("UPDATE INGREDIENT SET name = 'celeriac' WHERE id = 1");
+		}
+		assertEquals("carrot", ingredientDao.getIngredientById(1).getName());
+
+		System.setProperty("ingredient.dictionary.ttlMs", "0");
+		IngredientDAO expiring = new IngredientDAO(new ConnectionUtil());
+		assertEquals("celeriac", expiring.getIngredientById(1).getName());
+		assertEquals("celeriac", ingredientDao.getIngredientById(1).getName(), "The reload is shared with every DAO");
+	}
+
+	@Test
+	void callersReceiveCopies() {
+		ingredientDao.getIngredientById(1).setName("changed");
+		ingredientDao.getAllIngredients().get(0).setName("changed");
+
+		assertEquals("carrot", ingredientDao.getIngredientById(1).getName());
+	}
+
+	@Test
+	void walkingByNameWithCursorVisitsEveryIngredientOnce() {
+		PageOptions options = new PageOptions(1, 4, "name", "asc");
+		options.setCursor("");
+		Page<Ingredient> first = ingredientDao.getAllIngredients(options);
+		options.setCursor(first.getNextCursor());
+		Page<Ingredient> second = ingredientDao.getAllIngredients(options);
+
+		assertEquals(List.of("carrot", "lemon", "potato", "rice"), names(first.getItems()));
+		assertEquals(List.of("stone", "tomato"), names(second.getItems()));
+		assertNull(second.getNextCursor());
+		assertEquals(6, second.getTotalElements());
+	}
+
+	private static List<String> names(List<Ingredient> ingredients) {
+		return ingredients.stream().map(Ingredient::getName).collect(Collectors.toList());
+	}
+}
@@ -45,7 +45,7 @@ class JavalinConfigTest {
 		ingredientController = new IngredientController(ingredientService);
 		
 		
-		recipeDao = new RecipeDAO(chefDao, ingredientDao, new ConnectionUtil());
+		recipeDao = new RecipeDAO(ingredientDao, new ConnectionUtil());
 		recipeService = new RecipeService(recipeDao);
 		recipeController = new RecipeController(recipeService, authService);
 	}
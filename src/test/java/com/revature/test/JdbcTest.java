@@ -0,0 +1,113 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.Jdbc;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.Metrics;
+
+/**
+ * Checks that the Jdbc helper reuses prepared statements across borrows of a pooled connection, and never leaves a result set open.
+ */
+class JdbcTest {
+
+	private static final String COUNT_CHEFS = "SELECT COUNT(*) FROM CHEF WHERE id > ?";
+
+	private final ConnectionUtil connectionUtil = new ConnectionUtil();
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+		assertEquals(0, Jdbc.getOpenCursors());
+	}
+
+	@Test
+	void statementIsPreparedOnceAcrossBorrows() throws SQLException {
+		assertEquals(4, countChefs(0));
+		long hits = counter("db_statement_cache_hits_total");
+		long misses = counter("db_statement_cache_misses_total");
+
+		for (int i = 0; i < 10; i++) {
+			assertEquals(3, countChefs(1));
+		}
+
+		assertEquals(10, counter("db_statement_cache_hits_total") - hits);
+		assertEquals(0, counter("db_statement_cache_misses_total") - misses);
+	}
+
+	@Test
+	void resultSetIsClosedWhenReadingFails() throws SQLException {
+		try (Connection connection = connectionUtil.getConnection()) {
+			assertThrows(IllegalStateException.class, () -> Jdbc.query(connection, COUNT_CHEFS, ps -> ps.setInt(1, 0), rs -> {
+				assertEquals(1, Jdbc.getOpenCursors());
+				throw new IllegalStateException("reader failed");
+			}));
+			assertEquals(0, Jdbc.getOpenCursors());
+
+			long misses = counter("db_statement_cache_misses_total");
+			assertEquals(4, (int) Jdbc.query(connection, COUNT_CHEFS, ps -> ps.setInt(1, 0), rs -> rs.next() ? rs.getInt(1) : -1));
+			assertEquals(1, counter("db_statement_cache_misses_total") - misses, "A statement that failed should not be cached");
+		}
+	}
+
+	@Test
+	void nestedQueryWithTheSameSqlGetsItsOwnStatement() throws SQLException {
+		try (Connection connection = connectionUtil.getConnection()) {
+			int[] counts = Jdbc.query(connection, COUNT_CHEFS, ps -> ps.setInt(1, 0), outer -> {
+				int inner = Jdbc.query(connection, COUNT_CHEFS, ps -> ps.setInt(1, 2), rs -> rs.next() ? rs.getInt(1) : -1);
+				return new int[] { outer.next() ? outer.getInt(1) : -1, inner };
+			});
+
+			assertEquals(4, counts[0]);
+			assertEquals(2, counts[1]);
+			assertEquals(0, Jdbc.getOpenCursors());
+		}
+	}
+
+	@Test
+	void leastRecentlyUsedStatementsAreClosedBeyondTheCacheSize() throws SQLException {
+		long evictions = counter("db_statement_cache_evictions_total");
+		try (Connection connection = connectionUtil.getConnection()) {
+			for (int i = 0; i < 100; i++) {
+				int n = i;
+				Jdbc.query(connection, "SELECT " + n + " FROM DUAL", Jdbc.NO_PARAMETERS, rs -> rs.next() ? rs.getInt(1) : -1);
+			}
+		}
+
+		assertTrue(counter("db_statement_cache_evictions_total") - evictions >= 100 - 64);
+	}
+
+	@Test
+	void writesReturnGeneratedKeys() throws SQLException {
+		try (Connection connection = connectionUtil.getConnection()) {
+			int id = Jdbc.insert(connection, "INSERT INTO INGREDIENT (name) VALUES (?)", ps -> ps.setString(1, "saffron"));
+
+			assertEquals(1, Jdbc.update(connection, "UPDATE INGREDIENT SET name = ? WHERE id = ?", ps -> {
+				ps.setString(1, "turmeric");
+				ps.setInt(2, id);
+			}));
+			assertEquals("turmeric", Jdbc.query(connection, "SELECT name FROM INGREDIENT WHERE id = ?", ps -> ps.setInt(1, id),
+					rs -> rs.next() ? rs.getString(1) : null));
+		}
+	}
+
+	private int countChefs(int afterId) throws SQLException {
+		try (Connection connection = connectionUtil.getConnection()) {
+			return Jdbc.query(connection, COUNT_CHEFS, ps -> ps.setInt(1, afterId), rs -> rs.next() ? rs.getInt(1) : -1);
+		}
+	}
+
+	private static long counter(String name) {
+		return ((LongAdder) Metrics.get(name).getValue()).sum();
+	}
+}
@@ -0,0 +1,97 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Recipe;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.Page;
+import com.revature.util.PageCursor;
+import com.revature.util.PageOptions;
+
+/**
+ * Compares the latency of a deep page read with OFFSET against the same page read by seeking past a cursor.
+ *
+ * Run with `mvn test -Pbenchmark`. The number of seeded recipes can be changed with `-Dbenchmark.recipes=N`.
+ */
+@Tag("benchmark")
+class KeysetPaginationBenchmarkTest {
+
+	private static final int RECIPES = Integer.getInteger("benchmark.recipes", 20000);
+	private static final int PAGE_SIZE = 10;
+	private static final int ITERATIONS = 50;
+
+	private static RecipeDAO recipeDao;
+
+	@BeforeAll
+	static void seed() throws SQLException {
+		DBUtil.RUN_SQL();
+		try (Connection connection = new ConnectionUtil().getConnection()) {
+			connection.setAutoCommit(false);
+			PreparedStatement ps = connection.prepareStatement("INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)");
+			for (int i = 0; i < RECIPES; i++) {
+				ps.setString(1, String.format("recipe %06d", i));
+				ps.setString(2, "Cook batch " + i);
+				ps.setInt(3, i % 4 + 1);
+				ps.addBatch();
+				if (i % 1000 == 999) {
+					ps.executeBatch();
+				}
+			}
+			ps.executeBatch();
+			connection.commit();
+		}
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		recipeDao = new RecipeDAO(new IngredientDAO(connectionUtil), connectionUtil);
+	}
+
+	@Test
+	void deepPageByOffsetVersusCursor() {
+		int pageNumber = RECIPES / PAGE_SIZE / 2;
+
+		PageOptions offsetOptions = new PageOptions(pageNumber, PAGE_SIZE);
+		List<Recipe> offsetItems = recipeDao.getAllRecipes(offsetOptions).getItems();
+
+		// the cursor a client would hold after reading the previous page
+		Recipe previous = recipeDao.getAllRecipes(new PageOptions(pageNumber - 1, PAGE_SIZE)).getItems().get(PAGE_SIZE - 1);
+		PageOptions keysetOptions = new PageOptions(pageNumber, PAGE_SIZE, "id", "asc");
+		keysetOptions.setCursor(new PageCursor("id", false, String.valueOf(previous.getId()), previous.getId()).encode());
+		Page<Recipe> keysetPage = recipeDao.getAllRecipes(keysetOptions);
+		assertEquals(offsetItems, keysetPage.getItems(), "Both strategies should return the same page");
+
+		long offsetNanos = time(() -> recipeDao.getAllRecipes(offsetOptions));
+		long keysetNanos = time(() -> recipeDao.getAllRecipes(keysetOptions));
+
+		System.out.printf("page %d of %d recipes: offset %.3f ms, cursor %.3f ms%n",
+				pageNumber, RECIPES, offsetNanos / 1e6, keysetNanos / 1e6);
+	}
+
+	/**
+	 * @return the median time of ITERATIONS runs, after as many warm-up runs
+	 */
+	private static long time(Runnable task) {
+		for (int i = 0; i < ITERATIONS; i++) {
+			task.run();
+		}
+		long[] samples = new long[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			long start = System.nanoTime();
+			task.run();
+			samples[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(samples);
+		return samples[ITERATIONS / 2];
+	}
+}
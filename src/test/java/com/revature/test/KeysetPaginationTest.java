@@ -0,0 +1,137 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.Page;
+import com.revature.util.PageCursor;
+import com.revature.util.PageOptions;
+
+/**
+ * Checks that following nextCursor from the first page to the last visits every matching row exactly once, in the requested order.
+ */
+class KeysetPaginationTest {
+
+	private RecipeDAO recipeDao;
+	private IngredientDAO ingredientDao;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		DBUtil.RUN_SQL();
+		try (Connection connection = new ConnectionUtil().getConnection()) {
+			PreparedStatement ps = connection.prepareStatement("INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)");
+			for (int i = 0; i < 40; i++) {
+				ps.setString(1, "stew " + (39 - i));
+				ps.setString(2, "Simmer batch " + i);
+				ps.setInt(3, i % 4 + 1);
+				ps.addBatch();
+			}
+			ps.executeBatch();
+		}
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		ingredientDao = new IngredientDAO(connectionUtil);
+		recipeDao = new RecipeDAO(ingredientDao, connectionUtil);
+	}
+
+	@Test
+	void walkingByNameVisitsEveryRecipeOnce() {
+		List<Recipe> expected = recipeDao.getAllRecipes().stream()
+				.sorted(Comparator.comparing(Recipe::getName).thenComparing(Recipe::getId))
+				.collect(Collectors.toList());
+
+		List<Recipe> walked = walk(cursor -> recipeDao.getAllRecipes(options(cursor, "name", "asc", 6)));
+
+		assertEquals(ids(expected), ids(walked));
+	}
+
+	@Test
+	void walkingSearchByIdDescendingVisitsEveryMatchOnce() {
+		List<Recipe> expected = new ArrayList<>(recipeDao.searchRecipesByTerm("stew", new PageOptions(1, 100)).getItems());
+		expected.sort(Comparator.comparing(Recipe::getId).reversed());
+
+		List<Recipe> walked = walk(cursor -> recipeDao.searchRecipesByTerm("stew", options(cursor, null, "desc", 9)));
+
+		assertEquals(40, walked.size());
+		assertEquals(ids(expected), ids(walked));
+	}
+
+	@Test
+	void lastPageHasNoNextCursor() {
+		Page<Ingredient> page = ingredientDao.searchIngredients("to", options("", "name", "asc", 5));
+
+		assertEquals(3, page.getItems().size());
+		assertEquals(3, page.getTotalElements());
+		assertNull(page.getNextCursor());
+	}
+
+	@Test
+	void firstPageMatchesOffsetPage() {
+		Page<Recipe> keyset = recipeDao.getAllRecipes(options("", null, "asc", 10));
+		Page<Recipe> offset = recipeDao.getAllRecipes(new PageOptions(1, 10));
+
+		assertEquals(offset.getItems(), keyset.getItems());
+		assertEquals(offset.getTotalElements(), keyset.getTotalElements());
+		assertNotNull(keyset.getNextCursor());
+	}
+
+	@Test
+	void invalidCursorsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> recipeDao.getAllRecipes(options("not a cursor", "name", "asc", 5)));
+
+		String byId = new PageCursor("id", false, "3", 3).encode();
+		assertThrows(IllegalArgumentException.class, () -> recipeDao.getAllRecipes(options(byId, "name", "asc", 5)),
+				"A cursor issued for another sort order must not be reused");
+
+		assertThrows(IllegalArgumentException.class, () -> recipeDao.getAllRecipes(options("", "instructions; DROP TABLE RECIPE", "asc", 5)));
+	}
+
+	@Test
+	void offsetSortIsLimitedToKnownColumns() {
+		assertThrows(IllegalArgumentException.class,
+				() -> ingredientDao.searchIngredients("to", new PageOptions(1, 2, "id; DROP TABLE INGREDIENT", "asc")));
+	}
+
+	private interface PageFetcher {
+		Page<Recipe> fetch(String cursor);
+	}
+
+	private List<Recipe> walk(PageFetcher fetcher) {
+		List<Recipe> walked = new ArrayList<>();
+		String cursor = "";
+		do {
+			Page<Recipe> page = fetcher.fetch(cursor);
+			walked.addAll(page.getItems());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return walked;
+	}
+
+	private static PageOptions options(String cursor, String sortBy, String sortDirection, int pageSize) {
+		PageOptions options = new PageOptions(1, pageSize, sortBy, sortDirection);
+		options.setCursor(cursor);
+		return options;
+	}
+
+	private static List<Integer> ids(List<Recipe> recipes) {
+		return recipes.stream().map(Recipe::getId).collect(Collectors.toList());
+	}
+}
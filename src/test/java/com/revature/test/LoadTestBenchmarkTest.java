@@ -0,0 +1,90 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.test.utils.LoadGenerator.Request;
+import com.revature.test.utils.LoadGenerator;
+import com.revature.test.utils.TestApp;
+import com.revature.util.AppConfig;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.JavalinAppUtil;
+
+import io.javalin.Javalin;
+
+/**
+ * Replays a mixed workload of recipe, ingredient and login requests against the server built by JavalinAppUtil.getApp(), at a fixed request rate, and reports throughput and latency percentiles measured without coordinated omission (see LoadGenerator).
+ *
+ * Run with `mvn test -Pbenchmark -Dtest=LoadTestBenchmarkTest`. The settings are:
+ * `loadtest.rate` requests per second (default 500), `loadtest.warmupSeconds` (5), `loadtest.durationSeconds` (30), `loadtest.recipes` seeded (10,000),
+ * `loadtest.seed` (42) and `loadtest.mix` (default `recipes:40,recipe:25,search:10,ingredients:10,ingredient:10,login:5`).
+ * The full latency distribution is written to target/loadtest/latency.hgrm.
+ */
+@Tag("benchmark")
+class LoadTestBenchmarkTest {
+
+	private static final String MIX = "recipes:40,recipe:25,search:10,ingredients:10,ingredient:10,login:5";
+	private static final String[] WORDS = { "soup", "stew", "salad", "bake", "roast", "grill", "pie", "bread", "curry", "tart" };
+
+	@Test
+	void mixedWorkloadAtTargetRate() throws Exception {
+		int recipes = AppConfig.getInt("loadtest.recipes", 10_000);
+		int ingredients = Math.max(10, recipes / 10);
+		seed(recipes, ingredients);
+
+		Javalin app = TestApp.create().start(0);
+		try (LoadGenerator generator = new LoadGenerator("http://localhost:" + app.port())) {
+			generator.kind("recipes", random -> Request.get("/recipes?page=" + (1 + random.nextInt(recipes / 10)) + "&pageSize=10"))
+					.kind("recipe", random -> Request.get("/recipes/" + (1 + random.nextInt(recipes))))
+					.kind("search", random -> Request.get("/recipes?term=" + WORDS[random.nextInt(WORDS.length)] + "&page=1&pageSize=10"))
+					.kind("ingredients", random -> Request.get("/ingredients?page=" + (1 + random.nextInt(ingredients / 10)) + "&pageSize=10"))
+					.kind("ingredient", random -> Request.get("/ingredients/" + (1 + random.nextInt(ingredients))))
+					.kind("login", random -> Request.post("/login", "{\"username\":\"JoeCool\",\"password\":\"redbarron\"}"));
+
+			LoadGenerator.Result result = generator.run(AppConfig.get("loadtest.mix", MIX), AppConfig.getInt("loadtest.rate", 500),
+					Duration.ofSeconds(AppConfig.getLong("loadtest.warmupSeconds", 5)), Duration.ofSeconds(AppConfig.getLong("loadtest.durationSeconds", 30)),
+					AppConfig.getLong("loadtest.seed", 42));
+
+			result.printSummary(System.out, "mixed workload, " + recipes + " recipes");
+			result.writeHistogram(Path.of("target", "loadtest", "latency.hgrm"));
+			assertEquals(0, result.getCount("error"), "Requests failed to complete: " + result.getStatuses());
+			assertEquals(result.getLatency().getTotalCount(), result.getCount("200"), "Every request should succeed: " + result.getStatuses());
+		} finally {
+			app.stop();
+		}
+	}
+
+	/**
+	 * Resets the database and adds generated recipes, by the chefs of the SQL script, and ingredients, so that every id from 1 up to each count exists.
+	 */
+	private static void seed(int recipes, int ingredients) {
+		DBUtil.RUN_SQL();
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		IngredientDAO ingredientDao = new IngredientDAO(connectionUtil);
+		RecipeDAO recipeDao = new RecipeDAO(ingredientDao, connectionUtil);
+		List<Recipe> newRecipes = new ArrayList<>();
+		for (int i = 5; i < recipes; i++) {
+			String word = WORDS[i % WORDS.length];
+			newRecipes.add(new Recipe(0, String.format("%s %07d", word, i), "Cook the " + word + " slowly.", new Chef(1 + i % 4, null, null, null, false)));
+		}
+		assertEquals(newRecipes.size(), recipeDao.createRecipes(newRecipes).getCreated());
+		List<Ingredient> newIngredients = new ArrayList<>();
+		for (int i = 6; i < ingredients; i++) {
+			newIngredients.add(new Ingredient(String.format("ingredient %07d", i)));
+		}
+		assertEquals(newIngredients.size(), ingredientDao.createIngredients(newIngredients).getCreated());
+	}
+}
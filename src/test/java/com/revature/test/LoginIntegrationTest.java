@@ -61,7 +61,7 @@ class LoginIntegrationTest {
 		DBUtil.RUN_SQL();
 		chefDAO = new ChefDAO(new ConnectionUtil());
 		ingredientDAO = new IngredientDAO(new ConnectionUtil());
-		recipeDAO = new RecipeDAO(chefDAO, ingredientDAO, new ConnectionUtil());
+		recipeDAO = new RecipeDAO(ingredientDAO, new ConnectionUtil());
 		recipeService = new RecipeService(recipeDAO);
 		ingredientService = new IngredientService(ingredientDAO);
 		chefService = new ChefService(chefDAO);
@@ -0,0 +1,112 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.test.utils.TestApp;
+import com.revature.util.DBUtil;
+import com.revature.util.LatencyHistogram;
+import com.revature.util.Metrics;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.HttpClient;
+import io.javalin.testtools.JavalinTest;
+
+/**
+ * Checks the Prometheus rendering of the Metrics registry, and that /metrics reports every request by route and status, along with the JVM and JDBC metrics.
+ */
+class MetricsEndpointTest {
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+	}
+
+	@AfterEach
+	void tearDown() {
+		System.clearProperty("metrics.enabled");
+	}
+
+	@Test
+	void labelledMetricsAreGroupedUnderTheirBaseName() {
+		LongAdder ok = Metrics.counter(Metrics.name("test_render_total", "result", "ok"), "Rendered things");
+		Metrics.counter(Metrics.name("test_render_total", "result", "say \"no\""), "Rendered things").add(2);
+		ok.add(3);
+		LatencyHistogram histogram = Metrics.histogram(Metrics.name("test_render_seconds", "kind", "a"), "Time to render");
+		histogram.record(TimeUnit.MICROSECONDS.toNanos(40));
+		histogram.record(TimeUnit.SECONDS.toNanos(20));
+
+		String text = Metrics.toPrometheusText();
+		assertEquals(1, occurrences(text, "# TYPE test_render_total counter\n"));
+		assertTrue(text.contains("test_render_total{result=\"ok\"} 3\n"));
+		assertTrue(text.contains("test_render_total{result=\"say \\\"no\\\"\"} 2\n"));
+		assertTrue(text.contains("# TYPE test_render_seconds histogram\n"));
+		assertTrue(text.contains("test_render_seconds_bucket{kind=\"a\",le=\"0.00005\"} 1\n"));
+		assertTrue(text.contains("test_render_seconds_bucket{kind=\"a\",le=\"10\"} 1\n"));
+		assertTrue(text.contains("test_render_seconds_bucket{kind=\"a\",le=\"+Inf\"} 2\n"));
+		assertTrue(text.contains("test_render_seconds_sum{kind=\"a\"} 20.00004\n"));
+		assertTrue(text.contains("test_render_seconds_count{kind=\"a\"} 2\n"));
+	}
+
+	@Test
+	void requestsAreCountedByRouteAndStatus() {
+		JavalinTest.test(TestApp.create(), (server, client) -> {
+			assertEquals(200, client.get("/recipes/1").code());
+			assertEquals(404, client.get("/recipes/100").code());
+			assertEquals(404, client.get("/no/such/path").code());
+			assertEquals(401, client.delete("/recipes/1").code());
+
+			String text = scrape(client, "http_server_requests_total{method=\"DELETE\",route=\"/recipes/*\",status=\"401\"}");
+			assertTrue(text.contains("http_server_requests_total{method=\"GET\",route=\"/recipes/{id}\",status=\"200\"}"));
+			assertTrue(text.contains("http_server_requests_total{method=\"GET\",route=\"/recipes/{id}\",status=\"404\"}"));
+			assertTrue(text.contains("http_server_requests_total{method=\"GET\",route=\"unmatched\",status=\"404\"}"));
+			assertFalse(text.contains("/no/such/path"));
+			assertTrue(text.contains("http_server_request_seconds_bucket{method=\"GET\",route=\"/recipes/{id}\",le=\"+Inf\"}"));
+			assertEquals(1, occurrences(text, "# TYPE http_server_request_seconds histogram\n"));
+			assertTrue(text.contains("jvm_memory_used_bytes{area=\"heap\"} "));
+			assertTrue(text.contains("jvm_gc_collections_total{gc="));
+			assertTrue(text.contains("db_statement_seconds_count{operation=\"query\"} "));
+			assertTrue(text.contains("db_pool_active_connections "));
+		});
+	}
+
+	@Test
+	void metricsCanBeTurnedOff() {
+		System.setProperty("metrics.enabled", "false");
+		JavalinTest.test(TestApp.create(), (server, client) -> assertEquals(404, client.get("/metrics").code()));
+	}
+
+	/**
+	 * Scrapes /metrics until it contains the expected text. Javalin reports a request to its request logger just after writing the response, so the client may read the response first.
+	 */
+	private static String scrape(HttpClient client, String expected) throws Exception {
+		String text = "";
+		for (int attempt = 0; attempt < 50 && !text.contains(expected); attempt++) {
+			if (attempt > 0) {
+				Thread.sleep(20);
+			}
+			var response = client.get("/metrics");
+			assertEquals(200, response.code());
+			assertTrue(response.header("Content-Type").startsWith("text/plain"));
+			text = response.body().string();
+		}
+		assertTrue(text.contains(expected), "Missing " + expected + " in:\n" + text);
+		return text;
+	}
+
+	private static int occurrences(String text, String part) {
+		int count = 0;
+		for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+			count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,146 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Recipe;
+import com.revature.test.utils.StatementCountingConnectionUtil;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+import com.revature.util.PageOptions.CountMode;
+
+/**
+ * Checks each count mode of a paged read: the totals it reports, how it labels them, and how many statements it costs.
+ */
+class PageCountModeTest {
+
+	private StatementCountingConnectionUtil connectionUtil;
+	private RecipeDAO recipeDao;
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+		connectionUtil = new StatementCountingConnectionUtil();
+		recipeDao = new RecipeDAO(new IngredientDAO(connectionUtil), connectionUtil);
+	}
+
+	@AfterEach
+	void tearDown() {
+		System.clearProperty("page.count.estimateLimit");
+	}
+
+	@Test
+	void defaultModeCountsExactlyWithoutLabel() {
+		Page<Recipe> page = recipeDao.searchRecipesByTerm("soup", new PageOptions(1, 2));
+
+		assertEquals(5, page.getTotalElements());
+		assertEquals(3, page.getTotalPages());
+		assertNull(page.getTotalType(), "Plain requests should keep their original response shape");
+		assertEquals(2, connectionUtil.getStatementCount());
+	}
+
+	@Test
+	void exactModeIsLabelled() {
+		Page<Recipe> page = recipeDao.searchRecipesByTerm("soup", options(CountMode.EXACT));
+
+		assertEquals(5, page.getTotalElements());
+		assertEquals(Page.TotalType.EXACT, page.getTotalType());
+	}
+
+	@Test
+	void noneModeSkipsTheCountQuery() {
+		Page<Recipe> page = recipeDao.searchRecipesByTerm("soup", options(CountMode.NONE));
+
+		assertEquals(2, page.getItems().size());
+		assertEquals(-1, page.getTotalElements());
+		assertEquals(-1, page.getTotalPages());
+		assertEquals(Page.TotalType.OMITTED, page.getTotalType());
+		assertEquals(1, connectionUtil.getStatementCount(), "Only the page query should run");
+	}
+
+	@Test
+	void cachedModeReusesRecentCountPerTerm() {
+		Page<Recipe> first = recipeDao.searchRecipesByTerm("soup", options(CountMode.CACHED));
+		assertEquals(Page.TotalType.EXACT, first.getTotalType());
+		connectionUtil.reset();
+
+		Page<Recipe> second = recipeDao.searchRecipesByTerm("soup", options(CountMode.CACHED));
+		assertEquals(5, second.getTotalElements());
+		assertEquals(Page.TotalType.ESTIMATED, second.getTotalType(), "A cached count may be stale, so it is not exact");
+		assertEquals(1, connectionUtil.getStatementCount());
+
+		connectionUtil.reset();
+		Page<Recipe> otherTerm = recipeDao.searchRecipesByTerm("tomato", options(CountMode.CACHED));
+		assertEquals(1, otherTerm.getTotalElements());
+		assertEquals(2, connectionUtil.getStatementCount(), "Counts are cached per term");
+	}
+
+	@Test
+	void estimateModeUsesTableStatisticsOrBoundedCount() {
+		Page<Recipe> all = recipeDao.getAllRecipes(options(CountMode.ESTIMATE));
+		assertEquals(Page.TotalType.ESTIMATED, all.getTotalType());
+		assertTrue(all.getTotalElements() >= 0);
+
+		Page<Recipe> searched = recipeDao.searchRecipesByTerm("soup", options(CountMode.ESTIMATE));
+		assertEquals(5, searched.getTotalElements());
+		assertEquals(Page.TotalType.EXACT, searched.getTotalType(), "Fewer matches than the estimate limit are an exact count");
+	}
+
+	@Test
+	void estimatesThatReachTheLimitAreScaledToTheTable() throws SQLException {
+		try (Connection connection = new ConnectionUtil().getConnection();
+				PreparedStatement ps = connection.prepareStatement("INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, 'Simmer.', 1)")) {
+			for (int i = 0; i < 60; i++) {
+				ps.setString(1, (i % 4 == 0 ? "soup " : "stew ") + i);
+				ps.executeUpdate();
+			}
+		}
+		System.setProperty("page.count.estimateLimit", "3");
+		recipeDao = new RecipeDAO(new IngredientDAO(connectionUtil), connectionUtil);
+
+		Page<Recipe> searched = recipeDao.searchRecipesByTerm("soup", options(CountMode.ESTIMATE));
+
+		assertEquals(20, searched.getTotalElements(), "All 65 rows fit in the sample, so the scaled count is exact");
+		assertEquals(10, searched.getTotalPages());
+		assertEquals(Page.TotalType.ESTIMATED, searched.getTotalType());
+	}
+
+	@Test
+	void limitedCountsWithoutTableStatisticsAreLowerBounds() {
+		System.setProperty("page.count.estimateLimit", "3");
+		recipeDao = new RecipeDAO(new IngredientDAO(connectionUtil), connectionUtil);
+
+		Page<Recipe> searched = recipeDao.searchRecipesFullText("soup", options(CountMode.ESTIMATE));
+
+		assertEquals(3, searched.getTotalElements());
+		assertEquals(-1, searched.getTotalPages());
+		assertEquals(Page.TotalType.AT_LEAST, searched.getTotalType());
+	}
+
+	@Test
+	void unknownModeIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> CountMode.parse("roughly"));
+		assertEquals(CountMode.NONE, CountMode.parse("None"));
+		assertNull(CountMode.parse(null));
+	}
+
+	private static PageOptions options(CountMode countMode) {
+		PageOptions options = new PageOptions(1, 2);
+		options.setCountMode(countMode);
+		return options;
+	}
+}
@@ -1,5 +1,6 @@
 package com.revature.test;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import io.javalin.http.Context;
@@ -10,6 +11,7 @@ import com.revature.controller.RecipeController;
 import com.revature.model.Recipe;
 import com.revature.service.AuthenticationService;
 import com.revature.service.RecipeService;
+import com.revature.util.Page;
 
 import java.util.Collections;
 import java.util.List;
@@ -38,8 +40,9 @@ public class RecipeControllerTest {
     public void testGetRecipesWithNoParams() throws Exception {
         RecipeService recipeService = mock(RecipeService.class);
         AuthenticationService authService = mock(AuthenticationService.class);
-        List<Recipe> allRecipes = Arrays.asList(new Recipe("Apple Pie"), new Recipe("Grilled Cheese"), new Recipe("Steak"));
-        when(recipeService.searchRecipes(null)).thenReturn(allRecipes);
+        List<Recipe> firstPage = Arrays.asList(new Recipe("Apple Pie"), new Recipe("Grilled Cheese"), new Recipe("Steak"));
+        Page<Recipe> page = new Page<>(1, 10, 1, 3, firstPage);
+        when(recipeService.searchRecipes("", 1, 10, "name", "asc")).thenReturn(page);
 
         Context ctx = mock(Context.class);
         when(ctx.queryParam("name")).thenReturn(null);
@@ -49,7 +52,30 @@ public class RecipeControllerTest {
         getRecipesHandler.handle(ctx);
     
         verify(ctx).status(200);  // Set the response status code
-        verify(ctx).json(allRecipes);
+        verify(ctx).json(page);
+        verify(recipeService, never()).searchRecipes(any());
+    }
+
+    @Test
+    public void testPagedRequestNeverRunsUnpagedSearch() throws Exception {
+        RecipeService recipeService = mock(RecipeService.class);
+        AuthenticationService authService = mock(AuthenticationService.class);
+        Page<Recipe> page = new Page<>(2, 5, 3, 12, Collections.singletonList(new Recipe("Tomato Soup")));
+        when(recipeService.searchRecipes("soup", 2, 5, "name", "asc")).thenReturn(page);
+
+        Context ctx = mock(Context.class);
+        when(ctx.queryParam("name")).thenReturn("soup");
+        when(ctx.queryParam("term")).thenReturn("soup");
+        when(ctx.queryParam("page")).thenReturn("2");
+        when(ctx.queryParam("pageSize")).thenReturn("5");
+
+        Handler getRecipes = new RecipeController(recipeService, authService).fetchAllRecipes;
+        getRecipes.handle(ctx);
+
+        verify(ctx).status(200);
+        verify(ctx).json(page);
+        verify(recipeService).searchRecipes("soup", 2, 5, "name", "asc");
+        verify(recipeService, never()).searchRecipes(any());
     }
 
      
@@ -0,0 +1,102 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Recipe;
+import com.revature.test.utils.StatementCountingConnectionUtil;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+
+/**
+ * Regression checks for the number of statements issued per recipe read. Loading a page must cost a fixed number of statements no matter how many recipes or authors it contains.
+ */
+class RecipeDaoStatementCountTest {
+
+	private static final int EXTRA_RECIPES = 100;
+
+	private StatementCountingConnectionUtil connectionUtil;
+	private RecipeDAO recipeDao;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		DBUtil.RUN_SQL();
+		try (Connection connection = new ConnectionUtil().getConnection()) {
+			PreparedStatement ps = connection.prepareStatement("INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)");
+			for (int i = 0; i < EXTRA_RECIPES; i++) {
+				ps.setString(1, "bulk soup " + i);
+				ps.setString(2, "Boil batch " + i);
+				ps.setInt(3, i % 4 + 1);
+				ps.addBatch();
+			}
+			ps.executeBatch();
+		}
+		connectionUtil = new StatementCountingConnectionUtil();
+		recipeDao = new RecipeDAO(new IngredientDAO(connectionUtil), connectionUtil);
+	}
+
+	@Test
+	void pagedListUsesOneConnectionAndTwoStatements() {
+		Page<Recipe> page = recipeDao.getAllRecipes(new PageOptions(1, 100));
+
+		assertEquals(100, page.getItems().size());
+		assertEquals(1, connectionUtil.getConnectionCount(), "A page load should borrow a single connection");
+		assertEquals(2, connectionUtil.getStatementCount(), "A page load should run one page query and one count query");
+		page.getItems().forEach(recipe -> assertNotNull(recipe.getAuthor(), () -> "Author missing for " + recipe));
+	}
+
+	@Test
+	void pagedSearchUsesOneConnectionAndTwoStatements() {
+		Page<Recipe> page = recipeDao.searchRecipesByTerm("soup", new PageOptions(1, 100));
+
+		assertEquals(100, page.getItems().size());
+		assertEquals(1, connectionUtil.getConnectionCount());
+		assertEquals(2, connectionUtil.getStatementCount());
+	}
+
+	@Test
+	void unpagedReadsUseOneStatement() {
+		List<Recipe> all = recipeDao.getAllRecipes();
+		assertEquals(105, all.size());
+		assertEquals(1, connectionUtil.getStatementCount());
+
+		connectionUtil.reset();
+		List<Recipe> found = recipeDao.searchRecipesByTerm("soup");
+		assertEquals(105, found.size());
+		assertEquals(1, connectionUtil.getStatementCount());
+	}
+
+	@Test
+	void ingredientsForAPageLoadInOneStatement() {
+		Page<Recipe> page = recipeDao.getAllRecipes(new PageOptions(1, 100));
+		connectionUtil.reset();
+
+		recipeDao.loadIngredients(page.getItems());
+
+		assertEquals(1, connectionUtil.getStatementCount(), "Ingredients for a page should load with a single query");
+		assertEquals(1, page.getItems().get(0).getIngredients().size());
+		assertEquals(2, page.getItems().get(3).getIngredients().size());
+		assertEquals(0, page.getItems().get(99).getIngredients().size());
+	}
+
+	@Test
+	void singleReadLoadsAuthorInSameStatement() {
+		Recipe recipe = recipeDao.getRecipeById(4);
+
+		assertEquals("ChefTrevin", recipe.getAuthor().getUsername());
+		assertEquals(true, recipe.getAuthor().isAdmin());
+		assertEquals(1, connectionUtil.getStatementCount());
+	}
+}
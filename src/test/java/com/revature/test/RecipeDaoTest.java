@@ -21,7 +21,6 @@ import org.mockito.MockitoAnnotations;
 
 import com.revature.model.Chef;
 import com.revature.model.Recipe;
-import com.revature.dao.ChefDAO;
 import com.revature.dao.IngredientDAO;
 import com.revature.dao.RecipeDAO;
 import com.revature.util.ConnectionUtil;
@@ -42,11 +41,8 @@ class RecipeDaoTest {
     @Mock
     private ResultSet resultSet;
 
-    @Mock
-    private ChefDAO chefDao;
-
     @InjectMocks
-    private RecipeDAO recipeDao = new RecipeDAO(chefDao, null, null);
+    private RecipeDAO recipeDao = new RecipeDAO(null, null);
 
     private List<Recipe> recipeList;
     private List<Chef> chefList;
@@ -81,13 +77,17 @@ class RecipeDaoTest {
         when(resultSet.getString("name")).thenReturn(expectedRecipe.getName());
         when(resultSet.getString("instructions")).thenReturn(expectedRecipe.getInstructions());
         when(resultSet.getInt("chef_id")).thenReturn(expectedRecipe.getAuthor().getId());
-        when(chefDao.getChefById(anyInt())).thenReturn(expectedRecipe.getAuthor());
+        when(resultSet.getString("chef_username")).thenReturn(expectedRecipe.getAuthor().getUsername());
+        when(resultSet.getString("chef_email")).thenReturn(expectedRecipe.getAuthor().getEmail());
+        when(resultSet.getString("chef_password")).thenReturn(expectedRecipe.getAuthor().getPassword());
+        when(resultSet.getBoolean("chef_is_admin")).thenReturn(expectedRecipe.getAuthor().isAdmin());
 
         // Act
         Recipe actualRecipe = recipeDao.getRecipeById(1);
 
         // Assert
         assertEquals(expectedRecipe, actualRecipe);
+        assertEquals(expectedRecipe.getAuthor(), actualRecipe.getAuthor());
 
         verify(preparedStatement).setInt(1, 1);
     }
@@ -95,7 +95,9 @@ class RecipeDaoTest {
     @Test
     void getAllRecipes_Success() throws SQLException {
         // Arrange
-        String expectedSQL = "SELECT * FROM RECIPE ORDER BY id";
+        String expectedSQL = "SELECT r.id, r.name, r.instructions, r.chef_id, "
+                + "c.username AS chef_username, c.email AS chef_email, c.password AS chef_password, c.is_admin AS chef_is_admin "
+                + "FROM RECIPE r LEFT JOIN CHEF c ON r.chef_id = c.id ORDER BY r.id";
         when(connectionUtil.getConnection()).thenReturn(connection); // Mock the connection
         when(connection.createStatement()).thenReturn(preparedStatement); // Mock the statement
         when(preparedStatement.executeQuery(expectedSQL)).thenReturn(resultSet); // Mock the query execution
@@ -111,15 +113,14 @@ class RecipeDaoTest {
                 .thenReturn("Put carrot in water. Boil. Maybe salt.",
                         "Put potato in water. Boil. Maybe salt.");
         when(resultSet.getInt("chef_id")).thenReturn(1, 2);
-
-        when(chefDao.getChefById(1)).thenReturn(chefList.get(0));
-        when(chefDao.getChefById(2)).thenReturn(chefList.get(1));
+        when(resultSet.getString("chef_username")).thenReturn("JoeCool", "CharlieBrown");
 
         // Act
         List<Recipe> actualRecipes = recipeDao.getAllRecipes();
 
         // Assert
         assertEquals(recipeList, actualRecipes);
+        assertEquals("CharlieBrown", actualRecipes.get(1).getAuthor().getUsername());
         verify(connection).createStatement(); // Verify the statement creation
         verify(preparedStatement).executeQuery(expectedSQL); // Verify the query execution
         verify(resultSet, times(3)).next(); // Verify result set navigation
@@ -189,8 +190,6 @@ class RecipeDaoTest {
                 .thenReturn("Put carrot in water. Boil. Maybe salt.",
                         "Put potato in water. Boil. Maybe salt.");
         when(resultSet.getInt("author_id")).thenReturn(1, 2);
-        when(chefDao.getChefById(1)).thenReturn(chefList.get(0));
-        when(chefDao.getChefById(2)).thenReturn(chefList.get(1));
 
         // Act
         List<Recipe> results = recipeDao.searchRecipesByTerm(searchTerm);
@@ -215,8 +214,6 @@ class RecipeDaoTest {
                 .thenReturn("Put carrot in water. Boil. Maybe salt.",
                         "Put potato in water. Boil. Maybe salt.");
         when(resultSet.getInt("chef_id")).thenReturn(1, 2);
-        when(chefDao.getChefById(1)).thenReturn(chefList.get(0));
-        when(chefDao.getChefById(2)).thenReturn(chefList.get(1));
 
         // Act
         Page<Recipe> recipePage = recipeDao.getAllRecipes(pageable);
@@ -0,0 +1,181 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.revature.controller.RecipeController;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.Jdbc;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Recipe;
+import com.revature.service.RecipeService;
+import com.revature.test.utils.StatementCountingConnectionUtil;
+import com.revature.test.utils.TestApp;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+
+/**
+ * Checks that GET /recipes/export streams one line of JSON per recipe, with its author and ingredients inline, whatever the fetch size.
+ */
+class RecipeExportTest {
+
+	private RecipeDAO recipeDao;
+	private RecipeService recipeService;
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		recipeDao = new RecipeDAO(new IngredientDAO(connectionUtil), connectionUtil);
+		recipeService = new RecipeService(recipeDao);
+	}
+
+	@AfterEach
+	void tearDown() {
+		System.clearProperty("export.fetchSize");
+	}
+
+	@Test
+	void exportWritesOneLinePerRecipeWithAuthorAndIngredients() {
+		Javalin app = Javalin.create();
+		new RecipeController(recipeService, null).configureRoutes(app);
+
+		JavalinTest.test(app, (server, client) -> {
+			var response = client.get("/recipes/export");
+
+			assertEquals(200, response.code());
+			assertTrue(response.header("Content-Type").startsWith("application/x-ndjson"));
+			String[] lines = response.body().string().split("\n");
+			assertEquals(5, lines.length);
+			ObjectMapper mapper = new ObjectMapper();
+			for (int i = 0; i < lines.length; i++) {
+				assertEquals(i + 1, mapper.readTree(lines[i]).get("id").asInt());
+			}
+			JsonNode lemonRice = mapper.readTree(lines[3]);
+			assertEquals("lemon rice soup", lemonRice.get("name").asText());
+			assertEquals("ChefTrevin", lemonRice.get("author").get("username").asText());
+			assertTrue(lemonRice.get("author").get("admin").asBoolean());
+			assertFalse(lemonRice.get("author").has("password"));
+			assertEquals(2, lemonRice.get("ingredients").size());
+			assertEquals("Tbs", lemonRice.get("ingredients").get(0).get("unit").asText());
+			assertEquals(0, mapper.readTree(lines[4]).get("ingredients").size());
+		});
+	}
+
+	@Test
+	void smallFetchSizesExportEveryRecipeWithItsOwnIngredients() {
+		List<Recipe> exported = new ArrayList<>();
+		recipeService.exportRecipes(exported::add);
+
+		for (int fetchSize = 1; fetchSize <= 3; fetchSize++) {
+			System.setProperty("export.fetchSize", Integer.toString(fetchSize));
+			List<Recipe> batched = new ArrayList<>();
+			recipeService.exportRecipes(batched::add);
+			assertEquals(exported, batched);
+			for (int i = 0; i < batched.size(); i++) {
+				assertEquals(ingredientIds(exported.get(i)), ingredientIds(batched.get(i)));
+			}
+		}
+		assertEquals(5, exported.size());
+		assertEquals(0, Jdbc.getOpenCursors());
+	}
+
+	@Test
+	void aFailingConsumerStopsTheExportAndReleasesTheCursor() {
+		System.setProperty("export.fetchSize", "2");
+		List<Recipe> exported = new ArrayList<>();
+
+		assertThrows(IllegalStateException.class, () -> recipeService.exportRecipes(recipe -> {
+			if (exported.size() == 3) {
+				throw new IllegalStateException("client went away");
+			}
+			exported.add(recipe);
+		}));
+
+		assertEquals(3, exported.size());
+		assertEquals(0, Jdbc.getOpenCursors());
+		assertEquals(5, recipeDao.getAllRecipes().size());
+	}
+
+	@Test
+	void ingredientsAreLoadedOnTheExportsOwnConnection() {
+		System.setProperty("export.fetchSize", "2");
+		StatementCountingConnectionUtil connectionUtil = new StatementCountingConnectionUtil();
+		RecipeDAO countingDao = new RecipeDAO(new IngredientDAO(connectionUtil), connectionUtil);
+		List<Recipe> exported = new ArrayList<>();
+
+		countingDao.exportRecipes(exported::add);
+
+		assertEquals(5, exported.size());
+		assertEquals(2, exported.get(3).getIngredients().size());
+		assertEquals(1, connectionUtil.getConnectionCount());
+	}
+
+	@Test
+	void exportsBeyondTheLimitAreRefused() throws Exception {
+		CountDownLatch started = new CountDownLatch(2);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<?>> running = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				running.add(executor.submit(() -> recipeService.exportRecipes(recipe -> {
+					if (recipe.getId() == 1) {
+						started.countDown();
+						await(release);
+					}
+				})));
+			}
+			assertTrue(started.await(10, TimeUnit.SECONDS));
+
+			assertThrows(RejectedExecutionException.class, () -> recipeService.exportRecipes(recipe -> { }));
+			JavalinTest.test(TestApp.create(recipeService), (server, client) -> assertEquals(503, client.get("/recipes/export").code()));
+
+			release.countDown();
+			for (Future<?> export : running) {
+				export.get(10, TimeUnit.SECONDS);
+			}
+			List<Recipe> exported = new ArrayList<>();
+			recipeService.exportRecipes(exported::add);
+			assertEquals(5, exported.size());
+		} finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static List<Integer> ingredientIds(Recipe recipe) {
+		List<Integer> ids = new ArrayList<>();
+		recipe.getIngredients().forEach(ingredient -> ids.add(ingredient.getId()));
+		return ids;
+	}
+}
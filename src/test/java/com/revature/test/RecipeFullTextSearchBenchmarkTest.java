@@ -0,0 +1,89 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.PageOptions;
+
+/**
+ * Compares a search for a rare word through the full-text index against the same search with the leading-wildcard LIKE scan. Both read the same ten-row page and count its matches, so the difference is the index rather than the size of the result.
+ *
+ * Run with `mvn test -Pbenchmark`. Seeding 1,000,000 recipes through the index triggers takes several minutes; use `-Dbenchmark.recipes=N` for a quicker run.
+ */
+@Tag("benchmark")
+class RecipeFullTextSearchBenchmarkTest {
+
+	private static final int RECIPES = Integer.getInteger("benchmark.recipes", 1_000_000);
+	private static final int ITERATIONS = 20;
+	private static final String[] WORDS = { "carrot", "potato", "tomato", "lemon", "rice", "stone", "onion", "garlic", "basil", "thyme" };
+
+	private static RecipeDAO recipeDao;
+
+	@BeforeAll
+	static void seed() throws SQLException {
+		DBUtil.RUN_SQL();
+		try (Connection connection = new ConnectionUtil().getConnection();
+				PreparedStatement ps = connection.prepareStatement("INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)")) {
+			connection.setAutoCommit(false);
+			for (int i = 0; i < RECIPES; i++) {
+				// one recipe in every thousand is named after saffron, the word searched for, as the paged LIKE search reads names only
+				String spice = i % 1000 == 0 ? "saffron" : WORDS[(i / 10) % WORDS.length];
+				ps.setString(1, String.format("%s dish %07d", i % 1000 == 0 ? "saffron" : WORDS[i % WORDS.length], i));
+				ps.setString(2, "Cook the " + WORDS[(i / 100) % WORDS.length] + " with " + spice + ". Serve warm.");
+				ps.setInt(3, i % 4 + 1);
+				ps.addBatch();
+				if (i % 1000 == 999) {
+					ps.executeBatch();
+					connection.commit();
+				}
+			}
+			ps.executeBatch();
+			connection.commit();
+		}
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		recipeDao = new RecipeDAO(new IngredientDAO(connectionUtil), connectionUtil);
+	}
+
+	@Test
+	void fullTextVersusLike() {
+		PageOptions options = new PageOptions(1, 10);
+		int expected = (RECIPES + 999) / 1000;
+		assertEquals(expected, recipeDao.searchRecipesFullText("saffron", options).getTotalElements());
+		assertEquals(expected, recipeDao.searchRecipesByTerm("saffron", options).getTotalElements());
+
+		long fullTextNanos = time(() -> recipeDao.searchRecipesFullText("saffron", options));
+		long likeNanos = time(() -> recipeDao.searchRecipesByTerm("saffron", options));
+
+		System.out.printf("search 'saffron' over %d recipes: full-text %.3f ms, LIKE %.3f ms%n",
+				RECIPES, fullTextNanos / 1e6, likeNanos / 1e6);
+	}
+
+	/**
+	 * @return the median time of ITERATIONS runs, after a few warm-up runs
+	 */
+	private static long time(Runnable task) {
+		for (int i = 0; i < 3; i++) {
+			task.run();
+		}
+		long[] samples = new long[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			long start = System.nanoTime();
+			task.run();
+			samples[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(samples);
+		return samples[ITERATIONS / 2];
+	}
+}
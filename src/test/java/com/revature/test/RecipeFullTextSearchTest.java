@@ -0,0 +1,116 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+
+/**
+ * Checks full-text recipe search against the seeded recipes, including that the index follows creates, updates and deletes.
+ */
+class RecipeFullTextSearchTest {
+
+	private RecipeDAO recipeDao;
+	private Chef chef;
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		ChefDAO chefDao = new ChefDAO(connectionUtil);
+		recipeDao = new RecipeDAO(new IngredientDAO(connectionUtil), connectionUtil);
+		chef = chefDao.getChefById(1);
+	}
+
+	@Test
+	void findsWholeWordsInNameAndInstructions() {
+		Page<Recipe> soups = recipeDao.searchRecipesFullText("soup", new PageOptions(1, 10));
+		assertEquals(5, soups.getTotalElements());
+
+		Page<Recipe> boiled = recipeDao.searchRecipesFullText("BOIL", new PageOptions(1, 2));
+		assertEquals(5, boiled.getTotalElements());
+		assertEquals(2, boiled.getItems().size());
+		assertEquals(3, boiled.getTotalPages());
+	}
+
+	@Test
+	void everyWordMustMatch() {
+		Page<Recipe> page = recipeDao.searchRecipesFullText("lemon rice", new PageOptions(1, 10));
+
+		assertEquals(List.of(4), ids(page));
+	}
+
+	@Test
+	void nameMatchesRankAboveInstructionMatches() {
+		recipeDao.createRecipe(new Recipe(0, "garden stew", "Add a carrot and a potato to water.", chef));
+
+		Page<Recipe> page = recipeDao.searchRecipesFullText("carrot", new PageOptions(1, 10));
+
+		assertEquals(2, page.getTotalElements());
+		assertEquals("carrot soup", page.getItems().get(0).getName());
+		assertEquals("garden stew", page.getItems().get(1).getName());
+	}
+
+	@Test
+	void onlyWholeWordsCountTowardsRank() {
+		recipeDao.createRecipe(new Recipe(0, "peanut and pear salad", "Scatter one pea on top.", chef));
+		recipeDao.createRecipe(new Recipe(0, "pea soup", "Boil them.", chef));
+
+		Page<Recipe> page = recipeDao.searchRecipesFullText("pea", new PageOptions(1, 10));
+
+		assertEquals(2, page.getTotalElements());
+		assertEquals("pea soup", page.getItems().get(0).getName());
+		assertEquals("peanut and pear salad", page.getItems().get(1).getName());
+	}
+
+	@Test
+	void indexFollowsCreateUpdateAndDelete() {
+		int id = recipeDao.createRecipe(new Recipe(0, "saffron risotto", "Stir the saffron into the rice.", chef));
+		assertEquals(List.of(id), ids(recipeDao.searchRecipesFullText("saffron", new PageOptions(1, 10))));
+
+		Recipe recipe = recipeDao.getRecipeById(id);
+		recipe.setInstructions("Stir the paprika into the rice.");
+		recipeDao.updateRecipe(recipe);
+		assertEquals(List.of(id), ids(recipeDao.searchRecipesFullText("paprika", new PageOptions(1, 10))));
+		assertEquals(List.of(id), ids(recipeDao.searchRecipesFullText("saffron", new PageOptions(1, 10))),
+				"The name still mentions saffron");
+
+		recipeDao.deleteRecipe(recipe);
+		assertTrue(recipeDao.searchRecipesFullText("paprika", new PageOptions(1, 10)).getItems().isEmpty());
+	}
+
+	@Test
+	void queryWithoutWordsFindsNothing() {
+		Page<Recipe> page = recipeDao.searchRecipesFullText(" -- ", new PageOptions(1, 10));
+
+		assertEquals(0, page.getTotalElements());
+		assertTrue(page.getItems().isEmpty());
+	}
+
+	@Test
+	void cursorsAreRejected() {
+		PageOptions options = new PageOptions(1, 10);
+		options.setCursor("");
+
+		assertThrows(IllegalArgumentException.class, () -> recipeDao.searchRecipesFullText("soup", options));
+	}
+
+	private static List<Integer> ids(Page<Recipe> page) {
+		return page.getItems().stream().map(Recipe::getId).collect(Collectors.toList());
+	}
+}
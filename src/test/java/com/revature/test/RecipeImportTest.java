@@ -0,0 +1,269 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.revature.controller.RecipeImportController;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.dao.RecipeImportDAO;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.service.RecipeImportService;
+import com.revature.util.AuthenticationMiddleware;
+import com.revature.util.BulkResult;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.ImportProgress;
+import com.revature.util.RecipeRecordReader;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+
+/**
+ * Checks that recipe files are imported in batches with their ingredients, that bad records are rejected one by one, and that a failed import resumes from its checkpoint without writing any recipe twice.
+ */
+class RecipeImportTest {
+
+	private static final String NDJSON = String.join("\n",
+			"{\"name\": \"carrot stew\", \"instructions\": \"stew\", \"author\": \"JoeCool\", \"ingredients\": [{\"name\": \"carrot\", \"volume\": 2, \"unit\": \"cups\"}, {\"name\": \"potato\", \"volume\": 1, \"unit\": \"cups\"}]}",
+			"{\"name\": \"rice bowl\", \"instructions\": \"steam\", \"author\": {\"id\": 9, \"username\": \"ChefTrevin\"}, \"ingredients\": [{\"name\": \"rice\", \"volume\": 1.5, \"unit\": \"cups\"}]}",
+			"not json",
+			"{\"name\": \"toast\", \"author\": \"Nobody\"}",
+			"",
+			"{\"name\": \"truffle soup\", \"ingredients\": [{\"name\": \"truffle\", \"volume\": 1, \"unit\": \"g\"}]}",
+			"{\"name\": \"carrot soup\", \"instructions\": \"already exists\"}",
+			"{\"name\": \"lemon water\", \"instructions\": \"squeeze\"}");
+
+	private final Chef admin = new Chef(4, "ChefTrevin", "trevin@revature.com", "trevature", true);
+
+	private RecipeDAO recipeDao;
+	private RecipeImportService importService;
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		recipeDao = new RecipeDAO(new IngredientDAO(connectionUtil), connectionUtil);
+		importService = new RecipeImportService(new RecipeImportDAO(connectionUtil));
+		System.setProperty("import.batchSize", "2");
+		System.setProperty("import.queueCapacity", "1");
+	}
+
+	@AfterEach
+	void tearDown() {
+		System.clearProperty("import.batchSize");
+		System.clearProperty("import.queueCapacity");
+		System.clearProperty("import.maxRecordChars");
+	}
+
+	@Test
+	void ndjsonRecordsAreImportedWithTheirIngredientsAndBadOnesRejected() throws IOException {
+		ImportProgress progress = importService.importRecipes("partner", reader(RecipeRecordReader.NDJSON, NDJSON));
+
+		assertEquals(ImportProgress.Status.COMPLETED, progress.getStatus());
+		assertEquals(7, progress.getPosition());
+		assertEquals(3, progress.getImported());
+		assertEquals(4, progress.getRejected());
+		List<ImportProgress.Rejection> rejections = progress.getRejections();
+		assertEquals(4, rejections.size());
+		assertEquals(2, rejections.get(0).getRecord());
+		assertEquals("The record is not valid JSON", rejections.get(0).getError());
+		assertEquals("Unknown chef: Nobody", rejections.get(1).getError());
+		assertEquals("Unknown ingredient: truffle", rejections.get(2).getError());
+		assertEquals(5, rejections.get(3).getRecord());
+		assertEquals("An item with the same unique value already exists", rejections.get(3).getError());
+
+		Recipe stew = find("carrot stew");
+		assertEquals("JoeCool", stew.getAuthor().getUsername());
+		List<RecipeIngredient> ingredients = stew.getIngredients();
+		assertEquals(2, ingredients.size());
+		assertEquals("carrot", ingredients.get(0).getName());
+		assertEquals(2.0, ingredients.get(0).getVolume());
+		assertEquals("ChefTrevin", find("rice bowl").getAuthor().getUsername());
+		assertEquals(null, find("lemon water").getAuthor());
+		assertEquals(8, recipeDao.getAllRecipes().size());
+	}
+
+	@Test
+	void csvRowsOfTheSameRecipeAreGrouped() throws IOException {
+		String csv = "name,author,instructions,ingredient,volume,unit\r\n"
+				+ "lemon rice,RevaBuddy,\"Cook the rice.\nSqueeze the lemon, then \"\"stir\"\".\",rice,1,cups\r\n"
+				+ "lemon rice,RevaBuddy,,lemon,0.5,whole\r\n"
+				+ "plain stone,,Boil.,,,\r\n"
+				+ "bad volume,,Weigh.,stone,lots,g\r\n"
+				+ "potato mash,JoeCool,Mash.,potato,3,whole\n";
+
+		ImportProgress progress = importService.importRecipes("csv", reader(RecipeRecordReader.CSV, csv));
+
+		assertEquals(ImportProgress.Status.COMPLETED, progress.getStatus());
+		assertEquals(4, progress.getPosition());
+		assertEquals(3, progress.getImported());
+		assertEquals("An ingredient volume is not a number", progress.getRejections().get(0).getError());
+		Recipe lemonRice = find("lemon rice");
+		assertEquals("Cook the rice.\nSqueeze the lemon, then \"stir\".", lemonRice.getInstructions());
+		assertEquals("RevaBuddy", lemonRice.getAuthor().getUsername());
+		assertEquals(2, lemonRice.getIngredients().size());
+		assertEquals("whole", lemonRice.getIngredients().get(1).getUnit());
+		assertEquals(0, find("plain stone").getIngredients().size());
+		assertEquals(1, find("potato mash").getIngredients().size());
+	}
+
+	@Test
+	void aFailedImportResumesFromItsCheckpoint() throws IOException {
+		StringBuilder file = new StringBuilder();
+		for (int i = 0; i < 9; i++) {
+			file.append("{\"name\": \"recipe ").append(i).append("\", \"instructions\": \"boil\", \"ingredients\": [{\"name\": \"stone\", \"volume\": 1, \"unit\": \"whole\"}]}\n");
+		}
+		byte[] bytes = file.toString().getBytes(StandardCharsets.UTF_8);
+		int cutOff = file.indexOf("recipe 5");
+
+		ImportProgress failed = importService.importRecipes("resumable",
+				RecipeRecordReader.open(RecipeRecordReader.NDJSON, new CutOffStream(bytes, cutOff)));
+
+		assertEquals(ImportProgress.Status.FAILED, failed.getStatus());
+		assertEquals(4, failed.getPosition());
+		assertEquals(ImportProgress.Status.FAILED, importService.getProgress("resumable").getStatus());
+		assertEquals(4, importService.getProgress("resumable").getImported());
+
+		ImportProgress resumed = importService.importRecipes("resumable", reader(RecipeRecordReader.NDJSON, file.toString()));
+
+		assertEquals(ImportProgress.Status.COMPLETED, resumed.getStatus());
+		assertEquals(9, resumed.getPosition());
+		assertEquals(9, resumed.getImported());
+		assertEquals(0, resumed.getRejected());
+		assertEquals(14, recipeDao.getAllRecipes().size());
+		for (int i = 0; i < 9; i++) {
+			assertEquals(1, find("recipe " + i).getIngredients().size());
+		}
+
+		ImportProgress again = importService.importRecipes("resumable", reader(RecipeRecordReader.NDJSON, file.toString()));
+		assertEquals(ImportProgress.Status.COMPLETED, again.getStatus());
+		assertEquals(9, again.getImported());
+		assertEquals(14, recipeDao.getAllRecipes().size());
+	}
+
+	@Test
+	void overlongRecordsAreNotBuffered() throws IOException {
+		System.setProperty("import.maxRecordChars", "200");
+		String ndjson = "{\"name\": \"lemon water\", \"instructions\": \"" + "squeeze ".repeat(100) + "\"}\n"
+				+ "{\"name\": \"rice bowl\", \"instructions\": \"steam\"}\r\n";
+
+		ImportProgress lines = importService.importRecipes("long-line", reader(RecipeRecordReader.NDJSON, ndjson));
+
+		assertEquals(ImportProgress.Status.COMPLETED, lines.getStatus());
+		assertEquals(1, lines.getImported());
+		assertEquals("The record is longer than 200 characters", lines.getRejections().get(0).getError());
+		assertEquals("steam", find("rice bowl").getInstructions());
+
+		String csv = "name,instructions\r\nstone soup,\"Boil." + "\r\nstone soup,Boil.".repeat(50) + "\r\n";
+		ImportProgress unclosed = importService.importRecipes("unclosed-quote", reader(RecipeRecordReader.CSV, csv));
+
+		assertEquals(ImportProgress.Status.FAILED, unclosed.getStatus());
+		assertEquals("The file could not be read: A CSV row is longer than 200 characters; a quoted field may not be closed", unclosed.getError());
+	}
+
+	@Test
+	void aFailedWriteReportsItsCause() throws IOException {
+		RecipeImportService failing = new RecipeImportService(new RecipeImportDAO(new ConnectionUtil()) {
+			@Override
+			public BulkResult writeBatch(String importId, List<Recipe> recipes, int rejected, long position) {
+				throw new RuntimeException("Error writing import batch", new SQLException("No space left on device"));
+			}
+		});
+
+		ImportProgress progress = failing.importRecipes("full-disk", reader(RecipeRecordReader.NDJSON, NDJSON));
+
+		assertEquals(ImportProgress.Status.FAILED, progress.getStatus());
+		assertEquals("The records could not be written: No space left on device", progress.getError());
+	}
+
+	@Test
+	void importEndpointsAreForAdminsAndReportProgress() {
+		Javalin app = Javalin.create();
+		app.before(ctx -> {
+			if ("admin".equals(ctx.header("X-Test-Chef"))) {
+				ctx.attribute(AuthenticationMiddleware.CHEF_ATTRIBUTE, admin);
+			}
+		});
+		new RecipeImportController(importService).configureRoutes(app);
+
+		JavalinTest.test(app, (server, client) -> {
+			assertEquals(401, client.post("/recipes/import?id=web", NDJSON).code());
+			assertEquals(415, post(client.getOkHttp(), client.getOrigin() + "/recipes/import?id=web", "application/json", NDJSON).code());
+
+			var response = post(client.getOkHttp(), client.getOrigin() + "/recipes/import?id=web", RecipeRecordReader.NDJSON, NDJSON);
+			assertEquals(200, response.code());
+			JsonNode body = new ObjectMapper().readTree(response.body().string());
+			assertEquals("COMPLETED", body.get("status").asText());
+			assertEquals(3, body.get("imported").asInt());
+			assertEquals(4, body.get("rejections").size());
+
+			var progress = client.getOkHttp().newCall(new Request.Builder().url(client.getOrigin() + "/recipes/import/web")
+					.header("X-Test-Chef", "admin").build()).execute();
+			assertEquals(200, progress.code());
+			assertTrue(progress.body().string().contains("\"position\":7"));
+			assertEquals(404, client.getOkHttp().newCall(new Request.Builder().url(client.getOrigin() + "/recipes/import/missing")
+					.header("X-Test-Chef", "admin").build()).execute().code());
+		});
+	}
+
+	private static okhttp3.Response post(okhttp3.OkHttpClient client, String url, String type, String body) throws IOException {
+		return client.newCall(new Request.Builder().url(url).header("X-Test-Chef", "admin")
+				.post(RequestBody.create(body, MediaType.get(type))).build()).execute();
+	}
+
+	private static RecipeRecordReader reader(String type, String file) {
+		return RecipeRecordReader.open(type, new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private Recipe find(String name) {
+		for (Recipe recipe : recipeDao.getAllRecipes()) {
+			if (recipe.getName().equals(name)) {
+				recipeDao.loadIngredients(List.of(recipe));
+				return recipe;
+			}
+		}
+		throw new AssertionError("No recipe named " + name);
+	}
+
+	/**
+	 * A file whose upload is cut off after the given number of bytes.
+	 */
+	private static class CutOffStream extends InputStream {
+
+		private final InputStream in;
+		private int remaining;
+
+		CutOffStream(byte[] bytes, int length) {
+			this.in = new ByteArrayInputStream(bytes);
+			this.remaining = length;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (remaining-- <= 0) {
+				throw new IOException("connection reset");
+			}
+			return in.read();
+		}
+	}
+}
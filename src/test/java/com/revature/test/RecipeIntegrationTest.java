@@ -82,7 +82,7 @@ class RecipeIntegrationTest {
 		jsonRecipeList = new JavalinJackson().toJsonString(recipeList.toArray(), Recipe[].class);
 
 		chefDao = new ChefDAO(new ConnectionUtil());
-		recipeDao = new RecipeDAO(chefDao, ingredientDao, new ConnectionUtil());
+		recipeDao = new RecipeDAO(ingredientDao, new ConnectionUtil());
 		recipeService = new RecipeService(recipeDao);
 		chefService = new ChefService(chefDao);
 		authService = new AuthenticationService(chefService);
@@ -123,6 +123,63 @@ class RecipeIntegrationTest {
 				response.body().string(), "Single recipe should be returned a json");
 	}
 
+	@Test
+	void testGetRecipeWithIngredients() throws IOException {
+		Request request = new Request.Builder().url(BASE_URL + "/recipes/4?include=ingredients").addHeader("Authorization", token).get()
+				.build();
+		Response response = client.newCall(request).execute();
+		assertEquals(200, response.code());
+		Recipe recipe = new JavalinJackson().fromJsonString(response.body().string(), Recipe.class);
+		assertEquals(2, recipe.getIngredients().size(), "Both ingredients of the recipe should be included");
+		assertEquals("lemon", recipe.getIngredients().get(0).getName());
+		assertEquals("Tbs", recipe.getIngredients().get(0).getUnit());
+		assertEquals("rice", recipe.getIngredients().get(1).getName());
+		assertEquals(2.0, recipe.getIngredients().get(1).getVolume());
+	}
+
+	@Test
+	void testGetRecipesWithoutCount() throws IOException {
+		Request request = new Request.Builder().url(BASE_URL + "/recipes?term=soup&pageSize=2&count=none").addHeader("Authorization", token).get()
+				.build();
+		Response response = client.newCall(request).execute();
+		assertEquals(200, response.code());
+		Page<?> page = new JavalinJackson().fromJsonString(response.body().string(), Page.class);
+		assertEquals(2, page.getItems().size());
+		assertEquals(-1, page.getTotalElements());
+		assertEquals(Page.TotalType.OMITTED, page.getTotalType());
+	}
+
+	@Test
+	void testCountModeDoesNotChangeThePage() throws IOException {
+		Request plain = new Request.Builder().url(BASE_URL + "/recipes?page=2&pageSize=2").addHeader("Authorization", token).get()
+				.build();
+		Request uncounted = new Request.Builder().url(BASE_URL + "/recipes?page=2&pageSize=2&count=none").addHeader("Authorization", token).get()
+				.build();
+		Page<?> plainPage = new JavalinJackson().fromJsonString(client.newCall(plain).execute().body().string(), Page.class);
+		Page<?> uncountedPage = new JavalinJackson().fromJsonString(client.newCall(uncounted).execute().body().string(), Page.class);
+
+		assertEquals(plainPage.getItems(), uncountedPage.getItems());
+	}
+
+	@Test
+	void testFullTextSearchRecipes() throws IOException {
+		Request request = new Request.Builder().url(BASE_URL + "/recipes?q=lemon+rice").addHeader("Authorization", token).get()
+				.build();
+		Response response = client.newCall(request).execute();
+		assertEquals(200, response.code());
+		Page<?> page = new JavalinJackson().fromJsonString(response.body().string(), Page.class);
+		assertEquals(1, page.getTotalElements());
+		assertEquals(1, page.getItems().size());
+	}
+
+	@Test
+	void testGetRecipesWithUnknownCountMode() throws IOException {
+		Request request = new Request.Builder().url(BASE_URL + "/recipes?count=roughly").addHeader("Authorization", token).get()
+				.build();
+		Response response = client.newCall(request).execute();
+		assertEquals(400, response.code());
+	}
+
 	@Test
 	void testGetAllRecipes() throws IOException {
 		Request request = new Request.Builder().url(BASE_URL + "/recipes").addHeader("Authorization", token).get()
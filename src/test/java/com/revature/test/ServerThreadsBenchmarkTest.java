@@ -0,0 +1,175 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.Jdbc;
+import com.revature.test.utils.TestApp;
+import com.revature.util.AppConfig;
+import com.revature.util.DBUtil;
+import com.revature.util.JdbcExecutor;
+import com.revature.util.LatencyHistogram;
+
+import io.javalin.Javalin;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Compares the throughput and p99 latency of the server with its handlers on virtual threads and on a bounded pool of platform threads. Every client holds its own keep-alive connection open for the whole run and sends its requests one after the other, so with platform threads each open connection waits for one of the `server.maxThreads` threads while with virtual threads every connection gets its own.
+ *
+ * Each run also reports the statements that ran on a virtual thread, pinning its carrier while H2 ran them, and the times a virtual thread parked while pinned, as Flight Recorder saw them; both have to be zero, since the services hand their database work to the JdbcExecutor's platform threads. The executor's queue has room for every connection, so that no request is turned away while waiting for it.
+ *
+ * Run with `mvn test -Pbenchmark`. The number of connections defaults to 10,000 and is set with `-Dbenchmark.connections`; each connection takes a file descriptor on both the client and server side, so the open file limit (`ulimit -n`) has to be above twice that.
+ */
+@Tag("benchmark")
+class ServerThreadsBenchmarkTest {
+
+	private static final String[] MODES = { "platform", "virtual" };
+	private static final int REQUESTS_PER_CONNECTION = 5;
+
+	@AfterEach
+	void tearDown() {
+		System.clearProperty("server.threads");
+	}
+
+	@Test
+	void compareThroughputAndTailLatency() throws Exception {
+		int connections = AppConfig.getInt("benchmark.connections", 10_000);
+		for (String mode : MODES) {
+			System.setProperty("server.threads", mode);
+			DBUtil.RUN_SQL();
+			try (JdbcExecutor executor = new JdbcExecutor("benchmark-jdbc", AppConfig.getInt("db.pool.maxSize", 10), connections)) {
+				Javalin app = TestApp.create(executor).start(0);
+				try {
+					run(app.port(), connections, mode);
+				} finally {
+					app.stop();
+				}
+			}
+		}
+	}
+
+	private static void run(int port, int connections, String mode) throws Exception {
+		LatencyHistogram latency = new LatencyHistogram();
+		LongAdder failures = new LongAdder();
+		LongAdder pinnedParks = new LongAdder();
+		long statementsBefore = Jdbc.getVirtualThreadStatements();
+		CountDownLatch connected = new CountDownLatch(connections);
+		CountDownLatch go = new CountDownLatch(1);
+		List<Future<?>> clients = new ArrayList<>(connections);
+		long start;
+		try (RecordingStream recording = new RecordingStream();
+				ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+			recording.onEvent("jdk.VirtualThreadPinned", event -> pinnedParks.increment());
+			recording.startAsync();
+			for (int i = 0; i < connections; i++) {
+				int recipeId = i % 5 + 1;
+				clients.add(executor.submit(() -> {
+					try (Socket socket = new Socket()) {
+						socket.connect(new InetSocketAddress("localhost", port), 60_000);
+						socket.setSoTimeout(120_000);
+						connected.countDown();
+						go.await();
+						OutputStream out = socket.getOutputStream();
+						InputStream in = new BufferedInputStream(socket.getInputStream());
+						byte[] request = ("GET /recipes/" + recipeId + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+						for (int r = 0; r < REQUESTS_PER_CONNECTION; r++) {
+							long sent = System.nanoTime();
+							out.write(request);
+							out.flush();
+							if (readResponse(in) == 200) {
+								latency.recordSince(sent);
+							} else {
+								failures.increment();
+							}
+						}
+					} catch (IOException e) {
+						failures.increment();
+						connected.countDown();
+					}
+					return null;
+				}));
+			}
+			connected.await();
+			start = System.nanoTime();
+			go.countDown();
+			for (Future<?> client : clients) {
+				client.get();
+			}
+			recording.stop();
+		}
+		long pinnedStatements = Jdbc.getVirtualThreadStatements() - statementsBefore;
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%s threads, %,d connections: %,.0f requests/s, p50 %.1f ms, p99 %.1f ms, %,d failed, %,d statements on virtual threads, %,d pinned parks%n",
+				mode, connections, latency.getCount() / seconds, latency.getPercentileNanos(50) / 1e6, latency.getPercentileNanos(99) / 1e6,
+				failures.sum(), pinnedStatements, pinnedParks.sum());
+		assertEquals(0, failures.sum());
+		assertEquals(0, pinnedStatements, "Statements pinned the carriers of virtual threads");
+		assertEquals(0, pinnedParks.sum(), "Virtual threads parked while pinned");
+	}
+
+	/**
+	 * Reads one response off a keep-alive connection, sized by either its Content-Length or its chunks.
+	 *
+	 * @return the status code of the response
+	 */
+	private static int readResponse(InputStream in) throws IOException {
+		String statusLine = readLine(in);
+		int status = Integer.parseInt(statusLine.split(" ")[1]);
+		long length = 0;
+		boolean chunked = false;
+		String header;
+		while (!(header = readLine(in)).isEmpty()) {
+			String lower = header.toLowerCase();
+			if (lower.startsWith("content-length:")) {
+				length = Long.parseLong(lower.substring(15).trim());
+			} else if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+				chunked = true;
+			}
+		}
+		if (!chunked) {
+			in.skipNBytes(length);
+			return status;
+		}
+		long chunk;
+		while ((chunk = Long.parseLong(readLine(in).trim(), 16)) > 0) {
+			in.skipNBytes(chunk);
+			readLine(in);
+		}
+		readLine(in);
+		return status;
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int c;
+		while ((c = in.read()) != '\n') {
+			if (c < 0) {
+				throw new IOException("The connection was closed");
+			}
+			if (c != '\r') {
+				line.append((char) c);
+			}
+		}
+		return line.toString();
+	}
+}
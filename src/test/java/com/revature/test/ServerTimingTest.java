@@ -0,0 +1,102 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.test.utils.TestApp;
+import com.revature.util.DBUtil;
+import com.revature.util.RequestTiming.Phase;
+import com.revature.util.RequestTiming;
+
+import io.javalin.testtools.JavalinTest;
+import okhttp3.Response;
+
+/**
+ * Checks that the time of a request is charged to the innermost phase open, and that requests asking for it, and only those, get it split in a Server-Timing header.
+ */
+class ServerTimingTest {
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestTiming.attach(null);
+		System.clearProperty("server.timing.enabled");
+	}
+
+	@Test
+	void timeIsChargedToTheInnermostPhase() throws InterruptedException {
+		RequestTiming timing = new RequestTiming();
+		RequestTiming.attach(timing);
+		try (RequestTiming.Span service = RequestTiming.enter(Phase.SERVICE)) {
+			try (RequestTiming.Span db = RequestTiming.enter(Phase.DB)) {
+				Thread.sleep(20);
+			}
+		}
+		timing.finish();
+		assertTrue(timing.getNanos(Phase.DB) >= 20_000_000L);
+		assertTrue(timing.getNanos(Phase.SERVICE) < timing.getNanos(Phase.DB));
+		assertEquals(0, timing.getNanos(Phase.JSON));
+	}
+
+	@Test
+	void spansDoNothingWhenNotTimed() {
+		RequestTiming.attach(null);
+		assertSame(RequestTiming.enter(Phase.SERVICE), RequestTiming.enter(Phase.DB));
+	}
+
+	@Test
+	void responsesAreSplitByPhaseWhenAskedFor() {
+		JavalinTest.test(TestApp.create(), (server, client) -> {
+			Response timed = client.get("/recipes?term=a", request -> request.header(RequestTiming.REQUEST_HEADER, "true"));
+			assertEquals(200, timed.code());
+			Map<String, Double> durations = parse(timed.header(RequestTiming.RESPONSE_HEADER));
+			assertEquals("[controller, service, db, mapping, json, total]", durations.keySet().toString());
+			assertTrue(durations.get("db") > 0, durations.toString());
+			assertTrue(durations.get("mapping") > 0, durations.toString());
+			assertTrue(durations.get("json") > 0, durations.toString());
+			double phases = durations.get("controller") + durations.get("service") + durations.get("db") + durations.get("mapping") + durations.get("json");
+			assertEquals(durations.get("total"), phases, 0.01);
+
+			assertNull(client.get("/recipes?term=a").header(RequestTiming.RESPONSE_HEADER));
+		});
+	}
+
+	@Test
+	void timingCanBeTurnedOff() {
+		System.setProperty("server.timing.enabled", "false");
+		JavalinTest.test(TestApp.create(), (server, client) -> {
+			Response response = client.get("/recipes/1", request -> request.header(RequestTiming.REQUEST_HEADER, "true"));
+			assertEquals(200, response.code());
+			assertNull(response.header(RequestTiming.RESPONSE_HEADER));
+		});
+	}
+
+	/**
+	 * @return the duration of each metric in a Server-Timing header, in the order given
+	 */
+	private static Map<String, Double> parse(String header) {
+		Map<String, Double> durations = new LinkedHashMap<>();
+		for (String metric : header.split(",\\s*")) {
+			String[] params = metric.split(";");
+			for (String param : params) {
+				if (param.startsWith("dur=")) {
+					durations.put(params[0], Double.parseDouble(param.substring(4)));
+				}
+			}
+		}
+		return durations;
+	}
+}
@@ -0,0 +1,159 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.SessionDAO;
+import com.revature.model.Chef;
+import com.revature.service.AuthenticationService;
+import com.revature.service.ChefService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.InMemorySessionStore;
+import com.revature.util.SessionStore;
+
+/**
+ * Runs the same checks against the in-memory and the database-backed session stores.
+ */
+class SessionStoreTest {
+
+	private static final Chef JOE = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
+	private static final Chef CHARLIE = new Chef(2, "CharlieBrown", "goodgrief@peanuts.com", "thegreatpumpkin", false);
+
+	private final List<SessionStore> opened = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+	}
+
+	@AfterEach
+	void tearDown() {
+		opened.forEach(SessionStore::close);
+	}
+
+	@Test
+	void sessionLastsUntilRemoved() {
+		for (SessionStore store : stores(60000, 60000, 5)) {
+			store.create("a", JOE);
+
+			assertEquals(JOE, store.get("a"));
+			store.remove("a");
+			assertNull(store.get("a"));
+			assertEquals(0, store.size());
+		}
+	}
+
+	@Test
+	void unusedSessionExpiresAfterIdleTtl() throws InterruptedException {
+		for (SessionStore store : stores(300, 60000, 5)) {
+			store.create("a", JOE);
+			Thread.sleep(200);
+			assertNotNull(store.get("a"), "Using the session should keep it alive");
+			Thread.sleep(200);
+			assertNotNull(store.get("a"));
+
+			Thread.sleep(400);
+			assertNull(store.get("a"));
+		}
+	}
+
+	@Test
+	void sessionExpiresAfterAbsoluteTtlEvenWhenUsed() throws InterruptedException {
+		for (SessionStore store : stores(60000, 150, 5)) {
+			store.create("a", JOE);
+			Thread.sleep(100);
+			assertNotNull(store.get("a"));
+
+			Thread.sleep(100);
+			assertNull(store.get("a"));
+		}
+	}
+
+	@Test
+	void loginBeyondTheLimitEndsTheOldestSession() throws InterruptedException {
+		for (SessionStore store : stores(60000, 60000, 2)) {
+			store.create("first", JOE);
+			Thread.sleep(5);
+			store.create("second", JOE);
+			Thread.sleep(5);
+			store.create("third", JOE);
+			store.create("other", CHARLIE);
+
+			assertNull(store.get("first"));
+			assertEquals(JOE, store.get("second"));
+			assertEquals(JOE, store.get("third"));
+			assertEquals(CHARLIE, store.get("other"));
+			assertEquals(3, store.size());
+		}
+	}
+
+	@Test
+	void sweepRemovesExpiredSessions() throws InterruptedException {
+		for (SessionStore store : stores(50, 60000, 5)) {
+			store.create("a", JOE);
+			store.create("b", JOE);
+			store.create("c", CHARLIE);
+			Thread.sleep(100);
+
+			assertEquals(3, store.sweep());
+			assertEquals(0, store.size());
+		}
+	}
+
+	@Test
+	void concurrentLoginsKeepEveryChefUnderTheLimit() throws Exception {
+		InMemorySessionStore store = new InMemorySessionStore(60000, 60000, 3, 0);
+		List<Chef> chefs = new ArrayList<>();
+		for (int i = 1; i <= 20; i++) {
+			chefs.add(new Chef(i, "chef" + i, "chef" + i + "@null.com", "secret", false));
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < 2000; i++) {
+					store.create(UUID.randomUUID().toString(), chefs.get(i % chefs.size()));
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		assertEquals(chefs.size() * 3, store.size());
+	}
+
+	@Test
+	void servicesCreatedWithoutAStoreShareSessions() {
+		ChefService chefService = new ChefService(new ChefDAO(new ConnectionUtil()));
+		AuthenticationService first = new AuthenticationService(chefService);
+		String token = first.login(new Chef(0, "JoeCool", null, "redbarron", false));
+
+		AuthenticationService second = new AuthenticationService(chefService);
+
+		assertEquals("JoeCool", second.getChefFromSessionToken(token).getUsername());
+	}
+
+	private List<SessionStore> stores(long idleTtlMs, long absoluteTtlMs, int maxSessionsPerChef) {
+		List<SessionStore> stores = List.of(
+				new InMemorySessionStore(idleTtlMs, absoluteTtlMs, maxSessionsPerChef, 0),
+				new SessionDAO(new ConnectionUtil(), idleTtlMs, absoluteTtlMs, maxSessionsPerChef, 0));
+		opened.addAll(stores);
+		return stores;
+	}
+}
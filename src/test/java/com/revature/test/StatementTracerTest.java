@@ -0,0 +1,125 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.Jdbc;
+import com.revature.test.utils.TestApp;
+import com.revature.util.AppConfig;
+import com.revature.util.DBUtil;
+import com.revature.util.RequestStatements;
+import com.revature.util.StatementTracer;
+
+import io.javalin.testtools.JavalinTest;
+import okhttp3.Response;
+
+/**
+ * Checks that traced connections report the shape, binds, time and rows of each statement to the request that ran it, that the slow-query log keeps to its rate, and that requests asking for it get their statement count in the response.
+ */
+class StatementTracerTest {
+
+	private final List<String> slowLog = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestStatements.attach(null);
+		System.clearProperty("server.asyncHandlers");
+	}
+
+	@Test
+	void sqlIsReducedToItsShape() {
+		assertEquals("SELECT * FROM RECIPE WHERE id IN (?...) AND name = ? LIMIT ?",
+				StatementTracer.shape("SELECT *\n  FROM RECIPE WHERE id IN (?, ?,?) AND name = 'it''s' LIMIT 10"));
+		assertEquals("SELECT r2.id FROM RECIPE r2 WHERE r2.id > ?", StatementTracer.shape("SELECT r2.id FROM RECIPE r2 WHERE r2.id > -1"));
+	}
+
+	@Test
+	void statementsAreCountedTowardsTheAttachedRequest() throws SQLException {
+		StatementTracer tracer = new StatementTracer(60_000, 10, slowLog::add);
+		RequestStatements statements = new RequestStatements();
+		RequestStatements.attach(statements);
+		try (Connection connection = tracer.wrap(openConnection())) {
+			assertSame(connection, connection.unwrap(Connection.class));
+			int chefs = Jdbc.query(connection, "SELECT id FROM CHEF WHERE id IN (?, ?, ?)", ps -> {
+				ps.setInt(1, 1);
+				ps.setInt(2, 2);
+				ps.setInt(3, 3);
+			}, rs -> {
+				int count = 0;
+				while (rs.next()) {
+					count++;
+				}
+				return count;
+			});
+			assertEquals(3, chefs);
+			assertEquals(1, Jdbc.update(connection, "UPDATE CHEF SET email = ? WHERE id = ?", ps -> {
+				ps.setString(1, "joe@cool.com");
+				ps.setInt(2, 1);
+			}));
+		}
+		assertEquals(2, statements.getCount());
+		assertEquals(4, statements.getRows());
+		assertTrue(statements.getNanos() > 0);
+		assertTrue(slowLog.isEmpty());
+	}
+
+	@Test
+	void slowQueryLogIsRateLimited() throws SQLException {
+		StatementTracer tracer = new StatementTracer(0, 2, slowLog::add);
+		try (Connection connection = tracer.wrap(openConnection())) {
+			for (int i = 0; i < 5; i++) {
+				Jdbc.query(connection, "SELECT name FROM RECIPE WHERE id = ?", ps -> ps.setInt(1, 1), rs -> rs.next());
+			}
+		}
+		assertTrue(slowLog.size() >= 2 && slowLog.size() < 5, "Expected the log to be cut short: " + slowLog);
+		assertTrue(slowLog.get(0).startsWith("Slow statement: "), slowLog.get(0));
+		assertTrue(slowLog.get(0).endsWith("1 rows, 1 binds: SELECT name FROM RECIPE WHERE id = ?"), slowLog.get(0));
+	}
+
+	@Test
+	void responsesCarryTheStatementCountWhenAskedFor() {
+		JavalinTest.test(TestApp.create(), (server, client) -> {
+			Response traced = client.get("/recipes/1", request -> request.header(RequestStatements.REQUEST_HEADER, "true"));
+			assertEquals(200, traced.code());
+			assertTrue(Integer.parseInt(traced.header(RequestStatements.COUNT_HEADER)) > 0);
+			assertTrue(Long.parseLong(traced.header(RequestStatements.ROWS_HEADER)) > 0);
+			assertTrue(Double.parseDouble(traced.header(RequestStatements.TIME_HEADER)) > 0);
+
+			assertNull(client.get("/recipes/1").header(RequestStatements.COUNT_HEADER));
+		});
+	}
+
+	@Test
+	void statementsRunOnTheJdbcExecutorAreCounted() {
+		System.setProperty("server.asyncHandlers", "true");
+		JavalinTest.test(TestApp.create(), (server, client) -> {
+			Response traced = client.get("/recipes/1", request -> request.header(RequestStatements.REQUEST_HEADER, "true"));
+			assertEquals(200, traced.code());
+			assertTrue(Integer.parseInt(traced.header(RequestStatements.COUNT_HEADER)) > 0);
+		});
+	}
+
+	/**
+	 * @return a connection of its own, as the pooled ones are traced already by the default tracer
+	 */
+	private static Connection openConnection() throws SQLException {
+		return DriverManager.getConnection(AppConfig.get("db.url", "jdbc:h2:./h2/db;"), AppConfig.get("db.username", "sa"), AppConfig.get("db.password", ""));
+	}
+}
@@ -0,0 +1,79 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.TtlCache;
+
+class TtlCacheTest {
+
+	@Test
+	void countsHitsAndMisses() {
+		TtlCache<String, Integer> cache = new TtlCache<>(60000, 10);
+
+		assertNull(cache.get("a"));
+		cache.put("a", 1);
+		assertEquals(1, cache.get("a"));
+		assertEquals(1, cache.get("a"));
+
+		assertEquals(2, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	void entriesExpireAfterTtl() throws InterruptedException {
+		TtlCache<String, Integer> cache = new TtlCache<>(20, 10);
+		cache.put("a", 1);
+
+		Thread.sleep(40);
+
+		assertNull(cache.get("a"));
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void fullCacheEvictsOldestEntries() throws InterruptedException {
+		TtlCache<Integer, Integer> cache = new TtlCache<>(60000, 20);
+		for (int i = 0; i < 20; i++) {
+			cache.put(i, i);
+			Thread.sleep(1);
+		}
+
+		cache.put(20, 20);
+
+		assertTrue(cache.size() <= 20);
+		assertEquals(2, cache.getEvictionCount(), "A tenth of the entries should make room");
+		assertNull(cache.get(0));
+		assertNull(cache.get(1));
+		assertEquals(2, cache.get(2));
+		assertEquals(20, cache.get(20));
+	}
+
+	@Test
+	void invalidateDropsEntry() {
+		TtlCache<String, Integer> cache = new TtlCache<>(60000, 10);
+		cache.put("a", 1);
+
+		cache.invalidate("a");
+
+		assertNull(cache.get("a"));
+	}
+
+	@Test
+	void valuesReadBeforeAnInvalidationAreNotStored() {
+		TtlCache<String, Integer> cache = new TtlCache<>(60000, 10);
+		long before = cache.generation("a");
+
+		cache.invalidate("a");
+
+		assertFalse(cache.putIfUnchanged("a", 1, before));
+		assertNull(cache.get("a"));
+		assertTrue(cache.putIfUnchanged("a", 2, cache.generation("a")));
+		assertEquals(2, cache.get("a"));
+	}
+}
@@ -0,0 +1,145 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.jetty.server.Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.Jdbc;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Ingredient;
+import com.revature.service.ChefService;
+import com.revature.service.IngredientService;
+import com.revature.service.RecipeService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.JavalinAppUtil;
+import com.revature.util.PageOptions;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Checks that the server handles requests on platform threads unless virtual threads are configured, and that service calls made from many virtual threads at once, more than the pool has connections for, run their statements on platform threads and never park a virtual thread while it is pinned.
+ *
+ * H2 pins a thread for as long as it runs a statement, but does not park it meanwhile, so a statement run on a virtual thread records no pinning event; the Jdbc class counts those statements instead.
+ */
+class VirtualThreadsTest {
+
+	private static final int TASKS = 400;
+
+	private ChefService chefService;
+	private IngredientService ingredientService;
+	private RecipeService recipeService;
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		IngredientDAO ingredientDao = new IngredientDAO(connectionUtil);
+		chefService = new ChefService(new ChefDAO(connectionUtil));
+		ingredientService = new IngredientService(ingredientDao);
+		recipeService = new RecipeService(new RecipeDAO(ingredientDao, connectionUtil));
+	}
+
+	@AfterEach
+	void tearDown() {
+		System.clearProperty("server.threads");
+	}
+
+	@Test
+	void handlersRunOnPlatformThreadsUnlessVirtualThreadsAreConfigured() {
+		assertEquals("false", threadOfHandler());
+
+		System.setProperty("server.threads", "virtual");
+		assertEquals("true", threadOfHandler());
+	}
+
+	@Test
+	void serviceCallsOnVirtualThreadsRunTheirStatementsOnPlatformThreads() throws Exception {
+		long statementsBefore = Jdbc.getVirtualThreadStatements();
+		List<String> pinned = new ArrayList<>();
+		try (RecordingStream recording = new RecordingStream()) {
+			recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+			recording.onEvent("jdk.VirtualThreadPinned", event -> {
+				String frames = applicationFrames(event);
+				if (!frames.isEmpty()) {
+					synchronized (pinned) {
+						pinned.add(frames);
+					}
+				}
+			});
+			recording.startAsync();
+
+			List<Future<?>> results = new ArrayList<>();
+			try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				for (int i = 0; i < TASKS; i++) {
+					int task = i;
+					results.add(executor.submit(() -> {
+						switch (task % 4) {
+							case 0:
+								return recipeService.findRecipe(1 + task % 5);
+							case 1:
+								return recipeService.searchRecipes(null, new PageOptions(1, 2, "id", "asc"));
+							case 2:
+								ingredientService.saveIngredient(new Ingredient(0, "ingredient " + task));
+								return null;
+							default:
+								return chefService.findChef(1 + task % 4);
+						}
+					}));
+				}
+			}
+			for (Future<?> result : results) {
+				result.get();
+			}
+			recording.stop();
+		}
+
+		assertEquals(TASKS / 4 + 6, ingredientService.searchIngredients(null).size());
+		assertEquals(statementsBefore, Jdbc.getVirtualThreadStatements(), "Statements ran on virtual threads");
+		assertTrue(pinned.isEmpty(), "Virtual threads parked while pinned in:\n" + String.join("\n\n", pinned));
+	}
+
+	/**
+	 * @return whether a request was handled on a virtual thread, by a server using the configured threads
+	 */
+	private static String threadOfHandler() {
+		Javalin app = Javalin.create(config -> config.jetty.server(() -> new Server(JavalinAppUtil.createThreadPool())));
+		app.get("/thread", ctx -> ctx.result(Boolean.toString(Thread.currentThread().isVirtual())));
+		String[] body = new String[1];
+		JavalinTest.test(app, (server, client) -> body[0] = client.get("/thread").body().string());
+		return body[0];
+	}
+
+	/**
+	 * @return the frames of the pinned thread's stack that belong to this application, or nothing if none do
+	 */
+	private static String applicationFrames(RecordedEvent event) {
+		StringBuilder frames = new StringBuilder();
+		if (event.getStackTrace() != null) {
+			for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+				String type = frame.getMethod().getType().getName();
+				if (type.startsWith("com.revature.") && !type.startsWith("com.revature.test.")) {
+					frames.append("  at ").append(type).append('.').append(frame.getMethod().getName()).append('\n');
+				}
+			}
+		}
+		return frames.toString();
+	}
+}
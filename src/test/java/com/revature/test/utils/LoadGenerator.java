@@ -0,0 +1,254 @@
+package com.revature.test.utils;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * An open-loop HTTP load generator. Requests are sent on a fixed schedule at the target rate, whether or not earlier requests have been answered, and each latency is measured from the time the request was scheduled to go out rather than the time it actually did.
+ *
+ * A closed-loop client that waits for each answer before sending the next one slows down exactly when the server does, so it never sends the requests that would have waited behind a stall, and the stall barely shows in its percentiles (coordinated omission). Measuring from the schedule counts that waiting against the server. The time from the actual send is kept as well, as the service time, so the two can be compared.
+ *
+ * The workload is a weighted mix of named request kinds, such as `recipes:60,recipe:30,login:10`.
+ */
+public class LoadGenerator implements AutoCloseable {
+
+    /** Latencies are tracked from 1 microsecond up to this many nanoseconds with 3 significant digits. */
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final String baseUrl;
+    private final Map<String, Function<Random, HttpRequest.Builder>> kinds = new LinkedHashMap<>();
+    private final HttpClient client;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param baseUrl the scheme, host and port requests are sent to, such as http://localhost:8080
+     */
+    public LoadGenerator(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).connectTimeout(Duration.ofSeconds(10)).build();
+    }
+
+    /**
+     * Names a kind of request the workload mix can refer to.
+     *
+     * @param name the name used in the mix
+     * @param request builds one request, given the generator's seeded Random, from a path relative to the base URL
+     * @return this generator
+     */
+    public LoadGenerator kind(String name, Function<Random, Request> request) {
+        kinds.put(name, random -> request.apply(random).toBuilder(baseUrl));
+        return this;
+    }
+
+    /**
+     * Sends requests at the given rate for a warm-up period, whose results are discarded, and then for the measured period.
+     *
+     * @param mix the weighted mix of request kinds, such as `recipes:60,recipe:30,login:10`
+     * @param requestsPerSecond the target rate
+     * @param warmup how long to send requests before measuring
+     * @param duration how long to measure for
+     * @param seed the seed of the request choices
+     * @return the measurements of the measured period
+     */
+    public Result run(String mix, int requestsPerSecond, Duration warmup, Duration duration, long seed) throws InterruptedException {
+        List<Function<Random, HttpRequest.Builder>> schedule = parseMix(mix);
+        Random random = new Random(seed);
+        if (!warmup.isZero()) {
+            send(schedule, random, requestsPerSecond, warmup);
+        }
+        return send(schedule, random, requestsPerSecond, duration);
+    }
+
+    private Result send(List<Function<Random, HttpRequest.Builder>> schedule, Random random, int requestsPerSecond, Duration duration)
+            throws InterruptedException {
+        Result result = new Result(requestsPerSecond);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        long count = duration.toNanos() / intervalNanos;
+        List<CompletableFuture<?>> pending = new ArrayList<>((int) Math.min(count, Integer.MAX_VALUE));
+        long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            long intended = start + i * intervalNanos;
+            HttpRequest request = schedule.get(random.nextInt(schedule.size())).apply(random).timeout(Duration.ofSeconds(30)).build();
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long sent = System.nanoTime();
+            pending.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long done = System.nanoTime();
+                result.latency.recordValue(Math.min(done - intended, MAX_LATENCY_NANOS));
+                result.serviceTime.recordValue(Math.min(done - sent, MAX_LATENCY_NANOS));
+                result.statuses.computeIfAbsent(error != null ? "error" : String.valueOf(response.statusCode()), k -> new LongAdder()).increment();
+                result.lastDone.accumulate(done);
+            }));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+        result.elapsedNanos = result.lastDone.get() - start;
+        return result;
+    }
+
+    private List<Function<Random, HttpRequest.Builder>> parseMix(String mix) {
+        List<Function<Random, HttpRequest.Builder>> schedule = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            Function<Random, HttpRequest.Builder> kind = kinds.get(nameAndWeight[0]);
+            if (kind == null) {
+                throw new IllegalArgumentException("Unknown request kind in mix: " + nameAndWeight[0] + ", expected one of " + kinds.keySet());
+            }
+            int weight = nameAndWeight.length > 1 ? Integer.parseInt(nameAndWeight[1]) : 1;
+            for (int i = 0; i < weight; i++) {
+                schedule.add(kind);
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * One request of the workload: a method, a path relative to the base URL, and an optional JSON body.
+     */
+    public static class Request {
+
+        private final String method;
+        private final String path;
+        private final String body;
+
+        private Request(String method, String path, String body) {
+            this.method = method;
+            this.path = path;
+            this.body = body;
+        }
+
+        public static Request get(String path) {
+            return new Request("GET", path, null);
+        }
+
+        public static Request post(String path, String json) {
+            return new Request("POST", path, json);
+        }
+
+        private HttpRequest.Builder toBuilder(String baseUrl) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+            if (body == null) {
+                return builder.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            return builder.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(body));
+        }
+    }
+
+    /**
+     * The measurements of one run: latency from the scheduled send time, service time from the actual send time, and the count of each response status.
+     */
+    public static class Result {
+
+        private final int targetRate;
+        private final Histogram latency = new ConcurrentHistogram(1_000, MAX_LATENCY_NANOS, 3);
+        private final Histogram serviceTime = new ConcurrentHistogram(1_000, MAX_LATENCY_NANOS, 3);
+        private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAccumulator lastDone = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        private long elapsedNanos;
+
+        private Result(int targetRate) {
+            this.targetRate = targetRate;
+        }
+
+        /**
+         * @return the latencies from the scheduled send time, in nanoseconds, free of coordinated omission
+         */
+        public Histogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * @return the latencies from the actual send time, in nanoseconds
+         */
+        public Histogram getServiceTime() {
+            return serviceTime;
+        }
+
+        /**
+         * @return the number of responses per status code, with transport failures counted as "error"
+         */
+        public Map<String, Long> getStatuses() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.sum()));
+            return counts;
+        }
+
+        /**
+         * @param status a status code, or "error" for transport failures
+         * @return the number of responses with that status
+         */
+        public long getCount(String status) {
+            LongAdder count = statuses.get(status);
+            return count != null ? count.sum() : 0;
+        }
+
+        /**
+         * @return the completed requests per second, from the first scheduled send to the last answer
+         */
+        public double getThroughput() {
+            return latency.getTotalCount() / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * Prints the throughput, the latency percentiles and the status counts in one line.
+         *
+         * @param out where to print
+         * @param label what was measured
+         */
+        public void printSummary(PrintStream out, String label) {
+            out.printf("%s: target %,d req/s, achieved %,.0f req/s, latency p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, p999 %.2f ms, max %.2f ms"
+                    + " (service time p99 %.2f ms), statuses %s%n",
+                    label, targetRate, getThroughput(), millis(latency, 50), millis(latency, 95), millis(latency, 99), millis(latency, 99.9),
+                    latency.getMaxValue() / 1e6, millis(serviceTime, 99), getStatuses());
+        }
+
+        /**
+         * Writes the full latency distribution, in milliseconds, in HdrHistogram's percentile format, which the HdrHistogram plotter reads.
+         *
+         * @param file the .hgrm file to write
+         */
+        public void writeHistogram(Path file) throws IOException {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                latency.outputPercentileDistribution(out, 1e6);
+            }
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+
+    /**
+     * Stops the client's threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
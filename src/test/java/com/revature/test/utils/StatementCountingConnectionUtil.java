@@ -0,0 +1,59 @@
+package com.revature.test.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.revature.util.ConnectionUtil;
+
+/**
+ * A ConnectionUtil that counts how many connections are borrowed and how many statements are created on them, so tests can assert how much database work an operation performs.
+ *
+ * The counting connections do not reveal the physical connection they wrap, so statements that the DAOs would otherwise cache per physical connection are prepared through them, and counted, on every borrow.
+ */
+public class StatementCountingConnectionUtil extends ConnectionUtil {
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger statements = new AtomicInteger();
+
+    @Override
+    public Connection getConnection() {
+        Connection connection = super.getConnection();
+        connections.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("prepareStatement") || name.equals("createStatement") || name.equals("prepareCall")) {
+                        statements.incrementAndGet();
+                    }
+                    switch (name) {
+                        case "isWrapperFor":
+                            return false;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    public int getStatementCount() {
+        return statements.get();
+    }
+
+    public void reset() {
+        connections.set(0);
+        statements.set(0);
+    }
+}
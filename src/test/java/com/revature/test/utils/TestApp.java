@@ -0,0 +1,59 @@
+package com.revature.test.utils;
+
+import com.revature.controller.AuthenticationController;
+import com.revature.controller.IngredientController;
+import com.revature.controller.RecipeController;
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.service.AuthenticationService;
+import com.revature.service.ChefService;
+import com.revature.service.IngredientService;
+import com.revature.service.RecipeService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.JavalinAppUtil;
+import com.revature.util.JdbcExecutor;
+
+import io.javalin.Javalin;
+
+/**
+ * Wires the whole application the way Main does, with every controller, service and DAO, for tests that exercise it over HTTP. The app is returned unstarted, to be passed to JavalinTest or started on a port of the test's choosing.
+ */
+public final class TestApp {
+
+    private TestApp() {
+    }
+
+    /**
+     * @return the application, with services running their database work on the default JdbcExecutor
+     */
+    public static Javalin create() {
+        return create(JdbcExecutor.getDefault());
+    }
+
+    /**
+     * @param executor the executor the services run their database work on
+     * @return the application
+     */
+    public static Javalin create(JdbcExecutor executor) {
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        IngredientDAO ingredientDao = new IngredientDAO(connectionUtil);
+        return create(new RecipeService(new RecipeDAO(ingredientDao, connectionUtil), executor),
+                new ChefService(new ChefDAO(connectionUtil), executor), new IngredientService(ingredientDao, executor));
+    }
+
+    /**
+     * @param recipeService the recipe service the test holds on to, such as one whose DAO it has configured
+     * @return the application, with the other services created as usual
+     */
+    public static Javalin create(RecipeService recipeService) {
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        return create(recipeService, new ChefService(new ChefDAO(connectionUtil)), new IngredientService(new IngredientDAO(connectionUtil)));
+    }
+
+    private static Javalin create(RecipeService recipeService, ChefService chefService, IngredientService ingredientService) {
+        AuthenticationService authService = new AuthenticationService(chefService);
+        return new JavalinAppUtil(new RecipeController(recipeService, authService), new AuthenticationController(chefService, authService),
+                new IngredientController(ingredientService)).getApp();
+    }
+}